@@ -0,0 +1,180 @@
+package com.firas.saas.app.security;
+
+import com.firas.saas.app.entity.App;
+import com.firas.saas.app.entity.AppAccessToken;
+import com.firas.saas.app.entity.AppInstallation;
+import com.firas.saas.app.entity.AppScope;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of @RequiresScope enforcement through a Spring AOP proxy: the previous aspect
+ * (annotation reflection and Set lookups on every call) against ScopeEnforcementAspect
+ * (cached requirement mask and a single AND). Both proxies wrap the same handler, so the
+ * difference is the check itself.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="ScopeEnforcement"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScopeEnforcementBenchmark {
+
+    private Handler legacy;
+    private Handler bitmask;
+    private ScopeEnforcementAspect aspect;
+    private Method readOrders;
+    private AppPrincipal principal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        // No Spring Boot logging config here; keep logback's DEBUG default from formatting log.debug calls
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.INFO);
+
+        legacy = proxy(new LegacyScopeEnforcementAspect());
+        aspect = new ScopeEnforcementAspect();
+        bitmask = proxy(aspect);
+        readOrders = Handler.class.getMethod("readOrders");
+
+        App app = App.builder().name("Order Sync").clientId("app_sync").build();
+        app.setId(1L);
+        AppInstallation installation = AppInstallation.builder().app(app).build();
+        installation.setId(1L);
+        AppAccessToken token = AppAccessToken.builder()
+                .tokenValue("benchmark")
+                .installation(installation)
+                .scopes(Set.of(AppScope.READ_ORDERS, AppScope.READ_PRODUCTS, AppScope.READ_CUSTOMERS))
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build();
+        token.setTenantId(1L);
+        principal = new AppPrincipal(token);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public int legacyAnyScope() {
+        return legacy.readOrders();
+    }
+
+    @Benchmark
+    public int bitmaskAnyScope() {
+        return bitmask.readOrders();
+    }
+
+    @Benchmark
+    public int legacyAllScopes() {
+        return legacy.syncCatalog();
+    }
+
+    @Benchmark
+    public int bitmaskAllScopes() {
+        return bitmask.syncCatalog();
+    }
+
+    /**
+     * The authorization step alone, without the proxy and the security context lookup.
+     */
+    @Benchmark
+    public boolean legacyCheckOnly() {
+        RequiresScope requiresScope = readOrders.getAnnotation(RequiresScope.class);
+        for (AppScope scope : requiresScope.value()) {
+            if (principal.getScopes().contains(scope)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean bitmaskCheckOnly() {
+        return aspect.requirementFor(readOrders).isSatisfiedBy(principal);
+    }
+
+    private static Handler proxy(Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Handler());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    /**
+     * Stand-in for an app API controller.
+     */
+    public static class Handler {
+
+        @RequiresScope(AppScope.READ_ORDERS)
+        public int readOrders() {
+            return 1;
+        }
+
+        @RequiresScope(value = {AppScope.READ_PRODUCTS, AppScope.READ_CUSTOMERS}, requireAll = true)
+        public int syncCatalog() {
+            return 2;
+        }
+    }
+
+    /**
+     * The aspect as it was before scope masks: reflection and Set-based checks on every call.
+     */
+    @Aspect
+    public static class LegacyScopeEnforcementAspect {
+
+        @Around("@annotation(com.firas.saas.app.security.RequiresScope)")
+        public Object enforceScope(ProceedingJoinPoint joinPoint) throws Throwable {
+            AppPrincipal principal = (AppPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            RequiresScope requiresScope = method.getAnnotation(RequiresScope.class);
+
+            boolean hasAccess = true;
+            if (requiresScope.requireAll()) {
+                for (AppScope scope : requiresScope.value()) {
+                    hasAccess &= principal.getScopes().contains(scope);
+                }
+            } else {
+                hasAccess = false;
+                for (AppScope scope : requiresScope.value()) {
+                    hasAccess |= principal.getScopes().contains(scope);
+                }
+            }
+            if (!hasAccess) {
+                throw new AccessDeniedException("Missing required scope(s)");
+            }
+            return joinPoint.proceed();
+        }
+    }
+}
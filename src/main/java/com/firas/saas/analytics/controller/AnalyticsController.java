@@ -3,7 +3,9 @@ package com.firas.saas.analytics.controller;
 import com.firas.saas.analytics.dto.CustomerAnalytics;
 import com.firas.saas.analytics.dto.DashboardStats;
 import com.firas.saas.analytics.dto.SalesReport;
+import com.firas.saas.analytics.service.AnalyticsRollupService;
 import com.firas.saas.analytics.service.AnalyticsService;
+import com.firas.saas.analytics.service.LeaderboardService;
 import com.firas.saas.security.service.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -13,6 +15,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/analytics")
@@ -21,6 +24,8 @@ import java.time.LocalDate;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final LeaderboardService leaderboardService;
 
     /**
      * Get dashboard overview stats (default: last 30 days)
@@ -69,7 +74,45 @@ public class AnalyticsController {
     public ResponseEntity<CustomerAnalytics> getCustomerAnalyticsForRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean exact,
             @AuthenticationPrincipal UserPrincipal principal) {
-        return ResponseEntity.ok(analyticsService.getCustomerAnalytics(principal.getTenantId(), startDate, endDate));
+        return ResponseEntity.ok(analyticsService.getCustomerAnalytics(principal.getTenantId(), startDate, endDate, exact));
+    }
+
+    /**
+     * Get best-selling products by units (all time); exact=true recounts all orders
+     */
+    @GetMapping("/products/top")
+    public ResponseEntity<List<DashboardStats.TopProduct>> getTopProducts(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "false") boolean exact,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(analyticsService.getTopProducts(principal.getTenantId(), Math.min(Math.max(limit, 1), 100), exact));
+    }
+
+    /**
+     * Recompute the daily rollups for a date range from the orders table (backfill/repair)
+     */
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('MERCHANT')")
+    public ResponseEntity<Void> rebuildRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        analyticsRollupService.rebuild(principal.getTenantId(), startDate, endDate);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Reseed the top customer/product leaderboards with exact counts from all orders
+     */
+    @PostMapping("/leaderboards/rebuild")
+    @PreAuthorize("hasRole('MERCHANT')")
+    public ResponseEntity<Void> rebuildLeaderboards(@AuthenticationPrincipal UserPrincipal principal) {
+        leaderboardService.rebuild(principal.getTenantId());
+        return ResponseEntity.noContent().build();
     }
 }
@@ -17,8 +17,9 @@ public class CustomerAnalytics {
     // Overview
     private Long totalCustomers;
     private Long newCustomersThisPeriod;
-    private Long returningCustomers;
-    private Double retentionRate;
+    private Long uniqueBuyers;       // distinct emails that ordered in the period (estimate unless exact)
+    private Long returningCustomers; // buyers of the period who had ordered before it
+    private Double retentionRate;    // returning / unique buyers, in percent
 
     // Customer Value
     private BigDecimal averageCustomerValue;
@@ -49,8 +50,9 @@ public class CustomerAnalytics {
     @AllArgsConstructor
     public static class CustomerGrowth {
         private String period;
-        private Long newCustomers;
-        private Long totalCustomers;
+        private Long newCustomers;   // first-time buyers
+        private Long totalCustomers; // cumulative first-time buyers
+        private Long uniqueBuyers;
     }
 }
 
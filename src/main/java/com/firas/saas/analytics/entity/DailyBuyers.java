@@ -0,0 +1,44 @@
+package com.firas.saas.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * HyperLogLog sketch of the distinct customer emails that placed an order on a day
+ * (see HyperLogLog for the encoding). Unions of these rows answer "unique buyers" for
+ * any date range.
+ */
+@Entity
+@Table(name = "analytics_daily_buyers", indexes = {
+        @Index(name = "idx_analytics_buyers_tenant_date", columnList = "tenant_id, rollup_date")
+})
+@IdClass(DailyBuyers.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyBuyers {
+
+    @Id
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Id
+    @Column(name = "rollup_date")
+    private LocalDate rollupDate;
+
+    @Column(nullable = false, length = 4099) // dense form at precision 12
+    private byte[] sketch;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long tenantId;
+        private LocalDate rollupDate;
+    }
+}
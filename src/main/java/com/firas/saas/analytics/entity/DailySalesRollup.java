@@ -0,0 +1,50 @@
+package com.firas.saas.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per-tenant, per-day order totals, maintained incrementally from order events.
+ * Keyed by its natural key (tenant, day) so events can upsert it with a single statement.
+ */
+@Entity
+@Table(name = "analytics_daily_sales", indexes = {
+        @Index(name = "idx_analytics_sales_tenant_date", columnList = "tenant_id, rollup_date")
+})
+@IdClass(DailySalesRollup.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailySalesRollup {
+
+    @Id
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Id
+    @Column(name = "rollup_date")
+    private LocalDate rollupDate; // day the orders were placed
+
+    @Column(nullable = false)
+    private long orderCount; // all orders, including cancelled
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue; // orders that are not cancelled
+
+    @Column(nullable = false)
+    private long newCustomers; // first order ever for the customer email
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long tenantId;
+        private LocalDate rollupDate;
+    }
+}
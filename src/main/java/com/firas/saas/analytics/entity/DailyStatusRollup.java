@@ -0,0 +1,48 @@
+package com.firas.saas.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Per-tenant, per-day order count by current status. Orders stay on the day they were placed;
+ * a status change moves one order from the previous status to the new one.
+ */
+@Entity
+@Table(name = "analytics_daily_status", indexes = {
+        @Index(name = "idx_analytics_status_tenant_date", columnList = "tenant_id, rollup_date")
+})
+@IdClass(DailyStatusRollup.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyStatusRollup {
+
+    @Id
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Id
+    @Column(name = "rollup_date")
+    private LocalDate rollupDate;
+
+    @Id
+    @Column(length = 32)
+    private String status;
+
+    @Column(nullable = false)
+    private long orderCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long tenantId;
+        private LocalDate rollupDate;
+        private String status;
+    }
+}
@@ -0,0 +1,53 @@
+package com.firas.saas.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Persisted Space-Saving summary of one leaderboard of a tenant (see LeaderboardService).
+ * Counters are stored as a JSON array of {key, count, error}.
+ */
+@Entity
+@Table(name = "analytics_leaderboards")
+@IdClass(Leaderboard.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Leaderboard {
+
+    @Id
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private Board board;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String counters;
+
+    @Column(nullable = false)
+    private long totalWeight; // everything ever added, the error bound is totalWeight / capacity
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum Board {
+        CUSTOMERS_BY_SPEND, // key: customer email, weight: spend in cents
+        PRODUCTS_BY_UNITS   // key: product id, weight: units sold
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long tenantId;
+        private Board board;
+    }
+}
@@ -0,0 +1,28 @@
+package com.firas.saas.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain events already applied to the rollups (events are delivered at least once).
+ */
+@Entity
+@Table(name = "analytics_processed_events", indexes = {
+    @Index(name = "idx_analytics_processed_at", columnList = "processed_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessedAnalyticsEvent {
+
+    @Id
+    @Column(name = "event_id", length = 64)
+    private String eventId;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+}
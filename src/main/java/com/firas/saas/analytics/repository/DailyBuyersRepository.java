@@ -0,0 +1,13 @@
+package com.firas.saas.analytics.repository;
+
+import com.firas.saas.analytics.entity.DailyBuyers;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyBuyersRepository extends JpaRepository<DailyBuyers, DailyBuyers.Key> {
+    List<DailyBuyers> findAllByTenantIdAndRollupDateBetween(Long tenantId, LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,22 @@
+package com.firas.saas.analytics.repository;
+
+import com.firas.saas.analytics.entity.DailySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, DailySalesRollup.Key> {
+    List<DailySalesRollup> findAllByTenantIdAndRollupDateBetweenOrderByRollupDate(Long tenantId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * First-time buyers before a day, i.e. the customer count the growth chart starts from.
+     */
+    @Query("SELECT COALESCE(SUM(r.newCustomers), 0) FROM DailySalesRollup r " +
+           "WHERE r.tenantId = :tenantId AND r.rollupDate < :date")
+    long sumNewCustomersBefore(@Param("tenantId") Long tenantId, @Param("date") LocalDate date);
+}
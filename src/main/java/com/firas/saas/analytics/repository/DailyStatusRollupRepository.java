@@ -0,0 +1,13 @@
+package com.firas.saas.analytics.repository;
+
+import com.firas.saas.analytics.entity.DailyStatusRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyStatusRollupRepository extends JpaRepository<DailyStatusRollup, DailyStatusRollup.Key> {
+    List<DailyStatusRollup> findAllByTenantIdAndRollupDateBetween(Long tenantId, LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,24 @@
+package com.firas.saas.analytics.repository;
+
+import com.firas.saas.analytics.entity.Leaderboard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LeaderboardRepository extends JpaRepository<Leaderboard, Leaderboard.Key> {
+
+    Optional<Leaderboard> findByTenantIdAndBoard(Long tenantId, Leaderboard.Board board);
+
+    /**
+     * Lock a leaderboard row so concurrent flushes from several nodes merge one after another.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Leaderboard l WHERE l.tenantId = :tenantId AND l.board = :board")
+    Optional<Leaderboard> findForUpdate(@Param("tenantId") Long tenantId, @Param("board") Leaderboard.Board board);
+}
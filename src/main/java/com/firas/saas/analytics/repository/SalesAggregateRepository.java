@@ -0,0 +1,144 @@
+package com.firas.saas.analytics.repository;
+
+import com.firas.saas.order.entity.Order;
+import com.firas.saas.order.entity.OrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-only GROUP BY queries behind the sales and customer reports.
+ *
+ * Every method returns one small projection row per group (SKU, customer, ...), so the
+ * database does the aggregation and no Order or OrderItem entity is loaded.
+ */
+@Repository
+public interface SalesAggregateRepository extends org.springframework.data.repository.Repository<Order, Long> {
+
+    /**
+     * Units and revenue per SKU (with its product and category) for orders placed in
+     * [from, to) that are not in the excluded status. Products, categories and totals are
+     * all derived from this one result.
+     */
+    @Query("SELECT oi.productId AS productId, MAX(oi.productName) AS productName, oi.sku AS sku, " +
+           "c.id AS categoryId, c.name AS categoryName, " +
+           "SUM(oi.quantity) AS quantity, SUM(oi.price * oi.quantity) AS revenue " +
+           "FROM OrderItem oi JOIN oi.order o " +
+           "LEFT JOIN Product p ON p.id = oi.productId AND p.tenantId = o.tenantId " +
+           "LEFT JOIN p.category c " +
+           "WHERE o.tenantId = :tenantId AND o.createdAt >= :from AND o.createdAt < :to " +
+           "AND o.status <> :excluded " +
+           "GROUP BY oi.productId, oi.sku, c.id, c.name")
+    List<SkuSales> sumItemsBySku(@Param("tenantId") Long tenantId,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to,
+                                 @Param("excluded") OrderStatus excluded);
+
+    /**
+     * Highest-spending customers (spend excludes the given status; customers with no
+     * such order are left out). Order count includes every order.
+     */
+    @Query("SELECT o.customerEmail AS email, COUNT(o) AS orders, " +
+           "SUM(CASE WHEN o.status <> :excluded THEN o.totalPrice ELSE NULL END) AS spent, " +
+           "MAX(o.createdAt) AS lastOrderAt " +
+           "FROM Order o WHERE o.tenantId = :tenantId " +
+           "GROUP BY o.customerEmail " +
+           "HAVING SUM(CASE WHEN o.status <> :excluded THEN o.totalPrice ELSE NULL END) IS NOT NULL " +
+           "ORDER BY SUM(CASE WHEN o.status <> :excluded THEN o.totalPrice ELSE NULL END) DESC, o.customerEmail")
+    List<CustomerSpend> findTopSpenders(@Param("tenantId") Long tenantId,
+                                        @Param("excluded") OrderStatus excluded,
+                                        Pageable pageable);
+
+    /**
+     * Same figures as findTopSpenders for a given set of customers (leaderboard candidates).
+     */
+    @Query("SELECT o.customerEmail AS email, COUNT(o) AS orders, " +
+           "SUM(CASE WHEN o.status <> :excluded THEN o.totalPrice ELSE NULL END) AS spent, " +
+           "MAX(o.createdAt) AS lastOrderAt " +
+           "FROM Order o WHERE o.tenantId = :tenantId AND o.customerEmail IN :emails " +
+           "GROUP BY o.customerEmail")
+    List<CustomerSpend> findSpendByEmails(@Param("tenantId") Long tenantId,
+                                          @Param("excluded") OrderStatus excluded,
+                                          @Param("emails") Collection<String> emails);
+
+    /**
+     * Best-selling products by units over all time, excluding the given order status.
+     */
+    @Query("SELECT oi.productId AS productId, MAX(oi.productName) AS productName, " +
+           "SUM(oi.quantity) AS units, SUM(oi.price * oi.quantity) AS revenue " +
+           "FROM OrderItem oi JOIN oi.order o " +
+           "WHERE o.tenantId = :tenantId AND o.status <> :excluded " +
+           "GROUP BY oi.productId " +
+           "ORDER BY SUM(oi.quantity) DESC, oi.productId")
+    List<ProductUnits> findTopProductsByUnits(@Param("tenantId") Long tenantId,
+                                              @Param("excluded") OrderStatus excluded,
+                                              Pageable pageable);
+
+    /**
+     * Same figures as findTopProductsByUnits for a given set of products (leaderboard candidates).
+     */
+    @Query("SELECT oi.productId AS productId, MAX(oi.productName) AS productName, " +
+           "SUM(oi.quantity) AS units, SUM(oi.price * oi.quantity) AS revenue " +
+           "FROM OrderItem oi JOIN oi.order o " +
+           "WHERE o.tenantId = :tenantId AND o.status <> :excluded AND oi.productId IN :productIds " +
+           "GROUP BY oi.productId")
+    List<ProductUnits> findUnitsByProductIds(@Param("tenantId") Long tenantId,
+                                             @Param("excluded") OrderStatus excluded,
+                                             @Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT SUM(oi.quantity) FROM OrderItem oi JOIN oi.order o " +
+           "WHERE o.tenantId = :tenantId AND o.status <> :excluded")
+    Long sumUnits(@Param("tenantId") Long tenantId, @Param("excluded") OrderStatus excluded);
+
+    /**
+     * Distinct buyers and their total spend, excluding the given status.
+     */
+    @Query("SELECT COUNT(DISTINCT o.customerEmail) AS buyers, SUM(o.totalPrice) AS revenue " +
+           "FROM Order o WHERE o.tenantId = :tenantId AND o.status <> :excluded")
+    BuyerTotals sumBuyers(@Param("tenantId") Long tenantId, @Param("excluded") OrderStatus excluded);
+
+    /**
+     * Exact distinct customer emails with an order placed in [from, to) (audit mode of the
+     * unique-buyer sketches).
+     */
+    @Query("SELECT COUNT(DISTINCT o.customerEmail) FROM Order o " +
+           "WHERE o.tenantId = :tenantId AND o.createdAt >= :from AND o.createdAt < :to")
+    long countDistinctBuyers(@Param("tenantId") Long tenantId,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to);
+
+    interface SkuSales {
+        Long getProductId();
+        String getProductName();
+        String getSku();
+        Long getCategoryId(); // null when the product has no category (or was deleted)
+        String getCategoryName();
+        Long getQuantity();
+        BigDecimal getRevenue();
+    }
+
+    interface CustomerSpend {
+        String getEmail();
+        Long getOrders();
+        BigDecimal getSpent();
+        LocalDateTime getLastOrderAt();
+    }
+
+    interface ProductUnits {
+        Long getProductId();
+        String getProductName();
+        Long getUnits();
+        BigDecimal getRevenue();
+    }
+
+    interface BuyerTotals {
+        Long getBuyers();
+        BigDecimal getRevenue(); // null when there are no buyers
+    }
+}
@@ -0,0 +1,31 @@
+package com.firas.saas.analytics.service;
+
+import com.firas.saas.common.event.DomainEvent;
+import com.firas.saas.webhook.entity.Webhook;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds order events into the daily analytics rollups.
+ *
+ * Runs on the OutboxRelay thread next to WebhookEventListener. Failures propagate so the
+ * relay retries the event; the rollups apply each event id once and the webhook listener skips
+ * deliveries it already recorded, so the retry only redoes what failed.
+ */
+@Component
+@RequiredArgsConstructor
+public class AnalyticsEventListener {
+
+    private final AnalyticsRollupService rollupService;
+
+    @EventListener
+    public void handleDomainEvent(DomainEvent event) {
+        if (event.getEventType() != Webhook.WebhookEvent.ORDER_CREATED
+                && event.getEventType() != Webhook.WebhookEvent.ORDER_UPDATED) {
+            return;
+        }
+
+        rollupService.apply(event);
+    }
+}
@@ -0,0 +1,251 @@
+package com.firas.saas.analytics.service;
+
+import com.firas.saas.analytics.entity.Leaderboard;
+import com.firas.saas.analytics.sketch.HyperLogLog;
+import com.firas.saas.common.event.DomainEvent;
+import com.firas.saas.order.entity.Order;
+import com.firas.saas.order.entity.OrderItem;
+import com.firas.saas.order.entity.OrderStatus;
+import com.firas.saas.order.repository.OrderRepository;
+import com.firas.saas.webhook.entity.Webhook;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the daily analytics rollups (analytics_daily_sales, analytics_daily_status).
+ *
+ * Each order event becomes a handful of INSERT ... ON DUPLICATE KEY UPDATE deltas, applied in
+ * one transaction together with the event id, so a redelivered event is skipped. Orders are
+ * bucketed by the day they were placed, like the reports always did. New orders also add
+ * their customer to the day's unique-buyer HyperLogLog, and the same events feed the
+ * leaderboards (LeaderboardService) after commit.
+ */
+@Service
+@Slf4j
+public class AnalyticsRollupService {
+
+    private static final String MARK_PROCESSED_SQL =
+            "INSERT IGNORE INTO analytics_processed_events (event_id, processed_at) VALUES (?, ?)";
+
+    private static final String UPSERT_SALES_SQL =
+            "INSERT INTO analytics_daily_sales (tenant_id, rollup_date, order_count, revenue, new_customers) " +
+            "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "order_count = order_count + VALUES(order_count), " +
+            "revenue = revenue + VALUES(revenue), " +
+            "new_customers = new_customers + VALUES(new_customers)";
+
+    private static final String UPSERT_STATUS_SQL =
+            "INSERT INTO analytics_daily_status (tenant_id, rollup_date, status, order_count) " +
+            "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count)";
+
+    private static final String INSERT_BUYERS_SQL =
+            "INSERT IGNORE INTO analytics_daily_buyers (tenant_id, rollup_date, sketch) VALUES (?, ?, ?)";
+
+    private static final byte[] EMPTY_SKETCH = new HyperLogLog().toBytes();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderRepository orderRepository;
+    private final LeaderboardService leaderboardService;
+    private final long processedRetentionDays;
+    private final long buyersRetentionDays;
+
+    public AnalyticsRollupService(JdbcTemplate jdbcTemplate,
+                                  OrderRepository orderRepository,
+                                  LeaderboardService leaderboardService,
+                                  @Value("${app.analytics.rollup.processed-retention-days:7}") long processedRetentionDays,
+                                  @Value("${app.analytics.rollup.buyers-retention-days:730}") long buyersRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderRepository = orderRepository;
+        this.leaderboardService = leaderboardService;
+        this.processedRetentionDays = processedRetentionDays;
+        this.buyersRetentionDays = buyersRetentionDays;
+    }
+
+    /**
+     * Apply an ORDER_CREATED / ORDER_UPDATED event to the rollups, exactly once per event id.
+     */
+    @Transactional
+    public void apply(DomainEvent event) {
+        if (jdbcTemplate.update(MARK_PROCESSED_SQL, event.getEventId(), Timestamp.valueOf(LocalDateTime.now())) == 0) {
+            log.debug("Analytics already applied event {}", event.getEventId());
+            return;
+        }
+
+        Map<String, Object> data = event.getData();
+        Long tenantId = event.getTenantId();
+        Order order = orderRepository.findByIdAndTenantId(toLong(data.get("id")), tenantId).orElse(null);
+        if (order == null) {
+            log.warn("Order {} from event {} not found, skipping rollup", data.get("id"), event.getEventId());
+            return;
+        }
+        LocalDate day = order.getCreatedAt().toLocalDate();
+
+        if (event.getEventType() == Webhook.WebhookEvent.ORDER_CREATED) {
+            OrderStatus status = OrderStatus.valueOf(String.valueOf(data.get("status")));
+            boolean firstOrder = !orderRepository.existsEarlierOrder(
+                    tenantId, order.getCustomerEmail(), order.getCreatedAt(), order.getId());
+
+            upsertSales(tenantId, day, 1,
+                    status == OrderStatus.CANCELLED ? BigDecimal.ZERO : order.getTotalPrice(),
+                    firstOrder ? 1 : 0);
+            upsertStatus(tenantId, day, status, 1);
+            addBuyer(tenantId, day, order.getCustomerEmail());
+            if (status != OrderStatus.CANCELLED) {
+                recordLeaderboards(order, 1);
+            }
+        } else if (event.getEventType() == Webhook.WebhookEvent.ORDER_UPDATED) {
+            OrderStatus previous = OrderStatus.valueOf(String.valueOf(data.get("previousStatus")));
+            OrderStatus current = OrderStatus.valueOf(String.valueOf(data.get("status")));
+            if (previous == current) {
+                return;
+            }
+
+            upsertStatus(tenantId, day, previous, -1);
+            upsertStatus(tenantId, day, current, 1);
+
+            // Revenue only counts orders that are not cancelled
+            if (current == OrderStatus.CANCELLED) {
+                upsertSales(tenantId, day, 0, order.getTotalPrice().negate(), 0);
+                recordLeaderboards(order, -1);
+            } else if (previous == OrderStatus.CANCELLED) {
+                upsertSales(tenantId, day, 0, order.getTotalPrice(), 0);
+                recordLeaderboards(order, 1);
+            }
+        }
+    }
+
+    /**
+     * Recompute the rollups of a date range from the orders table (backfill or repair).
+     * Events for orders in the range that are still in the outbox will be applied on top, so
+     * run this for days whose events have already been relayed.
+     */
+    @Transactional
+    public void rebuild(Long tenantId, LocalDate startDate, LocalDate endDate) {
+        Date from = Date.valueOf(startDate);
+        Date to = Date.valueOf(endDate);
+        Timestamp fromTs = Timestamp.valueOf(startDate.atStartOfDay());
+        Timestamp toTs = Timestamp.valueOf(endDate.plusDays(1).atStartOfDay());
+
+        jdbcTemplate.update("DELETE FROM analytics_daily_sales WHERE tenant_id = ? AND rollup_date BETWEEN ? AND ?",
+                tenantId, from, to);
+        jdbcTemplate.update("DELETE FROM analytics_daily_status WHERE tenant_id = ? AND rollup_date BETWEEN ? AND ?",
+                tenantId, from, to);
+        jdbcTemplate.update("DELETE FROM analytics_daily_buyers WHERE tenant_id = ? AND rollup_date BETWEEN ? AND ?",
+                tenantId, from, to);
+
+        jdbcTemplate.update(
+                "INSERT INTO analytics_daily_sales (tenant_id, rollup_date, order_count, revenue, new_customers) " +
+                "SELECT o.tenant_id, DATE(o.created_at), COUNT(*), " +
+                "COALESCE(SUM(CASE WHEN o.status <> 'CANCELLED' THEN o.total_price ELSE 0 END), 0), " +
+                "SUM(CASE WHEN NOT EXISTS (SELECT 1 FROM orders p WHERE p.tenant_id = o.tenant_id " +
+                "AND p.customer_email = o.customer_email AND (p.created_at < o.created_at " +
+                "OR (p.created_at = o.created_at AND p.id < o.id))) THEN 1 ELSE 0 END) " +
+                "FROM orders o WHERE o.tenant_id = ? AND o.created_at >= ? AND o.created_at < ? " +
+                "GROUP BY o.tenant_id, DATE(o.created_at)",
+                tenantId, fromTs, toTs);
+        jdbcTemplate.update(
+                "INSERT INTO analytics_daily_status (tenant_id, rollup_date, status, order_count) " +
+                "SELECT o.tenant_id, DATE(o.created_at), o.status, COUNT(*) " +
+                "FROM orders o WHERE o.tenant_id = ? AND o.created_at >= ? AND o.created_at < ? " +
+                "GROUP BY o.tenant_id, DATE(o.created_at), o.status",
+                tenantId, fromTs, toTs);
+
+        Map<LocalDate, HyperLogLog> buyers = new TreeMap<>();
+        jdbcTemplate.query(
+                "SELECT DISTINCT DATE(created_at) AS day, customer_email FROM orders " +
+                "WHERE tenant_id = ? AND created_at >= ? AND created_at < ?",
+                (RowCallbackHandler) rs -> buyers
+                        .computeIfAbsent(rs.getDate("day").toLocalDate(), d -> new HyperLogLog())
+                        .add(normalizeEmail(rs.getString("customer_email"))),
+                tenantId, fromTs, toTs);
+        jdbcTemplate.batchUpdate(INSERT_BUYERS_SQL, buyers.entrySet().stream()
+                .map(e -> new Object[]{tenantId, Date.valueOf(e.getKey()), e.getValue().toBytes()})
+                .collect(Collectors.toList()));
+
+        log.info("Rebuilt analytics rollups for tenant {} from {} to {}", tenantId, startDate, endDate);
+    }
+
+    /**
+     * Forget processed event ids once redelivery is no longer possible (outbox retention).
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.rollup.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeProcessedEvents() {
+        int deleted = jdbcTemplate.update("DELETE FROM analytics_processed_events WHERE processed_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(processedRetentionDays)));
+        if (deleted > 0) {
+            log.info("Purged {} processed analytics event ids", deleted);
+        }
+    }
+
+    /**
+     * Drop unique-buyer sketches past their retention; day totals in the rollups are kept.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.rollup.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpiredBuyerSketches() {
+        jdbcTemplate.update("DELETE FROM analytics_daily_buyers WHERE rollup_date < ?",
+                Date.valueOf(LocalDate.now().minusDays(buyersRetentionDays)));
+    }
+
+    public static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Add the customer to the day's unique-buyer sketch (read under a row lock, written back
+     * only when a register changed).
+     */
+    private void addBuyer(Long tenantId, LocalDate day, String email) {
+        Date date = Date.valueOf(day);
+        jdbcTemplate.update(INSERT_BUYERS_SQL, tenantId, date, EMPTY_SKETCH);
+        byte[] bytes = jdbcTemplate.queryForObject(
+                "SELECT sketch FROM analytics_daily_buyers WHERE tenant_id = ? AND rollup_date = ? FOR UPDATE",
+                byte[].class, tenantId, date);
+
+        HyperLogLog sketch = HyperLogLog.fromBytes(bytes);
+        if (sketch.add(normalizeEmail(email))) {
+            jdbcTemplate.update("UPDATE analytics_daily_buyers SET sketch = ? WHERE tenant_id = ? AND rollup_date = ?",
+                    sketch.toBytes(), tenantId, date);
+        }
+    }
+
+    private void recordLeaderboards(Order order, int sign) {
+        leaderboardService.recordAfterCommit(order.getTenantId(), Leaderboard.Board.CUSTOMERS_BY_SPEND,
+                Map.of(order.getCustomerEmail(), sign * LeaderboardService.toCents(order.getTotalPrice())));
+
+        Map<String, Long> units = new HashMap<>();
+        for (OrderItem item : order.getItems()) {
+            units.merge(String.valueOf(item.getProductId()), (long) sign * item.getQuantity(), Long::sum);
+        }
+        leaderboardService.recordAfterCommit(order.getTenantId(), Leaderboard.Board.PRODUCTS_BY_UNITS, units);
+    }
+
+    private void upsertSales(Long tenantId, LocalDate day, int orders, BigDecimal revenue, int newCustomers) {
+        jdbcTemplate.update(UPSERT_SALES_SQL, tenantId, Date.valueOf(day), orders, revenue, newCustomers);
+    }
+
+    private void upsertStatus(Long tenantId, LocalDate day, OrderStatus status, int delta) {
+        jdbcTemplate.update(UPSERT_STATUS_SQL, tenantId, Date.valueOf(day), status.name(), delta);
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.valueOf(String.valueOf(value));
+    }
+}
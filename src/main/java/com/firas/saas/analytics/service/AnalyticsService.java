@@ -5,6 +5,7 @@ import com.firas.saas.analytics.dto.DashboardStats;
 import com.firas.saas.analytics.dto.SalesReport;
 
 import java.time.LocalDate;
+import java.util.List;
 
 public interface AnalyticsService {
 
@@ -32,5 +33,16 @@ public interface AnalyticsService {
      * Get customer analytics for date range
      */
     CustomerAnalytics getCustomerAnalytics(Long tenantId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Get customer analytics for date range; with exact, top customers are recomputed from
+     * all orders instead of taken from the leaderboard
+     */
+    CustomerAnalytics getCustomerAnalytics(Long tenantId, LocalDate startDate, LocalDate endDate, boolean exact);
+
+    /**
+     * Best-selling products by units (all time), from the leaderboard or recomputed exactly
+     */
+    List<DashboardStats.TopProduct> getTopProducts(Long tenantId, int limit, boolean exact);
 }
 
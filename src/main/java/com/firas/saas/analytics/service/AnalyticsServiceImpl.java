@@ -3,23 +3,42 @@ package com.firas.saas.analytics.service;
 import com.firas.saas.analytics.dto.CustomerAnalytics;
 import com.firas.saas.analytics.dto.DashboardStats;
 import com.firas.saas.analytics.dto.SalesReport;
+import com.firas.saas.analytics.entity.DailyBuyers;
+import com.firas.saas.analytics.entity.DailySalesRollup;
+import com.firas.saas.analytics.entity.DailyStatusRollup;
+import com.firas.saas.analytics.entity.Leaderboard;
+import com.firas.saas.analytics.repository.DailyBuyersRepository;
+import com.firas.saas.analytics.repository.DailySalesRollupRepository;
+import com.firas.saas.analytics.repository.DailyStatusRollupRepository;
+import com.firas.saas.analytics.repository.SalesAggregateRepository;
+import com.firas.saas.analytics.sketch.HyperLogLog;
+import com.firas.saas.analytics.sketch.SpaceSaving;
+import com.firas.saas.customer.entity.Customer;
 import com.firas.saas.customer.repository.CustomerRepository;
-import com.firas.saas.order.entity.Order;
 import com.firas.saas.order.entity.OrderStatus;
 import com.firas.saas.order.repository.OrderRepository;
 import com.firas.saas.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Dashboard and sales figures are read from the daily rollups (see AnalyticsRollupService),
+ * so their cost depends on the number of days in the range, not on the number of orders.
+ * Item and customer breakdowns are GROUP BY projections (SalesAggregateRepository); no
+ * Order entities are loaded. All-time top customers/products come from the leaderboards
+ * (LeaderboardService), whose candidates are then priced exactly; unique and returning
+ * buyers come from unions of the daily HyperLogLog sketches.
+ */
 @Service
 @RequiredArgsConstructor
 public class AnalyticsServiceImpl implements AnalyticsService {
@@ -27,6 +46,11 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
+    private final DailySalesRollupRepository salesRollupRepository;
+    private final DailyStatusRollupRepository statusRollupRepository;
+    private final DailyBuyersRepository dailyBuyersRepository;
+    private final SalesAggregateRepository salesAggregateRepository;
+    private final LeaderboardService leaderboardService;
 
     @Override
     @Transactional(readOnly = true)
@@ -40,47 +64,27 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     @Override
     @Transactional(readOnly = true)
     public DashboardStats getDashboardStats(Long tenantId, LocalDate startDate, LocalDate endDate) {
-        List<Order> orders = orderRepository.findAllByTenantId(tenantId);
+        List<DailySalesRollup> days = salesRollupRepository
+                .findAllByTenantIdAndRollupDateBetweenOrderByRollupDate(tenantId, startDate, endDate);
 
-        // Filter orders by date range
-        List<Order> periodOrders = orders.stream()
-                .filter(o -> {
-                    LocalDate orderDate = o.getCreatedAt().toLocalDate();
-                    return !orderDate.isBefore(startDate) && !orderDate.isAfter(endDate);
-                })
-                .collect(Collectors.toList());
-
-        // Calculate total revenue (only from completed/paid orders)
-        BigDecimal totalRevenue = periodOrders.stream()
-                .filter(o -> o.getStatus() != OrderStatus.CANCELLED)
-                .map(Order::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Total orders
-        long totalOrders = periodOrders.size();
+        // Revenue excludes cancelled orders; order count includes them
+        BigDecimal totalRevenue = sumRevenue(days);
+        long totalOrders = days.stream().mapToLong(DailySalesRollup::getOrderCount).sum();
+        long newCustomers = days.stream().mapToLong(DailySalesRollup::getNewCustomers).sum();
 
-        // Total customers
-        long totalCustomers = customerRepository.findAllByTenantId(tenantId).size();
-
-        // Total products
-        long totalProducts = productRepository.findAllByTenantId(tenantId).size();
+        long totalCustomers = customerRepository.countByTenantId(tenantId);
+        long totalProducts = productRepository.countByTenantId(tenantId);
 
         // Calculate previous period for comparison
         long daysDiff = java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate);
         LocalDate prevStartDate = startDate.minusDays(daysDiff);
         LocalDate prevEndDate = startDate.minusDays(1);
 
-        List<Order> prevPeriodOrders = orders.stream()
-                .filter(o -> {
-                    LocalDate orderDate = o.getCreatedAt().toLocalDate();
-                    return !orderDate.isBefore(prevStartDate) && !orderDate.isAfter(prevEndDate);
-                })
-                .collect(Collectors.toList());
-
-        BigDecimal prevRevenue = prevPeriodOrders.stream()
-                .filter(o -> o.getStatus() != OrderStatus.CANCELLED)
-                .map(Order::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<DailySalesRollup> prevDays = salesRollupRepository
+                .findAllByTenantIdAndRollupDateBetweenOrderByRollupDate(tenantId, prevStartDate, prevEndDate);
+        BigDecimal prevRevenue = sumRevenue(prevDays);
+        long prevOrders = prevDays.stream().mapToLong(DailySalesRollup::getOrderCount).sum();
+        long prevNewCustomers = prevDays.stream().mapToLong(DailySalesRollup::getNewCustomers).sum();
 
         BigDecimal revenueChange = BigDecimal.ZERO;
         if (prevRevenue.compareTo(BigDecimal.ZERO) > 0) {
@@ -90,16 +94,19 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         }
 
         // Order status distribution
-        Map<String, Long> ordersByStatus = periodOrders.stream()
+        Map<String, Long> ordersByStatus = statusRollupRepository
+                .findAllByTenantIdAndRollupDateBetween(tenantId, startDate, endDate).stream()
                 .collect(Collectors.groupingBy(
-                        o -> o.getStatus().name(),
-                        Collectors.counting()
+                        DailyStatusRollup::getStatus,
+                        Collectors.summingLong(DailyStatusRollup::getOrderCount)
                 ));
+        ordersByStatus.values().removeIf(count -> count == 0);
 
         // Recent orders (last 5)
-        List<DashboardStats.RecentOrder> recentOrders = periodOrders.stream()
-                .sorted(Comparator.comparing(Order::getCreatedAt).reversed())
-                .limit(5)
+        List<DashboardStats.RecentOrder> recentOrders = orderRepository
+                .findByTenantIdAndCreatedAtBetweenOrderByCreatedAtDesc(tenantId,
+                        startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX), PageRequest.of(0, 5))
+                .stream()
                 .map(o -> DashboardStats.RecentOrder.builder()
                         .orderId(o.getId())
                         .orderNumber(o.getOrderNumber())
@@ -111,7 +118,7 @@ public class AnalyticsServiceImpl implements AnalyticsService {
                 .collect(Collectors.toList());
 
         // Daily revenue chart
-        List<DashboardStats.DailyRevenue> revenueChart = generateDailyRevenue(periodOrders, startDate, endDate);
+        List<DashboardStats.DailyRevenue> revenueChart = generateDailyRevenue(days, startDate, endDate);
 
         return DashboardStats.builder()
                 .totalRevenue(totalRevenue)
@@ -119,50 +126,66 @@ public class AnalyticsServiceImpl implements AnalyticsService {
                 .totalCustomers(totalCustomers)
                 .totalProducts(totalProducts)
                 .revenueChange(revenueChange)
-                .ordersChange((long) periodOrders.size() - prevPeriodOrders.size())
+                .ordersChange(totalOrders - prevOrders)
+                .customersChange(newCustomers - prevNewCustomers)
                 .ordersByStatus(ordersByStatus)
                 .recentOrders(recentOrders)
                 .revenueChart(revenueChart)
-                .topProducts(new ArrayList<>()) // Would require OrderItem analysis
+                .topProducts(topProducts(sumItemsBySku(tenantId, startDate, endDate), 5))
                 .build();
     }
 
     @Override
     @Transactional(readOnly = true)
     public SalesReport getSalesReport(Long tenantId, LocalDate startDate, LocalDate endDate) {
-        List<Order> orders = orderRepository.findAllByTenantId(tenantId).stream()
-                .filter(o -> {
-                    LocalDate orderDate = o.getCreatedAt().toLocalDate();
-                    return !orderDate.isBefore(startDate) && !orderDate.isAfter(endDate);
-                })
-                .filter(o -> o.getStatus() != OrderStatus.CANCELLED)
-                .collect(Collectors.toList());
+        List<DailySalesRollup> days = salesRollupRepository
+                .findAllByTenantIdAndRollupDateBetweenOrderByRollupDate(tenantId, startDate, endDate);
 
-        BigDecimal totalRevenue = orders.stream()
-                .map(Order::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // The report only counts orders that are not cancelled
+        Map<LocalDate, Long> cancelledByDay = statusRollupRepository
+                .findAllByTenantIdAndRollupDateBetween(tenantId, startDate, endDate).stream()
+                .filter(r -> OrderStatus.CANCELLED.name().equals(r.getStatus()))
+                .collect(Collectors.toMap(DailyStatusRollup::getRollupDate, DailyStatusRollup::getOrderCount));
 
-        long totalOrders = orders.size();
+        BigDecimal totalRevenue = sumRevenue(days);
+
+        // Daily breakdown
+        List<SalesReport.PeriodSales> salesByPeriod = new ArrayList<>();
+        long totalOrders = 0;
+        for (DailySalesRollup day : days) {
+            long dayOrders = day.getOrderCount() - cancelledByDay.getOrDefault(day.getRollupDate(), 0L);
+            if (dayOrders <= 0) {
+                continue;
+            }
+            totalOrders += dayOrders;
+            salesByPeriod.add(SalesReport.PeriodSales.builder()
+                    .period(day.getRollupDate().toString())
+                    .orders(dayOrders)
+                    .revenue(day.getRevenue())
+                    .build());
+        }
 
         BigDecimal avgOrderValue = totalOrders > 0
                 ? totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
 
-        // Daily breakdown
-        List<SalesReport.PeriodSales> salesByPeriod = orders.stream()
-                .collect(Collectors.groupingBy(
-                        o -> o.getCreatedAt().toLocalDate().toString(),
-                        Collectors.toList()
-                ))
-                .entrySet().stream()
-                .map(entry -> SalesReport.PeriodSales.builder()
-                        .period(entry.getKey())
-                        .orders((long) entry.getValue().size())
-                        .revenue(entry.getValue().stream()
-                                .map(Order::getTotalPrice)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add))
+        // Item breakdowns: one GROUP BY row per SKU sold, everything else derived from it
+        List<SalesAggregateRepository.SkuSales> skuSales = sumItemsBySku(tenantId, startDate, endDate);
+
+        long totalItemsSold = skuSales.stream().mapToLong(SalesAggregateRepository.SkuSales::getQuantity).sum();
+        BigDecimal itemRevenue = skuSales.stream()
+                .map(SalesAggregateRepository.SkuSales::getRevenue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        List<SalesReport.ProductSales> salesByProduct = skuSales.stream()
+                .sorted(Comparator.comparing(SalesAggregateRepository.SkuSales::getRevenue).reversed())
+                .map(row -> SalesReport.ProductSales.builder()
+                        .productId(row.getProductId())
+                        .productName(row.getProductName())
+                        .sku(row.getSku())
+                        .quantitySold(row.getQuantity())
+                        .revenue(row.getRevenue())
                         .build())
-                .sorted(Comparator.comparing(SalesReport.PeriodSales::getPeriod))
                 .collect(Collectors.toList());
 
         return SalesReport.builder()
@@ -171,10 +194,10 @@ public class AnalyticsServiceImpl implements AnalyticsService {
                 .totalRevenue(totalRevenue)
                 .totalOrders(totalOrders)
                 .averageOrderValue(avgOrderValue)
-                .totalItemsSold(0L) // Would require OrderItem analysis
+                .totalItemsSold(totalItemsSold)
                 .salesByPeriod(salesByPeriod)
-                .salesByCategory(new ArrayList<>())
-                .salesByProduct(new ArrayList<>())
+                .salesByCategory(salesByCategory(skuSales, itemRevenue))
+                .salesByProduct(salesByProduct)
                 .build();
     }
 
@@ -189,98 +212,141 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     @Override
     @Transactional(readOnly = true)
     public CustomerAnalytics getCustomerAnalytics(Long tenantId, LocalDate startDate, LocalDate endDate) {
-        var customers = customerRepository.findAllByTenantId(tenantId);
-        long totalCustomers = customers.size();
-
-        // New customers in period
-        long newCustomers = customers.stream()
-                .filter(c -> {
-                    LocalDate createdDate = c.getCreatedAt().toLocalDate();
-                    return !createdDate.isBefore(startDate) && !createdDate.isAfter(endDate);
-                })
-                .count();
-
-        List<Order> orders = orderRepository.findAllByTenantId(tenantId);
+        return getCustomerAnalytics(tenantId, startDate, endDate, false);
+    }
 
-        // Calculate customer spending
-        Map<String, BigDecimal> customerSpending = orders.stream()
-                .filter(o -> o.getStatus() != OrderStatus.CANCELLED)
-                .collect(Collectors.groupingBy(
-                        Order::getCustomerEmail,
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                Order::getTotalPrice,
-                                BigDecimal::add
-                        )
-                ));
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerAnalytics getCustomerAnalytics(Long tenantId, LocalDate startDate, LocalDate endDate, boolean exact) {
+        long totalCustomers = customerRepository.countByTenantId(tenantId);
 
-        Map<String, Long> customerOrderCount = orders.stream()
-                .collect(Collectors.groupingBy(
-                        Order::getCustomerEmail,
-                        Collectors.counting()
-                ));
+        // New customers in period
+        long newCustomers = customerRepository.countByTenantIdAndCreatedAtBetween(tenantId,
+                startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX));
 
-        // Average customer value
+        // Average customer value (spend of customers with at least one non-cancelled order)
+        SalesAggregateRepository.BuyerTotals buyers = salesAggregateRepository.sumBuyers(tenantId, OrderStatus.CANCELLED);
         BigDecimal avgCustomerValue = BigDecimal.ZERO;
-        if (!customerSpending.isEmpty()) {
-            avgCustomerValue = customerSpending.values().stream()
-                    .reduce(BigDecimal.ZERO, BigDecimal::add)
-                    .divide(BigDecimal.valueOf(customerSpending.size()), 2, RoundingMode.HALF_UP);
+        if (buyers.getBuyers() != null && buyers.getBuyers() > 0 && buyers.getRevenue() != null) {
+            avgCustomerValue = buyers.getRevenue()
+                    .divide(BigDecimal.valueOf(buyers.getBuyers()), 2, RoundingMode.HALF_UP);
         }
 
-        // Top customers
-        List<CustomerAnalytics.TopCustomer> topCustomers = customerSpending.entrySet().stream()
-                .sorted(Map.Entry.<String, BigDecimal>comparingByValue().reversed())
-                .limit(10)
-                .map(entry -> CustomerAnalytics.TopCustomer.builder()
-                        .email(entry.getKey())
-                        .totalSpent(entry.getValue())
-                        .totalOrders(customerOrderCount.getOrDefault(entry.getKey(), 0L))
-                        .build())
+        // Top customers: leaderboard candidates with exact figures, or a full recount on demand
+        List<SalesAggregateRepository.CustomerSpend> topSpenders;
+        if (exact) {
+            topSpenders = salesAggregateRepository.findTopSpenders(tenantId, OrderStatus.CANCELLED, PageRequest.of(0, 10));
+        } else {
+            List<String> candidates = leaderboardService.top(tenantId, Leaderboard.Board.CUSTOMERS_BY_SPEND, 10).stream()
+                    .map(SpaceSaving.Counter::getKey)
+                    .collect(Collectors.toList());
+            topSpenders = candidates.isEmpty() ? List.of() : salesAggregateRepository
+                    .findSpendByEmails(tenantId, OrderStatus.CANCELLED, candidates).stream()
+                    .filter(row -> row.getSpent() != null)
+                    .sorted(Comparator.comparing(SalesAggregateRepository.CustomerSpend::getSpent).reversed())
+                    .collect(Collectors.toList());
+        }
+        Map<String, Customer> customersByEmail = topSpenders.isEmpty() ? Map.of() : customerRepository
+                .findAllByTenantIdAndEmailIn(tenantId, topSpenders.stream()
+                        .map(SalesAggregateRepository.CustomerSpend::getEmail)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Customer::getEmail, c -> c, (a, b) -> a));
+
+        List<CustomerAnalytics.TopCustomer> topCustomers = topSpenders.stream()
+                .map(row -> {
+                    Customer customer = customersByEmail.get(row.getEmail());
+                    return CustomerAnalytics.TopCustomer.builder()
+                            .customerId(customer != null ? customer.getId() : null)
+                            .email(row.getEmail())
+                            .name(customer != null ? (customer.getFirstName() + " " + customer.getLastName()).trim() : null)
+                            .totalSpent(row.getSpent())
+                            .totalOrders(row.getOrders())
+                            .lastOrderDate(row.getLastOrderAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                            .build();
+                })
                 .collect(Collectors.toList());
 
-        // Returning customers (more than 1 order)
-        long returningCustomers = customerOrderCount.values().stream()
-                .filter(count -> count > 1)
-                .count();
+        // Unique buyers in the period: union of the daily HyperLogLog sketches (or an exact count)
+        Map<LocalDate, HyperLogLog> dailyBuyers = dailyBuyersRepository
+                .findAllByTenantIdAndRollupDateBetween(tenantId, startDate, endDate).stream()
+                .collect(Collectors.toMap(DailyBuyers::getRollupDate, d -> HyperLogLog.fromBytes(d.getSketch())));
+        long uniqueBuyers;
+        if (exact) {
+            uniqueBuyers = salesAggregateRepository.countDistinctBuyers(tenantId,
+                    startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+        } else {
+            HyperLogLog union = new HyperLogLog();
+            dailyBuyers.values().forEach(union::merge);
+            uniqueBuyers = union.estimate();
+        }
+
+        // Returning customers: buyers of the period whose first order was placed earlier
+        List<DailySalesRollup> days = salesRollupRepository
+                .findAllByTenantIdAndRollupDateBetweenOrderByRollupDate(tenantId, startDate, endDate);
+        long firstTimeBuyers = days.stream().mapToLong(DailySalesRollup::getNewCustomers).sum();
+        long returningCustomers = Math.max(uniqueBuyers - firstTimeBuyers, 0);
 
-        double retentionRate = totalCustomers > 0
-                ? (double) returningCustomers / totalCustomers * 100
+        double retentionRate = uniqueBuyers > 0
+                ? (double) returningCustomers / uniqueBuyers * 100
                 : 0;
 
         return CustomerAnalytics.builder()
                 .totalCustomers(totalCustomers)
                 .newCustomersThisPeriod(newCustomers)
+                .uniqueBuyers(uniqueBuyers)
                 .returningCustomers(returningCustomers)
                 .retentionRate(retentionRate)
                 .averageCustomerValue(avgCustomerValue)
                 .topCustomers(topCustomers)
-                .customerGrowth(new ArrayList<>())
+                .customerGrowth(generateCustomerGrowth(tenantId, days, dailyBuyers, startDate, endDate))
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<DashboardStats.TopProduct> getTopProducts(Long tenantId, int limit, boolean exact) {
+        List<SalesAggregateRepository.ProductUnits> rows;
+        if (exact) {
+            rows = salesAggregateRepository.findTopProductsByUnits(tenantId, OrderStatus.CANCELLED, PageRequest.of(0, limit));
+        } else {
+            List<Long> candidates = leaderboardService.top(tenantId, Leaderboard.Board.PRODUCTS_BY_UNITS, limit).stream()
+                    .map(counter -> Long.valueOf(counter.getKey()))
+                    .collect(Collectors.toList());
+            rows = candidates.isEmpty() ? List.of() : salesAggregateRepository
+                    .findUnitsByProductIds(tenantId, OrderStatus.CANCELLED, candidates).stream()
+                    .sorted(Comparator.comparing(SalesAggregateRepository.ProductUnits::getUnits).reversed())
+                    .collect(Collectors.toList());
+        }
+
+        return rows.stream()
+                .map(row -> DashboardStats.TopProduct.builder()
+                        .productId(row.getProductId())
+                        .productName(row.getProductName())
+                        .totalSold(row.getUnits())
+                        .totalRevenue(row.getRevenue())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
     // ==================== HELPER METHODS ====================
 
-    private List<DashboardStats.DailyRevenue> generateDailyRevenue(List<Order> orders,
+    private List<DashboardStats.DailyRevenue> generateDailyRevenue(List<DailySalesRollup> days,
                                                                     LocalDate startDate,
                                                                     LocalDate endDate) {
-        Map<LocalDate, List<Order>> ordersByDate = orders.stream()
-                .collect(Collectors.groupingBy(o -> o.getCreatedAt().toLocalDate()));
+        Map<LocalDate, DailySalesRollup> byDate = days.stream()
+                .collect(Collectors.toMap(DailySalesRollup::getRollupDate, d -> d));
 
         List<DashboardStats.DailyRevenue> result = new ArrayList<>();
         LocalDate current = startDate;
 
         while (!current.isAfter(endDate)) {
-            List<Order> dayOrders = ordersByDate.getOrDefault(current, new ArrayList<>());
-            BigDecimal dayRevenue = dayOrders.stream()
-                    .filter(o -> o.getStatus() != OrderStatus.CANCELLED)
-                    .map(Order::getTotalPrice)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            DailySalesRollup day = byDate.get(current);
 
             result.add(DashboardStats.DailyRevenue.builder()
                     .date(current)
-                    .revenue(dayRevenue)
-                    .orders((long) dayOrders.size())
+                    .revenue(day != null ? day.getRevenue() : BigDecimal.ZERO)
+                    .orders(day != null ? day.getOrderCount() : 0L)
                     .build());
 
             current = current.plusDays(1);
@@ -288,5 +354,89 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
         return result;
     }
-}
 
+    private List<SalesAggregateRepository.SkuSales> sumItemsBySku(Long tenantId, LocalDate startDate, LocalDate endDate) {
+        return salesAggregateRepository.sumItemsBySku(tenantId, startDate.atStartOfDay(),
+                endDate.plusDays(1).atStartOfDay(), OrderStatus.CANCELLED);
+    }
+
+    private List<DashboardStats.TopProduct> topProducts(List<SalesAggregateRepository.SkuSales> skuSales, int limit) {
+        Map<Long, DashboardStats.TopProduct> byProduct = new LinkedHashMap<>();
+        for (SalesAggregateRepository.SkuSales row : skuSales) {
+            DashboardStats.TopProduct product = byProduct.computeIfAbsent(row.getProductId(),
+                    id -> DashboardStats.TopProduct.builder()
+                            .productId(id)
+                            .productName(row.getProductName())
+                            .totalSold(0L)
+                            .totalRevenue(BigDecimal.ZERO)
+                            .build());
+            product.setTotalSold(product.getTotalSold() + row.getQuantity());
+            product.setTotalRevenue(product.getTotalRevenue().add(row.getRevenue()));
+        }
+        return byProduct.values().stream()
+                .sorted(Comparator.comparing(DashboardStats.TopProduct::getTotalRevenue).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private List<SalesReport.CategorySales> salesByCategory(List<SalesAggregateRepository.SkuSales> skuSales,
+                                                            BigDecimal itemRevenue) {
+        Map<Long, SalesReport.CategorySales> byCategory = new LinkedHashMap<>();
+        for (SalesAggregateRepository.SkuSales row : skuSales) {
+            // Uncategorized products are grouped under a null categoryId
+            SalesReport.CategorySales category = byCategory.computeIfAbsent(row.getCategoryId(),
+                    id -> SalesReport.CategorySales.builder()
+                            .categoryId(id)
+                            .categoryName(id != null ? row.getCategoryName() : "Uncategorized")
+                            .itemsSold(0L)
+                            .revenue(BigDecimal.ZERO)
+                            .build());
+            category.setItemsSold(category.getItemsSold() + row.getQuantity());
+            category.setRevenue(category.getRevenue().add(row.getRevenue()));
+        }
+        byCategory.values().forEach(category -> category.setPercentage(
+                itemRevenue.compareTo(BigDecimal.ZERO) > 0
+                        ? category.getRevenue().multiply(BigDecimal.valueOf(100))
+                                .divide(itemRevenue, 2, RoundingMode.HALF_UP).doubleValue()
+                        : 0.0));
+        return byCategory.values().stream()
+                .sorted(Comparator.comparing(SalesReport.CategorySales::getRevenue).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private List<CustomerAnalytics.CustomerGrowth> generateCustomerGrowth(Long tenantId,
+                                                                         List<DailySalesRollup> days,
+                                                                         Map<LocalDate, HyperLogLog> dailyBuyers,
+                                                                         LocalDate startDate,
+                                                                         LocalDate endDate) {
+        Map<LocalDate, Long> newByDate = days.stream()
+                .collect(Collectors.toMap(DailySalesRollup::getRollupDate, DailySalesRollup::getNewCustomers));
+        long total = salesRollupRepository.sumNewCustomersBefore(tenantId, startDate);
+
+        List<CustomerAnalytics.CustomerGrowth> result = new ArrayList<>();
+        LocalDate current = startDate;
+
+        while (!current.isAfter(endDate)) {
+            long newOnDay = newByDate.getOrDefault(current, 0L);
+            HyperLogLog buyers = dailyBuyers.get(current);
+            total += newOnDay;
+
+            result.add(CustomerAnalytics.CustomerGrowth.builder()
+                    .period(current.toString())
+                    .newCustomers(newOnDay)
+                    .totalCustomers(total)
+                    .uniqueBuyers(buyers != null ? buyers.estimate() : 0L)
+                    .build());
+
+            current = current.plusDays(1);
+        }
+
+        return result;
+    }
+
+    private BigDecimal sumRevenue(List<DailySalesRollup> days) {
+        return days.stream()
+                .map(DailySalesRollup::getRevenue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,271 @@
+package com.firas.saas.analytics.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firas.saas.analytics.entity.Leaderboard;
+import com.firas.saas.analytics.repository.LeaderboardRepository;
+import com.firas.saas.analytics.repository.SalesAggregateRepository;
+import com.firas.saas.analytics.sketch.SpaceSaving;
+import com.firas.saas.order.entity.OrderStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded-memory leaderboards (top customers by spend, top products by units) per tenant.
+ *
+ * Order events are added to a per-node pending Space-Saving delta; every flush interval the
+ * deltas are merged into the persisted summary under a row lock, so nodes that relay
+ * different events all contribute. Reads take the persisted summary (cached for one flush
+ * interval) plus the local pending delta, so they cost O(capacity) whatever the number of
+ * customers. Cancellations subtract from keys the summary tracks.
+ */
+@Service
+@Slf4j
+public class LeaderboardService {
+
+    private static final TypeReference<List<SpaceSaving.Counter>> COUNTERS = new TypeReference<>() {};
+
+    private final LeaderboardRepository leaderboardRepository;
+    private final SalesAggregateRepository salesAggregateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+    private final int capacity;
+    private final Map<Leaderboard.Key, Pending> pending = new ConcurrentHashMap<>();
+    private final Cache<Leaderboard.Key, SpaceSaving> persisted; // shared, copy before changing
+
+    public LeaderboardService(LeaderboardRepository leaderboardRepository,
+                              SalesAggregateRepository salesAggregateRepository,
+                              JdbcTemplate jdbcTemplate,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.analytics.leaderboard.capacity:200}") int capacity,
+                              @Value("${app.analytics.leaderboard.flush-interval-ms:30000}") long flushIntervalMs,
+                              @Value("${app.analytics.leaderboard.cache-size:10000}") long cacheSize) {
+        this.leaderboardRepository = leaderboardRepository;
+        this.salesAggregateRepository = salesAggregateRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.capacity = capacity;
+        this.persisted = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(flushIntervalMs))
+                .build();
+    }
+
+    /**
+     * Record weight changes for a leaderboard once the surrounding transaction commits
+     * (immediately when there is none). Positive weights add, negative ones subtract.
+     */
+    public void recordAfterCommit(Long tenantId, Leaderboard.Board board, Map<String, Long> weights) {
+        if (weights.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(tenantId, board, weights);
+                }
+            });
+        } else {
+            record(tenantId, board, weights);
+        }
+    }
+
+    /**
+     * The {@code n} heaviest keys of a leaderboard, heaviest first.
+     */
+    public List<SpaceSaving.Counter> top(Long tenantId, Leaderboard.Board board, int n) {
+        Leaderboard.Key key = new Leaderboard.Key(tenantId, board);
+        SpaceSaving sketch = persisted.get(key, this::load).copy();
+
+        Pending local = pending.get(key);
+        if (local != null) {
+            synchronized (local) {
+                local.applyTo(sketch);
+            }
+        }
+        return sketch.top(n);
+    }
+
+    /**
+     * Replace a tenant's leaderboards with exact figures from the orders table (initial
+     * backfill, or after drift from cancellations of untracked keys). Pending deltas of this
+     * node are dropped since the orders they came from are part of the recount.
+     */
+    public void rebuild(Long tenantId) {
+        tx.executeWithoutResult(status -> {
+            List<SpaceSaving.Counter> customers = new ArrayList<>();
+            salesAggregateRepository.findTopSpenders(tenantId, OrderStatus.CANCELLED, PageRequest.of(0, capacity))
+                    .forEach(row -> customers.add(new SpaceSaving.Counter(row.getEmail(), toCents(row.getSpent()), 0)));
+            BigDecimal revenue = salesAggregateRepository.sumBuyers(tenantId, OrderStatus.CANCELLED).getRevenue();
+            save(tenantId, Leaderboard.Board.CUSTOMERS_BY_SPEND, SpaceSaving.of(capacity, customers),
+                    revenue != null ? toCents(revenue) : 0);
+
+            List<SpaceSaving.Counter> products = new ArrayList<>();
+            salesAggregateRepository.findTopProductsByUnits(tenantId, OrderStatus.CANCELLED, PageRequest.of(0, capacity))
+                    .forEach(row -> products.add(new SpaceSaving.Counter(String.valueOf(row.getProductId()), row.getUnits(), 0)));
+            Long units = salesAggregateRepository.sumUnits(tenantId, OrderStatus.CANCELLED);
+            save(tenantId, Leaderboard.Board.PRODUCTS_BY_UNITS, SpaceSaving.of(capacity, products),
+                    units != null ? units : 0);
+        });
+
+        for (Leaderboard.Board board : Leaderboard.Board.values()) {
+            Leaderboard.Key key = new Leaderboard.Key(tenantId, board);
+            pending.remove(key);
+            persisted.invalidate(key);
+        }
+        log.info("Rebuilt leaderboards for tenant {}", tenantId);
+    }
+
+    /**
+     * Merge this node's pending deltas into the persisted leaderboards.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.leaderboard.flush-interval-ms:30000}")
+    public void flush() {
+        for (Leaderboard.Key key : new ArrayList<>(pending.keySet())) {
+            Pending delta = pending.remove(key);
+            if (delta == null) {
+                continue;
+            }
+            try {
+                synchronized (delta) {
+                    delta.closed = true; // late writers holding this instance start a new one
+                    tx.executeWithoutResult(status -> mergeInto(key, delta));
+                }
+                persisted.invalidate(key);
+            } catch (Exception e) {
+                log.warn("Failed to flush leaderboard {} of tenant {}, retrying later: {}",
+                        key.getBoard(), key.getTenantId(), e.getMessage());
+                synchronized (delta) {
+                    delta.closed = false;
+                }
+                pending.merge(key, delta, Pending::mergeFrom);
+            }
+        }
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValue();
+    }
+
+    private void record(Long tenantId, Leaderboard.Board board, Map<String, Long> weights) {
+        Leaderboard.Key key = new Leaderboard.Key(tenantId, board);
+        while (true) {
+            Pending delta = pending.computeIfAbsent(key, k -> new Pending(capacity));
+            synchronized (delta) {
+                if (!delta.closed) {
+                    weights.forEach(delta::add);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void mergeInto(Leaderboard.Key key, Pending delta) {
+        jdbcTemplate.update("INSERT IGNORE INTO analytics_leaderboards (tenant_id, board, counters, total_weight, updated_at) " +
+                        "VALUES (?, ?, '[]', 0, ?)",
+                key.getTenantId(), key.getBoard().name(), Timestamp.valueOf(LocalDateTime.now()));
+        Leaderboard row = leaderboardRepository.findForUpdate(key.getTenantId(), key.getBoard())
+                .orElseThrow(() -> new IllegalStateException("Leaderboard row missing for " + key));
+
+        SpaceSaving sketch = SpaceSaving.of(capacity, readCounters(row.getCounters()));
+        delta.applyTo(sketch);
+        row.setCounters(writeCounters(sketch.top(capacity)));
+        row.setTotalWeight(Math.max(row.getTotalWeight() + delta.totalWeight, 0));
+        row.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private void save(Long tenantId, Leaderboard.Board board, SpaceSaving sketch, long totalWeight) {
+        leaderboardRepository.save(Leaderboard.builder()
+                .tenantId(tenantId)
+                .board(board)
+                .counters(writeCounters(sketch.top(capacity)))
+                .totalWeight(totalWeight)
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private SpaceSaving load(Leaderboard.Key key) {
+        return leaderboardRepository.findByTenantIdAndBoard(key.getTenantId(), key.getBoard())
+                .map(row -> SpaceSaving.of(capacity, readCounters(row.getCounters())))
+                .orElseGet(() -> new SpaceSaving(capacity));
+    }
+
+    private List<SpaceSaving.Counter> readCounters(String json) {
+        try {
+            return objectMapper.readValue(json, COUNTERS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt leaderboard counters", e);
+        }
+    }
+
+    private String writeCounters(List<SpaceSaving.Counter> counters) {
+        try {
+            return objectMapper.writeValueAsString(counters);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize leaderboard counters", e);
+        }
+    }
+
+    /**
+     * Weight recorded on this node since the last flush. Subtractions are kept apart because
+     * they usually target keys the small delta does not track.
+     */
+    private static final class Pending {
+        private final SpaceSaving additions;
+        private final Map<String, Long> subtractions = new HashMap<>();
+        private long totalWeight;
+        private boolean closed;
+
+        Pending(int capacity) {
+            this.additions = new SpaceSaving(capacity);
+        }
+
+        void add(String key, long weight) {
+            if (weight >= 0) {
+                additions.add(key, weight);
+            } else if (subtractions.size() < additions.getCapacity() || subtractions.containsKey(key)) {
+                subtractions.merge(key, -weight, Long::sum);
+            }
+            totalWeight += weight;
+        }
+
+        void applyTo(SpaceSaving sketch) {
+            sketch.merge(additions);
+            subtractions.forEach(sketch::subtract);
+        }
+
+        Pending mergeFrom(Pending other) {
+            synchronized (this) {
+                additions.merge(other.additions);
+                other.subtractions.forEach((key, weight) -> subtractions.merge(key, weight, Long::sum));
+                totalWeight += other.totalWeight;
+            }
+            return this;
+        }
+    }
+}
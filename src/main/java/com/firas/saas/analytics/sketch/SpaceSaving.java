@@ -0,0 +1,178 @@
+package com.firas.saas.analytics.sketch;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Weighted Space-Saving summary: keeps at most {@code capacity} counters and reports the
+ * heaviest keys of a stream in bounded memory.
+ *
+ * When a new key arrives and the summary is full, the smallest counter is taken over by the
+ * new key, which inherits its count as {@code error}. Every reported count is an
+ * overestimate by at most its error, and any key whose true weight exceeds
+ * totalWeight / capacity is guaranteed to be tracked. Two summaries can be merged, which is
+ * how per-node deltas are folded into the persisted one.
+ *
+ * Not thread-safe; callers synchronize on the instance.
+ */
+public final class SpaceSaving {
+
+    private static final Comparator<Counter> BY_COUNT =
+            Comparator.comparingLong(Counter::getCount).thenComparing(Counter::getKey);
+
+    @Getter
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final TreeSet<Counter> ordered = new TreeSet<>(BY_COUNT);
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Add a (positive) weight to a key.
+     */
+    public void add(String key, long weight) {
+        if (weight <= 0) {
+            return;
+        }
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            ordered.remove(counter);
+            counter.count += weight;
+            ordered.add(counter);
+            return;
+        }
+        if (counters.size() < capacity) {
+            counter = new Counter(key, weight, 0);
+        } else {
+            Counter min = ordered.pollFirst();
+            counters.remove(min.key);
+            counter = new Counter(key, min.count + weight, min.count);
+        }
+        counters.put(key, counter);
+        ordered.add(counter);
+    }
+
+    /**
+     * Take weight back from a tracked key (e.g. a cancelled order). Untracked keys are
+     * ignored: their weight was already absorbed by the error of other counters.
+     */
+    public void subtract(String key, long weight) {
+        Counter counter = counters.get(key);
+        if (counter == null || weight <= 0) {
+            return;
+        }
+        ordered.remove(counter);
+        counter.count = Math.max(counter.count - weight, 0);
+        counter.error = Math.min(counter.error, counter.count);
+        ordered.add(counter);
+    }
+
+    /**
+     * Fold another summary into this one (counts of shared keys add up, errors too), then
+     * keep the heaviest {@code capacity} counters.
+     */
+    public void merge(SpaceSaving other) {
+        for (Counter incoming : other.counters.values()) {
+            Counter counter = counters.get(incoming.key);
+            if (counter != null) {
+                ordered.remove(counter);
+                counter.count += incoming.count;
+                counter.error += incoming.error;
+            } else {
+                counter = new Counter(incoming.key, incoming.count, incoming.error);
+                counters.put(counter.key, counter);
+            }
+            ordered.add(counter);
+        }
+        while (counters.size() > capacity) {
+            counters.remove(ordered.pollFirst().key);
+        }
+    }
+
+    /**
+     * The {@code n} heaviest keys, heaviest first.
+     */
+    public List<Counter> top(int n) {
+        List<Counter> result = new ArrayList<>(Math.min(n, counters.size()));
+        for (Counter counter : ordered.descendingSet()) {
+            if (result.size() == n) {
+                break;
+            }
+            result.add(counter.copy());
+        }
+        return result;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public boolean isEmpty() {
+        return counters.isEmpty();
+    }
+
+    public SpaceSaving copy() {
+        SpaceSaving copy = new SpaceSaving(capacity);
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Rebuild a summary from persisted counters.
+     */
+    public static SpaceSaving of(int capacity, List<Counter> counters) {
+        SpaceSaving sketch = new SpaceSaving(capacity);
+        for (Counter counter : counters) {
+            Counter restored = new Counter(counter.key, counter.count, counter.error);
+            sketch.counters.put(restored.key, restored);
+            sketch.ordered.add(restored);
+        }
+        while (sketch.counters.size() > capacity) {
+            sketch.counters.remove(sketch.ordered.pollFirst().key);
+        }
+        return sketch;
+    }
+
+    /**
+     * A tracked key: {@code count} overestimates the true weight by at most {@code error}.
+     */
+    @Getter
+    public static final class Counter {
+        private String key;
+        private long count;
+        private long error;
+
+        Counter() {
+            // for Jackson
+        }
+
+        public Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        /**
+         * Lower bound of the true weight.
+         */
+        public long guaranteed() {
+            return count - error;
+        }
+
+        Counter copy() {
+            return new Counter(key, count, error);
+        }
+    }
+}
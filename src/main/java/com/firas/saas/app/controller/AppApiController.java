@@ -3,6 +3,10 @@ package com.firas.saas.app.controller;
 import com.firas.saas.app.entity.AppScope;
 import com.firas.saas.app.security.AppPrincipal;
 import com.firas.saas.app.security.RequiresScope;
+import com.firas.saas.app.service.AppDataService;
+import com.firas.saas.app.service.AppDataServiceImpl;
+import com.firas.saas.app.service.AppExportService;
+import com.firas.saas.common.response.CursorPage;
 import com.firas.saas.customer.dto.CustomerResponse;
 import com.firas.saas.customer.service.CustomerService;
 import com.firas.saas.order.dto.OrderResponse;
@@ -10,14 +14,28 @@ import com.firas.saas.order.entity.OrderStatus;
 import com.firas.saas.order.service.OrderService;
 import com.firas.saas.product.dto.ProductResponse;
 import com.firas.saas.product.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * API endpoints that apps call using their access tokens.
@@ -33,17 +51,29 @@ public class AppApiController {
     private final OrderService orderService;
     private final ProductService productService;
     private final CustomerService customerService;
+    private final AppDataService appDataService;
+    private final AppExportService appExportService;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final String EXPORT_SLOT = AppApiController.class.getName() + ".EXPORT_SLOT";
 
     // ==================== ORDERS ====================
 
     /**
-     * Get all orders for the tenant.
+     * Page through the tenant's orders in (updatedAt, id) order.
      */
     @GetMapping("/orders")
     @RequiresScope(AppScope.READ_ORDERS)
-    public ResponseEntity<List<OrderResponse>> getOrders(@AuthenticationPrincipal AppPrincipal principal) {
+    public ResponseEntity<CursorPage<Map<String, Object>>> getOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(name = "updated_since", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(defaultValue = "" + AppDataServiceImpl.DEFAULT_LIMIT) int limit,
+            @RequestParam(required = false) String fields,
+            @AuthenticationPrincipal AppPrincipal principal) {
         log.info("App {} fetching orders for tenant {}", principal.getClientId(), principal.getTenantId());
-        return ResponseEntity.ok(orderService.getAllOrders(principal.getTenantId()));
+        return ResponseEntity.ok(appDataService.listOrders(
+                principal.getTenantId(), cursor, updatedSince, limit, parseFields(fields)));
     }
 
     /**
@@ -75,13 +105,20 @@ public class AppApiController {
     // ==================== PRODUCTS ====================
 
     /**
-     * Get all products for the tenant.
+     * Page through the tenant's products in (updatedAt, id) order.
      */
     @GetMapping("/products")
     @RequiresScope(AppScope.READ_PRODUCTS)
-    public ResponseEntity<List<ProductResponse>> getProducts(@AuthenticationPrincipal AppPrincipal principal) {
+    public ResponseEntity<CursorPage<Map<String, Object>>> getProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(name = "updated_since", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(defaultValue = "" + AppDataServiceImpl.DEFAULT_LIMIT) int limit,
+            @RequestParam(required = false) String fields,
+            @AuthenticationPrincipal AppPrincipal principal) {
         log.info("App {} fetching products for tenant {}", principal.getClientId(), principal.getTenantId());
-        return ResponseEntity.ok(productService.getAllProducts(principal.getTenantId()));
+        return ResponseEntity.ok(appDataService.listProducts(
+                principal.getTenantId(), cursor, updatedSince, limit, parseFields(fields)));
     }
 
     /**
@@ -99,13 +136,20 @@ public class AppApiController {
     // ==================== CUSTOMERS ====================
 
     /**
-     * Get all customers for the tenant.
+     * Page through the tenant's customers in (updatedAt, id) order.
      */
     @GetMapping("/customers")
     @RequiresScope(AppScope.READ_CUSTOMERS)
-    public ResponseEntity<List<CustomerResponse>> getCustomers(@AuthenticationPrincipal AppPrincipal principal) {
+    public ResponseEntity<CursorPage<Map<String, Object>>> getCustomers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(name = "updated_since", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(defaultValue = "" + AppDataServiceImpl.DEFAULT_LIMIT) int limit,
+            @RequestParam(required = false) String fields,
+            @AuthenticationPrincipal AppPrincipal principal) {
         log.info("App {} fetching customers for tenant {}", principal.getClientId(), principal.getTenantId());
-        return ResponseEntity.ok(customerService.getAllCustomers(principal.getTenantId()));
+        return ResponseEntity.ok(appDataService.listCustomers(
+                principal.getTenantId(), cursor, updatedSince, limit, parseFields(fields)));
     }
 
     /**
@@ -120,6 +164,47 @@ public class AppApiController {
         return ResponseEntity.ok(customerService.getCustomerById(customerId, principal.getTenantId()));
     }
 
+    // ==================== BULK EXPORT ====================
+
+    /**
+     * Stream every order (with items) as NDJSON, in id order.
+     */
+    @GetMapping("/export/orders")
+    @RequiresScope(AppScope.READ_ORDERS)
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(name = "after_id", defaultValue = "0") long afterId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @AuthenticationPrincipal AppPrincipal principal,
+            HttpServletRequest request) {
+        return export(AppExportService.Resource.ORDERS, afterId, acceptEncoding, principal, request);
+    }
+
+    /**
+     * Stream every product (with variants) as NDJSON, in id order.
+     */
+    @GetMapping("/export/products")
+    @RequiresScope(AppScope.READ_PRODUCTS)
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(name = "after_id", defaultValue = "0") long afterId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @AuthenticationPrincipal AppPrincipal principal,
+            HttpServletRequest request) {
+        return export(AppExportService.Resource.PRODUCTS, afterId, acceptEncoding, principal, request);
+    }
+
+    /**
+     * Stream every customer as NDJSON, in id order.
+     */
+    @GetMapping("/export/customers")
+    @RequiresScope(AppScope.READ_CUSTOMERS)
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @RequestParam(name = "after_id", defaultValue = "0") long afterId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @AuthenticationPrincipal AppPrincipal principal,
+            HttpServletRequest request) {
+        return export(AppExportService.Resource.CUSTOMERS, afterId, acceptEncoding, principal, request);
+    }
+
     // ==================== APP INFO ====================
 
     /**
@@ -135,4 +220,75 @@ public class AppApiController {
                 "scopes", principal.getScopes()
         ));
     }
+
+    /**
+     * Reserve an export slot and hand the response to a streaming body that releases it when done.
+     * 429 when this node is already running max-concurrent exports. The body may never run (the
+     * async executor rejected it, the request timed out or failed first), so the slot is also
+     * released when async processing completes; whichever comes first releases it.
+     */
+    private ResponseEntity<StreamingResponseBody> export(AppExportService.Resource resource, long afterId,
+                                                         String acceptEncoding, AppPrincipal principal,
+                                                         HttpServletRequest request) {
+        if (!appExportService.tryAcquire()) {
+            log.warn("App {} export of {} rejected: export capacity reached", principal.getClientId(), resource);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable releaseSlot = () -> {
+            if (released.compareAndSet(false, true)) {
+                appExportService.release();
+            }
+        };
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_SLOT, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                releaseSlot.run();
+            }
+        });
+        log.info("App {} exporting {} for tenant {} after id {}",
+                principal.getClientId(), resource, principal.getTenantId(), afterId);
+
+        Long tenantId = principal.getTenantId();
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> {
+            try {
+                if (gzip) {
+                    GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                    appExportService.export(resource, tenantId, afterId, gzipOut);
+                    gzipOut.finish();
+                } else {
+                    appExportService.export(resource, tenantId, afterId, out);
+                }
+            } finally {
+                releaseSlot.run();
+            }
+        };
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(NDJSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(body);
+    }
+
+    /**
+     * Comma-separated field list, e.g. fields=id,status,updatedAt.
+     */
+    private Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> result = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            if (!field.isBlank()) {
+                result.add(field.trim());
+            }
+        }
+        return result;
+    }
 }
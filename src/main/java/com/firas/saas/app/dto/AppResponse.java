@@ -28,6 +28,8 @@ public class AppResponse {
     private String webhookUrl;
     private Set<AppScope> declaredScopes;
     private AppStatus status;
+    private Integer rateLimitBurst; // null = platform default
+    private Double rateLimitRefillPerSecond; // null = platform default
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -44,6 +46,8 @@ public class AppResponse {
                 .webhookUrl(app.getWebhookUrl())
                 .declaredScopes(app.getDeclaredScopes())
                 .status(app.getStatus())
+                .rateLimitBurst(app.getRateLimitBurst())
+                .rateLimitRefillPerSecond(app.getRateLimitRefillPerSecond())
                 .createdAt(app.getCreatedAt())
                 .updatedAt(app.getUpdatedAt())
                 .build();
@@ -1,7 +1,9 @@
 package com.firas.saas.app.dto;
 
 import com.firas.saas.app.entity.AppScope;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -32,4 +34,10 @@ public class UpdateAppRequest {
     private String webhookUrl;
 
     private Set<AppScope> declaredScopes;
+
+    @Min(value = 1, message = "Rate limit burst must be at least 1")
+    private Integer rateLimitBurst;
+
+    @Positive(message = "Rate limit refill must be positive")
+    private Double rateLimitRefillPerSecond;
 }
@@ -78,6 +78,16 @@ public class App extends BaseEntity {
     @Builder.Default
     private AppStatus status = AppStatus.DRAFT;
 
+    /**
+     * App API rate limit: requests an app may burst per tenant. Null uses the platform default.
+     */
+    private Integer rateLimitBurst;
+
+    /**
+     * App API rate limit: requests per second refilled per tenant. Null uses the platform default.
+     */
+    private Double rateLimitRefillPerSecond;
+
     /**
      * Check if the app is available for installation.
      */
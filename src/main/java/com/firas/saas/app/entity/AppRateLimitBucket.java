@@ -0,0 +1,33 @@
+package com.firas.saas.app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Shared token bucket for app API rate limiting (used by JdbcRateLimitStore in cluster mode).
+ * Written through JdbcTemplate; mapped here so the schema is created with the rest.
+ */
+@Entity
+@Table(name = "app_rate_limit_buckets", indexes = {
+    @Index(name = "idx_app_rate_limit_tat", columnList = "tat_nanos")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppRateLimitBucket {
+
+    /**
+     * clientId:tenantId
+     */
+    @Id
+    @Column(name = "bucket_key", length = 128)
+    private String bucketKey;
+
+    /**
+     * Theoretical arrival time of the next request, epoch nanoseconds.
+     */
+    @Column(name = "tat_nanos", nullable = false)
+    private long tatNanos;
+}
@@ -2,11 +2,15 @@ package com.firas.saas.app.entity;
 
 import com.firas.saas.webhook.entity.Webhook;
 
+import java.util.Collection;
 import java.util.Set;
 
 /**
  * Defines the permissions/scopes that an app can request.
  * Each scope maps to specific webhook events that the app can receive.
+ *
+ * Scopes are persisted by name, but authorization works on bitmasks built from the ordinal
+ * (see bit()), so new scopes must be appended and the enum must stay below 64 constants.
  */
 public enum AppScope {
     READ_ORDERS,
@@ -16,6 +20,35 @@ public enum AppScope {
     READ_CUSTOMERS,
     MANAGE_WEBHOOKS;
 
+    /**
+     * This scope's bit in a scope mask.
+     */
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * Bitmask of the given scopes.
+     */
+    public static long mask(Collection<AppScope> scopes) {
+        long mask = 0L;
+        for (AppScope scope : scopes) {
+            mask |= scope.bit();
+        }
+        return mask;
+    }
+
+    /**
+     * Bitmask of the given scopes.
+     */
+    public static long mask(AppScope... scopes) {
+        long mask = 0L;
+        for (AppScope scope : scopes) {
+            mask |= scope.bit();
+        }
+        return mask;
+    }
+
     /**
      * Returns the webhook events that require this scope.
      * Apps only receive webhooks for events they have scope for.
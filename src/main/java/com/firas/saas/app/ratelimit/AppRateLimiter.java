@@ -0,0 +1,51 @@
+package com.firas.saas.app.ratelimit;
+
+import com.firas.saas.app.security.AppPrincipal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token-bucket limits for the app API, one bucket per (clientId, tenantId).
+ *
+ * Each app may override the platform default burst and refill rate (App.rateLimitBurst /
+ * rateLimitRefillPerSecond). If the bucket store fails, requests are let through: the limiter
+ * protects the database, it must not take the app API down with it.
+ */
+@Component
+@Slf4j
+public class AppRateLimiter {
+
+    private final RateLimitStore store;
+    private final boolean enabled;
+    private final int defaultBurst;
+    private final double defaultRefillPerSecond;
+
+    public AppRateLimiter(RateLimitStore store,
+                          @Value("${app.app-api.rate-limit.enabled:true}") boolean enabled,
+                          @Value("${app.app-api.rate-limit.burst:40}") int defaultBurst,
+                          @Value("${app.app-api.rate-limit.refill-per-second:2}") double defaultRefillPerSecond) {
+        this.store = store;
+        this.enabled = enabled;
+        this.defaultBurst = defaultBurst;
+        this.defaultRefillPerSecond = defaultRefillPerSecond;
+    }
+
+    /**
+     * Take a token for one app API call, or null when rate limiting is off or unavailable.
+     */
+    public RateLimitDecision tryAcquire(AppPrincipal principal) {
+        if (!enabled) {
+            return null;
+        }
+        RateLimit limit = new RateLimit(
+                principal.getRateLimitBurst() != null ? principal.getRateLimitBurst() : defaultBurst,
+                principal.getRateLimitRefillPerSecond() != null ? principal.getRateLimitRefillPerSecond() : defaultRefillPerSecond);
+        try {
+            return store.tryConsume(principal.getClientId() + ":" + principal.getTenantId(), limit);
+        } catch (Exception e) {
+            log.warn("Rate limit store unavailable, allowing request: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.firas.saas.app.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free, per-node token buckets: one AtomicLong TAT per key, updated with compare-and-set.
+ *
+ * Buckets idle for longer than idle-minutes are dropped (an idle bucket is full anyway) and
+ * the number of buckets is bounded by max-size.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final long origin = System.nanoTime();
+
+    public InMemoryRateLimitStore(long maxSize, long idleMinutes) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+    }
+
+    @Override
+    public RateLimitDecision tryConsume(String key, RateLimit limit) {
+        return tryConsume(key, limit, System.nanoTime() - origin);
+    }
+
+    RateLimitDecision tryConsume(String key, RateLimit limit, long now) {
+        AtomicLong tat = buckets.get(key, k -> new AtomicLong(0L));
+        while (true) {
+            long current = tat.get();
+            long next = limit.next(current, now);
+            if (!limit.admits(next, now)) {
+                return limit.denied(current, now);
+            }
+            if (tat.compareAndSet(current, next)) {
+                return limit.allowed(next, now);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.firas.saas.app.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cluster-wide token buckets in the app_rate_limit_buckets table.
+ *
+ * Each request upserts, then locks its bucket row (SELECT ... FOR UPDATE), so every node sees
+ * the same TAT. The upsert comes first because two requests for a missing row would otherwise
+ * both take gap locks with the locking read and deadlock on the insert. The clock is the
+ * nodes' wall clock, which must be kept in sync (NTP). Costs one short transaction per app
+ * API call, on a table holding one row per active (app, tenant).
+ */
+@Slf4j
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.app-api.rate-limit.idle-minutes:60}")
+    private long idleMinutes;
+
+    public JdbcRateLimitStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public RateLimitDecision tryConsume(String key, RateLimit limit) {
+        return transactionTemplate.execute(status -> {
+            long now = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+            jdbcTemplate.update("INSERT INTO app_rate_limit_buckets (bucket_key, tat_nanos) VALUES (?, 0) " +
+                    "ON DUPLICATE KEY UPDATE bucket_key = bucket_key", key);
+            long tat = lockBucket(key);
+            long next = limit.next(tat, now);
+            if (!limit.admits(next, now)) {
+                return limit.denied(tat, now);
+            }
+            jdbcTemplate.update("UPDATE app_rate_limit_buckets SET tat_nanos = ? WHERE bucket_key = ?", next, key);
+            return limit.allowed(next, now);
+        });
+    }
+
+    private long lockBucket(String key) {
+        Long tat = jdbcTemplate.queryForObject(
+                "SELECT tat_nanos FROM app_rate_limit_buckets WHERE bucket_key = ? FOR UPDATE", Long.class, key);
+        return tat != null ? tat : 0L;
+    }
+
+    /**
+     * Drop buckets that have been full for a while; they are recreated full on demand.
+     */
+    @Scheduled(fixedDelayString = "${app.app-api.rate-limit.cleanup-interval-ms:600000}")
+    public void purgeIdleBuckets() {
+        long cutoff = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - TimeUnit.MINUTES.toNanos(idleMinutes);
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM app_rate_limit_buckets WHERE tat_nanos < ?", cutoff);
+            if (deleted > 0) {
+                log.debug("Purged {} idle rate limit buckets", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to purge rate limit buckets: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.firas.saas.app.ratelimit;
+
+import lombok.Getter;
+
+/**
+ * A token bucket: up to burst requests at once, refilled at refillPerSecond.
+ *
+ * Stores keep one long per bucket, the theoretical arrival time (TAT) of the next request
+ * in nanoseconds (GCRA). This is equivalent to tracking tokens and last-refill time, but fits
+ * a single compare-and-set or column. A bucket is full when its TAT is not after now.
+ */
+@Getter
+public final class RateLimit {
+
+    private final int burst;
+    private final double refillPerSecond;
+    private final long intervalNanos;   // time to refill one token
+    private final long capacityNanos;   // time to refill the whole bucket
+
+    public RateLimit(int burst, double refillPerSecond) {
+        if (burst < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit needs burst >= 1 and refill > 0");
+        }
+        this.burst = burst;
+        this.refillPerSecond = refillPerSecond;
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.capacityNanos = intervalNanos * burst;
+    }
+
+    /**
+     * TAT after taking one token from a bucket whose TAT is tat.
+     */
+    long next(long tat, long now) {
+        return Math.max(tat, now) + intervalNanos;
+    }
+
+    /**
+     * Whether taking the token that moves the TAT to next stays within the burst.
+     */
+    boolean admits(long next, long now) {
+        return next - now <= capacityNanos;
+    }
+
+    RateLimitDecision allowed(long next, long now) {
+        int remaining = (int) ((capacityNanos - (next - now)) / intervalNanos);
+        return new RateLimitDecision(true, burst, remaining, toSeconds(next - now), 0L);
+    }
+
+    RateLimitDecision denied(long tat, long now) {
+        long retryAfter = next(tat, now) - now - capacityNanos;
+        return new RateLimitDecision(false, burst, 0, toSeconds(Math.max(0L, tat - now)), Math.max(1L, toSeconds(retryAfter)));
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + 999_999_999L) / 1_000_000_000L;
+    }
+}
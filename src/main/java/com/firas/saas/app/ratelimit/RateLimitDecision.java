@@ -0,0 +1,18 @@
+package com.firas.saas.app.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of taking a token, with what the X-RateLimit-* response headers report.
+ */
+@Getter
+@AllArgsConstructor
+public class RateLimitDecision {
+
+    private final boolean allowed;
+    private final int limit;
+    private final int remaining;
+    private final long resetSeconds;      // until the bucket is full again
+    private final long retryAfterSeconds; // 0 when allowed
+}
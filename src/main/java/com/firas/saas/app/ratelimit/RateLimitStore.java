@@ -0,0 +1,15 @@
+package com.firas.saas.app.ratelimit;
+
+/**
+ * Where token buckets live (app.app-api.rate-limit.store).
+ *
+ * InMemoryRateLimitStore keeps buckets per node, so with N nodes behind a round-robin
+ * balancer an app gets up to N times its limit; JdbcRateLimitStore shares them across nodes.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Take one token from the bucket under key, creating a full bucket if there is none.
+     */
+    RateLimitDecision tryConsume(String key, RateLimit limit);
+}
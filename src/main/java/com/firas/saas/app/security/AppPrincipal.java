@@ -8,12 +8,15 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Principal representing an authenticated app (not a user).
  * Used when apps call the platform APIs with their access tokens.
+ * Immutable and free of the raw token value, so AppTokenCache can share it between requests.
  */
 @Getter
 public class AppPrincipal implements UserDetails {
@@ -23,7 +26,9 @@ public class AppPrincipal implements UserDetails {
     private final Long tenantId;
     private final String clientId;
     private final Set<AppScope> scopes;
-    private final String tokenValue;
+    private final long scopeMask; // AppScope.mask(scopes), what authorization checks use
+    private final Integer rateLimitBurst; // null = platform default
+    private final Double rateLimitRefillPerSecond; // null = platform default
     private final Collection<? extends GrantedAuthority> authorities;
 
     public AppPrincipal(AppAccessToken token) {
@@ -31,44 +36,50 @@ public class AppPrincipal implements UserDetails {
         this.installationId = token.getInstallation().getId();
         this.tenantId = token.getTenantId();
         this.clientId = token.getInstallation().getApp().getClientId();
-        this.scopes = token.getScopes();
-        this.tokenValue = token.getTokenValue();
+        this.scopes = Collections.unmodifiableSet(new HashSet<>(token.getScopes()));
+        this.scopeMask = AppScope.mask(scopes);
+        this.rateLimitBurst = token.getInstallation().getApp().getRateLimitBurst();
+        this.rateLimitRefillPerSecond = token.getInstallation().getApp().getRateLimitRefillPerSecond();
 
         // Convert scopes to authorities: SCOPE_READ_ORDERS, SCOPE_WRITE_ORDERS, etc.
         this.authorities = scopes.stream()
                 .map(scope -> new SimpleGrantedAuthority("SCOPE_" + scope.name()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toUnmodifiableList());
     }
 
     /**
      * Check if this app has a specific scope.
      */
     public boolean hasScope(AppScope scope) {
-        return scopes.contains(scope);
+        return (scopeMask & scope.bit()) != 0;
     }
 
     /**
      * Check if this app has any of the specified scopes.
      */
     public boolean hasAnyScope(AppScope... requiredScopes) {
-        for (AppScope scope : requiredScopes) {
-            if (scopes.contains(scope)) {
-                return true;
-            }
-        }
-        return false;
+        return hasAnyScope(AppScope.mask(requiredScopes));
     }
 
     /**
      * Check if this app has all of the specified scopes.
      */
     public boolean hasAllScopes(AppScope... requiredScopes) {
-        for (AppScope scope : requiredScopes) {
-            if (!scopes.contains(scope)) {
-                return false;
-            }
-        }
-        return true;
+        return hasAllScopes(AppScope.mask(requiredScopes));
+    }
+
+    /**
+     * Check if this app has any scope of a precomputed mask.
+     */
+    public boolean hasAnyScope(long requiredMask) {
+        return (scopeMask & requiredMask) != 0;
+    }
+
+    /**
+     * Check if this app has every scope of a precomputed mask.
+     */
+    public boolean hasAllScopes(long requiredMask) {
+        return (scopeMask & requiredMask) == requiredMask;
     }
 
     @Override
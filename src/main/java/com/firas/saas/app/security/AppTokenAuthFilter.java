@@ -1,14 +1,14 @@
 package com.firas.saas.app.security;
 
-import com.firas.saas.app.entity.AppAccessToken;
-import com.firas.saas.app.entity.InstallationStatus;
-import com.firas.saas.app.repository.AppAccessTokenRepository;
+import com.firas.saas.app.ratelimit.AppRateLimiter;
+import com.firas.saas.app.ratelimit.RateLimitDecision;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -18,7 +18,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.Optional;
 
 /**
  * Filter to authenticate app API requests using access tokens.
@@ -26,13 +25,18 @@ import java.util.Optional;
  *
  * Apps send their access token in the Authorization header:
  * Authorization: Bearer <access_token>
+ *
+ * Tokens are resolved through AppTokenCache, so steady-state requests do not touch the database.
+ * Authenticated calls then take a token from the app's bucket (AppRateLimiter); over the limit
+ * they get 429 with Retry-After, and every response carries X-RateLimit-* headers.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class AppTokenAuthFilter extends OncePerRequestFilter {
 
-    private final AppAccessTokenRepository tokenRepository;
+    private final AppTokenCache tokenCache;
+    private final AppRateLimiter rateLimiter;
 
     private static final String APP_API_PATH = "/api/v1/app/";
 
@@ -52,14 +56,28 @@ public class AppTokenAuthFilter extends OncePerRequestFilter {
             String token = extractTokenFromRequest(request);
 
             if (StringUtils.hasText(token)) {
-                Optional<AppAccessToken> accessTokenOpt = tokenRepository.findByTokenValue(token);
-
-                if (accessTokenOpt.isPresent()) {
-                    AppAccessToken accessToken = accessTokenOpt.get();
-
-                    // Validate token
-                    if (validateToken(accessToken)) {
-                        AppPrincipal principal = new AppPrincipal(accessToken);
+                AppTokenCache.CachedAppToken cachedToken = tokenCache.get(token);
+
+                if (cachedToken.isKnown()) {
+                    // Validate token (expiry is checked per request, the rest as of load)
+                    if (cachedToken.isValidAt(LocalDateTime.now())) {
+                        AppPrincipal principal = cachedToken.getPrincipal();
+
+                        // Rate limit per (app, tenant)
+                        RateLimitDecision decision = rateLimiter.tryAcquire(principal);
+                        if (decision != null) {
+                            response.setHeader("X-RateLimit-Limit", String.valueOf(decision.getLimit()));
+                            response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.getRemaining()));
+                            response.setHeader("X-RateLimit-Reset", String.valueOf(decision.getResetSeconds()));
+                            if (!decision.isAllowed()) {
+                                log.debug("Rate limit exceeded for app {} in tenant {}", principal.getClientId(), principal.getTenantId());
+                                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                                response.setHeader("Retry-After", String.valueOf(decision.getRetryAfterSeconds()));
+                                response.setContentType("application/json");
+                                response.getWriter().write("{\"error\":\"Rate limit exceeded\"}");
+                                return;
+                            }
+                        }
 
                         UsernamePasswordAuthenticationToken authentication =
                                 new UsernamePasswordAuthenticationToken(
@@ -109,26 +127,4 @@ public class AppTokenAuthFilter extends OncePerRequestFilter {
         }
         return null;
     }
-
-    private boolean validateToken(AppAccessToken token) {
-        // Check if token is revoked
-        if (token.isRevoked()) {
-            log.debug("Token is revoked");
-            return false;
-        }
-
-        // Check if token is expired
-        if (LocalDateTime.now().isAfter(token.getExpiresAt())) {
-            log.debug("Token is expired");
-            return false;
-        }
-
-        // Check if installation is still active
-        if (token.getInstallation().getStatus() != InstallationStatus.ACTIVE) {
-            log.debug("Installation is not active");
-            return false;
-        }
-
-        return true;
-    }
 }
@@ -0,0 +1,158 @@
+package com.firas.saas.app.security;
+
+import com.firas.saas.app.entity.AppAccessToken;
+import com.firas.saas.app.entity.InstallationStatus;
+import com.firas.saas.app.repository.AppAccessTokenRepository;
+import com.firas.saas.common.cache.CacheInvalidationBus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Access token → AppPrincipal cache for the app API.
+ *
+ * Replaces the token lookup (with installation and app fetch joins) AppTokenAuthFilter made on
+ * every /api/v1/app/** call. Entries are keyed by the SHA-256 of the token, so raw tokens are
+ * never kept in memory, and hold an immutable snapshot of the principal, the token expiry and
+ * whether the token was usable when loaded. Unknown tokens are cached too, for a shorter
+ * negative-ttl-seconds, so guessing traffic does not reach the database. Revoking or rotating
+ * an installation's tokens, or changing an app's settings, evicts the affected tokens on every
+ * node through the CacheInvalidationBus.
+ */
+@Component
+public class AppTokenCache {
+
+    public static final String CACHE_NAME = "app-token";
+
+    private final AppAccessTokenRepository tokenRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final TransactionTemplate readOnlyTx;
+    private final Cache<String, CachedAppToken> cache;
+
+    public AppTokenCache(AppAccessTokenRepository tokenRepository,
+                         CacheInvalidationBus invalidationBus,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.app-api.token-cache.max-size:50000}") long maxSize,
+                         @Value("${app.app-api.token-cache.ttl-seconds:300}") long ttlSeconds,
+                         @Value("${app.app-api.token-cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this.tokenRepository = tokenRepository;
+        this.invalidationBus = invalidationBus;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        long negativeTtlNanos = Duration.ofSeconds(negativeTtlSeconds).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedAppToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedAppToken entry, long currentTime) {
+                        return entry.isKnown() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedAppToken entry, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedAppToken entry, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        invalidationBus.subscribe(CACHE_NAME, this::evictLocally);
+    }
+
+    /**
+     * Snapshot of a token, loading it on first use. Never null; check isKnown() and isValidAt().
+     */
+    public CachedAppToken get(String tokenValue) {
+        return cache.get(hash(tokenValue), key -> load(tokenValue));
+    }
+
+    /**
+     * Evict every token of an installation on all nodes (after commit when called in a transaction).
+     */
+    public void invalidateInstallation(Long installationId) {
+        invalidationBus.publish(CACHE_NAME, "installation:" + installationId);
+    }
+
+    /**
+     * Evict every token of an app, across all its installations, on all nodes.
+     */
+    public void invalidateApp(Long appId) {
+        invalidationBus.publish(CACHE_NAME, "app:" + appId);
+    }
+
+    private void evictLocally(String key) {
+        String[] parts = key.split(":", 2);
+        Long id = Long.valueOf(parts[1]);
+        boolean byApp = parts[0].equals("app");
+        cache.asMap().values().removeIf(entry -> entry.isKnown()
+                && (byApp ? entry.getPrincipal().getAppId() : entry.getPrincipal().getInstallationId()).equals(id));
+    }
+
+    private CachedAppToken load(String tokenValue) {
+        return readOnlyTx.execute(status -> tokenRepository.findByTokenValue(tokenValue)
+                .map(CachedAppToken::of)
+                .orElse(CachedAppToken.UNKNOWN));
+    }
+
+    static String hash(String tokenValue) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(tokenValue.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Immutable view of an access token as of its load. Expiry is re-checked on every request,
+     * so a token that lapses while cached is still rejected.
+     */
+    @Getter
+    public static final class CachedAppToken {
+
+        static final CachedAppToken UNKNOWN = new CachedAppToken(null, null, false);
+
+        private final AppPrincipal principal; // null for unknown tokens
+        private final LocalDateTime expiresAt;
+        private final boolean usable; // not revoked and installation ACTIVE
+
+        private CachedAppToken(AppPrincipal principal, LocalDateTime expiresAt, boolean usable) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+            this.usable = usable;
+        }
+
+        static CachedAppToken of(AppAccessToken token) {
+            boolean usable = !token.isRevoked()
+                    && token.getInstallation().getStatus() == InstallationStatus.ACTIVE;
+            return new CachedAppToken(new AppPrincipal(token), token.getExpiresAt(), usable);
+        }
+
+        public boolean isKnown() {
+            return principal != null;
+        }
+
+        public boolean isValidAt(LocalDateTime now) {
+            return isKnown() && usable && !now.isAfter(expiresAt);
+        }
+    }
+}
@@ -6,22 +6,35 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Aspect to enforce @RequiresScope annotations on controller methods.
  * Checks if the authenticated app has the required scopes.
+ *
+ * Each annotated handler method is resolved once (at startup, or on first call for methods
+ * outside Spring MVC) into a ScopeRequirement mask, so a check is a map lookup and a single
+ * AND against AppPrincipal's scope mask instead of reflection per call.
  */
 @Aspect
 @Component
 @Slf4j
 public class ScopeEnforcementAspect {
 
+    private final Map<Method, ScopeRequirement> requirements = new ConcurrentHashMap<>();
+
     @Around("@annotation(com.firas.saas.app.security.RequiresScope)")
     public Object enforceScope(ProceedingJoinPoint joinPoint) throws Throwable {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -32,32 +45,19 @@ public class ScopeEnforcementAspect {
         }
 
         AppPrincipal principal = (AppPrincipal) authentication.getPrincipal();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
 
-        // Get the RequiresScope annotation
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        RequiresScope requiresScope = method.getAnnotation(RequiresScope.class);
-
-        if (requiresScope == null) {
+        ScopeRequirement requirement = requirementFor(method);
+        if (requirement == ScopeRequirement.NONE) {
             return joinPoint.proceed();
         }
 
-        AppScope[] requiredScopes = requiresScope.value();
-        boolean requireAll = requiresScope.requireAll();
-
-        boolean hasAccess;
-        if (requireAll) {
-            hasAccess = principal.hasAllScopes(requiredScopes);
-        } else {
-            hasAccess = principal.hasAnyScope(requiredScopes);
-        }
-
-        if (!hasAccess) {
+        if (!requirement.isSatisfiedBy(principal)) {
             log.warn("App {} denied access to {} - missing required scopes: {}",
                     principal.getClientId(),
                     method.getName(),
-                    requiredScopes);
-            throw new AccessDeniedException("Missing required scope(s): " + formatScopes(requiredScopes));
+                    requirement.getDescription());
+            throw new AccessDeniedException("Missing required scope(s): " + requirement.getDescription());
         }
 
         log.debug("App {} authorized for {} with scopes: {}",
@@ -68,12 +68,68 @@ public class ScopeEnforcementAspect {
         return joinPoint.proceed();
     }
 
-    private String formatScopes(AppScope[] scopes) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < scopes.length; i++) {
-            if (i > 0) sb.append(", ");
-            sb.append(scopes[i].name());
+    /**
+     * Resolve the requirements of every mapped handler method up front.
+     */
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        ApplicationContext context = event.getApplicationContext();
+        for (RequestMappingHandlerMapping mapping : context.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            for (HandlerMethod handlerMethod : mapping.getHandlerMethods().values()) {
+                Method method = handlerMethod.getMethod();
+                if (method.isAnnotationPresent(RequiresScope.class)) {
+                    requirementFor(method);
+                }
+            }
+        }
+        log.debug("Resolved scope requirements for {} handler methods", requirements.size());
+    }
+
+    ScopeRequirement requirementFor(Method method) {
+        return requirements.computeIfAbsent(method, ScopeRequirement::of);
+    }
+
+    /**
+     * The scopes a method requires, as a mask.
+     */
+    static final class ScopeRequirement {
+
+        static final ScopeRequirement NONE = new ScopeRequirement(0L, false, "");
+
+        private final long mask;
+        private final boolean requireAll;
+        private final String description;
+
+        private ScopeRequirement(long mask, boolean requireAll, String description) {
+            this.mask = mask;
+            this.requireAll = requireAll;
+            this.description = description;
+        }
+
+        static ScopeRequirement of(Method method) {
+            RequiresScope requiresScope = method.getAnnotation(RequiresScope.class);
+            if (requiresScope == null) {
+                return NONE;
+            }
+            AppScope[] scopes = requiresScope.value();
+            return new ScopeRequirement(AppScope.mask(scopes), requiresScope.requireAll(), formatScopes(scopes));
+        }
+
+        boolean isSatisfiedBy(AppPrincipal principal) {
+            return requireAll ? principal.hasAllScopes(mask) : principal.hasAnyScope(mask);
+        }
+
+        String getDescription() {
+            return description;
+        }
+
+        private static String formatScopes(AppScope[] scopes) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < scopes.length; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(scopes[i].name());
+            }
+            return sb.toString();
         }
-        return sb.toString();
     }
 }
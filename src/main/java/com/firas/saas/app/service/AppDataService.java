@@ -0,0 +1,38 @@
+package com.firas.saas.app.service;
+
+import com.firas.saas.common.response.CursorPage;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Paginated, field-selectable reads for the App API.
+ *
+ * Rows are returned in (updatedAt, id) order, starting after the cursor and optionally only
+ * those updated since a point in time, so apps can sync deltas. fields names the attributes to
+ * return (null or empty = all); only those columns are selected, and child collections
+ * (order items, product variants) are loaded, in one query per page, only when requested.
+ */
+public interface AppDataService {
+
+    /**
+     * Orders. Fields: id, orderNumber, customerEmail, customerPhone, status, totalPrice,
+     * shippingAddress, billingAddress, createdAt, updatedAt, items.
+     */
+    CursorPage<Map<String, Object>> listOrders(Long tenantId, String cursor, LocalDateTime updatedSince,
+                                               int limit, Set<String> fields);
+
+    /**
+     * Products. Fields: id, name, slug, description, imageUrl, categoryId, active, createdAt,
+     * updatedAt, variants.
+     */
+    CursorPage<Map<String, Object>> listProducts(Long tenantId, String cursor, LocalDateTime updatedSince,
+                                                 int limit, Set<String> fields);
+
+    /**
+     * Customers. Fields: id, firstName, lastName, email, phone, active, createdAt, updatedAt.
+     */
+    CursorPage<Map<String, Object>> listCustomers(Long tenantId, String cursor, LocalDateTime updatedSince,
+                                                  int limit, Set<String> fields);
+}
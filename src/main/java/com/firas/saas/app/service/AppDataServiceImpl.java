@@ -0,0 +1,238 @@
+package com.firas.saas.app.service;
+
+import com.firas.saas.common.response.CursorPage;
+import com.firas.saas.customer.entity.Customer;
+import com.firas.saas.order.entity.Order;
+import com.firas.saas.order.entity.OrderItem;
+import com.firas.saas.order.repository.OrderRepository;
+import com.firas.saas.product.entity.Product;
+import com.firas.saas.product.entity.ProductVariant;
+import com.firas.saas.product.repository.ProductVariantRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AppDataServiceImpl implements AppDataService {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 250;
+
+    private static final Resource ORDERS = new Resource(Order.class, "items",
+            "id", "orderNumber", "customerEmail", "customerPhone", "status", "totalPrice",
+            "shippingAddress", "billingAddress", "createdAt", "updatedAt");
+    private static final Resource PRODUCTS = new Resource(Product.class, "variants",
+            "id", "name", "slug", "description", "imageUrl", "categoryId:category.id", "active",
+            "createdAt", "updatedAt");
+    private static final Resource CUSTOMERS = new Resource(Customer.class, null,
+            "id", "firstName", "lastName", "email", "phone", "active", "createdAt", "updatedAt");
+
+    private final EntityManager entityManager;
+    private final OrderRepository orderRepository;
+    private final ProductVariantRepository variantRepository;
+
+    @Override
+    public CursorPage<Map<String, Object>> listOrders(Long tenantId, String cursor, LocalDateTime updatedSince,
+                                                      int limit, Set<String> fields) {
+        return list(ORDERS, tenantId, cursor, updatedSince, limit, fields, this::attachItems);
+    }
+
+    @Override
+    public CursorPage<Map<String, Object>> listProducts(Long tenantId, String cursor, LocalDateTime updatedSince,
+                                                        int limit, Set<String> fields) {
+        return list(PRODUCTS, tenantId, cursor, updatedSince, limit, fields, this::attachVariants);
+    }
+
+    @Override
+    public CursorPage<Map<String, Object>> listCustomers(Long tenantId, String cursor, LocalDateTime updatedSince,
+                                                         int limit, Set<String> fields) {
+        return list(CUSTOMERS, tenantId, cursor, updatedSince, limit, fields, null);
+    }
+
+    private CursorPage<Map<String, Object>> list(Resource resource, Long tenantId, String cursor,
+                                                 LocalDateTime updatedSince, int limit, Set<String> fields,
+                                                 BiConsumer<List<Long>, Map<Long, Map<String, Object>>> childLoader) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        boolean allFields = fields == null || fields.isEmpty();
+        for (String field : allFields ? Set.<String>of() : fields) {
+            if (!resource.paths.containsKey(field) && !field.equals(resource.child)) {
+                throw new IllegalArgumentException("Unknown field '" + field + "'. Allowed: " + resource.allowed());
+            }
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(resource.entity);
+        Path<LocalDateTime> updatedAt = root.get("updatedAt");
+        Path<Long> id = root.get("id");
+
+        // Keyset columns are always selected (the cursor is built from them); the rest only if asked for
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(id.alias("id"));
+        selections.add(updatedAt.alias("updatedAt"));
+        List<String> selected = new ArrayList<>();
+        resource.paths.forEach((field, path) -> {
+            if (allFields || fields.contains(field)) {
+                if (!field.equals("id") && !field.equals("updatedAt")) {
+                    selections.add(path(root, path).alias(field));
+                }
+                selected.add(field);
+            }
+        });
+        query.multiselect(selections);
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(root.get("tenantId"), tenantId));
+        if (updatedSince != null) {
+            where.add(cb.greaterThanOrEqualTo(updatedAt, updatedSince));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor after = Cursor.decode(cursor);
+            where.add(cb.or(
+                    cb.greaterThan(updatedAt, after.updatedAt),
+                    cb.and(cb.equal(updatedAt, after.updatedAt), cb.greaterThan(id, after.id))));
+        }
+        query.where(where.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(updatedAt), cb.asc(id));
+
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(pageSize + 1).getResultList();
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        Map<Long, Map<String, Object>> byId = new LinkedHashMap<>();
+        for (Tuple row : rows) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            for (String field : selected) {
+                item.put(field, row.get(field));
+            }
+            byId.put(row.get("id", Long.class), item);
+        }
+        if (childLoader != null && !byId.isEmpty() && (allFields || fields.contains(resource.child))) {
+            byId.values().forEach(item -> item.put(resource.child, new ArrayList<>()));
+            childLoader.accept(new ArrayList<>(byId.keySet()), byId);
+        }
+
+        String nextCursor = null;
+        if (!rows.isEmpty()) {
+            Tuple last = rows.get(rows.size() - 1);
+            nextCursor = new Cursor(last.get("updatedAt", LocalDateTime.class), last.get("id", Long.class)).encode();
+        }
+        return CursorPage.<Map<String, Object>>builder()
+                .data(new ArrayList<>(byId.values()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void attachItems(List<Long> orderIds, Map<Long, Map<String, Object>> orders) {
+        for (OrderItem item : orderRepository.findItemsByOrderIdIn(orderIds)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", item.getId());
+            row.put("productId", item.getProductId());
+            row.put("variantId", item.getVariantId());
+            row.put("productName", item.getProductName());
+            row.put("variantName", item.getVariantName());
+            row.put("sku", item.getSku());
+            row.put("price", item.getPrice());
+            row.put("quantity", item.getQuantity());
+            ((List<Object>) orders.get(item.getOrder().getId()).get("items")).add(row);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void attachVariants(List<Long> productIds, Map<Long, Map<String, Object>> products) {
+        for (ProductVariant variant : variantRepository.findAllByProductIdInOrderByIdAsc(productIds)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", variant.getId());
+            row.put("name", variant.getName());
+            row.put("sku", variant.getSku());
+            row.put("price", variant.getPrice());
+            row.put("stockLevel", variant.getStockLevel());
+            ((List<Object>) products.get(variant.getProduct().getId()).get("variants")).add(row);
+        }
+    }
+
+    private static Path<?> path(Root<?> root, String path) {
+        Path<?> result = root;
+        for (String part : path.split("\\.")) {
+            result = result.get(part);
+        }
+        return result;
+    }
+
+    /**
+     * Selectable fields of one entity: field name → attribute path ("name" or "name:path").
+     */
+    private static final class Resource {
+        private final Class<?> entity;
+        private final String child; // collection field loaded separately, or null
+        private final Map<String, String> paths = new LinkedHashMap<>();
+
+        Resource(Class<?> entity, String child, String... fields) {
+            this.entity = entity;
+            this.child = child;
+            for (String field : fields) {
+                String[] parts = field.split(":", 2);
+                paths.put(parts[0], parts.length > 1 ? parts[1] : parts[0]);
+            }
+        }
+
+        String allowed() {
+            List<String> allowed = new ArrayList<>(paths.keySet());
+            if (child != null) {
+                allowed.add(child);
+            }
+            return String.join(", ", allowed);
+        }
+    }
+
+    /**
+     * Opaque position after a row: base64url("updatedAt|id").
+     */
+    static final class Cursor {
+        final LocalDateTime updatedAt;
+        final Long id;
+
+        Cursor(LocalDateTime updatedAt, Long id) {
+            this.updatedAt = updatedAt;
+            this.id = id;
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((updatedAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+                return new Cursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
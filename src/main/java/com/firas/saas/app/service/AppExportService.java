@@ -0,0 +1,271 @@
+package com.firas.saas.app.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bulk export of a tenant's orders, products or customers as NDJSON (one JSON object per line),
+ * for app backfills.
+ *
+ * Rows are read through a streaming JDBC result set (fetch-size Integer.MIN_VALUE makes MySQL
+ * Connector/J stream row by row) and written straight to the response, so memory stays
+ * constant however large the tenant. Children (order items, product variants) come from the
+ * same query via a LEFT JOIN ordered by parent id, since a streaming connection cannot run
+ * other statements. Objects are emitted in id order; a client that is cut off resumes with
+ * afterId = the last complete line's id. Each export holds a database connection for its
+ * whole duration, so concurrent exports per node are capped (max-concurrent).
+ */
+@Service
+@Slf4j
+public class AppExportService {
+
+    public enum Resource { ORDERS, PRODUCTS, CUSTOMERS }
+
+    private static final String ORDERS_SQL =
+            "SELECT o.id, o.order_number, o.customer_email, o.customer_phone, o.status, o.total_price, " +
+            "o.shipping_address, o.billing_address, o.created_at, o.updated_at, " +
+            "i.id AS item_id, i.product_id, i.variant_id, i.product_name, i.variant_name, i.sku, i.price, i.quantity " +
+            "FROM orders o LEFT JOIN order_items i ON i.order_id = o.id " +
+            "WHERE o.tenant_id = ? AND o.id > ? ORDER BY o.id, i.id";
+
+    private static final String PRODUCTS_SQL =
+            "SELECT p.id, p.name, p.slug, p.description, p.image_url, p.category_id, p.active, p.created_at, p.updated_at, " +
+            "v.id AS variant_id, v.name AS variant_name, v.sku, v.price, v.stock_level " +
+            "FROM products p LEFT JOIN product_variants v ON v.product_id = p.id " +
+            "WHERE p.tenant_id = ? AND p.id > ? ORDER BY p.id, v.id";
+
+    private static final String CUSTOMERS_SQL =
+            "SELECT c.id, c.first_name, c.last_name, c.email, c.phone, c.active, c.created_at, c.updated_at " +
+            "FROM customers c WHERE c.tenant_id = ? AND c.id > ? ORDER BY c.id";
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Semaphore exportPermits;
+    private final int flushEvery;
+
+    public AppExportService(DataSource dataSource,
+                            ObjectMapper objectMapper,
+                            @Value("${app.app-api.export.fetch-size:-2147483648}") int fetchSize,
+                            @Value("${app.app-api.export.max-concurrent:4}") int maxConcurrent,
+                            @Value("${app.app-api.export.flush-every:500}") int flushEvery) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        this.exportPermits = new Semaphore(maxConcurrent);
+        this.flushEvery = flushEvery;
+    }
+
+    /**
+     * Reserve one of this node's export slots; false when all are in use.
+     * Every successful call must be paired with release().
+     */
+    public boolean tryAcquire() {
+        return exportPermits.tryAcquire();
+    }
+
+    public void release() {
+        exportPermits.release();
+    }
+
+    /**
+     * Write every row of the resource with id > afterId to out, one JSON object per line.
+     *
+     * @return number of objects written
+     */
+    public long export(Resource resource, Long tenantId, long afterId, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        generator.setRootValueSeparator(null);
+
+        NdjsonWriter writer = switch (resource) {
+            case ORDERS -> new OrderWriter(generator);
+            case PRODUCTS -> new ProductWriter(generator);
+            case CUSTOMERS -> new CustomerWriter(generator);
+        };
+        String sql = switch (resource) {
+            case ORDERS -> ORDERS_SQL;
+            case PRODUCTS -> PRODUCTS_SQL;
+            case CUSTOMERS -> CUSTOMERS_SQL;
+        };
+
+        try {
+            streamingJdbcTemplate.query(sql, writer, tenantId, afterId);
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // client went away
+        }
+        generator.flush();
+        log.info("Exported {} {} for tenant {} after id {}", writer.count, resource, tenantId, afterId);
+        return writer.count;
+    }
+
+    /**
+     * Turns consecutive result rows into NDJSON objects: a new parent id closes the previous
+     * object, so only the object being written is ever in memory.
+     */
+    private abstract class NdjsonWriter implements RowCallbackHandler {
+        final JsonGenerator gen;
+        Long currentId;
+        long count;
+
+        NdjsonWriter(JsonGenerator gen) {
+            this.gen = gen;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                long id = rs.getLong("id");
+                if (currentId == null || currentId != id) {
+                    finish();
+                    currentId = id;
+                    gen.writeStartObject();
+                    gen.writeNumberField("id", id);
+                    writeParent(rs);
+                }
+                writeChild(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            if (currentId == null) {
+                return;
+            }
+            endParent();
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+            if (++count % flushEvery == 0) {
+                gen.flush();
+            }
+            currentId = null;
+        }
+
+        abstract void writeParent(ResultSet rs) throws SQLException, IOException;
+
+        void writeChild(ResultSet rs) throws SQLException, IOException {
+        }
+
+        void endParent() throws IOException {
+        }
+
+        void field(String name, Object value) throws IOException {
+            gen.writeObjectField(name, value);
+        }
+    }
+
+    private class OrderWriter extends NdjsonWriter {
+        OrderWriter(JsonGenerator gen) {
+            super(gen);
+        }
+
+        @Override
+        void writeParent(ResultSet rs) throws SQLException, IOException {
+            field("orderNumber", rs.getString("order_number"));
+            field("customerEmail", rs.getString("customer_email"));
+            field("customerPhone", rs.getString("customer_phone"));
+            field("status", rs.getString("status"));
+            field("totalPrice", rs.getBigDecimal("total_price"));
+            field("shippingAddress", rs.getString("shipping_address"));
+            field("billingAddress", rs.getString("billing_address"));
+            field("createdAt", rs.getObject("created_at", LocalDateTime.class));
+            field("updatedAt", rs.getObject("updated_at", LocalDateTime.class));
+            gen.writeArrayFieldStart("items");
+        }
+
+        @Override
+        void writeChild(ResultSet rs) throws SQLException, IOException {
+            long itemId = rs.getLong("item_id");
+            if (rs.wasNull()) {
+                return;
+            }
+            gen.writeStartObject();
+            field("id", itemId);
+            field("productId", rs.getObject("product_id", Long.class));
+            field("variantId", rs.getObject("variant_id", Long.class));
+            field("productName", rs.getString("product_name"));
+            field("variantName", rs.getString("variant_name"));
+            field("sku", rs.getString("sku"));
+            field("price", rs.getObject("price", BigDecimal.class));
+            field("quantity", rs.getObject("quantity", Integer.class));
+            gen.writeEndObject();
+        }
+
+        @Override
+        void endParent() throws IOException {
+            gen.writeEndArray();
+        }
+    }
+
+    private class ProductWriter extends NdjsonWriter {
+        ProductWriter(JsonGenerator gen) {
+            super(gen);
+        }
+
+        @Override
+        void writeParent(ResultSet rs) throws SQLException, IOException {
+            field("name", rs.getString("name"));
+            field("slug", rs.getString("slug"));
+            field("description", rs.getString("description"));
+            field("imageUrl", rs.getString("image_url"));
+            field("categoryId", rs.getObject("category_id", Long.class));
+            field("active", rs.getBoolean("active"));
+            field("createdAt", rs.getObject("created_at", LocalDateTime.class));
+            field("updatedAt", rs.getObject("updated_at", LocalDateTime.class));
+            gen.writeArrayFieldStart("variants");
+        }
+
+        @Override
+        void writeChild(ResultSet rs) throws SQLException, IOException {
+            long variantId = rs.getLong("variant_id");
+            if (rs.wasNull()) {
+                return;
+            }
+            gen.writeStartObject();
+            field("id", variantId);
+            field("name", rs.getString("variant_name"));
+            field("sku", rs.getString("sku"));
+            field("price", rs.getObject("price", BigDecimal.class));
+            field("stockLevel", rs.getObject("stock_level", Integer.class));
+            gen.writeEndObject();
+        }
+
+        @Override
+        void endParent() throws IOException {
+            gen.writeEndArray();
+        }
+    }
+
+    private class CustomerWriter extends NdjsonWriter {
+        CustomerWriter(JsonGenerator gen) {
+            super(gen);
+        }
+
+        @Override
+        void writeParent(ResultSet rs) throws SQLException, IOException {
+            field("firstName", rs.getString("first_name"));
+            field("lastName", rs.getString("last_name"));
+            field("email", rs.getString("email"));
+            field("phone", rs.getString("phone"));
+            field("active", rs.getBoolean("active"));
+            field("createdAt", rs.getObject("created_at", LocalDateTime.class));
+            field("updatedAt", rs.getObject("updated_at", LocalDateTime.class));
+        }
+    }
+}
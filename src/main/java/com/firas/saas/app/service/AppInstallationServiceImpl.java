@@ -5,6 +5,7 @@ import com.firas.saas.app.entity.*;
 import com.firas.saas.app.repository.AppAccessTokenRepository;
 import com.firas.saas.app.repository.AppInstallationRepository;
 import com.firas.saas.app.repository.AppRepository;
+import com.firas.saas.app.security.AppTokenCache;
 import com.firas.saas.common.event.DomainEventPublisher;
 import com.firas.saas.common.exception.ResourceNotFoundException;
 import com.firas.saas.tenant.entity.Tenant;
@@ -28,6 +29,7 @@ public class AppInstallationServiceImpl implements AppInstallationService {
     private final AppRepository appRepository;
     private final AppInstallationRepository installationRepository;
     private final AppAccessTokenRepository tokenRepository;
+    private final AppTokenCache tokenCache;
     private final TenantRepository tenantRepository;
     private final DomainEventPublisher eventPublisher; // Observer pattern
     private final PasswordEncoder passwordEncoder;
@@ -102,6 +104,7 @@ public class AppInstallationServiceImpl implements AppInstallationService {
 
         // Revoke all tokens
         tokenRepository.revokeAllByInstallationId(installationId);
+        tokenCache.invalidateInstallation(installationId);
         log.info("Revoked all tokens for installation {}", installationId);
 
         // Update installation status
@@ -149,6 +152,7 @@ public class AppInstallationServiceImpl implements AppInstallationService {
 
         // Revoke old tokens
         tokenRepository.revokeAllByInstallationId(installationId);
+        tokenCache.invalidateInstallation(installationId);
 
         // Generate new token
         AppAccessToken newToken = createAccessToken(installation);
@@ -4,6 +4,7 @@ import com.firas.saas.app.dto.*;
 import com.firas.saas.app.entity.*;
 import com.firas.saas.app.repository.AppInstallationRepository;
 import com.firas.saas.app.repository.AppRepository;
+import com.firas.saas.app.security.AppTokenCache;
 import com.firas.saas.common.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +25,7 @@ public class AppServiceImpl implements AppService {
     private final AppRepository appRepository;
     private final AppInstallationRepository installationRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AppTokenCache tokenCache;
 
     @Override
     @Transactional
@@ -113,6 +115,16 @@ public class AppServiceImpl implements AppService {
         if (request.getDeclaredScopes() != null && !request.getDeclaredScopes().isEmpty()) {
             app.setDeclaredScopes(request.getDeclaredScopes());
         }
+        if (request.getRateLimitBurst() != null || request.getRateLimitRefillPerSecond() != null) {
+            if (request.getRateLimitBurst() != null) {
+                app.setRateLimitBurst(request.getRateLimitBurst());
+            }
+            if (request.getRateLimitRefillPerSecond() != null) {
+                app.setRateLimitRefillPerSecond(request.getRateLimitRefillPerSecond());
+            }
+            // Cached principals carry the limits
+            tokenCache.invalidateApp(appId);
+        }
 
         App savedApp = appRepository.save(app);
         log.info("Updated app: {} (ID: {})", savedApp.getName(), appId);
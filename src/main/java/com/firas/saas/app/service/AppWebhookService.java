@@ -3,13 +3,13 @@ package com.firas.saas.app.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.firas.saas.app.entity.*;
 import com.firas.saas.app.repository.AppInstallationRepository;
+import com.firas.saas.infrastructure.http.CircuitBreakerRegistry;
+import com.firas.saas.infrastructure.http.DeliveryHttpClient;
+import com.firas.saas.infrastructure.http.HostSaturatedException;
 import com.firas.saas.webhook.entity.Webhook;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.*;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
@@ -18,6 +18,8 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service to deliver webhook events to installed apps based on their granted scopes.
@@ -30,14 +32,21 @@ public class AppWebhookService {
 
     private final AppInstallationRepository installationRepository;
     private final ObjectMapper objectMapper;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final DeliveryHttpClient httpClient;
+    private final CircuitBreakerRegistry circuitBreakers;
 
     /**
      * Deliver a webhook event to all apps installed in the tenant that have the required scope.
      * APP_INSTALLED and APP_UNINSTALLED are delivered regardless of scope.
+     *
+     * Runs on the caller's thread. Requests to all apps are sent concurrently, then awaited; the
+     * first failure (open circuit, transport error, 429 or 5xx) is rethrown once every app had its
+     * turn, so the relay retries the event. Apps that already got it receive it again on the retry
+     * under the same event id.
+     *
+     * @param sourceEventId id of the domain event, so apps can dedupe redelivered events
      */
-    @Async
-    public void deliverToApps(Webhook.WebhookEvent event, Map<String, Object> data, Long tenantId) {
+    public void deliverToApps(String sourceEventId, Webhook.WebhookEvent event, Map<String, Object> data, Long tenantId) {
         // Get required scope for this event
         AppScope requiredScope = AppScope.getRequiredScopeForEvent(event);
 
@@ -50,22 +59,38 @@ public class AppWebhookService {
             return;
         }
 
-        String eventId = "app_evt_" + UUID.randomUUID().toString().replace("-", "");
+        // Derived from the outbox event id: a relayed duplicate carries the same id
+        String eventId = "app_" + sourceEventId;
 
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>();
         for (AppInstallation installation : installations) {
+            // Check if app should receive this event
+            if (shouldDeliverToApp(installation, event, requiredScope)) {
+                deliveries.add(deliverToApp(installation, event, eventId, data, tenantId));
+            } else {
+                log.debug("App {} does not have scope for event {} in tenant {}",
+                        installation.getApp().getName(), event, tenantId);
+            }
+        }
+
+        RuntimeException failure = null;
+        for (CompletableFuture<Void> delivery : deliveries) {
             try {
-                // Check if app should receive this event
-                if (shouldDeliverToApp(installation, event, requiredScope)) {
-                    deliverToApp(installation, event, eventId, data, tenantId);
+                delivery.join();
+            } catch (CompletionException e) {
+                RuntimeException cause = e.getCause() instanceof RuntimeException runtime
+                        ? runtime
+                        : new IllegalStateException(e.getCause());
+                if (failure == null) {
+                    failure = cause;
                 } else {
-                    log.debug("App {} does not have scope for event {} in tenant {}",
-                            installation.getApp().getName(), event, tenantId);
+                    failure.addSuppressed(cause);
                 }
-            } catch (Exception e) {
-                log.error("Failed to deliver event {} to app {}: {}",
-                        event, installation.getApp().getName(), e.getMessage());
             }
         }
+        if (failure != null) {
+            throw failure;
+        }
     }
 
     /**
@@ -87,13 +112,22 @@ public class AppWebhookService {
     }
 
     /**
-     * Deliver webhook to a specific app installation.
+     * Deliver webhook to a specific app installation on the shared non-blocking client.
+     * The future fails when the app did not get the event: circuit open, payload or transport
+     * error, 429 or 5xx. Other 4xx responses are final and only logged.
      */
-    private void deliverToApp(AppInstallation installation, Webhook.WebhookEvent event,
-                               String eventId, Map<String, Object> data, Long tenantId) {
+    private CompletableFuture<Void> deliverToApp(AppInstallation installation, Webhook.WebhookEvent event,
+                                                 String eventId, Map<String, Object> data, Long tenantId) {
         App app = installation.getApp();
         String webhookUrl = app.getWebhookUrl();
 
+        String breakerKey = "app:" + webhookUrl;
+        if (!circuitBreakers.allowRequest(breakerKey)) {
+            log.warn("Skipping {} for app {}: circuit open for {}", event, app.getName(), webhookUrl);
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                    "Circuit open for app " + app.getName() + " webhook"));
+        }
+
         log.info("Delivering {} to app {} at {}", event, app.getName(), webhookUrl);
 
         try {
@@ -118,33 +152,52 @@ public class AppWebhookService {
             String signature = generateSignature(signaturePayload, app.getClientSecretHash());
 
             // Prepare headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("X-Webhook-Event", event.name());
-            headers.set("X-Webhook-Signature", "t=" + timestamp + ",v1=" + signature);
-            headers.set("X-Webhook-Event-Id", eventId);
-            headers.set("X-App-Client-Id", app.getClientId());
-            headers.set("User-Agent", "SaaS-Platform-Webhook/1.0");
-
-            HttpEntity<String> request = new HttpEntity<>(payloadJson, headers);
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("X-Webhook-Event", event.name());
+            headers.put("X-Webhook-Signature", "t=" + timestamp + ",v1=" + signature);
+            headers.put("X-Webhook-Event-Id", eventId);
+            headers.put("X-App-Client-Id", app.getClientId());
+            headers.put("User-Agent", "SaaS-Platform-Webhook/1.0");
 
             // Send webhook
-            ResponseEntity<String> response = restTemplate.exchange(
-                    webhookUrl,
-                    HttpMethod.POST,
-                    request,
-                    String.class);
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                log.info("Successfully delivered {} to app {} (status: {})",
-                        event, app.getName(), response.getStatusCode());
-            } else {
-                log.warn("Unexpected response from app {} for event {}: {}",
-                        app.getName(), event, response.getStatusCode());
-            }
+            String appName = app.getName();
+            return httpClient.postJson(webhookUrl, headers, payloadJson)
+                    .handle((response, ex) -> {
+                        if (ex != null) {
+                            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                            if (cause instanceof HostSaturatedException) {
+                                circuitBreakers.release(breakerKey);
+                            } else {
+                                circuitBreakers.recordFailure(breakerKey);
+                            }
+                            log.error("Failed to deliver {} to app {}: {}", event, appName, cause.getMessage());
+                            throw new IllegalStateException("Failed to deliver " + event + " to app " + appName, cause);
+                        }
+
+                        boolean retryable = response.getStatusCode() >= 500 || response.getStatusCode() == 429;
+                        if (retryable) {
+                            circuitBreakers.recordFailure(breakerKey);
+                        } else {
+                            circuitBreakers.recordSuccess(breakerKey);
+                        }
+                        if (response.is2xxSuccessful()) {
+                            log.info("Successfully delivered {} to app {} (status: {})",
+                                    event, appName, response.getStatusCode());
+                        } else {
+                            log.warn("Unexpected response from app {} for event {}: {}",
+                                    appName, event, response.getStatusCode());
+                        }
+                        if (retryable) {
+                            throw new IllegalStateException("App " + appName + " answered " + event
+                                    + " with status " + response.getStatusCode());
+                        }
+                        return null;
+                    });
         } catch (Exception e) {
+            circuitBreakers.release(breakerKey);
             log.error("Failed to deliver {} to app {}: {}", event, app.getName(), e.getMessage());
-            // In production, you'd queue for retry
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                    "Failed to deliver " + event + " to app " + app.getName(), e));
         }
     }
 
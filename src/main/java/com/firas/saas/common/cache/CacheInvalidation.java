@@ -0,0 +1,44 @@
+package com.firas.saas.common.cache;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * One broadcast cache invalidation, read by the other nodes (JdbcCacheInvalidationBus).
+ *
+ * Not a BaseEntity: pooled ids only increase per node, while readers page through the table by
+ * id, so the id is the database's auto-increment. Rows only live for a few minutes.
+ */
+@Entity
+@Table(name = "cache_invalidations", indexes = {
+    @Index(name = "idx_cache_invalidation_created", columnList = "created_at")
+})
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String cacheName;
+
+    @Column(nullable = false, length = 500)
+    private String cacheKey;
+
+    @Column(nullable = false, length = 64)
+    private String originNode; // Publishing node; it has already invalidated locally
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt; // Only used to purge old rows
+}
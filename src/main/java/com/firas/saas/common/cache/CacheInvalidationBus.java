@@ -0,0 +1,25 @@
+package com.firas.saas.common.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts cache invalidations to every node running the application.
+ *
+ * Implementations deliver each published key to the subscribers of the cache on all nodes,
+ * including the publishing node. When called inside a transaction, delivery happens after
+ * commit so no node can reload the old state between eviction and commit.
+ *
+ * Select with app.cache.invalidation.mode: "local" (single node) or "jdbc" (shared table).
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * Invalidate a key of the named cache on all nodes.
+     */
+    void publish(String cacheName, String key);
+
+    /**
+     * Register a local handler for invalidations of the named cache.
+     */
+    void subscribe(String cacheName, Consumer<String> listener);
+}
@@ -0,0 +1,100 @@
+package com.firas.saas.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Cluster-wide invalidation bus backed by the cache_invalidations table.
+ *
+ * publish() inserts a row in the caller's transaction (so remote nodes only see committed
+ * changes) and invalidates locally after commit. Every node reads the rows after the last id it
+ * has seen, so a poll is a primary key range scan and does not depend on the nodes' clocks.
+ *
+ * Auto-increment ids are assigned at insert, not at commit: a row can become visible after a
+ * higher id was already read. Ids skipped over are kept as gaps and re-read on the next polls
+ * until they show up or lookback-seconds pass (a rolled back insert never fills its gap).
+ */
+@Slf4j
+public class JdbcCacheInvalidationBus implements CacheInvalidationBus {
+
+    private static final int MAX_TRACKED_GAP = 10_000; // larger jumps are not waited on
+
+    private final CacheInvalidationRepository repository;
+    private final LocalCacheInvalidationBus localBus = new LocalCacheInvalidationBus();
+    private final String nodeId = UUID.randomUUID().toString();
+    // Only touched by poll(), which never overlaps itself
+    private final NavigableMap<Long, Long> gaps = new TreeMap<>(); // skipped id -> when noticed (ms)
+    private long lastSeenId = -1; // -1 until the first poll
+
+    @Value("${app.cache.invalidation.lookback-seconds:30}")
+    private long lookbackSeconds;
+
+    @Value("${app.cache.invalidation.retention-minutes:10}")
+    private long retentionMinutes;
+
+    public JdbcCacheInvalidationBus(CacheInvalidationRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void publish(String cacheName, String key) {
+        repository.save(CacheInvalidation.builder()
+                .cacheName(cacheName)
+                .cacheKey(key)
+                .originNode(nodeId)
+                .build());
+        localBus.publish(cacheName, key);
+    }
+
+    @Override
+    public void subscribe(String cacheName, Consumer<String> listener) {
+        localBus.subscribe(cacheName, listener);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            if (lastSeenId < 0) {
+                // Caches start empty: nothing published before this node started concerns it
+                lastSeenId = repository.findMaxId();
+                return;
+            }
+            long now = System.currentTimeMillis();
+            gaps.values().removeIf(noticedAt -> noticedAt < now - lookbackSeconds * 1000);
+
+            long after = gaps.isEmpty() ? lastSeenId : Math.min(gaps.firstKey() - 1, lastSeenId);
+            for (CacheInvalidation invalidation : repository.findAllByIdGreaterThanOrderByIdAsc(after)) {
+                long id = invalidation.getId();
+                if (id > lastSeenId) {
+                    if (id - lastSeenId - 1 <= MAX_TRACKED_GAP) {
+                        for (long skipped = lastSeenId + 1; skipped < id; skipped++) {
+                            gaps.put(skipped, now);
+                        }
+                    }
+                    lastSeenId = id;
+                } else if (gaps.remove(id) == null) {
+                    continue; // delivered by an earlier poll
+                }
+                if (!nodeId.equals(invalidation.getOriginNode())) {
+                    localBus.deliver(invalidation.getCacheName(), invalidation.getCacheKey());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to poll cache invalidations: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.cleanup-interval-ms:300000}")
+    @Transactional
+    public void purge() {
+        repository.deleteOlderThan(LocalDateTime.now().minusMinutes(retentionMinutes));
+    }
+}
@@ -0,0 +1,53 @@
+package com.firas.saas.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process invalidation bus: delivers to subscribers on this node only.
+ * Also used by JdbcCacheInvalidationBus for local fan-out.
+ */
+@Slf4j
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String cacheName, String key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(cacheName, key);
+                }
+            });
+        } else {
+            deliver(cacheName, key);
+        }
+    }
+
+    @Override
+    public void subscribe(String cacheName, Consumer<String> listener) {
+        listeners.computeIfAbsent(cacheName, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Invoke local subscribers immediately.
+     */
+    void deliver(String cacheName, String key) {
+        for (Consumer<String> listener : listeners.getOrDefault(cacheName, List.of())) {
+            try {
+                listener.accept(key);
+            } catch (Exception e) {
+                log.error("Cache invalidation of {} [{}] failed: {}", cacheName, key, e.getMessage());
+            }
+        }
+    }
+}
@@ -9,18 +9,23 @@ import java.util.Map;
 /**
  * Base class for all domain events in the system.
  * Uses Spring's ApplicationEvent for Observer pattern implementation.
+ *
+ * Events are delivered by OutboxRelay after the producing transaction commits, at least once.
+ * Listeners that must not double-apply an event should dedupe on eventId.
  */
 @Getter
 public class DomainEvent extends ApplicationEvent {
 
+    private final String eventId;
     private final Webhook.WebhookEvent eventType;
     private final Map<String, Object> data;
     private final Long tenantId;
     private final String tenantSlug;
 
-    public DomainEvent(Object source, Webhook.WebhookEvent eventType,
+    public DomainEvent(Object source, String eventId, Webhook.WebhookEvent eventType,
                        Map<String, Object> data, Long tenantId, String tenantSlug) {
         super(source);
+        this.eventId = eventId;
         this.eventType = eventType;
         this.data = data;
         this.tenantId = tenantId;
@@ -1,17 +1,23 @@
 package com.firas.saas.common.event;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.firas.saas.webhook.entity.Webhook;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Publisher for domain events.
  * This is the Subject in the Observer pattern.
  *
  * Services use this to publish events without knowing who will handle them.
+ * Events are written to the transactional outbox in the caller's transaction, so an event
+ * exists if and only if the business change committed. OutboxRelay delivers them to listeners.
  *
  * Example usage:
  * <pre>
@@ -22,20 +28,37 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class DomainEventPublisher {
 
-    private final ApplicationEventPublisher applicationEventPublisher;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
 
     /**
      * Publish a domain event.
-     * All registered listeners will be notified.
+     * All registered listeners will be notified once the surrounding transaction commits.
      *
      * @param eventType The type of event (e.g., ORDER_CREATED)
      * @param data The event payload data
      * @param tenantId The tenant this event belongs to
      * @param tenantSlug The tenant's slug identifier
      */
+    @Transactional
     public void publish(Webhook.WebhookEvent eventType, Map<String, Object> data,
                         Long tenantId, String tenantSlug) {
-        DomainEvent event = new DomainEvent(this, eventType, data, tenantId, tenantSlug);
-        applicationEventPublisher.publishEvent(event);
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event data for " + eventType + " is not serializable", e);
+        }
+
+        OutboxEvent outboxEvent = OutboxEvent.builder()
+                .eventId("evt_" + UUID.randomUUID().toString().replace("-", ""))
+                .eventType(eventType)
+                .tenantSlug(tenantSlug)
+                .payload(payload)
+                .status(OutboxEvent.OutboxStatus.PENDING)
+                .availableAt(LocalDateTime.now())
+                .build();
+        outboxEvent.setTenantId(tenantId);
+        outboxEventRepository.save(outboxEvent);
     }
 }
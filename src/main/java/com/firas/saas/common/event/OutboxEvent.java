@@ -0,0 +1,62 @@
+package com.firas.saas.common.event;
+
+import com.firas.saas.common.base.TenantEntity;
+import com.firas.saas.webhook.entity.Webhook;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox row for a domain event.
+ * Written in the same transaction as the business change, relayed to listeners by OutboxRelay.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_due", columnList = "status, available_at"),
+    @Index(name = "idx_outbox_dispatched", columnList = "status, dispatched_at"),
+    @Index(name = "idx_outbox_tenant_queue", columnList = "tenant_id, status, created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent extends TenantEntity {
+
+    @Column(name = "event_id", nullable = false, unique = true)
+    private String eventId; // Stable ID carried on the DomainEvent for idempotent listeners
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Webhook.WebhookEvent eventType;
+
+    private String tenantSlug;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload; // JSON event data
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt; // Next relay attempt; doubles as the claim lease expiry while DISPATCHING
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    public enum OutboxStatus {
+        PENDING,     // Waiting to be relayed
+        DISPATCHING, // Claimed by a relay node until availableAt
+        DISPATCHED,  // Delivered to all listeners
+        FAILED       // Gave up after max attempts
+    }
+}
@@ -0,0 +1,50 @@
+package com.firas.saas.common.event;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lock a batch of due events, skipping rows already locked by another relay node.
+     * Ordered by createdAt first: pooled ids are only monotonic per node, not across nodes.
+     * Events queued behind an earlier event of their tenant that is not due (in backoff, or
+     * leased to another node) are left out, so a blocked tenant does not fill the batch.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status IN :statuses AND e.availableAt <= :now"
+            + " AND NOT EXISTS (SELECT 1 FROM OutboxEvent b WHERE b.tenantId = e.tenantId"
+            + " AND b.status IN :statuses AND b.availableAt > :now"
+            + " AND (b.createdAt < e.createdAt OR (b.createdAt = e.createdAt AND b.id < e.id)))"
+            + " ORDER BY e.createdAt, e.id")
+    List<OutboxEvent> findDueForClaim(@Param("statuses") List<OutboxEvent.OutboxStatus> statuses,
+                                      @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Ids of a tenant's unfinished events in relay order. A plain read, so rows locked by
+     * another relay node are included.
+     */
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.tenantId = :tenantId AND e.status IN :statuses ORDER BY e.createdAt, e.id")
+    List<Long> findUnfinishedIds(@Param("tenantId") Long tenantId,
+                                 @Param("statuses") List<OutboxEvent.OutboxStatus> statuses, Pageable pageable);
+
+    long countByStatusInAndAvailableAtBefore(List<OutboxEvent.OutboxStatus> statuses, LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = :status AND e.dispatchedAt < :cutoff")
+    int deleteByStatusAndDispatchedAtBefore(@Param("status") OutboxEvent.OutboxStatus status,
+                                            @Param("cutoff") LocalDateTime cutoff);
+}
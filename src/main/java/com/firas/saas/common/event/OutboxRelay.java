@@ -0,0 +1,244 @@
+package com.firas.saas.common.event;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relays committed outbox events to in-process listeners (WebhookEventListener, ...).
+ *
+ * Each tick locks due PENDING rows (and DISPATCHING rows whose lease expired) with
+ * FOR UPDATE SKIP LOCKED, so several nodes can relay concurrently without double-claiming.
+ *
+ * Events of one tenant are dispatched in (createdAt, id) order. A node only claims the run of
+ * a tenant's events that starts at the tenant's oldest unfinished (PENDING or DISPATCHING)
+ * event, so while any node holds or waits on an earlier event, later ones stay put. A failed
+ * event stops its tenant: it is rescheduled with backoff, the tenant's later claimed events go
+ * back to PENDING without counting an attempt, and nothing after it is relayed until it
+ * succeeds or reaches max-attempts (FAILED). Different tenants run in parallel on the
+ * outboxRelayExecutor pool. Delivery is at-least-once: a crash between dispatch and marking
+ * DISPATCHED re-sends the event with the same eventId.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    private static final List<OutboxEvent.OutboxStatus> CLAIMABLE_STATUSES = List.of(
+            OutboxEvent.OutboxStatus.PENDING,
+            OutboxEvent.OutboxStatus.DISPATCHING // only when the lease in availableAt has expired
+    );
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader payloadReader;
+    private final AtomicLong pending = new AtomicLong();
+
+    @Value("${app.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-batches-per-tick:20}")
+    private int maxBatchesPerTick;
+
+    @Value("${app.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       ApplicationEventPublisher applicationEventPublisher,
+                       @Qualifier("outboxRelayExecutor") ThreadPoolTaskExecutor executor,
+                       PlatformTransactionManager transactionManager,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Keep prices exact when event data is read back from JSON
+        this.payloadReader = objectMapper.readerFor(new TypeReference<Map<String, Object>>() {})
+                .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events waiting to be relayed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        for (int batch = 0; batch < maxBatchesPerTick; batch++) {
+            Claim claimed = claimBatch();
+            if (claimed.events().isEmpty()) {
+                break; // nothing due, or only events another node is still relaying ahead of
+            }
+
+            // Per-tenant ordering: a tenant's events run in sequence, tenants in parallel
+            Map<Long, List<OutboxEvent>> byTenant = groupByTenant(claimed.events());
+
+            Map<Long, String> failures = new ConcurrentHashMap<>();
+            Set<Long> notAttempted = ConcurrentHashMap.newKeySet();
+            List<CompletableFuture<Void>> inFlight = new ArrayList<>(byTenant.size());
+            for (List<OutboxEvent> tenantEvents : byTenant.values()) {
+                inFlight.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < tenantEvents.size(); i++) {
+                        OutboxEvent event = tenantEvents.get(i);
+                        try {
+                            dispatch(event);
+                        } catch (Exception e) {
+                            log.error("Failed to relay outbox event {} ({}): {}",
+                                    event.getEventId(), event.getEventType(), e.getMessage());
+                            failures.put(event.getId(), String.valueOf(e.getMessage()));
+                            // Later events of this tenant must wait for this one
+                            tenantEvents.subList(i + 1, tenantEvents.size())
+                                    .forEach(later -> notAttempted.add(later.getId()));
+                            break;
+                        }
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+
+            recordOutcome(claimed.events(), failures, notAttempted);
+
+            if (claimed.locked() < batchSize) {
+                break;
+            }
+        }
+
+        pending.set(outboxEventRepository.countByStatusInAndAvailableAtBefore(
+                CLAIMABLE_STATUSES, LocalDateTime.now()));
+    }
+
+    /**
+     * Remove relayed events once they are older than the retention window.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-interval-ms:3600000}")
+    public void purgeDispatched() {
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deleteByStatusAndDispatchedAtBefore(
+                OutboxEvent.OutboxStatus.DISPATCHED, LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} dispatched outbox events", deleted);
+        }
+    }
+
+    /**
+     * Lock a batch of due events and claim, per tenant, the locked events that continue the
+     * tenant's queue from its oldest unfinished event. Locked events that are not claimed
+     * (an earlier event is held by another node or waits on its backoff) are left untouched
+     * and unlocked at commit.
+     */
+    private Claim claimBatch() {
+        Claim claim = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> due = outboxEventRepository.findDueForClaim(
+                    CLAIMABLE_STATUSES, now, PageRequest.of(0, batchSize));
+
+            List<OutboxEvent> claimable = new ArrayList<>(due.size());
+            groupByTenant(due).forEach((tenantId, locked) -> claimable.addAll(headRun(tenantId, locked)));
+
+            LocalDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+            for (OutboxEvent event : claimable) {
+                event.setStatus(OutboxEvent.OutboxStatus.DISPATCHING);
+                event.setAvailableAt(leaseUntil);
+                event.setAttempts(event.getAttempts() + 1);
+            }
+            return new Claim(claimable, due.size());
+        });
+        return claim != null ? claim : new Claim(List.of(), 0);
+    }
+
+    /**
+     * The leading locked events of a tenant's queue of unfinished events. A plain read: rows
+     * another node locked in the same instant are still unfinished and stop the run.
+     */
+    private List<OutboxEvent> headRun(Long tenantId, List<OutboxEvent> locked) {
+        if (tenantId == null) {
+            return locked; // not tenant-scoped, no order to keep
+        }
+        List<Long> queue = outboxEventRepository.findUnfinishedIds(
+                tenantId, CLAIMABLE_STATUSES, PageRequest.of(0, locked.size()));
+        int run = 0;
+        while (run < locked.size() && run < queue.size() && queue.get(run).equals(locked.get(run).getId())) {
+            run++;
+        }
+        return locked.subList(0, run);
+    }
+
+    private static Map<Long, List<OutboxEvent>> groupByTenant(List<OutboxEvent> events) {
+        Map<Long, List<OutboxEvent>> byTenant = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            byTenant.computeIfAbsent(event.getTenantId(), k -> new ArrayList<>()).add(event);
+        }
+        return byTenant;
+    }
+
+    private void dispatch(OutboxEvent event) throws Exception {
+        Map<String, Object> data = payloadReader.readValue(event.getPayload());
+        applicationEventPublisher.publishEvent(new DomainEvent(this, event.getEventId(),
+                event.getEventType(), data, event.getTenantId(), event.getTenantSlug()));
+    }
+
+    private void recordOutcome(List<OutboxEvent> claimed, Map<Long, String> failures, Set<Long> notAttempted) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> events = outboxEventRepository.findAllById(
+                    claimed.stream().map(OutboxEvent::getId).toList());
+
+            for (OutboxEvent event : events) {
+                String error = failures.get(event.getId());
+                if (notAttempted.contains(event.getId())) {
+                    // Behind a failed event of its tenant: release the claim, it was not tried
+                    event.setStatus(OutboxEvent.OutboxStatus.PENDING);
+                    event.setAvailableAt(now);
+                    event.setAttempts(event.getAttempts() - 1);
+                } else if (error == null) {
+                    event.setStatus(OutboxEvent.OutboxStatus.DISPATCHED);
+                    event.setDispatchedAt(now);
+                    event.setLastError(null);
+                } else if (event.getAttempts() >= maxAttempts) {
+                    event.setStatus(OutboxEvent.OutboxStatus.FAILED);
+                    event.setLastError(error);
+                } else {
+                    // Exponential backoff: 2^attempts seconds, capped at 1 hour
+                    long delaySeconds = Math.min(1L << Math.min(event.getAttempts(), 12), 3600L);
+                    event.setStatus(OutboxEvent.OutboxStatus.PENDING);
+                    event.setAvailableAt(now.plusSeconds(delaySeconds));
+                    event.setLastError(error);
+                }
+            }
+        });
+    }
+
+    /**
+     * Events claimed by this node, and how many rows the batch locked (a full batch means
+     * there may be more due rows, even if few were claimable).
+     */
+    private record Claim(List<OutboxEvent> events, int locked) {
+    }
+}
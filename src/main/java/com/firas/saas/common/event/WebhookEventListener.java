@@ -4,7 +4,6 @@ import com.firas.saas.webhook.service.WebhookService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 /**
@@ -14,7 +13,8 @@ import org.springframework.stereotype.Component;
  * Benefits:
  * - Decoupled from the services that produce events
  * - Can add more listeners without modifying existing code
- * - Async processing doesn't block the main business logic
+ * - Runs on the OutboxRelay thread after the producing transaction committed,
+ *   so webhook delivery never blocks or outlives the business request
  */
 @Component
 @RequiredArgsConstructor
@@ -25,26 +25,20 @@ public class WebhookEventListener {
 
     /**
      * Listen for all domain events and trigger webhooks.
-     *
-     * @Async ensures this runs in a separate thread,
-     * so webhook delivery doesn't block the main transaction.
+     * Failed sends are retried per delivery by the retry engine; a delivery that could not be
+     * recorded is rethrown so the relay retries the event (recorded deliveries are not repeated).
      */
     @EventListener
-    @Async
     public void handleDomainEvent(DomainEvent event) {
         log.info("Received domain event: {} for tenant {}",
                 event.getEventType(), event.getTenantId());
 
-        try {
-            webhookService.triggerEvent(
-                    event.getEventType(),
-                    event.getData(),
-                    event.getTenantId(),
-                    event.getTenantSlug()
-            );
-        } catch (Exception e) {
-            log.error("Failed to process webhook for event {}: {}",
-                    event.getEventType(), e.getMessage());
-        }
+        webhookService.triggerEvent(
+                event.getEventId(),
+                event.getEventType(),
+                event.getData(),
+                event.getTenantId(),
+                event.getTenantSlug()
+        );
     }
 }
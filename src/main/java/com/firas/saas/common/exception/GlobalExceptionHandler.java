@@ -1,5 +1,6 @@
 package com.firas.saas.common.exception;
 
+import com.firas.saas.inventory.exception.InsufficientStockException;
 import com.firas.saas.order.exception.InvalidOrderStateTransitionException;
 import com.firas.saas.tenant.exception.TenantNotFoundException;
 import org.springframework.http.HttpStatus;
@@ -25,6 +26,22 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ErrorResponse> handleInsufficientStock(InsufficientStockException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getShortfalls().forEach(shortfall -> errors.put(
+                shortfall.getSku() != null ? shortfall.getSku() : String.valueOf(shortfall.getVariantId()),
+                "requested " + shortfall.getRequested() + ", available " + shortfall.getAvailable()));
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                LocalDateTime.now().toString(),
+                errors
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleResourceNotFound(ResourceNotFoundException ex) {
         ErrorResponse error = new ErrorResponse(
@@ -0,0 +1,25 @@
+package com.firas.saas.common.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * nextCursor points after the last row of this page and is returned even when hasMore is
+ * false, so a client can store it and poll later for rows changed since.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> data;
+    private String nextCursor; // null only when the page is empty
+    private boolean hasMore;
+}
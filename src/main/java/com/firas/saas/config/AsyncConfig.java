@@ -0,0 +1,78 @@
+package com.firas.saas.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Background execution configuration.
+ * Enables @Scheduled jobs (webhook retry engine, outbox relay) and defines the bounded
+ * worker pools they hand work to, plus the pool for storefront read model rebuilds.
+ */
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    @Value("${app.webhook.retry.worker-threads:32}")
+    private int webhookWorkerThreads;
+
+    @Value("${app.webhook.retry.queue-capacity:2000}")
+    private int webhookQueueCapacity;
+
+    @Value("${app.outbox.worker-threads:8}")
+    private int outboxWorkerThreads;
+
+    @Value("${app.storefront.read-model.rebuild-threads:1}")
+    private int readModelRebuildThreads;
+
+    /**
+     * Worker pool used to re-execute webhook deliveries claimed by the retry engine.
+     * Sized independently from request threads so a backlog drain never starves the API.
+     */
+    @Bean(name = "webhookDeliveryExecutor")
+    public ThreadPoolTaskExecutor webhookDeliveryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(webhookWorkerThreads);
+        executor.setMaxPoolSize(webhookWorkerThreads);
+        executor.setQueueCapacity(webhookQueueCapacity);
+        executor.setThreadNamePrefix("webhook-delivery-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Worker pool used by the outbox relay; one task per tenant per batch.
+     */
+    @Bean(name = "outboxRelayExecutor")
+    public ThreadPoolTaskExecutor outboxRelayExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(outboxWorkerThreads);
+        executor.setMaxPoolSize(outboxWorkerThreads);
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setThreadNamePrefix("outbox-relay-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Worker pool for storefront read model rebuilds (one task per tenant). Kept small: a
+     * rebuild streams the whole catalog of a tenant through the database.
+     */
+    @Bean(name = "storefrontRebuildExecutor")
+    public ThreadPoolTaskExecutor storefrontRebuildExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(readModelRebuildThreads);
+        executor.setMaxPoolSize(readModelRebuildThreads);
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setThreadNamePrefix("storefront-rebuild-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,28 @@
+package com.firas.saas.config;
+
+import com.firas.saas.common.cache.CacheInvalidationBus;
+import com.firas.saas.common.cache.CacheInvalidationRepository;
+import com.firas.saas.common.cache.JdbcCacheInvalidationBus;
+import com.firas.saas.common.cache.LocalCacheInvalidationBus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects how in-process caches are invalidated across nodes (app.cache.invalidation.mode).
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.invalidation", name = "mode", havingValue = "local", matchIfMissing = true)
+    public CacheInvalidationBus localCacheInvalidationBus() {
+        return new LocalCacheInvalidationBus();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.invalidation", name = "mode", havingValue = "jdbc")
+    public CacheInvalidationBus jdbcCacheInvalidationBus(CacheInvalidationRepository repository) {
+        return new JdbcCacheInvalidationBus(repository);
+    }
+}
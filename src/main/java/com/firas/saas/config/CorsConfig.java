@@ -47,7 +47,11 @@ public class CorsConfig implements WebMvcConfigurer {
         // Expose headers to the frontend
         configuration.setExposedHeaders(Arrays.asList(
             "Access-Control-Allow-Origin",
-            "Access-Control-Allow-Credentials"
+            "Access-Control-Allow-Credentials",
+            "X-RateLimit-Limit",
+            "X-RateLimit-Remaining",
+            "X-RateLimit-Reset",
+            "Retry-After"
         ));
 
         // Allow credentials (cookies, authorization headers)
@@ -0,0 +1,31 @@
+package com.firas.saas.config;
+
+import com.firas.saas.app.ratelimit.InMemoryRateLimitStore;
+import com.firas.saas.app.ratelimit.JdbcRateLimitStore;
+import com.firas.saas.app.ratelimit.RateLimitStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Selects where app API token buckets live (app.app-api.rate-limit.store).
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.app-api.rate-limit", name = "store", havingValue = "local", matchIfMissing = true)
+    public RateLimitStore inMemoryRateLimitStore(@Value("${app.app-api.rate-limit.max-buckets:100000}") long maxBuckets,
+                                                 @Value("${app.app-api.rate-limit.idle-minutes:60}") long idleMinutes) {
+        return new InMemoryRateLimitStore(maxBuckets, idleMinutes);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.app-api.rate-limit", name = "store", havingValue = "jdbc")
+    public RateLimitStore jdbcRateLimitStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        return new JdbcRateLimitStore(jdbcTemplate, transactionManager);
+    }
+}
@@ -3,11 +3,15 @@ package com.firas.saas.customer.entity;
 import com.firas.saas.common.base.TenantEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.*;
 
 @Entity
-@Table(name = "customers")
+@Table(name = "customers", indexes = {
+    @Index(name = "idx_customers_tenant_updated", columnList = "tenant_id, updated_at, id"), // App API keyset paging
+    @Index(name = "idx_customers_tenant_id", columnList = "tenant_id, id") // App API bulk export
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -4,6 +4,8 @@ import com.firas.saas.common.base.BaseRepository;
 import com.firas.saas.customer.entity.Customer;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +14,7 @@ public interface CustomerRepository extends BaseRepository<Customer> {
     List<Customer> findAllByTenantId(Long tenantId);
     Optional<Customer> findByEmailAndTenantId(String email, Long tenantId);
     boolean existsByEmailAndTenantId(String email, Long tenantId);
+    long countByTenantId(Long tenantId);
+    long countByTenantIdAndCreatedAtBetween(Long tenantId, LocalDateTime from, LocalDateTime to);
+    List<Customer> findAllByTenantIdAndEmailIn(Long tenantId, Collection<String> emails);
 }
@@ -0,0 +1,193 @@
+package com.firas.saas.infrastructure.http;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-destination circuit breakers for outbound deliveries, keyed by e.g. "webhook:42"
+ * or "app:https://app.example.com/hooks".
+ *
+ * CLOSED → OPEN after failure-threshold consecutive failures; OPEN rejects until the open
+ * window elapses (doubling on every re-trip up to max-open-seconds); HALF_OPEN then lets
+ * half-open-probes requests through and closes on the first success. A success while CLOSED
+ * resets the failure count; a success while OPEN (a request sent before the trip) is ignored.
+ *
+ * Only unhealthy destinations have an entry; entries untouched for idle-minutes (longer than
+ * max-open-seconds, so past any open window) are dropped and the map is capped at max-entries.
+ * Every state change runs inside the map's compute, so an entry cannot be removed under a
+ * concurrent failure. State is per node.
+ */
+@Component
+@Slf4j
+public class CircuitBreakerRegistry {
+
+    private final ConcurrentMap<String, Breaker> breakers;
+
+    @Value("${app.http.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${app.http.circuit-breaker.open-seconds:30}")
+    private long openSeconds;
+
+    @Value("${app.http.circuit-breaker.max-open-seconds:1800}")
+    private long maxOpenSeconds;
+
+    @Value("${app.http.circuit-breaker.half-open-probes:1}")
+    private int halfOpenProbes;
+
+    public CircuitBreakerRegistry(MeterRegistry meterRegistry,
+                                  @Value("${app.http.circuit-breaker.max-entries:100000}") long maxEntries,
+                                  @Value("${app.http.circuit-breaker.idle-minutes:60}") long idleMinutes) {
+        this.breakers = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .<String, Breaker>build()
+                .asMap();
+        Gauge.builder("delivery.circuit.open", breakers,
+                        b -> b.values().stream().filter(Breaker::isTripped).count())
+                .description("Delivery destinations with an open circuit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a request to the destination may be sent now. A true result in HALF_OPEN
+     * consumes a probe permit, which must be returned via recordSuccess, recordFailure or release.
+     */
+    public boolean allowRequest(String key) {
+        Breaker breaker = breakers.get(key);
+        return breaker == null || breaker.allowRequest(System.currentTimeMillis());
+    }
+
+    /**
+     * Whether the circuit is open right now. Unlike allowRequest this never takes a probe permit.
+     */
+    public boolean isOpen(String key) {
+        Breaker breaker = breakers.get(key);
+        return breaker != null && breaker.rejects(System.currentTimeMillis());
+    }
+
+    /**
+     * When a rejected request should be attempted again.
+     */
+    public LocalDateTime retryAt(String key) {
+        Breaker breaker = breakers.get(key);
+        long now = System.currentTimeMillis();
+        long retryAtMillis = breaker != null ? breaker.retryAt(now, openSeconds * 1000) : now;
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(retryAtMillis), ZoneId.systemDefault());
+    }
+
+    public void recordSuccess(String key) {
+        breakers.computeIfPresent(key, (k, breaker) -> {
+            State previous = breaker.onSuccess();
+            if (previous == State.HALF_OPEN) {
+                log.info("Circuit closed for {}", key);
+            }
+            // A closed breaker with no failures is the same as no entry
+            return previous == State.OPEN ? breaker : null;
+        });
+    }
+
+    public void recordFailure(String key) {
+        breakers.compute(key, (k, breaker) -> {
+            Breaker current = breaker != null ? breaker : new Breaker();
+            if (current.onFailure(System.currentTimeMillis(), failureThreshold, openSeconds * 1000, maxOpenSeconds * 1000)) {
+                log.warn("Circuit opened for {}", key);
+            }
+            return current;
+        });
+    }
+
+    /**
+     * Return a probe permit for a request that was allowed but never sent.
+     */
+    public void release(String key) {
+        breakers.computeIfPresent(key, (k, breaker) -> {
+            breaker.release();
+            return breaker;
+        });
+    }
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final class Breaker {
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private int trips;
+        private long openUntil;
+        private int probesInFlight;
+
+        synchronized boolean allowRequest(long now) {
+            if (state == State.OPEN) {
+                if (now < openUntil) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probesInFlight = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesInFlight >= halfOpenProbes) {
+                    return false;
+                }
+                probesInFlight++;
+            }
+            return true;
+        }
+
+        synchronized long retryAt(long now, long probeIntervalMillis) {
+            return state == State.OPEN && openUntil > now ? openUntil : now + probeIntervalMillis;
+        }
+
+        /**
+         * @return true if this failure tripped the breaker
+         */
+        synchronized boolean onFailure(long now, int threshold, long baseOpenMillis, long maxOpenMillis) {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= threshold)) {
+                trips++;
+                long window = baseOpenMillis << Math.min(trips - 1, 16);
+                openUntil = now + Math.min(window, maxOpenMillis);
+                state = State.OPEN;
+                probesInFlight = 0;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * @return the state the success was recorded in
+         */
+        synchronized State onSuccess() {
+            State previous = state;
+            if (state != State.OPEN) {
+                state = State.CLOSED;
+                consecutiveFailures = 0;
+                probesInFlight = 0;
+            }
+            return previous;
+        }
+
+        synchronized void release() {
+            if (state == State.HALF_OPEN && probesInFlight > 0) {
+                probesInFlight--;
+            }
+        }
+
+        synchronized boolean rejects(long now) {
+            return state == State.OPEN && now < openUntil;
+        }
+
+        synchronized boolean isTripped() {
+            return state != State.CLOSED;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.firas.saas.infrastructure.http;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Shared outbound HTTP client for webhook and app event delivery.
+ *
+ * Non-blocking: requests run on a small set of I/O reactor threads, so thousands of
+ * deliveries can be in flight without a platform thread each. Connections are pooled
+ * and kept alive, HTTP/2 is negotiated via ALPN on TLS endpoints, and each host is
+ * capped at max-connections-per-host so one merchant cannot exhaust the pool.
+ * On top of that, at most max-in-flight-per-host requests may be outstanding per host;
+ * excess requests fail fast with HostSaturatedException instead of queueing. Hosts idle for
+ * host-idle-minutes lose their counter (nothing is in flight by then), at most max-hosts are tracked.
+ */
+@Component
+@Slf4j
+public class DeliveryHttpClient {
+
+    private final CloseableHttpAsyncClient client;
+    private final PoolingAsyncClientConnectionManager connectionManager;
+    private final ConcurrentMap<String, Semaphore> inFlightByHost;
+    private final int maxInFlightPerHost;
+
+    public DeliveryHttpClient(
+            @Value("${app.http.delivery.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${app.http.delivery.response-timeout-ms:15000}") long responseTimeoutMs,
+            @Value("${app.http.delivery.pool-acquire-timeout-ms:10000}") long poolAcquireTimeoutMs,
+            @Value("${app.http.delivery.max-connections:2000}") int maxConnections,
+            @Value("${app.http.delivery.max-connections-per-host:20}") int maxConnectionsPerHost,
+            @Value("${app.http.delivery.keep-alive-seconds:60}") long keepAliveSeconds,
+            @Value("${app.http.delivery.max-in-flight-per-host:100}") int maxInFlightPerHost,
+            @Value("${app.http.delivery.io-threads:0}") int ioThreads,
+            @Value("${app.http.delivery.max-hosts:100000}") long maxHosts,
+            @Value("${app.http.delivery.host-idle-minutes:10}") long hostIdleMinutes) {
+        this.maxInFlightPerHost = maxInFlightPerHost;
+        this.inFlightByHost = Caffeine.newBuilder()
+                .maximumSize(maxHosts)
+                .expireAfterAccess(Duration.ofMinutes(hostIdleMinutes))
+                .<String, Semaphore>build()
+                .asMap();
+
+        TlsStrategy tlsStrategy = ClientTlsStrategyBuilder.create()
+                .useSystemProperties()
+                .build();
+
+        this.connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setTlsStrategy(tlsStrategy)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerHost)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMinutes(10))
+                        .build())
+                .setDefaultTlsConfig(TlsConfig.custom()
+                        .setVersionPolicy(HttpVersionPolicy.NEGOTIATE)
+                        .build())
+                .build();
+
+        IOReactorConfig.Builder reactorConfig = IOReactorConfig.custom()
+                .setSoTimeout(Timeout.ofMilliseconds(responseTimeoutMs));
+        if (ioThreads > 0) {
+            reactorConfig.setIoThreadCount(ioThreads);
+        }
+
+        this.client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setIOReactorConfig(reactorConfig.build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofSeconds(keepAliveSeconds))
+                .evictIdleConnections(TimeValue.ofSeconds(keepAliveSeconds))
+                .disableCookieManagement()
+                .disableRedirectHandling()
+                .disableAutomaticRetries() // retries are owned by the webhook retry engine
+                .build();
+        this.client.start();
+    }
+
+    /**
+     * POST a JSON body. The future completes on an I/O thread; callers doing blocking
+     * work (e.g. database writes) should continue on their own executor.
+     * Completes exceptionally on connection errors, timeouts and HostSaturatedException,
+     * never on HTTP status codes.
+     */
+    public CompletableFuture<Response> postJson(String url, Map<String, String> headers, String body) {
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        Semaphore permits;
+        try {
+            URI uri = URI.create(url);
+            String host = uri.getHost() + ":" + uri.getPort();
+            permits = inFlightByHost.computeIfAbsent(host, h -> new Semaphore(maxInFlightPerHost));
+            if (!permits.tryAcquire()) {
+                result.completeExceptionally(new HostSaturatedException(uri.getHost()));
+                return result;
+            }
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        long startTime = System.currentTimeMillis();
+        try {
+            SimpleRequestBuilder builder = SimpleRequestBuilder.post(url)
+                    .setBody(body, ContentType.APPLICATION_JSON);
+            headers.forEach(builder::setHeader);
+            SimpleHttpRequest request = builder.build();
+
+            client.execute(request, new FutureCallback<>() {
+                @Override
+                public void completed(SimpleHttpResponse response) {
+                    permits.release();
+                    result.complete(new Response(response.getCode(), response.getBodyText(),
+                            System.currentTimeMillis() - startTime));
+                }
+
+                @Override
+                public void failed(Exception ex) {
+                    permits.release();
+                    result.completeExceptionally(ex);
+                }
+
+                @Override
+                public void cancelled() {
+                    permits.release();
+                    result.cancel(false);
+                }
+            });
+        } catch (Exception e) {
+            permits.release();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Shutting down delivery HTTP client");
+        client.close(CloseMode.GRACEFUL);
+        connectionManager.close(CloseMode.GRACEFUL);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Response {
+        private final int statusCode;
+        private final String body;
+        private final long durationMs;
+
+        public boolean is2xxSuccessful() {
+            return statusCode >= 200 && statusCode < 300;
+        }
+    }
+}
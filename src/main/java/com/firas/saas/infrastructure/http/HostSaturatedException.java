@@ -0,0 +1,12 @@
+package com.firas.saas.infrastructure.http;
+
+/**
+ * Raised (as the failure of a delivery future) when a destination host already has
+ * max-in-flight-per-host requests outstanding. The request was not sent.
+ */
+public class HostSaturatedException extends RuntimeException {
+
+    public HostSaturatedException(String host) {
+        super("Too many in-flight requests to " + host);
+    }
+}
@@ -0,0 +1,19 @@
+package com.firas.saas.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationResponse {
+    private String reservationToken;       // pass back on guest checkout; null for customer carts
+    private Map<Long, Integer> quantities; // variantId -> held quantity
+    private LocalDateTime expiresAt;
+}
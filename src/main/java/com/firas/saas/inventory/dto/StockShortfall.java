@@ -0,0 +1,20 @@
+package com.firas.saas.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One order line that could not be fulfilled: how much was asked for and how much was left.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockShortfall {
+    private Long variantId;
+    private String sku;          // null when the variant does not exist for this tenant
+    private int requested;
+    private int available;
+}
@@ -0,0 +1,46 @@
+package com.firas.saas.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of a stock hold (used by JdbcReservationService when holds are shared across nodes).
+ * Written through JdbcTemplate; mapped here so the schema is created with the rest.
+ */
+@Entity
+@Table(name = "stock_reservations", indexes = {
+    @Index(name = "idx_stock_reservation_holder", columnList = "holder_key"),
+    @Index(name = "idx_stock_reservation_variant", columnList = "variant_id, expires_at"),
+    @Index(name = "idx_stock_reservation_expiry", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * cart:{tenantId}:{email} or guest:{tenantId}:{token}, see ReservationService
+     */
+    @Column(name = "holder_key", nullable = false)
+    private String holderKey;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "variant_id", nullable = false)
+    private Long variantId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,22 @@
+package com.firas.saas.inventory.exception;
+
+import com.firas.saas.inventory.dto.StockShortfall;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class InsufficientStockException extends RuntimeException {
+
+    private final List<StockShortfall> shortfalls;
+
+    public InsufficientStockException(List<StockShortfall> shortfalls) {
+        super("Insufficient stock for: " + shortfalls.stream()
+                .map(s -> s.getSku() != null ? s.getSku() : "variant " + s.getVariantId())
+                .collect(Collectors.joining(", ")));
+        this.shortfalls = List.copyOf(shortfalls);
+    }
+
+    public List<StockShortfall> getShortfalls() {
+        return shortfalls;
+    }
+}
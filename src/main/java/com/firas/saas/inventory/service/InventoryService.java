@@ -0,0 +1,32 @@
+package com.firas.saas.inventory.service;
+
+import com.firas.saas.inventory.exception.InsufficientStockException;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface InventoryService {
+
+    /**
+     * Atomically take stock for every line of an order, in the caller's transaction.
+     * Either all lines are decremented or an InsufficientStockException listing every
+     * short SKU is thrown (and the caller's transaction rolls back).
+     *
+     * @param quantitiesByVariantId requested quantity per variant; duplicates must already be summed
+     */
+    default void decrementStock(Long tenantId, Map<Long, Integer> quantitiesByVariantId) throws InsufficientStockException {
+        decrementStock(tenantId, quantitiesByVariantId, Map.of());
+    }
+
+    /**
+     * Same as {@link #decrementStock(Long, Map)}, but leaves {@code heldByOthers} untouched:
+     * a line only succeeds if stock_level - held >= quantity (stock reserved for other carts).
+     */
+    void decrementStock(Long tenantId, Map<Long, Integer> quantitiesByVariantId,
+                        Map<Long, Integer> heldByOthers) throws InsufficientStockException;
+
+    /**
+     * Current stock_level per variant of this tenant; unknown variants are absent.
+     */
+    Map<Long, Integer> getStockLevels(Long tenantId, Collection<Long> variantIds);
+}
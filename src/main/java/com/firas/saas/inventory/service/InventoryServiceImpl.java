@@ -0,0 +1,126 @@
+package com.firas.saas.inventory.service;
+
+import com.firas.saas.inventory.dto.StockShortfall;
+import com.firas.saas.inventory.exception.InsufficientStockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Database-side conditional stock decrement.
+ *
+ * Each line is a single guarded UPDATE (stock_level >= qty + stock held for other carts), so
+ * the check and the write are one atomic step in the database: no read-modify-write in Java,
+ * no lost updates, no oversell. All lines of an order go in one JDBC batch, ordered by variant
+ * id so concurrent multi-line checkouts always lock rows in the same order and cannot
+ * deadlock. A row lock is held only from the UPDATE to the end of the order transaction, which
+ * is why checkout takes stock after all of its reads, right before writing the order.
+ *
+ * Relies on the driver reporting per-statement update counts (the MySQL Connector/J default).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryServiceImpl implements InventoryService {
+
+    private static final String DECREMENT_SQL =
+            "UPDATE product_variants SET stock_level = stock_level - ?, updated_at = ? " +
+            "WHERE id = ? AND tenant_id = ? AND stock_level >= ?";
+
+    private static final String CURRENT_STOCK_SQL =
+            "SELECT id, sku, stock_level FROM product_variants WHERE tenant_id = :tenantId AND id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void decrementStock(Long tenantId, Map<Long, Integer> quantitiesByVariantId,
+                               Map<Long, Integer> heldByOthers) {
+        if (quantitiesByVariantId.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(quantitiesByVariantId).entrySet());
+        for (Map.Entry<Long, Integer> line : lines) {
+            if (line.getValue() == null || line.getValue() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for variant " + line.getKey());
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] updated = jdbcTemplate.batchUpdate(DECREMENT_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, line.getKey());
+            ps.setLong(4, tenantId);
+            ps.setInt(5, line.getValue() + heldByOthers.getOrDefault(line.getKey(), 0));
+        })[0];
+
+        Map<Long, Integer> failed = new TreeMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (updated[i] != 1) {
+                failed.put(lines.get(i).getKey(), lines.get(i).getValue());
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new InsufficientStockException(shortfalls(tenantId, failed, heldByOthers));
+        }
+    }
+
+    @Override
+    public Map<Long, Integer> getStockLevels(Long tenantId, Collection<Long> variantIds) {
+        Map<Long, Integer> levels = new HashMap<>();
+        if (variantIds.isEmpty()) {
+            return levels;
+        }
+        namedParameterJdbcTemplate.query(CURRENT_STOCK_SQL,
+                new MapSqlParameterSource()
+                        .addValue("tenantId", tenantId)
+                        .addValue("ids", variantIds),
+                (RowCallbackHandler) rs -> levels.put(rs.getLong("id"), rs.getInt("stock_level")));
+        return levels;
+    }
+
+    /**
+     * Read what is left for the lines that failed. The order transaction is about to roll back,
+     * so this is informational: it tells the shopper exactly which SKUs to adjust.
+     */
+    private List<StockShortfall> shortfalls(Long tenantId, Map<Long, Integer> failed, Map<Long, Integer> heldByOthers) {
+        Map<Long, StockShortfall> current = new HashMap<>();
+        namedParameterJdbcTemplate.query(CURRENT_STOCK_SQL,
+                new MapSqlParameterSource()
+                        .addValue("tenantId", tenantId)
+                        .addValue("ids", failed.keySet()),
+                rs -> {
+                    long id = rs.getLong("id");
+                    current.put(id, StockShortfall.builder()
+                            .variantId(id)
+                            .sku(rs.getString("sku"))
+                            .requested(failed.get(id))
+                            .available(Math.max(0, rs.getInt("stock_level") - heldByOthers.getOrDefault(id, 0)))
+                            .build());
+                });
+
+        List<StockShortfall> result = new ArrayList<>();
+        failed.forEach((variantId, requested) -> result.add(current.getOrDefault(variantId,
+                StockShortfall.builder().variantId(variantId).requested(requested).available(0).build())));
+        log.info("Stock shortfall for tenant {}: {}", tenantId, result);
+        return result;
+    }
+}
@@ -0,0 +1,197 @@
+package com.firas.saas.inventory.service;
+
+import com.firas.saas.inventory.dto.StockShortfall;
+import com.firas.saas.inventory.exception.InsufficientStockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cluster-wide reservation engine: holds are rows in stock_reservations, one per (holder, variant).
+ *
+ * reserve() locks the variant rows (SELECT ... FOR UPDATE, in id order like the checkout
+ * decrement), sums the unexpired holds of other holders and inserts the new lines, all in its own
+ * short transaction, so two nodes can never both admit the last unit. Expired rows are ignored
+ * by every read and purged in the background; the nodes' clocks must be kept in sync (NTP).
+ * Releasing a hold for a placed order deletes its rows in the order transaction.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.inventory.reservation", name = "store", havingValue = "jdbc")
+@Slf4j
+public class JdbcReservationService implements ReservationService {
+
+    private static final String LOCK_STOCK_SQL =
+            "SELECT id, stock_level FROM product_variants WHERE tenant_id = :tenantId AND id IN (:ids) ORDER BY id FOR UPDATE";
+
+    private static final String HELD_SQL =
+            "SELECT variant_id, SUM(quantity) AS held FROM stock_reservations " +
+            "WHERE variant_id IN (:ids) AND expires_at > :now";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO stock_reservations (holder_key, tenant_id, variant_id, quantity, expires_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String DELETE_HOLDER_SQL = "DELETE FROM stock_reservations WHERE holder_key = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlSeconds;
+
+    public JdbcReservationService(JdbcTemplate jdbcTemplate,
+                                  NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.inventory.reservation.ttl-seconds:600}") long ttlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Own transaction: commits even when the caller's is read-only or later rolls back
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    @Override
+    public LocalDateTime reserve(Long tenantId, String holderKey, Map<Long, Integer> quantitiesByVariantId) {
+        Map<Long, Integer> lines = new TreeMap<>(quantitiesByVariantId);
+        lines.forEach((variantId, quantity) -> {
+            if (quantity == null || quantity <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for variant " + variantId);
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusSeconds(ttlSeconds);
+        // Shortfalls are thrown after commit: like the in-memory engine, a failed hold still drops the old one
+        List<StockShortfall> shortfalls = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(DELETE_HOLDER_SQL, holderKey);
+            if (lines.isEmpty()) {
+                return List.of();
+            }
+
+            Map<Long, Integer> stock = new HashMap<>();
+            namedParameterJdbcTemplate.query(LOCK_STOCK_SQL,
+                    new MapSqlParameterSource()
+                            .addValue("tenantId", tenantId)
+                            .addValue("ids", lines.keySet()),
+                    (RowCallbackHandler) rs -> stock.put(rs.getLong("id"), rs.getInt("stock_level")));
+            Map<Long, Integer> held = held(null, lines.keySet(), now);
+
+            List<StockShortfall> missing = new ArrayList<>();
+            lines.forEach((variantId, quantity) -> {
+                int available = Math.max(0, stock.getOrDefault(variantId, 0) - held.getOrDefault(variantId, 0));
+                if (quantity > available) {
+                    missing.add(StockShortfall.builder()
+                            .variantId(variantId)
+                            .requested(quantity)
+                            .available(available)
+                            .build());
+                }
+            });
+            if (!missing.isEmpty()) {
+                return missing;
+            }
+
+            Timestamp expiry = Timestamp.valueOf(expiresAt);
+            List<Map.Entry<Long, Integer>> rows = new ArrayList<>(lines.entrySet());
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, line) -> {
+                ps.setString(1, holderKey);
+                ps.setLong(2, tenantId);
+                ps.setLong(3, line.getKey());
+                ps.setInt(4, line.getValue());
+                ps.setTimestamp(5, expiry);
+            });
+            return List.of();
+        });
+
+        if (shortfalls != null && !shortfalls.isEmpty()) {
+            throw new InsufficientStockException(shortfalls);
+        }
+        return expiresAt;
+    }
+
+    @Override
+    public void release(String holderKey) {
+        if (holderKey == null) {
+            return;
+        }
+        jdbcTemplate.update(DELETE_HOLDER_SQL, holderKey);
+    }
+
+    /**
+     * Joins the current transaction: the rows go when the order commits and stay if it rolls back.
+     */
+    @Override
+    public void releaseAfterCommit(String holderKey) {
+        release(holderKey);
+    }
+
+    @Override
+    public int getReserved(Long variantId) {
+        return held(null, List.of(variantId), LocalDateTime.now()).getOrDefault(variantId, 0);
+    }
+
+    @Override
+    public Map<Long, Integer> getReservedByOthers(String holderKey, Collection<Long> variantIds) {
+        if (variantIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return held(holderKey, variantIds, LocalDateTime.now());
+    }
+
+    /**
+     * Unexpired quantity held per variant, leaving out excludedHolder (null: count everyone).
+     */
+    private Map<Long, Integer> held(String excludedHolder, Collection<Long> variantIds, LocalDateTime now) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", variantIds)
+                .addValue("now", Timestamp.valueOf(now));
+        String sql = HELD_SQL;
+        if (excludedHolder != null) {
+            sql += " AND holder_key <> :holderKey";
+            params.addValue("holderKey", excludedHolder);
+        }
+
+        Map<Long, Integer> held = new HashMap<>();
+        namedParameterJdbcTemplate.query(sql + " GROUP BY variant_id", params,
+                (RowCallbackHandler) rs -> {
+                    int quantity = rs.getInt("held");
+                    if (quantity > 0) {
+                        held.put(rs.getLong("variant_id"), quantity);
+                    }
+                });
+        return held;
+    }
+
+    /**
+     * Drop expired holds; reads already ignore them, this only keeps the table small.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.reservation.cleanup-interval-ms:60000}")
+    public void purgeExpiredHolds() {
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM stock_reservations WHERE expires_at <= ?",
+                    Timestamp.valueOf(LocalDateTime.now()));
+            if (deleted > 0) {
+                log.debug("Purged {} expired stock holds", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to purge expired stock holds: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.firas.saas.inventory.service;
+
+import com.firas.saas.inventory.exception.InsufficientStockException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Time-boxed stock holds for carts entering checkout.
+ *
+ * A hold belongs to a holder key (a customer cart or a guest reservation token). Holding the
+ * same key again replaces the previous hold. Holds expire on their own after the configured TTL;
+ * placing the order converts them into a real deduction (see InventoryService).
+ */
+public interface ReservationService {
+
+    static String cartHolder(Long tenantId, String customerEmail) {
+        return "cart:" + tenantId + ":" + customerEmail;
+    }
+
+    static String guestHolder(Long tenantId, String reservationToken) {
+        return "guest:" + tenantId + ":" + reservationToken;
+    }
+
+    /**
+     * Hold quantities for a holder, replacing any hold it already has.
+     *
+     * @return when the hold expires
+     * @throws InsufficientStockException if any variant has less unreserved stock than requested
+     */
+    LocalDateTime reserve(Long tenantId, String holderKey, Map<Long, Integer> quantitiesByVariantId)
+            throws InsufficientStockException;
+
+    /**
+     * Drop a hold immediately (cart cleared, checkout abandoned).
+     */
+    void release(String holderKey);
+
+    /**
+     * Drop a hold once the current transaction commits: the order has taken the stock for real.
+     * A rolled back order keeps its hold.
+     */
+    void releaseAfterCommit(String holderKey);
+
+    /**
+     * Quantity currently held for a variant by all holders.
+     */
+    int getReserved(Long variantId);
+
+    /**
+     * Quantity held per variant by everyone except {@code holderKey} (which may be null).
+     */
+    Map<Long, Integer> getReservedByOthers(String holderKey, Collection<Long> variantIds);
+}
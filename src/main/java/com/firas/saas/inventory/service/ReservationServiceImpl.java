@@ -0,0 +1,209 @@
+package com.firas.saas.inventory.service;
+
+import com.firas.saas.inventory.dto.StockShortfall;
+import com.firas.saas.inventory.exception.InsufficientStockException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory reservation engine.
+ *
+ * Reserved quantity per variant is a LongAdder, i.e. a counter sharded across cells, so
+ * hundreds of concurrent holds on one hot SKU do not fight over a single CAS. Admission is
+ * add-then-check: add the quantity, read the sum, and back out if it exceeds stock. Two racing
+ * holders can both back out near the limit, but they can never both get in.
+ *
+ * Expiry runs on a hashed TimerWheel ticked by @Scheduled; there is no per-hold DB poll and no
+ * per-hold timer. Holds live on the node that took them, so this engine is for a single node
+ * (app.inventory.reservation.store=local): with several nodes a hold is invisible to the others
+ * and two carts can hold the same last unit. Use store=jdbc (JdbcReservationService) there. The
+ * database-side decrement at checkout remains the source of truth either way.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.inventory.reservation", name = "store", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class ReservationServiceImpl implements ReservationService {
+
+    private final InventoryService inventoryService;
+    private final Clock clock;
+    private final long ttlMs;
+    private final Map<Long, LongAdder> reserved = new ConcurrentHashMap<>();
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final TimerWheel<Hold> wheel;
+
+    @Autowired
+    public ReservationServiceImpl(InventoryService inventoryService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.inventory.reservation.ttl-seconds:600}") long ttlSeconds,
+                                  @Value("${app.inventory.reservation.tick-ms:1000}") long tickMs,
+                                  @Value("${app.inventory.reservation.wheel-slots:512}") int wheelSlots) {
+        this(inventoryService, meterRegistry, ttlSeconds, tickMs, wheelSlots, Clock.systemDefaultZone());
+    }
+
+    ReservationServiceImpl(InventoryService inventoryService, MeterRegistry meterRegistry,
+                           long ttlSeconds, long tickMs, int wheelSlots, Clock clock) {
+        this.inventoryService = inventoryService;
+        this.clock = clock;
+        this.ttlMs = ttlSeconds * 1000;
+        this.wheel = new TimerWheel<>(tickMs, wheelSlots, clock.millis());
+
+        Gauge.builder("inventory.reservations.active", holds, Map::size)
+                .description("Stock holds currently active on this node")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public LocalDateTime reserve(Long tenantId, String holderKey, Map<Long, Integer> quantitiesByVariantId) {
+        release(holderKey);
+
+        Map<Long, Integer> lines = new TreeMap<>(quantitiesByVariantId);
+        lines.forEach((variantId, quantity) -> {
+            if (quantity == null || quantity <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for variant " + variantId);
+            }
+        });
+        Map<Long, Integer> stock = inventoryService.getStockLevels(tenantId, lines.keySet());
+
+        Map<Long, Integer> admitted = new HashMap<>();
+        List<StockShortfall> shortfalls = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            Long variantId = line.getKey();
+            int quantity = line.getValue();
+            Integer level = stock.get(variantId);
+            if (level == null) {
+                shortfalls.add(StockShortfall.builder().variantId(variantId).requested(quantity).available(0).build());
+                continue;
+            }
+            LongAdder counter = counter(variantId);
+            counter.add(quantity);
+            long total = counter.sum();
+            if (total > level) {
+                counter.add(-quantity);
+                shortfalls.add(StockShortfall.builder()
+                        .variantId(variantId)
+                        .requested(quantity)
+                        .available((int) Math.max(0, level - (total - quantity)))
+                        .build());
+            } else {
+                admitted.put(variantId, quantity);
+            }
+        }
+
+        if (!shortfalls.isEmpty()) {
+            admitted.forEach((variantId, quantity) -> counter(variantId).add(-quantity));
+            throw new InsufficientStockException(shortfalls);
+        }
+
+        long expiresAtMs = clock.millis() + ttlMs;
+        Hold hold = new Hold(holderKey, Collections.unmodifiableMap(admitted));
+        Hold previous = holds.put(holderKey, hold);
+        if (previous != null) {
+            // A concurrent reserve() for the same holder won the race; keep only the latest
+            unreserve(previous);
+        }
+        wheel.schedule(hold, expiresAtMs);
+
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMs), clock.getZone());
+    }
+
+    @Override
+    public void release(String holderKey) {
+        if (holderKey == null) {
+            return;
+        }
+        Hold hold = holds.remove(holderKey);
+        if (hold != null) {
+            unreserve(hold);
+        }
+    }
+
+    @Override
+    public void releaseAfterCommit(String holderKey) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(holderKey);
+                }
+            });
+        } else {
+            release(holderKey);
+        }
+    }
+
+    @Override
+    public int getReserved(Long variantId) {
+        LongAdder counter = reserved.get(variantId);
+        return counter == null ? 0 : (int) Math.max(0, counter.sum());
+    }
+
+    @Override
+    public Map<Long, Integer> getReservedByOthers(String holderKey, Collection<Long> variantIds) {
+        Hold own = holderKey != null ? holds.get(holderKey) : null;
+        Map<Long, Integer> result = new HashMap<>();
+        for (Long variantId : variantIds) {
+            int others = getReserved(variantId) - (own != null ? own.quantities.getOrDefault(variantId, 0) : 0);
+            if (others > 0) {
+                result.put(variantId, others);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Advance the timer wheel and drop holds that are due. Replaced or released holds are
+     * skipped: remove(key, hold) only matches the exact hold that was scheduled.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.reservation.tick-ms:1000}")
+    public void expireHolds() {
+        int expired = 0;
+        for (Hold hold : wheel.advance(clock.millis())) {
+            if (holds.remove(hold.holderKey, hold)) {
+                unreserve(hold);
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            log.debug("Expired {} stock holds", expired);
+        }
+    }
+
+    private LongAdder counter(Long variantId) {
+        return reserved.computeIfAbsent(variantId, id -> new LongAdder());
+    }
+
+    private void unreserve(Hold hold) {
+        hold.quantities.forEach((variantId, quantity) -> counter(variantId).add(-quantity));
+    }
+
+    private static final class Hold {
+        private final String holderKey;
+        private final Map<Long, Integer> quantities;
+
+        private Hold(String holderKey, Map<Long, Integer> quantities) {
+            this.holderKey = holderKey;
+            this.quantities = quantities;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.firas.saas.inventory.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timer wheel: O(1) schedule, expiry cost proportional to what actually expires.
+ *
+ * Deadlines are rounded up to ticks and hashed into a fixed ring of slots; an entry more than
+ * one revolution away simply stays in its slot until its tick comes round. Cancellation is lazy:
+ * callers ignore expired items that are no longer current. schedule() is thread-safe;
+ * advance() must be called from a single thread.
+ */
+class TimerWheel<T> {
+
+    private final long tickMs;
+    private final List<Queue<Entry<T>>> slots;
+    private volatile long lastTick;
+
+    TimerWheel(long tickMs, int slotCount, long nowMs) {
+        this.tickMs = tickMs;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new ConcurrentLinkedQueue<>());
+        }
+        this.lastTick = nowMs / tickMs;
+    }
+
+    void schedule(T item, long deadlineMs) {
+        // Never land in a slot that has already been swept for this tick
+        long tick = Math.max((deadlineMs + tickMs - 1) / tickMs, lastTick + 1);
+        slots.get((int) (tick % slots.size())).add(new Entry<>(item, tick));
+    }
+
+    /**
+     * Sweep every slot between the previous call and now; returns the items that are due.
+     */
+    List<T> advance(long nowMs) {
+        long target = nowMs / tickMs;
+        List<T> due = new ArrayList<>();
+        // After a long pause one full revolution visits every slot
+        long from = Math.max(lastTick + 1, target - slots.size() + 1);
+        for (long tick = from; tick <= target; tick++) {
+            Iterator<Entry<T>> it = slots.get((int) (tick % slots.size())).iterator();
+            while (it.hasNext()) {
+                Entry<T> entry = it.next();
+                if (entry.tick <= target) {
+                    it.remove();
+                    due.add(entry.item);
+                }
+            }
+        }
+        lastTick = Math.max(lastTick, target);
+        return due;
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long tick;
+
+        private Entry(T item, long tick) {
+            this.item = item;
+            this.tick = tick;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.firas.saas.order.controller;
 
+import com.firas.saas.inventory.dto.ReservationResponse;
 import com.firas.saas.order.dto.CartItemRequest;
 import com.firas.saas.order.dto.CartResponse;
 import com.firas.saas.order.dto.OrderResponse;
@@ -42,6 +43,14 @@ public class OrderController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Hold the cart's stock while the customer checks out (expires automatically).
+     */
+    @PostMapping("/cart/reserve")
+    public ResponseEntity<ReservationResponse> reserveCart(@AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(orderService.reserveCart(principal.getEmail(), principal.getTenantId()));
+    }
+
     // ==================== ORDER ENDPOINTS ====================
 
     @PostMapping("/checkout")
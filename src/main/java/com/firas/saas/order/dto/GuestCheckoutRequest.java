@@ -47,6 +47,9 @@ public class GuestCheckoutRequest {
     @NotBlank(message = "Country is required")
     private String country;
 
+    // Stock hold taken at POST /checkout/reserve (optional)
+    private String reservationToken;
+
     // Cart items
     @NotEmpty(message = "Cart cannot be empty")
     @Valid
@@ -64,6 +67,7 @@ public class GuestCheckoutRequest {
 
         @NotNull(message = "Quantity is required")
         @Min(value = 1, message = "Quantity must be at least 1")
+        @Max(value = 100, message = "Quantity cannot exceed 100")
         private Integer quantity;
     }
 }
@@ -0,0 +1,30 @@
+package com.firas.saas.order.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for holding stock when a guest enters checkout.
+ * Send the previous reservationToken to replace an existing hold instead of stacking a new one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GuestReservationRequest {
+
+    @Size(max = 64, message = "Reservation token must be less than 64 characters")
+    private String reservationToken;
+
+    @NotEmpty(message = "Cart cannot be empty")
+    @Size(max = 50, message = "Cart cannot have more than 50 lines")
+    @Valid
+    private List<GuestCheckoutRequest.GuestCartItem> items;
+}
@@ -9,7 +9,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_tenant_created", columnList = "tenant_id, created_at"),
+    @Index(name = "idx_orders_tenant_customer", columnList = "tenant_id, customer_email, created_at"),
+    @Index(name = "idx_orders_tenant_updated", columnList = "tenant_id, updated_at, id"), // App API keyset paging
+    @Index(name = "idx_orders_tenant_id", columnList = "tenant_id, id") // App API bulk export
+})
 @Getter
 @Setter
 @NoArgsConstructor
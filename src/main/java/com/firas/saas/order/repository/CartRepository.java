@@ -2,6 +2,9 @@ package com.firas.saas.order.repository;
 
 import com.firas.saas.common.base.BaseRepository;
 import com.firas.saas.order.entity.Cart;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +12,22 @@ import java.util.Optional;
 @Repository
 public interface CartRepository extends BaseRepository<Cart> {
     Optional<Cart> findByCustomerEmailAndTenantId(String email, Long tenantId);
+
+    /**
+     * Cart and its items in one query (checkout).
+     */
+    @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.customerEmail = :email AND c.tenantId = :tenantId")
+    Optional<Cart> findWithItemsByCustomerEmailAndTenantId(@Param("email") String email, @Param("tenantId") Long tenantId);
+
+    /**
+     * Delete a cart's items with one statement instead of one DELETE per item.
+     * Call {@link #deleteCartById(Long)} afterwards; the managed Cart must not be removed via cascade.
+     */
+    @Modifying
+    @Query("DELETE FROM CartItem i WHERE i.cart.id = :cartId")
+    void deleteItemsByCartId(@Param("cartId") Long cartId);
+
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.id = :cartId")
+    void deleteCartById(@Param("cartId") Long cartId);
 }
@@ -2,8 +2,14 @@ package com.firas.saas.order.repository;
 
 import com.firas.saas.common.base.BaseRepository;
 import com.firas.saas.order.entity.Order;
+import com.firas.saas.order.entity.OrderItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +19,34 @@ public interface OrderRepository extends BaseRepository<Order> {
     List<Order> findAllByCustomerEmailAndTenantId(String email, Long tenantId);
     Optional<Order> findByOrderNumberAndTenantId(String orderNumber, Long tenantId);
     Optional<Order> findByIdAndTenantId(Long id, Long tenantId);
+
+    /**
+     * Most recent orders placed in a time window (dashboard "recent orders").
+     */
+    List<Order> findByTenantIdAndCreatedAtBetweenOrderByCreatedAtDesc(Long tenantId, LocalDateTime from,
+                                                                     LocalDateTime to, Pageable pageable);
+
+    /**
+     * Whether the customer placed any order before this one (ties on createdAt broken by id),
+     * i.e. false exactly once per customer email: on their first order.
+     */
+    @Query("SELECT COUNT(o) > 0 FROM Order o WHERE o.tenantId = :tenantId AND o.customerEmail = :email " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :orderId))")
+    boolean existsEarlierOrder(@Param("tenantId") Long tenantId, @Param("email") String email,
+                               @Param("createdAt") LocalDateTime createdAt, @Param("orderId") Long orderId);
+
+    /**
+     * Units sold per product since a date, cancelled orders excluded, as [productId, quantity]
+     * (storefront suggestion weights).
+     */
+    @Query("SELECT i.productId, SUM(i.quantity) FROM OrderItem i WHERE i.order.tenantId = :tenantId " +
+           "AND i.order.createdAt >= :since AND i.order.status <> com.firas.saas.order.entity.OrderStatus.CANCELLED " +
+           "GROUP BY i.productId")
+    List<Object[]> sumQuantityByProductId(@Param("tenantId") Long tenantId, @Param("since") LocalDateTime since);
+
+    /**
+     * Items of a page of orders (App API).
+     */
+    @Query("SELECT i FROM OrderItem i WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderItem> findItemsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -1,8 +1,10 @@
 package com.firas.saas.order.service;
 
+import com.firas.saas.inventory.dto.ReservationResponse;
 import com.firas.saas.order.dto.CartItemRequest;
 import com.firas.saas.order.dto.CartResponse;
 import com.firas.saas.order.dto.GuestCheckoutRequest;
+import com.firas.saas.order.dto.GuestReservationRequest;
 import com.firas.saas.order.dto.OrderResponse;
 import com.firas.saas.order.entity.OrderStatus;
 
@@ -13,6 +15,21 @@ public interface OrderService {
     CartResponse getCart(String customerEmail, Long tenantId);
     void clearCart(String customerEmail, Long tenantId);
 
+    /**
+     * Hold stock for the customer's cart while they check out (time-boxed).
+     */
+    ReservationResponse reserveCart(String customerEmail, Long tenantId);
+
+    /**
+     * Hold stock for a guest cart; the returned token is passed back on guest checkout.
+     */
+    ReservationResponse reserveGuestCart(GuestReservationRequest request, Long tenantId);
+
+    /**
+     * Release a guest hold before it expires (checkout abandoned).
+     */
+    void releaseGuestReservation(String reservationToken, Long tenantId);
+
     OrderResponse placeOrder(String customerEmail, Long tenantId);
 
     /**
@@ -1,6 +1,9 @@
 package com.firas.saas.order.service;
 
 import com.firas.saas.common.event.DomainEventPublisher;
+import com.firas.saas.inventory.dto.ReservationResponse;
+import com.firas.saas.inventory.service.InventoryService;
+import com.firas.saas.inventory.service.ReservationService;
 import com.firas.saas.order.dto.*;
 import com.firas.saas.order.entity.*;
 import com.firas.saas.order.exception.InvalidOrderStateTransitionException;
@@ -8,14 +11,16 @@ import com.firas.saas.order.repository.CartRepository;
 import com.firas.saas.order.repository.OrderRepository;
 import com.firas.saas.product.entity.Product;
 import com.firas.saas.product.entity.ProductVariant;
-import com.firas.saas.product.repository.ProductRepository;
 import com.firas.saas.product.repository.ProductVariantRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -25,10 +30,11 @@ public class OrderServiceImpl implements OrderService {
 
     private final CartRepository cartRepository;
     private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
     private final ProductVariantRepository productVariantRepository;
     private final DomainEventPublisher eventPublisher; // Observer pattern - cleaner approach
     private final com.firas.saas.tenant.repository.TenantRepository tenantRepository;
+    private final InventoryService inventoryService;
+    private final ReservationService reservationService;
 
     @Override
     @Transactional
@@ -95,11 +101,12 @@ public class OrderServiceImpl implements OrderService {
     public void clearCart(String customerEmail, Long tenantId) {
         cartRepository.findByCustomerEmailAndTenantId(customerEmail, tenantId)
                 .ifPresent(cartRepository::delete);
+        reservationService.releaseAfterCommit(ReservationService.cartHolder(tenantId, customerEmail));
     }
 
     @Override
     @Transactional
-    public OrderResponse placeOrder(String customerEmail, Long tenantId) {
+    public ReservationResponse reserveCart(String customerEmail, Long tenantId) {
         Cart cart = cartRepository.findByCustomerEmailAndTenantId(customerEmail, tenantId)
                 .orElseThrow(() -> new RuntimeException("Cart is empty"));
 
@@ -107,6 +114,56 @@ public class OrderServiceImpl implements OrderService {
             throw new RuntimeException("Cart is empty");
         }
 
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartItem item : cart.getItems()) {
+            quantities.merge(item.getVariantId(), item.getQuantity(), Integer::sum);
+        }
+
+        return ReservationResponse.builder()
+                .quantities(quantities)
+                .expiresAt(reservationService.reserve(tenantId,
+                        ReservationService.cartHolder(tenantId, customerEmail), quantities))
+                .build();
+    }
+
+    @Override
+    public ReservationResponse reserveGuestCart(GuestReservationRequest request, Long tenantId) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new RuntimeException("Cart is empty");
+        }
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (GuestCheckoutRequest.GuestCartItem item : request.getItems()) {
+            quantities.merge(item.getVariantId(), item.getQuantity(), Integer::sum);
+        }
+
+        String token = request.getReservationToken() != null
+                ? request.getReservationToken()
+                : UUID.randomUUID().toString();
+
+        return ReservationResponse.builder()
+                .reservationToken(token)
+                .quantities(quantities)
+                .expiresAt(reservationService.reserve(tenantId,
+                        ReservationService.guestHolder(tenantId, token), quantities))
+                .build();
+    }
+
+    @Override
+    public void releaseGuestReservation(String reservationToken, Long tenantId) {
+        reservationService.release(ReservationService.guestHolder(tenantId, reservationToken));
+    }
+
+    @Override
+    @Transactional
+    public OrderResponse placeOrder(String customerEmail, Long tenantId) {
+        Cart cart = cartRepository.findWithItemsByCustomerEmailAndTenantId(customerEmail, tenantId)
+                .orElseThrow(() -> new RuntimeException("Cart is empty"));
+
+        if (cart.getItems().isEmpty()) {
+            throw new RuntimeException("Cart is empty");
+        }
+
         Order order = Order.builder()
                 .orderNumber("ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase())
                 .customerEmail(customerEmail)
@@ -116,21 +173,16 @@ public class OrderServiceImpl implements OrderService {
         order.setTenantId(tenantId);
 
         BigDecimal grandTotal = BigDecimal.ZERO;
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        Map<Long, ProductVariant> variants = loadVariants(tenantId,
+                cart.getItems().stream().map(CartItem::getVariantId).collect(Collectors.toSet()));
 
         for (CartItem cartItem : cart.getItems()) {
-            ProductVariant variant = productVariantRepository.findById(cartItem.getVariantId())
-                    .orElseThrow(() -> new RuntimeException("Variant not found: " + cartItem.getVariantId()));
-
-            if (variant.getStockLevel() < cartItem.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for: " + variant.getName());
-            }
+            ProductVariant variant = variants.get(cartItem.getVariantId());
 
-            // Deduct stock
-            variant.setStockLevel(variant.getStockLevel() - cartItem.getQuantity());
-            productVariantRepository.save(variant);
+            quantities.merge(variant.getId(), cartItem.getQuantity(), Integer::sum);
 
-            Product product = productRepository.findById(cartItem.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found"));
+            Product product = variant.getProduct();
 
             OrderItem orderItem = OrderItem.builder()
                     .productId(product.getId())
@@ -146,34 +198,38 @@ public class OrderServiceImpl implements OrderService {
             grandTotal = grandTotal.add(variant.getPrice().multiply(new BigDecimal(cartItem.getQuantity())));
         }
 
+        // Convert the cart's hold into a deduction: take stock in the database for all lines at
+        // once, leaving stock held by other carts alone (throws with per-SKU shortfalls)
+        String holder = ReservationService.cartHolder(tenantId, customerEmail);
+        inventoryService.decrementStock(tenantId, quantities,
+                reservationService.getReservedByOthers(holder, quantities.keySet()));
+        reservationService.releaseAfterCommit(holder);
+
         order.setTotalPrice(grandTotal);
         Order savedOrder = orderRepository.save(order);
         
-        // Clear cart after order placement
-        cartRepository.delete(cart);
+        // Clear cart after order placement (two statements, not one DELETE per item)
+        cartRepository.deleteItemsByCartId(cart.getId());
+        cartRepository.deleteCartById(cart.getId());
 
         // Publish domain event (Observer pattern)
         // The WebhookEventListener will handle webhook delivery
-        try {
-            String tenantSlug = tenantRepository.findById(tenantId)
-                    .map(com.firas.saas.tenant.entity.Tenant::getSlug)
-                    .orElse("unknown");
-            
-            java.util.Map<String, Object> data = java.util.Map.of(
-                    "id", savedOrder.getId(),
-                    "orderNumber", savedOrder.getOrderNumber(),
-                    "totalPrice", savedOrder.getTotalPrice(),
-                    "customerEmail", savedOrder.getCustomerEmail(),
-                    "status", savedOrder.getStatus()
-            );
-            
-            // Observer pattern: publish event, listeners handle it
-            eventPublisher.publish(com.firas.saas.webhook.entity.Webhook.WebhookEvent.ORDER_CREATED,
-                    data, tenantId, tenantSlug);
-        } catch (Exception e) {
-            // Log but don't fail the transaction
-            System.err.println("Failed to publish ORDER_CREATED event: " + e.getMessage());
-        }
+        String tenantSlug = tenantRepository.findById(tenantId)
+                .map(com.firas.saas.tenant.entity.Tenant::getSlug)
+                .orElse("unknown");
+        
+        java.util.Map<String, Object> data = java.util.Map.of(
+                "id", savedOrder.getId(),
+                "orderNumber", savedOrder.getOrderNumber(),
+                "totalPrice", savedOrder.getTotalPrice(),
+                "customerEmail", savedOrder.getCustomerEmail(),
+                "status", savedOrder.getStatus()
+        );
+        
+        // Observer pattern: publish event, listeners handle it
+        eventPublisher.publish(com.firas.saas.webhook.entity.Webhook.WebhookEvent.ORDER_CREATED,
+                data, tenantId, tenantSlug);
+        publishInventoryUpdated(quantities, savedOrder, tenantId, tenantSlug);
 
         return mapToOrderResponse(savedOrder);
     }
@@ -218,35 +274,31 @@ public class OrderServiceImpl implements OrderService {
         Order updatedOrder = orderRepository.save(order);
 
         // Publish domain events (Observer pattern)
-        try {
-            String tenantSlug = tenantRepository.findById(tenantId)
-                    .map(com.firas.saas.tenant.entity.Tenant::getSlug)
-                    .orElse("unknown");
-
-            java.util.Map<String, Object> data = java.util.Map.of(
-                    "id", updatedOrder.getId(),
-                    "orderNumber", updatedOrder.getOrderNumber(),
-                    "status", updatedOrder.getStatus(),
-                    "previousStatus", currentStatus
-            );
-
-            // Publish general update event
-            eventPublisher.publish(com.firas.saas.webhook.entity.Webhook.WebhookEvent.ORDER_UPDATED,
-                    data, tenantId, tenantSlug);
-
-            // Publish specific status events
-            com.firas.saas.webhook.entity.Webhook.WebhookEvent specificEvent = switch (status) {
-                case PAID -> com.firas.saas.webhook.entity.Webhook.WebhookEvent.ORDER_PAID;
-                case DELIVERED -> com.firas.saas.webhook.entity.Webhook.WebhookEvent.ORDER_FULFILLED;
-                case CANCELLED -> com.firas.saas.webhook.entity.Webhook.WebhookEvent.ORDER_CANCELLED;
-                default -> null;
-            };
-
-            if (specificEvent != null) {
-                eventPublisher.publish(specificEvent, data, tenantId, tenantSlug);
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to publish order status events: " + e.getMessage());
+        String tenantSlug = tenantRepository.findById(tenantId)
+                .map(com.firas.saas.tenant.entity.Tenant::getSlug)
+                .orElse("unknown");
+
+        java.util.Map<String, Object> data = java.util.Map.of(
+                "id", updatedOrder.getId(),
+                "orderNumber", updatedOrder.getOrderNumber(),
+                "status", updatedOrder.getStatus(),
+                "previousStatus", currentStatus
+        );
+
+        // Publish general update event
+        eventPublisher.publish(com.firas.saas.webhook.entity.Webhook.WebhookEvent.ORDER_UPDATED,
+                data, tenantId, tenantSlug);
+
+        // Publish specific status events
+        com.firas.saas.webhook.entity.Webhook.WebhookEvent specificEvent = switch (status) {
+            case PAID -> com.firas.saas.webhook.entity.Webhook.WebhookEvent.ORDER_PAID;
+            case DELIVERED -> com.firas.saas.webhook.entity.Webhook.WebhookEvent.ORDER_FULFILLED;
+            case CANCELLED -> com.firas.saas.webhook.entity.Webhook.WebhookEvent.ORDER_CANCELLED;
+            default -> null;
+        };
+
+        if (specificEvent != null) {
+            eventPublisher.publish(specificEvent, data, tenantId, tenantSlug);
         }
 
         return mapToOrderResponse(updatedOrder);
@@ -283,23 +335,15 @@ public class OrderServiceImpl implements OrderService {
         order.setTenantId(tenantId);
 
         BigDecimal grandTotal = BigDecimal.ZERO;
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        // Only this tenant's variants are loaded, so ownership is validated by the query
+        Map<Long, ProductVariant> variants = loadVariants(tenantId, request.getItems().stream()
+                .map(GuestCheckoutRequest.GuestCartItem::getVariantId).collect(Collectors.toSet()));
 
         for (GuestCheckoutRequest.GuestCartItem cartItem : request.getItems()) {
-            ProductVariant variant = productVariantRepository.findById(cartItem.getVariantId())
-                    .orElseThrow(() -> new RuntimeException("Variant not found: " + cartItem.getVariantId()));
-
-            // Validate variant belongs to tenant
-            if (!variant.getTenantId().equals(tenantId)) {
-                throw new RuntimeException("Invalid product variant");
-            }
-
-            if (variant.getStockLevel() < cartItem.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for: " + variant.getName());
-            }
+            ProductVariant variant = variants.get(cartItem.getVariantId());
 
-            // Deduct stock
-            variant.setStockLevel(variant.getStockLevel() - cartItem.getQuantity());
-            productVariantRepository.save(variant);
+            quantities.merge(variant.getId(), cartItem.getQuantity(), Integer::sum);
 
             Product product = variant.getProduct();
 
@@ -317,33 +361,68 @@ public class OrderServiceImpl implements OrderService {
             grandTotal = grandTotal.add(variant.getPrice().multiply(new BigDecimal(cartItem.getQuantity())));
         }
 
+        // Convert the guest's hold (if any) into a deduction, as in placeOrder
+        String holder = request.getReservationToken() != null
+                ? ReservationService.guestHolder(tenantId, request.getReservationToken())
+                : null;
+        inventoryService.decrementStock(tenantId, quantities,
+                reservationService.getReservedByOthers(holder, quantities.keySet()));
+        reservationService.releaseAfterCommit(holder);
+
         order.setTotalPrice(grandTotal);
         Order savedOrder = orderRepository.save(order);
 
         // Publish domain event (Observer pattern)
-        try {
-            String tenantSlug = tenantRepository.findById(tenantId)
-                    .map(com.firas.saas.tenant.entity.Tenant::getSlug)
-                    .orElse("unknown");
-
-            java.util.Map<String, Object> data = java.util.Map.of(
-                    "id", savedOrder.getId(),
-                    "orderNumber", savedOrder.getOrderNumber(),
-                    "totalPrice", savedOrder.getTotalPrice(),
-                    "customerEmail", savedOrder.getCustomerEmail(),
-                    "status", savedOrder.getStatus(),
-                    "isGuest", true
-            );
-
-            eventPublisher.publish(com.firas.saas.webhook.entity.Webhook.WebhookEvent.ORDER_CREATED,
-                    data, tenantId, tenantSlug);
-        } catch (Exception e) {
-            System.err.println("Failed to publish ORDER_CREATED event: " + e.getMessage());
-        }
+        String tenantSlug = tenantRepository.findById(tenantId)
+                .map(com.firas.saas.tenant.entity.Tenant::getSlug)
+                .orElse("unknown");
+
+        java.util.Map<String, Object> data = java.util.Map.of(
+                "id", savedOrder.getId(),
+                "orderNumber", savedOrder.getOrderNumber(),
+                "totalPrice", savedOrder.getTotalPrice(),
+                "customerEmail", savedOrder.getCustomerEmail(),
+                "status", savedOrder.getStatus(),
+                "isGuest", true
+        );
+
+        eventPublisher.publish(com.firas.saas.webhook.entity.Webhook.WebhookEvent.ORDER_CREATED,
+                data, tenantId, tenantSlug);
+        publishInventoryUpdated(quantities, savedOrder, tenantId, tenantSlug);
 
         return mapToOrderResponse(savedOrder);
     }
 
+    /**
+     * Stock of these variants just went down (storefront read model, apps with READ_PRODUCTS).
+     */
+    private void publishInventoryUpdated(Map<Long, Integer> quantities, Order order, Long tenantId, String tenantSlug) {
+        eventPublisher.publish(com.firas.saas.webhook.entity.Webhook.WebhookEvent.INVENTORY_UPDATED,
+                Map.of("variantIds", List.copyOf(quantities.keySet()), "orderId", order.getId()),
+                tenantId, tenantSlug);
+    }
+
+    /**
+     * Load all variants of an order (with their products) in one query and fail on any id
+     * that is unknown or belongs to another tenant.
+     */
+    private Map<Long, ProductVariant> loadVariants(Long tenantId, Set<Long> variantIds) {
+        Map<Long, ProductVariant> variants = productVariantRepository
+                .findAllWithProductByTenantIdAndIdIn(tenantId, variantIds).stream()
+                .collect(Collectors.toMap(ProductVariant::getId, v -> v));
+
+        List<Long> missing = variantIds.stream()
+                .filter(id -> !variants.containsKey(id))
+                .sorted()
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Variant not found: " + missing.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(", ")));
+        }
+        return variants;
+    }
+
     private CartResponse mapToCartResponse(Cart cart) {
         return CartResponse.builder()
                 .customerEmail(cart.getCustomerEmail())
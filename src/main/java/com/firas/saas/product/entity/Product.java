@@ -8,7 +8,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_tenant_updated", columnList = "tenant_id, updated_at, id"), // App API keyset paging
+    @Index(name = "idx_products_tenant_id", columnList = "tenant_id, id") // App API bulk export, read model backfill
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +24,7 @@ public interface ProductRepository extends BaseRepository<Product> {
 
     // Count products in a category
     int countByCategoryIdAndTenantId(Long categoryId, Long tenantId);
+    long countByTenantId(Long tenantId);
 
     // ============ Paginated queries for Storefront API ============
 
@@ -42,4 +44,20 @@ public interface ProductRepository extends BaseRepository<Product> {
      */
     @Query("SELECT p.category.id, COUNT(p) FROM Product p WHERE p.tenantId = :tenantId GROUP BY p.category.id")
     List<Object[]> countProductsByCategory(@Param("tenantId") Long tenantId);
+
+    // ============ Storefront read model projection ============
+
+    /**
+     * Products with their category, in one query.
+     */
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.tenantId = :tenantId AND p.id IN :ids")
+    List<Product> findAllWithCategoryByTenantIdAndIdIn(@Param("tenantId") Long tenantId,
+                                                       @Param("ids") Collection<Long> ids);
+
+    /**
+     * Next batch of a tenant's product ids, in id order (rebuild).
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.tenantId = :tenantId AND p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsByTenantIdAfter(@Param("tenantId") Long tenantId, @Param("afterId") Long afterId,
+                                      Pageable pageable);
 }
@@ -2,12 +2,34 @@ package com.firas.saas.product.repository;
 
 import com.firas.saas.common.base.BaseRepository;
 import com.firas.saas.product.entity.ProductVariant;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductVariantRepository extends BaseRepository<ProductVariant> {
     Optional<ProductVariant> findBySkuAndTenantId(String sku, Long tenantId);
     boolean existsBySkuAndTenantId(String sku, Long tenantId);
+
+    /**
+     * Load a whole cart's variants with their products in one query (checkout).
+     */
+    @Query("SELECT v FROM ProductVariant v JOIN FETCH v.product WHERE v.tenantId = :tenantId AND v.id IN :ids")
+    List<ProductVariant> findAllWithProductByTenantIdAndIdIn(@Param("tenantId") Long tenantId,
+                                                            @Param("ids") Collection<Long> ids);
+
+    /**
+     * Variants of a set of products, in id order (App API, storefront read model).
+     */
+    List<ProductVariant> findAllByProductIdInOrderByIdAsc(Collection<Long> productIds);
+
+    /**
+     * Products owning the given variants (stock changes → storefront read model).
+     */
+    @Query("SELECT DISTINCT v.product.id FROM ProductVariant v WHERE v.tenantId = :tenantId AND v.id IN :ids")
+    List<Long> findProductIdsByTenantIdAndIdIn(@Param("tenantId") Long tenantId, @Param("ids") Collection<Long> ids);
 }
@@ -8,6 +8,7 @@ import com.firas.saas.product.entity.ProductVariant;
 import com.firas.saas.product.repository.CategoryRepository;
 import com.firas.saas.product.repository.ProductRepository;
 import com.firas.saas.product.repository.ProductVariantRepository;
+import com.firas.saas.storefront.service.StorefrontSuggestService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +25,7 @@ public class ProductServiceImpl implements ProductService {
     private final ProductVariantRepository productVariantRepository;
     private final DomainEventPublisher eventPublisher; // Observer pattern
     private final com.firas.saas.tenant.repository.TenantRepository tenantRepository;
+    private final StorefrontSuggestService suggestService;
 
     @Override
     @Transactional
@@ -41,6 +43,7 @@ public class ProductServiceImpl implements ProductService {
         category.setTenantId(tenantId);
 
         Category saved = categoryRepository.save(category);
+        suggestService.collectionsChanged(tenantId); // collection suggestions (after commit)
         return mapToCategoryResponse(saved);
     }
 
@@ -182,8 +185,22 @@ public class ProductServiceImpl implements ProductService {
             product.setCategory(null);
             productRepository.save(product);
         }
-        
+
         categoryRepository.delete(category);
+        suggestService.collectionsChanged(tenantId); // collection suggestions (after commit)
+
+        // The products changed (no category): notify listeners (storefront read model, webhooks)
+        // (outbox rows, written in this transaction: a failure rolls the delete back)
+        if (!productsInCategory.isEmpty()) {
+            String tenantSlug = tenantRepository.findById(tenantId)
+                    .map(com.firas.saas.tenant.entity.Tenant::getSlug)
+                    .orElse("unknown");
+            for (Product product : productsInCategory) {
+                eventPublisher.publish(com.firas.saas.webhook.entity.Webhook.WebhookEvent.PRODUCT_UPDATED,
+                        java.util.Map.of("id", product.getId(), "name", product.getName(), "slug", product.getSlug()),
+                        tenantId, tenantSlug);
+            }
+        }
     }
 
     @Override
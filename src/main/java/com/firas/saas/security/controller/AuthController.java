@@ -9,6 +9,7 @@ import com.firas.saas.security.dto.LoginRequest;
 import com.firas.saas.security.dto.MerchantSignupRequest;
 import com.firas.saas.security.jwt.JwtUtils;
 import com.firas.saas.security.service.UserPrincipal;
+import com.firas.saas.security.service.UserPrincipalCache;
 import com.firas.saas.tenant.dto.TenantResponse;
 import com.firas.saas.tenant.entity.Tenant;
 import com.firas.saas.tenant.repository.TenantRepository;
@@ -40,6 +41,7 @@ public class AuthController {
     private final UserRepository userRepository;
     private final CustomerRepository customerRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserPrincipalCache principalCache;
 
     @PostMapping("/register")
     public ResponseEntity<TenantResponse> registerMerchant(@Valid @RequestBody MerchantSignupRequest signUpRequest) {
@@ -98,6 +100,8 @@ public class AuthController {
                 .build();
 
         userRepository.save(user);
+        // The same email may already be cached for a user of another store
+        principalCache.invalidate(user.getEmail());
 
         // Create Customer CRM record
         Customer customer = Customer.builder()
@@ -1,47 +1,63 @@
 package com.firas.saas.security.jwt;
 
+import com.firas.saas.security.service.UserPrincipal;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 
+/**
+ * Issues and parses the admin API JWTs.
+ *
+ * The HMAC key and the parser are built once at startup; a request parses its token a
+ * single time through {@link #parseClaims(String)}. Tokens carry the tenant id as a claim
+ * next to the subject (email); roles come from the cached principal, never from the token.
+ */
 @Component
 @Slf4j
 public class JwtUtils {
 
+    public static final String TENANT_ID_CLAIM = "tenantId";
+
     @Value("${app.security.jwtSecret:DefaultSecretKeyForSaaSPlatformWhichShouldBeLongerThan64Characters}")
     private String jwtSecret;
 
     @Value("${app.security.jwtExpirationMs:86400000}")
     private int jwtExpirationMs;
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private Key key;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     public String generateJwtToken(UserDetails userPrincipal) {
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
                 .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
-                .compact();
-    }
-
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs));
+        if (userPrincipal instanceof UserPrincipal principal) {
+            builder.claim(TENANT_ID_CLAIM, principal.getTenantId());
+        }
+        return builder.signWith(key, SignatureAlgorithm.HS256).compact();
     }
 
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Verify a signed token and return its claims, or null when it is invalid or expired.
+     */
+    public Claims parseClaims(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-            return true;
+            return parser.parseClaimsJws(token).getBody();
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -50,7 +66,25 @@ public class JwtUtils {
             log.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            log.error("Invalid JWT signature: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * Tenant id claim of a parsed token (null for tokens issued before the claim existed).
+     */
+    public static Long getTenantId(Claims claims) {
+        Object tenantId = claims.get(TENANT_ID_CLAIM);
+        return tenantId instanceof Number number ? number.longValue() : null;
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        return parser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
     }
 }
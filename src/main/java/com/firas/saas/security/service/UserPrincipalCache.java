@@ -0,0 +1,71 @@
+package com.firas.saas.security.service;
+
+import com.firas.saas.common.cache.CacheInvalidationBus;
+import com.firas.saas.user.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Email → UserPrincipal cache for JWT-authenticated requests.
+ *
+ * Replaces the users lookup AuthTokenFilter made on every admin API call. Entries expire
+ * after ttl-seconds, so role or enabled changes made directly in the database apply within
+ * that window; code that writes users (UserService.createUser, customer signup) evicts the
+ * email on every node through the CacheInvalidationBus.
+ */
+@Component
+public class UserPrincipalCache {
+
+    public static final String CACHE_NAME = "user-principal";
+
+    private final UserRepository userRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final TransactionTemplate readOnlyTx;
+    private final Cache<String, UserPrincipal> cache;
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              CacheInvalidationBus invalidationBus,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+                              @Value("${app.security.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.invalidationBus = invalidationBus;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+
+        invalidationBus.subscribe(CACHE_NAME, cache::invalidate);
+    }
+
+    /**
+     * Principal of a user by email (the JWT subject).
+     *
+     * @throws UsernameNotFoundException if no such user exists
+     */
+    public UserPrincipal get(String email) {
+        return cache.get(email, this::load);
+    }
+
+    /**
+     * Evict a user on all nodes (after commit when called in a transaction).
+     */
+    public void invalidate(String email) {
+        invalidationBus.publish(CACHE_NAME, email);
+    }
+
+    private UserPrincipal load(String email) {
+        return readOnlyTx.execute(status -> userRepository.findByEmail(email)
+                .map(UserPrincipal::new)
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with email: " + email)));
+    }
+}
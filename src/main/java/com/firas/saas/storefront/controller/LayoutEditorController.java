@@ -7,9 +7,11 @@ import com.firas.saas.storefront.schema.ComponentRegistry;
 import com.firas.saas.storefront.schema.SectionSchema;
 import com.firas.saas.storefront.service.PageLayoutService;
 import com.firas.saas.storefront.service.StoreSettingsService;
+import com.firas.saas.storefront.service.StorefrontProductProjector;
 import com.firas.saas.storefront.service.ThemeService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -31,6 +33,7 @@ public class LayoutEditorController {
     private final StoreSettingsService storeSettingsService;
     private final ThemeService themeService;
     private final ComponentRegistry componentRegistry;
+    private final StorefrontProductProjector storefrontProductProjector;
 
     // =============== Store Settings ===============
 
@@ -75,6 +78,17 @@ public class LayoutEditorController {
         return ResponseEntity.ok(storeSettingsService.unpublishStore(principal.getTenantId()));
     }
 
+    /**
+     * Rebuild the storefront product read model from the catalog (runs in the background)
+     */
+    @PostMapping("/storefront-products/rebuild")
+    @PreAuthorize("hasRole('MERCHANT')")
+    public ResponseEntity<Map<String, Object>> rebuildStorefrontProducts(
+            @AuthenticationPrincipal UserPrincipal principal) {
+        boolean queued = storefrontProductProjector.requestRebuild(principal.getTenantId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("queued", queued));
+    }
+
     // =============== Page Layouts ===============
 
     /**
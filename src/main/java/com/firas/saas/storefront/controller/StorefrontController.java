@@ -1,36 +1,51 @@
 package com.firas.saas.storefront.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.firas.saas.common.exception.ResourceNotFoundException;
 import com.firas.saas.storefront.dto.*;
 import com.firas.saas.storefront.entity.PageType;
+import com.firas.saas.storefront.entity.StorefrontProduct;
 import com.firas.saas.storefront.schema.ComponentRegistry;
 import com.firas.saas.storefront.schema.SectionSchema;
-import com.firas.saas.storefront.service.PageLayoutService;
-import com.firas.saas.storefront.service.StoreSettingsService;
+import com.firas.saas.storefront.search.ProductSearchIndex;
+import com.firas.saas.storefront.search.Suggester;
+import com.firas.saas.storefront.service.GuestReservationRateLimiter;
+import com.firas.saas.storefront.service.PublishedLayoutCache;
+import com.firas.saas.storefront.service.StorefrontCatalogService;
+import com.firas.saas.storefront.service.StorefrontLayoutHydrator;
+import com.firas.saas.storefront.service.StorefrontSearchService;
+import com.firas.saas.storefront.service.StorefrontSuggestService;
+import com.firas.saas.storefront.service.StorefrontTenant;
+import com.firas.saas.storefront.service.StorefrontTenantCache;
 import com.firas.saas.storefront.service.ThemeService;
-import com.firas.saas.tenant.entity.Tenant;
-import com.firas.saas.tenant.repository.TenantRepository;
 import com.firas.saas.product.repository.ProductRepository;
 import com.firas.saas.product.repository.CategoryRepository;
-import com.firas.saas.product.entity.Product;
 import com.firas.saas.product.entity.Category;
-import com.firas.saas.product.entity.ProductVariant;
+import com.firas.saas.app.ratelimit.RateLimitDecision;
+import com.firas.saas.inventory.dto.ReservationResponse;
+import com.firas.saas.inventory.service.ReservationService;
 import com.firas.saas.order.dto.GuestCheckoutRequest;
+import com.firas.saas.order.dto.GuestReservationRequest;
 import com.firas.saas.order.dto.OrderResponse;
 import com.firas.saas.order.service.OrderService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -46,14 +61,20 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class StorefrontController {
 
-    private final StoreSettingsService storeSettingsService;
-    private final PageLayoutService pageLayoutService;
+    private final PublishedLayoutCache publishedLayoutCache;
     private final ThemeService themeService;
     private final ComponentRegistry componentRegistry;
-    private final TenantRepository tenantRepository;
+    private final StorefrontTenantCache tenantCache;
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final StorefrontCatalogService catalogService;
+    private final StorefrontSearchService searchService;
+    private final StorefrontSuggestService suggestService;
+    private final StorefrontLayoutHydrator layoutHydrator;
+    private final ObjectMapper objectMapper;
     private final OrderService orderService;
+    private final ReservationService reservationService;
+    private final GuestReservationRateLimiter reservationRateLimiter;
 
     /**
      * Get store settings (branding, checkout mode, theme)
@@ -61,8 +82,7 @@ public class StorefrontController {
      */
     @GetMapping("/settings")
     public ResponseEntity<StoreSettingsResponse> getStoreSettings(@PathVariable String slug) {
-        StoreSettingsResponse settings = storeSettingsService.getStoreSettingsBySlug(slug);
-        return ResponseEntity.ok(settings);
+        return ResponseEntity.ok(tenantCache.requirePublished(slug).getSettings());
     }
 
     /**
@@ -73,17 +93,13 @@ public class StorefrontController {
      * @param page Page type (home, product, collection, cart, checkout)
      */
     @GetMapping("/layout")
-    public ResponseEntity<Map<String, Object>> getPageLayout(
+    public ResponseEntity<byte[]> getPageLayout(
             @PathVariable String slug,
-            @RequestParam(defaultValue = "home") String page) {
+            @RequestParam(defaultValue = "home") String page,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
-        Tenant tenant = tenantRepository.findBySlug(slug)
-                .orElseThrow(() -> new ResourceNotFoundException("Store", slug));
-
-        // Check if store is published
-        if (!storeSettingsService.isStorePublished(tenant.getId())) {
-            throw new ResourceNotFoundException("Store", slug);
-        }
+        StorefrontTenant store = tenantCache.requirePublished(slug);
 
         PageType pageType;
         try {
@@ -92,98 +108,196 @@ public class StorefrontController {
             throw new ResourceNotFoundException("Page type", page);
         }
 
-        Map<String, Object> layout = pageLayoutService.getPublishedLayoutJson(tenant.getId(), pageType);
-        return ResponseEntity.ok(layout);
+        return layoutResponse(publishedLayoutCache.get(store.getTenantId(), pageType), ifNoneMatch, acceptEncoding);
     }
 
     /**
      * Get custom page layout by handle
      */
     @GetMapping("/pages/{handle}")
-    public ResponseEntity<Map<String, Object>> getCustomPageLayout(
+    public ResponseEntity<byte[]> getCustomPageLayout(
             @PathVariable String slug,
-            @PathVariable String handle) {
+            @PathVariable String handle,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        StorefrontTenant store = tenantCache.requirePublished(slug);
+
+        return layoutResponse(publishedLayoutCache.getCustomPage(store.getTenantId(), handle), ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * Page layout plus the products and collections its sections reference, in one response:
+     * replaces /layout followed by a /products or /collections call per section.
+     * Pass handle for a CUSTOM page, collection on a collection page (resolves
+     * {{collection.handle}}) and product on a product page. The ETag covers the data, stock included.
+     */
+    @GetMapping("/layout/hydrated")
+    public ResponseEntity<byte[]> getHydratedLayout(
+            @PathVariable String slug,
+            @RequestParam(defaultValue = "home") String page,
+            @RequestParam(required = false) String handle,
+            @RequestParam(required = false) String collection,
+            @RequestParam(required = false) String product,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        StorefrontTenant store = tenantCache.requirePublished(slug);
+
+        PageType pageType;
+        try {
+            pageType = PageType.valueOf(page.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResourceNotFoundException("Page type", page);
+        }
+        if (pageType == PageType.CUSTOM && (handle == null || handle.isBlank())) {
+            throw new IllegalArgumentException("handle is required for custom pages");
+        }
 
-        Tenant tenant = tenantRepository.findBySlug(slug)
-                .orElseThrow(() -> new ResourceNotFoundException("Store", slug));
+        PublishedLayoutCache.PublishedLayout layout = pageType == PageType.CUSTOM
+                ? publishedLayoutCache.getCustomPage(store.getTenantId(), handle)
+                : publishedLayoutCache.get(store.getTenantId(), pageType);
+        StorefrontLayoutHydrator.Hydration hydration = layoutHydrator.hydrate(store.getTenantId(), layout,
+                blankToNull(collection), blankToNull(product));
 
-        if (!storeSettingsService.isStorePublished(tenant.getId())) {
-            throw new ResourceNotFoundException("Store", slug);
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(mapToHydratedLayout(hydration));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize layout " + layout.getLayoutId(), e);
         }
+        String etag = "\"H" + DigestUtils.md5DigestAsHex(json) + "\"";
+
+        boolean notModified = ifNoneMatch != null && ifNoneMatch.contains(etag);
 
-        Map<String, Object> layout = pageLayoutService.getPublishedCustomPageLayoutJson(tenant.getId(), handle);
-        return ResponseEntity.ok(layout);
+        ResponseEntity.BodyBuilder builder = notModified
+                ? ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                : ResponseEntity.ok();
+        builder.eTag(etag).cacheControl(CacheControl.noCache().cachePublic());
+        if (notModified) {
+            return builder.build();
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(json);
     }
 
     /**
-     * Get all products for the store (paginated)
-     * Uses proper database-level pagination for performance.
+     * Get products for the store, one page at a time.
+     * First page without a cursor; pass nextCursor back for the following one (keyset, constant
+     * cost at any depth). page > 0 without a cursor is still served for numbered pagination.
+     * includeTotal=false skips the (cached, approximate) total for infinite-scroll clients.
      */
     @GetMapping("/products")
     public ResponseEntity<Map<String, Object>> getProducts(
             @PathVariable String slug,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "24") int limit,
+            @RequestParam(defaultValue = "" + StorefrontCatalogService.DEFAULT_LIMIT) int limit,
             @RequestParam(required = false) String category,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
 
-        Tenant tenant = tenantRepository.findBySlug(slug)
-                .orElseThrow(() -> new ResourceNotFoundException("Store", slug));
+        StorefrontTenant store = tenantCache.requirePublished(slug);
 
-        if (!storeSettingsService.isStorePublished(tenant.getId())) {
-            throw new ResourceNotFoundException("Store", slug);
-        }
+        StorefrontCatalogService.SortKey sort = StorefrontCatalogService.SortKey.parse(sortBy);
+        boolean descending = sortDir.equalsIgnoreCase("desc");
+        int pageSize = Math.max(1, Math.min(limit, StorefrontCatalogService.MAX_LIMIT)); // Cap at 100 per page
 
-        // Build pageable with sorting
-        Sort sort = sortDir.equalsIgnoreCase("desc")
-                ? Sort.by(sortBy).descending()
-                : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, Math.min(limit, 100), sort); // Cap at 100 per page
-
-        // Use proper database pagination
-        Page<Product> productPage;
-        if (category != null && !category.isBlank()) {
-            productPage = productRepository.findByCategorySlugAndTenantId(category, tenant.getId(), pageable);
-        } else {
-            productPage = productRepository.findByTenantId(tenant.getId(), pageable);
-        }
+        StorefrontCatalogService.CatalogPage catalogPage = catalogService.findProducts(
+                store.getTenantId(), category, sort, descending, cursor, page, pageSize, includeTotal);
 
-        List<PublicProductResponse> products = productPage.getContent().stream()
-                .map(this::mapToPublicProduct)
+        Map<Long, Integer> held = heldStock(catalogPage.getProducts());
+        List<PublicProductResponse> products = catalogPage.getProducts().stream()
+                .map(product -> mapToPublicProduct(product, held))
                 .collect(Collectors.toList());
 
         // Return paginated response with metadata
         Map<String, Object> response = new HashMap<>();
         response.put("products", products);
-        response.put("currentPage", productPage.getNumber());
-        response.put("totalPages", productPage.getTotalPages());
-        response.put("totalProducts", productPage.getTotalElements());
-        response.put("hasNext", productPage.hasNext());
-        response.put("hasPrevious", productPage.hasPrevious());
+        response.put("nextCursor", catalogPage.getNextCursor());
+        response.put("hasNext", catalogPage.isHasNext());
+        response.put("hasPrevious", cursor != null || page > 0);
+        response.put("currentPage", page);
+        if (catalogPage.getTotal() != null) {
+            response.put("totalProducts", catalogPage.getTotal());
+            response.put("totalPages", (catalogPage.getTotal() + pageSize - 1) / pageSize);
+        }
 
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Get single product by slug/handle
+     * Get single product by slug/handle (one row of the storefront read model)
      */
     @GetMapping("/products/{productSlug}")
     public ResponseEntity<PublicProductResponse> getProduct(
             @PathVariable String slug,
             @PathVariable String productSlug) {
 
-        Tenant tenant = tenantRepository.findBySlug(slug)
-                .orElseThrow(() -> new ResourceNotFoundException("Store", slug));
+        StorefrontTenant store = tenantCache.requirePublished(slug);
+
+        StorefrontProduct product = catalogService.findProduct(store.getTenantId(), productSlug)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", productSlug));
+
+        return ResponseEntity.ok(mapToPublicProduct(product, heldStock(List.of(product))));
+    }
 
-        if (!storeSettingsService.isStorePublished(tenant.getId())) {
-            throw new ResourceNotFoundException("Store", slug);
+    /**
+     * Full-text product search: name, variants, SKUs, category and description, prefix match on
+     * the last word and typo tolerance. Facet counts (category, price band, in stock) come back
+     * with every page; filter with category, priceBand and inStock.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<PublicSearchResponse> search(
+            @PathVariable String slug,
+            @RequestParam String q,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String priceBand,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "" + StorefrontCatalogService.DEFAULT_LIMIT) int limit) {
+
+        StorefrontTenant store = tenantCache.requirePublished(slug);
+        if (q.isBlank()) {
+            throw new IllegalArgumentException("q must not be blank");
         }
 
-        Product product = productRepository.findBySlugAndTenantId(productSlug, tenant.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Product", productSlug));
+        ProductSearchIndex.SearchResult result = searchService.search(store.getTenantId(),
+                ProductSearchIndex.SearchQuery.builder()
+                        .text(q)
+                        .category(category)
+                        .priceBand(priceBand)
+                        .inStock(inStock)
+                        .offset(Math.max(0, offset))
+                        .limit(Math.max(1, Math.min(limit, StorefrontSearchService.MAX_LIMIT)))
+                        .build());
+
+        return ResponseEntity.ok(mapToSearchResponse(q, result));
+    }
+
+    /**
+     * Search-as-you-type suggestions: product and collection names starting with q (or with a
+     * word starting with q), best sellers first. Cacheable for a minute.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<PublicSuggestResponse> suggest(
+            @PathVariable String slug,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+
+        StorefrontTenant store = tenantCache.requirePublished(slug);
+
+        List<PublicSuggestResponse.Suggestion> suggestions = suggestService.suggest(store.getTenantId(), q, Math.max(1, limit))
+                .stream()
+                .map(entry -> PublicSuggestResponse.Suggestion.builder()
+                        .type(entry.getType() == Suggester.Entry.Type.PRODUCT ? "product" : "collection")
+                        .text(entry.getText())
+                        .slug(entry.getSlug())
+                        .build())
+                .collect(Collectors.toList());
 
-        return ResponseEntity.ok(mapToPublicProduct(product));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic())
+                .body(new PublicSuggestResponse(q, suggestions));
     }
 
     /**
@@ -192,18 +306,13 @@ public class StorefrontController {
      */
     @GetMapping("/collections")
     public ResponseEntity<List<PublicCategoryResponse>> getCollections(@PathVariable String slug) {
-        Tenant tenant = tenantRepository.findBySlug(slug)
-                .orElseThrow(() -> new ResourceNotFoundException("Store", slug));
-
-        if (!storeSettingsService.isStorePublished(tenant.getId())) {
-            throw new ResourceNotFoundException("Store", slug);
-        }
+        StorefrontTenant store = tenantCache.requirePublished(slug);
 
-        List<Category> categories = categoryRepository.findAllByTenantId(tenant.getId());
+        List<Category> categories = categoryRepository.findAllByTenantId(store.getTenantId());
 
         // Fetch all product counts in a single query (avoids N+1 selects)
         Map<Long, Long> productCounts = new HashMap<>();
-        List<Object[]> countResults = productRepository.countProductsByCategory(tenant.getId());
+        List<Object[]> countResults = productRepository.countProductsByCategory(store.getTenantId());
         for (Object[] row : countResults) {
             Long categoryId = (Long) row[0];
             Long count = (Long) row[1];
@@ -227,18 +336,13 @@ public class StorefrontController {
             @PathVariable String slug,
             @PathVariable String collectionSlug) {
 
-        Tenant tenant = tenantRepository.findBySlug(slug)
-                .orElseThrow(() -> new ResourceNotFoundException("Store", slug));
+        StorefrontTenant store = tenantCache.requirePublished(slug);
 
-        if (!storeSettingsService.isStorePublished(tenant.getId())) {
-            throw new ResourceNotFoundException("Store", slug);
-        }
-
-        Category category = categoryRepository.findBySlugAndTenantId(collectionSlug, tenant.getId())
+        Category category = categoryRepository.findBySlugAndTenantId(collectionSlug, store.getTenantId())
                 .orElseThrow(() -> new ResourceNotFoundException("Collection", collectionSlug));
 
         // Single query for product count (acceptable for single-item fetch)
-        int productCount = productRepository.countByCategoryIdAndTenantId(category.getId(), tenant.getId());
+        int productCount = productRepository.countByCategoryIdAndTenantId(category.getId(), store.getTenantId());
 
         return ResponseEntity.ok(mapToPublicCategory(category, productCount));
     }
@@ -259,6 +363,46 @@ public class StorefrontController {
         return ResponseEntity.ok(componentRegistry.getAllSections());
     }
 
+    /**
+     * Hold stock for a guest cart entering checkout.
+     * Returns a reservationToken to send with the checkout request; holds expire automatically.
+     * Rate limited per client IP and per token (429 with Retry-After).
+     */
+    @PostMapping("/checkout/reserve")
+    public ResponseEntity<ReservationResponse> reserveGuestCart(
+            @PathVariable String slug,
+            @Valid @RequestBody GuestReservationRequest request,
+            HttpServletRequest httpRequest) {
+
+        StorefrontTenant store = tenantCache.requirePublished(slug);
+        if (com.firas.saas.storefront.entity.CheckoutMode.ACCOUNT_ONLY.equals(store.getCheckoutMode())) {
+            throw new RuntimeException("This store requires an account to checkout");
+        }
+
+        RateLimitDecision denied = reservationRateLimiter.tryAcquire(
+                store.getTenantId(), httpRequest.getRemoteAddr(), request.getReservationToken());
+        if (denied != null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(denied.getRetryAfterSeconds()))
+                    .build();
+        }
+
+        return ResponseEntity.ok(orderService.reserveGuestCart(request, store.getTenantId()));
+    }
+
+    /**
+     * Release a guest hold (checkout abandoned).
+     */
+    @DeleteMapping("/checkout/reserve/{reservationToken}")
+    public ResponseEntity<Void> releaseGuestReservation(
+            @PathVariable String slug,
+            @PathVariable String reservationToken) {
+
+        StorefrontTenant store = tenantCache.requirePublished(slug);
+        orderService.releaseGuestReservation(reservationToken, store.getTenantId());
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Guest checkout - creates an order without authentication.
      * Accepts cart items and customer information directly.
@@ -268,67 +412,168 @@ public class StorefrontController {
             @PathVariable String slug,
             @Valid @RequestBody GuestCheckoutRequest request) {
 
-        Tenant tenant = tenantRepository.findBySlug(slug)
-                .orElseThrow(() -> new ResourceNotFoundException("Store", slug));
-
-        if (!storeSettingsService.isStorePublished(tenant.getId())) {
-            throw new ResourceNotFoundException("Store", slug);
-        }
+        StorefrontTenant store = tenantCache.requirePublished(slug);
 
         // Check checkout mode
-        com.firas.saas.storefront.entity.CheckoutMode checkoutMode =
-                storeSettingsService.getStoreSettingsBySlug(slug).getCheckoutMode();
+        com.firas.saas.storefront.entity.CheckoutMode checkoutMode = store.getCheckoutMode();
         if (com.firas.saas.storefront.entity.CheckoutMode.ACCOUNT_ONLY.equals(checkoutMode)) {
             throw new RuntimeException("This store requires an account to checkout");
         }
 
-        OrderResponse order = orderService.placeGuestOrder(request, tenant.getId());
+        OrderResponse order = orderService.placeGuestOrder(request, store.getTenantId());
         return new ResponseEntity<>(order, HttpStatus.CREATED);
     }
 
     // =============== Mapping Methods ===============
 
-    private PublicProductResponse mapToPublicProduct(Product product) {
-        String categoryName = null;
-        String categorySlug = null;
-        if (product.getCategory() != null) {
-            categoryName = product.getCategory().getName();
-            categorySlug = product.getCategory().getSlug();
+    /**
+     * Write a cached layout as-is: 304 when the client already has this version, otherwise
+     * the pre-serialized (and, if accepted, pre-gzipped) bytes with a strong ETag.
+     * no-cache lets browsers and the CDN store it but revalidate every time.
+     */
+    private ResponseEntity<byte[]> layoutResponse(PublishedLayoutCache.PublishedLayout layout,
+                                                  String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = layout.getGzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? layout.getGzipEtag() : layout.getEtag();
+
+        boolean notModified = layout.matches(ifNoneMatch);
+
+        ResponseEntity.BodyBuilder builder = notModified
+                ? ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                : ResponseEntity.ok();
+        builder.eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (notModified) {
+            return builder.build();
+        }
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
         }
+        return builder.contentType(MediaType.APPLICATION_JSON)
+                .body(gzip ? layout.getGzip() : layout.getJson());
+    }
 
+    /**
+     * Stock held by carts in checkout for every variant of the given products, in one lookup.
+     */
+    private Map<Long, Integer> heldStock(Collection<StorefrontProduct> products) {
+        List<Long> variantIds = products.stream()
+                .filter(product -> product.getVariants() != null)
+                .flatMap(product -> product.getVariants().stream())
+                .map(StorefrontProduct.VariantSummary::getId)
+                .distinct()
+                .toList();
+        return variantIds.isEmpty() ? Map.of() : reservationService.getReservedByOthers(null, variantIds);
+    }
+
+    private PublicProductResponse mapToPublicProduct(StorefrontProduct product, Map<Long, Integer> held) {
         List<PublicProductResponse.VariantInfo> variants = new ArrayList<>();
         BigDecimal productPrice = null;
 
         if (product.getVariants() != null && !product.getVariants().isEmpty()) {
-            // Get the first variant's price as the product price
-            productPrice = product.getVariants().get(0).getPrice();
+            // The first variant's price, as projected into the read model
+            productPrice = product.getPrice();
 
-            for (ProductVariant v : product.getVariants()) {
+            // Stock held by carts in checkout is not available to other shoppers
+            for (StorefrontProduct.VariantSummary v : product.getVariants()) {
+                int reserved = held.getOrDefault(v.getId(), 0);
+                int available = Math.max(0, v.getStockLevel() - reserved);
                 variants.add(PublicProductResponse.VariantInfo.builder()
                         .id(v.getId())
                         .name(v.getName())
                         .sku(v.getSku())
                         .price(v.getPrice())
-                        .inStock(v.getStockLevel() > 0)
+                        .inStock(available > 0)
                         .quantity(v.getStockLevel())
+                        .reserved(reserved)
+                        .available(available)
                         .build());
             }
         }
 
         return PublicProductResponse.builder()
-                .id(product.getId())
+                .id(product.getProductId())
                 .name(product.getName())
                 .slug(product.getSlug())
                 .description(product.getDescription())
                 .imageUrl(product.getImageUrl())
                 .price(productPrice)
-                .categoryName(categoryName)
-                .categorySlug(categorySlug)
+                .categoryName(product.getCategoryName())
+                .categorySlug(product.getCategorySlug())
                 .inStock(variants.stream().anyMatch(PublicProductResponse.VariantInfo::isInStock))
                 .variants(variants)
                 .build();
     }
 
+    private HydratedLayoutResponse mapToHydratedLayout(StorefrontLayoutHydrator.Hydration hydration) {
+        List<StorefrontProduct> allProducts = new ArrayList<>();
+        hydration.getProducts().values().forEach(allProducts::addAll);
+        if (hydration.getProduct() != null) {
+            allProducts.add(hydration.getProduct());
+        }
+        Map<Long, Integer> held = heldStock(allProducts);
+
+        Map<String, HydratedLayoutResponse.SectionData> sections = new LinkedHashMap<>();
+        hydration.getProducts().forEach((id, products) -> sections.put(id, HydratedLayoutResponse.SectionData.builder()
+                .products(products.stream().map(product -> mapToPublicProduct(product, held)).collect(Collectors.toList()))
+                .build()));
+        hydration.getCollections().forEach((id, categories) -> sections.put(id, HydratedLayoutResponse.SectionData.builder()
+                .collections(categories.stream()
+                        .map(category -> mapToPublicCategory(category, hydration.productCount(category)))
+                        .collect(Collectors.toList()))
+                .build()));
+
+        return HydratedLayoutResponse.builder()
+                .layout(hydration.getLayoutJson())
+                .collection(hydration.getCollection() != null
+                        ? mapToPublicCategory(hydration.getCollection(), hydration.productCount(hydration.getCollection()))
+                        : null)
+                .product(hydration.getProduct() != null ? mapToPublicProduct(hydration.getProduct(), held) : null)
+                .sections(sections)
+                .build();
+    }
+
+    private static String blankToNull(String value) {
+        return value != null && !value.isBlank() ? value : null;
+    }
+
+    private PublicSearchResponse mapToSearchResponse(String query, ProductSearchIndex.SearchResult result) {
+        List<PublicSearchResponse.SearchHit> hits = result.getHits().stream()
+                .map(hit -> {
+                    ProductSearchIndex.Document doc = hit.getDocument();
+                    return PublicSearchResponse.SearchHit.builder()
+                            .id(doc.getProductId())
+                            .name(doc.getName())
+                            .slug(doc.getSlug())
+                            .imageUrl(doc.getImageUrl())
+                            .price(doc.getPrice())
+                            .categoryName(doc.getCategoryName())
+                            .categorySlug(doc.getCategorySlug())
+                            .inStock(doc.isInStock())
+                            .build();
+                })
+                .collect(Collectors.toList());
+
+        return PublicSearchResponse.builder()
+                .query(query)
+                .total(result.getTotal())
+                .hits(hits)
+                .facets(PublicSearchResponse.Facets.builder()
+                        .categories(mapFacet(result.getCategories()))
+                        .priceBands(mapFacet(result.getPriceBands()))
+                        .inStock(mapFacet(result.getInStock()))
+                        .build())
+                .build();
+    }
+
+    private List<PublicSearchResponse.FacetValue> mapFacet(List<ProductSearchIndex.FacetValue> values) {
+        return values.stream()
+                .map(v -> new PublicSearchResponse.FacetValue(v.getValue(), v.getLabel(), v.getCount()))
+                .collect(Collectors.toList());
+    }
+
     private PublicCategoryResponse mapToPublicCategory(Category category, int productCount) {
         return PublicCategoryResponse.builder()
                 .id(category.getId())
@@ -0,0 +1,35 @@
+package com.firas.saas.storefront.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published page layout with the catalog data its sections reference, for storefront API.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HydratedLayoutResponse {
+
+    @JsonRawValue
+    private String layout; // as served by /layout
+    private PublicCategoryResponse collection; // the collection in view, if any
+    private PublicProductResponse product; // the product in view, if any
+    private Map<String, SectionData> sections; // by section id, for product-grid and collection-list
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SectionData {
+        private List<PublicProductResponse> products; // product-grid
+        private List<PublicCategoryResponse> collections; // collection-list
+    }
+}
@@ -44,7 +44,9 @@ public class PublicProductResponse {
         private BigDecimal price;
         private BigDecimal compareAtPrice;
         private boolean inStock;
-        private int quantity;
+        private int quantity;   // stock on hand
+        private int reserved;   // held by carts in checkout
+        private int available;  // quantity - reserved
         private List<OptionValue> options;
     }
 
@@ -0,0 +1,59 @@
+package com.firas.saas.storefront.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Public product search response for storefront API.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublicSearchResponse {
+
+    private String query;
+    private int total;
+    private List<SearchHit> hits;
+    private Facets facets;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SearchHit {
+        private Long id;
+        private String name;
+        private String slug;
+        private String imageUrl;
+        private BigDecimal price;
+        private String categoryName;
+        private String categorySlug;
+        private boolean inStock;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Facets {
+        private List<FacetValue> categories;
+        private List<FacetValue> priceBands;
+        private List<FacetValue> inStock;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetValue {
+        private String value;
+        private String label;
+        private int count;
+    }
+}
@@ -0,0 +1,31 @@
+package com.firas.saas.storefront.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Public search-as-you-type suggestions for storefront API.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublicSuggestResponse {
+
+    private String query;
+    private List<Suggestion> suggestions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Suggestion {
+        private String type; // "product" or "collection"
+        private String text;
+        private String slug;
+    }
+}
@@ -0,0 +1,165 @@
+package com.firas.saas.storefront.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Storefront read model: one flattened row per product, with everything a listing or product
+ * page shows (prices, stock flag, category, variant summaries), so the public storefront
+ * reads a single indexed row instead of walking product, category and variants.
+ *
+ * Derived data only. Maintained by StorefrontProductProjector from PRODUCT_* and
+ * INVENTORY_UPDATED events and rebuildable per tenant from the catalog tables; never edit
+ * it directly.
+ */
+@Entity
+@Table(name = "storefront_products", indexes = {
+    @Index(name = "idx_storefront_products_slug", columnList = "tenant_id, slug"),
+    @Index(name = "idx_storefront_products_tenant", columnList = "tenant_id, product_id"), // search index load
+    // Keyset paging per sort key, with and without a collection (category slug) filter
+    @Index(name = "idx_storefront_products_name", columnList = "tenant_id, name, product_id"),
+    @Index(name = "idx_storefront_products_price", columnList = "tenant_id, price, product_id"),
+    @Index(name = "idx_storefront_products_created", columnList = "tenant_id, created_at, product_id"),
+    @Index(name = "idx_storefront_products_category_name", columnList = "tenant_id, category_slug, name, product_id"),
+    @Index(name = "idx_storefront_products_category_price", columnList = "tenant_id, category_slug, price, product_id"),
+    @Index(name = "idx_storefront_products_category_created", columnList = "tenant_id, category_slug, created_at, product_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorefrontProduct implements Persistable<Long> {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String slug;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    private String imageUrl;
+
+    private Long categoryId;
+    private String categoryName;
+    private String categorySlug;
+
+    /**
+     * Display price: the first variant's, as the storefront has always shown. Sort key.
+     */
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal price;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal minPrice;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal maxPrice;
+
+    /**
+     * Any variant with stock on hand (carts' holds are applied when serving).
+     */
+    @Column(nullable = false)
+    private boolean inStock;
+
+    @Convert(converter = VariantsConverter.class)
+    @Column(columnDefinition = "TEXT")
+    @Builder.Default
+    private List<VariantSummary> variants = new ArrayList<>();
+
+    /**
+     * The product's createdAt (sort key).
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime projectedAt;
+
+    /**
+     * The id is the product's, so Spring Data cannot tell new rows from existing ones;
+     * without this every save of a new row would first SELECT it.
+     */
+    @Transient
+    @Builder.Default
+    private boolean newRow = true;
+
+    @Override
+    public Long getId() {
+        return productId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRow;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newRow = false;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class VariantSummary {
+        private Long id;
+        private String name;
+        private String sku;
+        private BigDecimal price;
+        private int stockLevel;
+    }
+
+    /**
+     * Variant summaries as a JSON array in a TEXT column (see JsonMapConverter for why not JSON).
+     */
+    @Converter
+    public static class VariantsConverter implements AttributeConverter<List<VariantSummary>, String> {
+
+        private static final ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS, true);
+
+        @Override
+        public String convertToDatabaseColumn(List<VariantSummary> attribute) {
+            try {
+                return objectMapper.writeValueAsString(attribute != null ? attribute : List.of());
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Error converting variant summaries to JSON", e);
+            }
+        }
+
+        @Override
+        public List<VariantSummary> convertToEntityAttribute(String dbData) {
+            if (dbData == null || dbData.isBlank()) {
+                return new ArrayList<>();
+            }
+            try {
+                return objectMapper.readValue(dbData, new TypeReference<List<VariantSummary>>() {});
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Error converting JSON to variant summaries", e);
+            }
+        }
+    }
+}
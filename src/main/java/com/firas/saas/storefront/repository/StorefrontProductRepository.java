@@ -0,0 +1,57 @@
+package com.firas.saas.storefront.repository;
+
+import com.firas.saas.storefront.entity.StorefrontProduct;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StorefrontProductRepository extends JpaRepository<StorefrontProduct, Long> {
+
+    Optional<StorefrontProduct> findFirstByTenantIdAndSlug(Long tenantId, String slug);
+
+    /**
+     * A tenant's rows in id order, one batch at a time (search index load).
+     */
+    List<StorefrontProduct> findByTenantIdAndProductIdGreaterThanOrderByProductIdAsc(Long tenantId, Long afterId, Pageable pageable);
+
+    /**
+     * [productId, name, slug, categoryId] of a tenant's products (suggester build).
+     */
+    @Query("SELECT s.productId, s.name, s.slug, s.categoryId FROM StorefrontProduct s WHERE s.tenantId = :tenantId")
+    List<Object[]> findSuggestionFieldsByTenantId(@Param("tenantId") Long tenantId);
+
+    /**
+     * [productId, name, slug, categoryId] of some products (suggester update).
+     */
+    @Query("SELECT s.productId, s.name, s.slug, s.categoryId FROM StorefrontProduct s " +
+            "WHERE s.tenantId = :tenantId AND s.productId IN :productIds")
+    List<Object[]> findSuggestionFieldsByTenantIdAndProductIdIn(@Param("tenantId") Long tenantId,
+                                                               @Param("productIds") Collection<Long> productIds);
+
+    long countByTenantId(Long tenantId);
+
+    long countByTenantIdAndCategorySlug(Long tenantId, String categorySlug);
+
+    /**
+     * Drop rows a rebuild did not touch: their product no longer exists.
+     */
+    @Modifying
+    @Query("DELETE FROM StorefrontProduct s WHERE s.tenantId = :tenantId AND s.projectedAt < :before")
+    int deleteByTenantIdAndProjectedAtBefore(@Param("tenantId") Long tenantId, @Param("before") LocalDateTime before);
+
+    /**
+     * Tenants that have products but no read model yet (startup backfill).
+     */
+    @Query("SELECT DISTINCT p.tenantId FROM Product p WHERE NOT EXISTS " +
+            "(SELECT 1 FROM StorefrontProduct s WHERE s.tenantId = p.tenantId)")
+    List<Long> findTenantIdsWithoutReadModel();
+}
@@ -0,0 +1,454 @@
+package com.firas.saas.storefront.search;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over one tenant's products.
+ *
+ * Terms come from the product name, variant names, SKUs, category name and description, each
+ * field with its own weight; the term dictionary is sorted, so the last query token also
+ * matches as a prefix (search-as-you-type). A query token that is not itself a term is
+ * matched against terms within 1 edit (2 from 8 characters, transpositions count as one) that
+ * start with the same letter, or with its first two letters swapped.
+ * Every token must match. Facets (category, price band, in stock) are disjunctive: each is
+ * counted with the other facets' filters applied but not its own.
+ *
+ * Thread-safe: searches share a read lock, updates take the write lock.
+ */
+public final class ProductSearchIndex {
+
+    static final int NAME_WEIGHT = 8;
+    static final int VARIANT_WEIGHT = 4;
+    static final int CATEGORY_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final int EXACT_BOOST = 10;
+    private static final int PREFIX_BOOST = 6;
+    private static final int FUZZY_BOOST = 4;
+    private static final int MAX_TOKEN_LENGTH = 40;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final List<BigDecimal> priceBandBounds;
+    private final int maxExpansions;
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Entry> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long postingCount;
+    private long termChars;
+
+    /**
+     * @param priceBandBounds ascending upper bounds of the price bands; a last open band follows
+     * @param maxExpansions   most terms a prefix or typo-tolerant token expands to
+     */
+    public ProductSearchIndex(List<BigDecimal> priceBandBounds, int maxExpansions) {
+        this.priceBandBounds = List.copyOf(priceBandBounds);
+        this.maxExpansions = maxExpansions;
+    }
+
+    /**
+     * Add or replace a product.
+     */
+    public void put(Document document) {
+        Map<String, Integer> weights = new HashMap<>();
+        addTerms(weights, document.getName(), NAME_WEIGHT);
+        for (String variantName : document.getVariantNames()) {
+            addTerms(weights, variantName, VARIANT_WEIGHT);
+        }
+        for (String sku : document.getSkus()) {
+            addTerms(weights, sku, VARIANT_WEIGHT);
+            // Also as one term, so "tsblum" finds TS-BLU-M
+            String compact = String.join("", tokenize(sku));
+            if (!compact.isEmpty() && compact.length() <= MAX_TOKEN_LENGTH) {
+                weights.merge(compact, VARIANT_WEIGHT, Math::max);
+            }
+        }
+        addTerms(weights, document.getCategoryName(), CATEGORY_WEIGHT);
+        addTerms(weights, document.getDescription(), DESCRIPTION_WEIGHT);
+
+        // Only what results and facets show is kept, not the indexed text
+        Document stored = document.toBuilder().description(null).variantNames(List.of()).skus(List.of()).build();
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.getProductId());
+            for (Map.Entry<String, Integer> term : weights.entrySet()) {
+                Map<Long, Integer> list = postings.get(term.getKey());
+                if (list == null) {
+                    list = new HashMap<>();
+                    postings.put(term.getKey(), list);
+                    termChars += term.getKey().length();
+                }
+                list.put(document.getProductId(), term.getValue());
+                postingCount++;
+            }
+            documents.put(document.getProductId(), new Entry(stored, weights.keySet().toArray(new String[0])));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a product; no-op if it is not indexed.
+     */
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long productId) {
+        Entry entry = documents.remove(productId);
+        if (entry == null) {
+            return;
+        }
+        for (String term : entry.terms) {
+            Map<Long, Integer> list = postings.get(term);
+            if (list != null && list.remove(productId) != null) {
+                postingCount--;
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                    termChars -= term.length();
+                }
+            }
+        }
+    }
+
+    public SearchResult search(SearchQuery query) {
+        List<String> tokens = tokenize(query.getText());
+        if (tokens.isEmpty()) {
+            return new SearchResult(0, List.of(), List.of(), List.of(), List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (int i = 0; i < tokens.size(); i++) {
+                Map<Long, Integer> tokenScores = match(tokens.get(i), i == tokens.size() - 1);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    Map<Long, Integer> both = new HashMap<>();
+                    for (Map.Entry<Long, Integer> e : scores.entrySet()) {
+                        Integer score = tokenScores.get(e.getKey());
+                        if (score != null) {
+                            both.put(e.getKey(), e.getValue() + score);
+                        }
+                    }
+                    scores = both;
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            return collect(scores, query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Products matching one query token, with the best score any of its expansions gives them.
+     */
+    private Map<Long, Integer> match(String token, boolean prefix) {
+        Map<Long, Integer> scores = new HashMap<>();
+        Map<Long, Integer> exact = postings.get(token);
+        if (exact != null) {
+            addScores(scores, exact, EXACT_BOOST);
+        }
+        if (prefix) {
+            int expanded = 0;
+            for (Map.Entry<String, Map<Long, Integer>> term : postings.tailMap(token, false).entrySet()) {
+                if (!term.getKey().startsWith(token) || expanded++ >= maxExpansions) {
+                    break;
+                }
+                addScores(scores, term.getValue(), PREFIX_BOOST);
+            }
+        }
+        if (exact == null && token.length() >= 4) {
+            int maxEdits = token.length() >= 8 ? 2 : 1;
+            int[] expanded = {0};
+            // Candidates share the first letter, or have the first two swapped, which keeps the
+            // scan to a small slice of the sorted dictionary
+            fuzzy(token, token.substring(0, 1), maxEdits, scores, expanded);
+            if (token.charAt(0) != token.charAt(1)) {
+                fuzzy(token, "" + token.charAt(1) + token.charAt(0), maxEdits, scores, expanded);
+            }
+        }
+        return scores;
+    }
+
+    private void fuzzy(String token, String candidatePrefix, int maxEdits, Map<Long, Integer> scores, int[] expanded) {
+        String end = candidatePrefix.substring(0, candidatePrefix.length() - 1)
+                + (char) (candidatePrefix.charAt(candidatePrefix.length() - 1) + 1);
+        for (Map.Entry<String, Map<Long, Integer>> term : postings.subMap(candidatePrefix, end).entrySet()) {
+            if (expanded[0] >= maxExpansions) {
+                return;
+            }
+            String candidate = term.getKey();
+            if (Math.abs(candidate.length() - token.length()) > maxEdits) {
+                continue;
+            }
+            int edits = editDistance(token, candidate, maxEdits);
+            if (edits <= maxEdits) {
+                addScores(scores, term.getValue(), FUZZY_BOOST / edits);
+                expanded[0]++;
+            }
+        }
+    }
+
+    private static void addScores(Map<Long, Integer> scores, Map<Long, Integer> postingList, int boost) {
+        for (Map.Entry<Long, Integer> posting : postingList.entrySet()) {
+            scores.merge(posting.getKey(), posting.getValue() * boost, Math::max);
+        }
+    }
+
+    private SearchResult collect(Map<Long, Integer> scores, SearchQuery query) {
+        Map<String, FacetValue> categories = new LinkedHashMap<>();
+        Map<String, FacetValue> bands = new LinkedHashMap<>();
+        for (int band = 0; band <= priceBandBounds.size(); band++) {
+            bands.put(bandKey(band), new FacetValue(bandKey(band), bandKey(band), 0));
+        }
+        Map<String, FacetValue> stock = new LinkedHashMap<>();
+        stock.put("true", new FacetValue("true", "In stock", 0));
+        stock.put("false", new FacetValue("false", "Out of stock", 0));
+
+        List<Hit> hits = new ArrayList<>();
+        for (Map.Entry<Long, Integer> scored : scores.entrySet()) {
+            Document doc = documents.get(scored.getKey()).document;
+            String band = bandKey(band(doc.getPrice()));
+            boolean categoryOk = query.getCategory() == null || query.getCategory().equals(doc.getCategorySlug());
+            boolean bandOk = query.getPriceBand() == null || query.getPriceBand().equals(band);
+            boolean stockOk = query.getInStock() == null || query.getInStock() == doc.isInStock();
+
+            if (bandOk && stockOk && doc.getCategorySlug() != null) {
+                categories.computeIfAbsent(doc.getCategorySlug(),
+                        slug -> new FacetValue(slug, doc.getCategoryName(), 0)).count++;
+            }
+            if (categoryOk && stockOk) {
+                bands.get(band).count++;
+            }
+            if (categoryOk && bandOk) {
+                stock.get(String.valueOf(doc.isInStock())).count++;
+            }
+            if (categoryOk && bandOk && stockOk) {
+                hits.add(new Hit(doc, scored.getValue()));
+            }
+        }
+
+        hits.sort(Comparator.comparingInt(Hit::getScore).reversed()
+                .thenComparing(hit -> hit.getDocument().getName())
+                .thenComparing(hit -> hit.getDocument().getProductId()));
+        int from = Math.min(query.getOffset(), hits.size());
+        int to = Math.min(from + query.getLimit(), hits.size());
+
+        List<FacetValue> categoryFacet = new ArrayList<>(categories.values());
+        categoryFacet.sort(Comparator.comparingInt(FacetValue::getCount).reversed().thenComparing(FacetValue::getValue));
+        return new SearchResult(hits.size(), new ArrayList<>(hits.subList(from, to)), categoryFacet,
+                new ArrayList<>(bands.values()), new ArrayList<>(stock.values()));
+    }
+
+    private int band(BigDecimal price) {
+        int band = 0;
+        while (band < priceBandBounds.size() && price != null && price.compareTo(priceBandBounds.get(band)) >= 0) {
+            band++;
+        }
+        return band;
+    }
+
+    /**
+     * "0-25", "25-50", ..., "250+".
+     */
+    private String bandKey(int band) {
+        String lower = band == 0 ? "0" : priceBandBounds.get(band - 1).toPlainString();
+        return band == priceBandBounds.size() ? lower + "+" : lower + "-" + priceBandBounds.get(band).toPlainString();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rough heap footprint (map entries, term strings, stored documents), for cache weighing.
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return 1024 + postings.size() * 120L + termChars * 2 + postingCount * 56 + documents.size() * 400L;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lowercased, accent-free words and numbers of a text.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = (isAscii(text) ? text
+                : MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll(""))
+                .toLowerCase(Locale.ROOT);
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty() && token.length() <= MAX_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addTerms(Map<String, Integer> weights, String text, int weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Math::max);
+        }
+    }
+
+    /**
+     * Optimal string alignment distance, or maxEdits + 1 as soon as it must exceed maxEdits.
+     */
+    static int editDistance(String a, String b, int maxEdits) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    private record Entry(Document document, String[] terms) {
+    }
+
+    /**
+     * A product as indexed: searchable text plus what results and facets show.
+     */
+    @Getter
+    @Builder(toBuilder = true)
+    public static final class Document {
+        private final Long productId;
+        private final String name;
+        private final String slug;
+        private final String imageUrl;
+        private final BigDecimal price;
+        private final String categorySlug;
+        private final String categoryName;
+        private final boolean inStock;
+        private final String description;
+        @Builder.Default
+        private final List<String> variantNames = List.of();
+        @Builder.Default
+        private final List<String> skus = List.of();
+    }
+
+    @Getter
+    @Builder
+    public static final class SearchQuery {
+        private final String text;
+        private final String category;   // category slug
+        private final String priceBand;  // a band key, e.g. "25-50"
+        private final Boolean inStock;
+        @Builder.Default
+        private final int offset = 0;
+        @Builder.Default
+        private final int limit = 24;
+    }
+
+    @Getter
+    public static final class Hit {
+        private final Document document;
+        private final int score;
+
+        Hit(Document document, int score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+
+    @Getter
+    public static final class FacetValue {
+        private final String value;
+        private final String label;
+        private int count;
+
+        FacetValue(String value, String label, int count) {
+            this.value = value;
+            this.label = label;
+            this.count = count;
+        }
+    }
+
+    @Getter
+    public static final class SearchResult {
+        private final int total;
+        private final List<Hit> hits;
+        private final List<FacetValue> categories;
+        private final List<FacetValue> priceBands;
+        private final List<FacetValue> inStock;
+
+        SearchResult(int total, List<Hit> hits, List<FacetValue> categories,
+                     List<FacetValue> priceBands, List<FacetValue> inStock) {
+            this.total = total;
+            this.hits = hits;
+            this.categories = categories;
+            this.priceBands = priceBands;
+            this.inStock = inStock;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.firas.saas.storefront.search;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable prefix suggester: a radix trie over the normalized text of each entry (and of its
+ * suffixes starting at a word, so "shi" finds "Oxford Shirt"), flattened into int/char arrays.
+ *
+ * Entries are stored in rank order (weight, then shorter, then alphabetical), so an entry's
+ * index is its rank, and every node keeps the indexes of the best {@code topK} distinct
+ * entries below it. A lookup walks at most prefix-length characters and copies that list; it
+ * never visits the subtree. Built once per change set and shared by concurrent readers.
+ */
+public final class Suggester {
+
+    private static final int MAX_WORD_STARTS = 4;
+
+    @Getter
+    private final List<Entry> entries;
+    private final int topK;
+
+    // Node i: edge label labels[labelStart[i], labelStart[i] + labelLength[i]), children
+    // firstChild[i] -> nextSibling..., best entries topPool[topStart[i], topStart[i + 1])
+    private final char[] labels;
+    private final int[] labelStart;
+    private final int[] labelLength;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] topStart;
+    private final int[] topPool;
+
+    @Getter
+    private final long sizeInBytes;
+
+    private Suggester(List<Entry> entries, int topK, char[] labels, int[] labelStart, int[] labelLength,
+                      int[] firstChild, int[] nextSibling, int[] topStart, int[] topPool) {
+        this.entries = entries;
+        this.topK = topK;
+        this.labels = labels;
+        this.labelStart = labelStart;
+        this.labelLength = labelLength;
+        this.firstChild = firstChild;
+        this.nextSibling = nextSibling;
+        this.topStart = topStart;
+        this.topPool = topPool;
+
+        long bytes = 128 + labels.length * 2L + labelStart.length * 4L * 5 + topPool.length * 4L;
+        for (Entry entry : entries) {
+            bytes += 64 + entry.text.length() * 2L + (entry.slug != null ? 40 + entry.slug.length() * 2L : 0);
+        }
+        this.sizeInBytes = bytes;
+    }
+
+    /**
+     * Best entries whose text, or one of its words onwards, starts with the prefix.
+     */
+    public List<Entry> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        int node = 0;
+        int pos = 0;
+        while (pos < key.length()) {
+            int child = firstChild[node];
+            while (child >= 0 && labels[labelStart[child]] != key.charAt(pos)) {
+                child = nextSibling[child];
+            }
+            if (child < 0) {
+                return List.of();
+            }
+            for (int i = 0; i < labelLength[child] && pos < key.length(); i++, pos++) {
+                if (labels[labelStart[child] + i] != key.charAt(pos)) {
+                    return List.of();
+                }
+            }
+            node = child;
+        }
+        int from = topStart[node];
+        int to = Math.min(topStart[node + 1], from + Math.min(limit, topK));
+        List<Entry> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(entries.get(topPool[i]));
+        }
+        return result;
+    }
+
+    public static Suggester build(List<Entry> candidates, int topK) {
+        List<Entry> ranked = new ArrayList<>(candidates);
+        ranked.sort(Comparator.comparingLong(Entry::getWeight).reversed()
+                .thenComparingInt(entry -> entry.text.length())
+                .thenComparing(Entry::getText));
+
+        List<Key> keys = new ArrayList<>();
+        for (int rank = 0; rank < ranked.size(); rank++) {
+            List<String> words = ProductSearchIndex.tokenize(ranked.get(rank).text);
+            for (int w = 0; w < words.size() && w < MAX_WORD_STARTS; w++) {
+                keys.add(new Key(String.join(" ", words.subList(w, words.size())), rank));
+            }
+        }
+        keys.sort(Comparator.comparing(Key::text).thenComparingInt(Key::rank));
+
+        Builder builder = new Builder(keys, topK);
+        builder.node(0, keys.size(), 0, "");
+        int[] topStart = builder.packTops();
+        return new Suggester(List.copyOf(ranked), topK, builder.labels.toString().toCharArray(),
+                builder.labelStart.toArray(), builder.labelLength.toArray(), builder.firstChild.toArray(),
+                builder.nextSibling.toArray(), topStart, builder.topPool.toArray());
+    }
+
+    /**
+     * Lowercased, accent-free words joined by single spaces; a trailing separator is kept so
+     * "oxford " only matches texts with a word after "oxford".
+     */
+    static String normalize(String text) {
+        String joined = String.join(" ", ProductSearchIndex.tokenize(text));
+        boolean trailing = !joined.isEmpty() && !Character.isLetterOrDigit(text.charAt(text.length() - 1));
+        return trailing ? joined + " " : joined;
+    }
+
+    private record Key(String text, int rank) {
+    }
+
+    private static final class Builder {
+        private final List<Key> keys;
+        private final int topK;
+        private final StringBuilder labels = new StringBuilder();
+        private final IntList labelStart = new IntList();
+        private final IntList labelLength = new IntList();
+        private final IntList firstChild = new IntList();
+        private final IntList nextSibling = new IntList();
+        private final List<int[]> tops = new ArrayList<>();
+        private final IntList topPool = new IntList();
+
+        Builder(List<Key> keys, int topK) {
+            this.keys = keys;
+            this.topK = topK;
+        }
+
+        /**
+         * Create the node for keys[lo, hi) (all sharing their first depth characters) and its
+         * subtree; returns its id.
+         */
+        int node(int lo, int hi, int depth, String label) {
+            int id = labelStart.size();
+            labelStart.add(labels.length());
+            labelLength.add(label.length());
+            labels.append(label);
+            firstChild.add(-1);
+            nextSibling.add(-1);
+            tops.add(null);
+
+            int[] best = new int[0];
+            int i = lo;
+            while (i < hi && keys.get(i).text().length() == depth) {
+                best = merge(best, new int[]{keys.get(i).rank()});
+                i++;
+            }
+            int previous = -1;
+            while (i < hi) {
+                char c = keys.get(i).text().charAt(depth);
+                int end = i;
+                while (end < hi && keys.get(end).text().charAt(depth) == c) {
+                    end++;
+                }
+                // Edge label: the longest prefix shared by the whole group
+                String first = keys.get(i).text();
+                String last = keys.get(end - 1).text();
+                int common = depth + 1;
+                while (common < first.length() && common < last.length() && first.charAt(common) == last.charAt(common)) {
+                    common++;
+                }
+                int child = node(i, end, common, first.substring(depth, common));
+                if (previous < 0) {
+                    firstChild.set(id, child);
+                } else {
+                    nextSibling.set(previous, child);
+                }
+                previous = child;
+                best = merge(best, tops.get(child));
+                i = end;
+            }
+            tops.set(id, best);
+            return id;
+        }
+
+        /**
+         * The topK smallest distinct ranks of two sorted arrays.
+         */
+        private int[] merge(int[] a, int[] b) {
+            int[] out = new int[Math.min(topK, a.length + b.length)];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (n < out.length && (i < a.length || j < b.length)) {
+                int next = j >= b.length || (i < a.length && a[i] <= b[j]) ? a[i++] : b[j++];
+                if (n == 0 || out[n - 1] != next) {
+                    out[n++] = next;
+                }
+            }
+            return n == out.length ? out : Arrays.copyOf(out, n);
+        }
+
+        /**
+         * Copy every node's best entries into topPool; returns the per-node offsets.
+         */
+        int[] packTops() {
+            int[] starts = new int[tops.size() + 1];
+            for (int node = 0; node < tops.size(); node++) {
+                starts[node] = topPool.size();
+                for (int rank : tops.get(node)) {
+                    topPool.add(rank);
+                }
+            }
+            starts[tops.size()] = topPool.size();
+            return starts;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[64];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void set(int index, int value) {
+            values[index] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * One suggestion: a product or a collection, with the weight it is ranked by.
+     */
+    @Getter
+    public static final class Entry {
+        public enum Type { PRODUCT, COLLECTION }
+
+        private final Type type;
+        private final Long id;
+        private final String text;
+        private final String slug;
+        private final long weight;
+
+        public Entry(Type type, Long id, String text, String slug, long weight) {
+            this.type = type;
+            this.id = id;
+            this.text = text;
+            this.slug = slug;
+            this.weight = weight;
+        }
+    }
+}
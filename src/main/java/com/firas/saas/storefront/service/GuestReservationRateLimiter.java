@@ -0,0 +1,53 @@
+package com.firas.saas.storefront.service;
+
+import com.firas.saas.app.ratelimit.RateLimit;
+import com.firas.saas.app.ratelimit.RateLimitDecision;
+import com.firas.saas.app.ratelimit.RateLimitStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token-bucket limits for the public guest reservation endpoint, one bucket per (tenant, client IP)
+ * and one per (tenant, reservationToken), so an anonymous caller cannot hold a store's stock by
+ * replaying reservations. Buckets live in the app API RateLimitStore (local or jdbc); if it fails,
+ * requests are let through like AppRateLimiter does.
+ */
+@Component
+@Slf4j
+public class GuestReservationRateLimiter {
+
+    private final RateLimitStore store;
+    private final boolean enabled;
+    private final RateLimit limit;
+
+    public GuestReservationRateLimiter(RateLimitStore store,
+                                       @Value("${app.storefront.reservation.rate-limit.enabled:true}") boolean enabled,
+                                       @Value("${app.storefront.reservation.rate-limit.burst:10}") int burst,
+                                       @Value("${app.storefront.reservation.rate-limit.refill-per-second:0.2}") double refillPerSecond) {
+        this.store = store;
+        this.enabled = enabled;
+        this.limit = new RateLimit(burst, refillPerSecond);
+    }
+
+    /**
+     * Take a token from the IP bucket and, when a token is sent, from its bucket too.
+     * Returns the first denial, or null when the call is allowed (or limiting is off or unavailable).
+     */
+    public RateLimitDecision tryAcquire(Long tenantId, String clientIp, String reservationToken) {
+        if (!enabled) {
+            return null;
+        }
+        try {
+            RateLimitDecision byIp = store.tryConsume("guest-reserve:" + tenantId + ":ip:" + clientIp, limit);
+            if (!byIp.isAllowed() || reservationToken == null) {
+                return byIp.isAllowed() ? null : byIp;
+            }
+            RateLimitDecision byToken = store.tryConsume("guest-reserve:" + tenantId + ":token:" + reservationToken, limit);
+            return byToken.isAllowed() ? null : byToken;
+        } catch (Exception e) {
+            log.warn("Rate limit store unavailable, allowing guest reservation: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.firas.saas.storefront.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firas.saas.common.cache.CacheInvalidationBus;
+import com.firas.saas.common.exception.ResourceNotFoundException;
+import com.firas.saas.storefront.entity.PageLayout;
+import com.firas.saas.storefront.entity.PageType;
+import com.firas.saas.storefront.repository.PageLayoutRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Published page layouts, pre-serialized to UTF-8 JSON bytes (and gzip for larger layouts).
+ *
+ * Serving a layout becomes a map lookup plus a byte copy instead of a row load, a
+ * JsonMapConverter parse and a Jackson write. Entries are keyed by tenant/pageType/handle and
+ * carry the PageLayout version they were built from, which also yields a strong ETag.
+ * Publishing or deleting a page evicts it on every node through the CacheInvalidationBus;
+ * the cache is bounded by total bytes.
+ */
+@Component
+public class PublishedLayoutCache {
+
+    public static final String CACHE_NAME = "published-layout";
+
+    private final PageLayoutRepository pageLayoutRepository;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidationBus invalidationBus;
+    private final TransactionTemplate readOnlyTx;
+    private final Cache<String, PublishedLayout> cache;
+    private final boolean gzipEnabled;
+    private final int gzipMinBytes;
+
+    public PublishedLayoutCache(PageLayoutRepository pageLayoutRepository,
+                                ObjectMapper objectMapper,
+                                CacheInvalidationBus invalidationBus,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.storefront.layout-cache.max-bytes:67108864}") long maxBytes,
+                                @Value("${app.storefront.layout-cache.ttl-seconds:3600}") long ttlSeconds,
+                                @Value("${app.storefront.layout-cache.gzip:true}") boolean gzipEnabled,
+                                @Value("${app.storefront.layout-cache.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.pageLayoutRepository = pageLayoutRepository;
+        this.objectMapper = objectMapper;
+        this.invalidationBus = invalidationBus;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.gzipEnabled = gzipEnabled;
+        this.gzipMinBytes = gzipMinBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, PublishedLayout layout) -> layout.sizeInBytes())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+
+        invalidationBus.subscribe(CACHE_NAME, cache::invalidate);
+    }
+
+    /**
+     * Published layout for a standard page type.
+     *
+     * @throws ResourceNotFoundException if the page does not exist or was never published
+     */
+    public PublishedLayout get(Long tenantId, PageType pageType) {
+        return cache.get(key(tenantId, pageType, null), k -> load(tenantId, pageType, null));
+    }
+
+    /**
+     * Published layout for a CUSTOM page.
+     *
+     * @throws ResourceNotFoundException if the page does not exist or was never published
+     */
+    public PublishedLayout getCustomPage(Long tenantId, String handle) {
+        return cache.get(key(tenantId, PageType.CUSTOM, handle), k -> load(tenantId, PageType.CUSTOM, handle));
+    }
+
+    /**
+     * Evict a page on all nodes (after commit when called in a transaction).
+     */
+    public void invalidate(Long tenantId, PageType pageType, String handle) {
+        invalidationBus.publish(CACHE_NAME, key(tenantId, pageType, pageType == PageType.CUSTOM ? handle : null));
+    }
+
+    private String key(Long tenantId, PageType pageType, String handle) {
+        return tenantId + "/" + pageType.name() + "/" + (handle != null ? handle : "");
+    }
+
+    private PublishedLayout load(Long tenantId, PageType pageType, String handle) {
+        return readOnlyTx.execute(status -> {
+            PageLayout layout;
+            if (pageType == PageType.CUSTOM) {
+                layout = pageLayoutRepository.findByTenantIdAndPageTypeAndHandle(tenantId, PageType.CUSTOM, handle)
+                        .orElseThrow(() -> new ResourceNotFoundException("Custom page", handle));
+                if (!layout.isPublished()) {
+                    throw new ResourceNotFoundException("Custom page " + handle + " is not published");
+                }
+            } else {
+                layout = pageLayoutRepository.findFirstByTenantIdAndPageType(tenantId, pageType)
+                        .orElseThrow(() -> new ResourceNotFoundException("Page layout for " + pageType.name()));
+                if (!layout.isPublished()) {
+                    throw new ResourceNotFoundException("Page layout for " + pageType.name() + " is not published");
+                }
+            }
+
+            byte[] json;
+            try {
+                json = objectMapper.writeValueAsBytes(layout.getLayoutJson());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize layout " + layout.getId(), e);
+            }
+            byte[] gzip = gzipEnabled && json.length >= gzipMinBytes ? gzip(json) : null;
+            return new PublishedLayout(layout.getId(), layout.getVersion(), json, gzip);
+        });
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Immutable, ready-to-write representation of a published layout.
+     */
+    @Getter
+    public static final class PublishedLayout {
+        private final long layoutId;
+        private final int version;
+        private final String etag;
+        private final String gzipEtag;
+        private final byte[] json;
+        private final byte[] gzip; // null when below gzip-min-bytes or gzip disabled
+
+        PublishedLayout(long layoutId, int version, byte[] json, byte[] gzip) {
+            this.layoutId = layoutId;
+            this.version = version;
+            this.etag = "\"L" + layoutId + "v" + version + "\"";
+            this.gzipEtag = "\"L" + layoutId + "v" + version + "-gzip\"";
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        /**
+         * Whether an If-None-Match header names this version (in either encoding).
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*")) {
+                    return true;
+                }
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals(etag) || tag.equals(gzipEtag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int sizeInBytes() {
+            return json.length + (gzip != null ? gzip.length : 0) + 128;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.firas.saas.storefront.service;
+
+import com.firas.saas.storefront.entity.StorefrontProduct;
+import com.firas.saas.storefront.repository.StorefrontProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Product listing and product pages for the public storefront, read from the
+ * storefront_products read model (see StorefrontProductProjector).
+ *
+ * Pages are read by keyset on (sort key, product id) over the (tenant_id[, category_slug],
+ * sort key, product_id) indexes, so the 500th page of an infinite scroll costs the same as the
+ * first. Sorting is limited to name, price and createdAt. A page is one indexed query, plus
+ * the total when asked for, which is cached per tenant/collection for count-ttl-seconds
+ * (approximate, no COUNT(*) per request). Numbered pages (page > 0 without a cursor) still
+ * work through OFFSET.
+ */
+@Service
+public class StorefrontCatalogService {
+
+    public static final int DEFAULT_LIMIT = 24;
+    public static final int MAX_LIMIT = 100;
+
+    private final EntityManager entityManager;
+    private final StorefrontProductRepository storefrontProductRepository;
+    private final Cache<String, Long> totals;
+
+    public StorefrontCatalogService(EntityManager entityManager,
+                                    StorefrontProductRepository storefrontProductRepository,
+                                    @Value("${app.storefront.catalog.count-cache-size:10000}") long countCacheSize,
+                                    @Value("${app.storefront.catalog.count-ttl-seconds:60}") long countTtlSeconds) {
+        this.entityManager = entityManager;
+        this.storefrontProductRepository = storefrontProductRepository;
+        this.totals = Caffeine.newBuilder()
+                .maximumSize(countCacheSize)
+                .expireAfterWrite(Duration.ofSeconds(countTtlSeconds))
+                .build();
+    }
+
+    /**
+     * Sort keys the storefront may page by; each is backed by an index.
+     */
+    public enum SortKey {
+        NAME("name"),
+        PRICE("price"),
+        CREATED_AT("createdAt");
+
+        private final String property;
+
+        SortKey(String property) {
+            this.property = property;
+        }
+
+        public static SortKey parse(String sortBy) {
+            for (SortKey key : values()) {
+                if (key.property.equalsIgnoreCase(sortBy)) {
+                    return key;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported sortBy: " + sortBy + " (use name, price or createdAt)");
+        }
+
+        Comparable<?> parseValue(String value) {
+            return switch (this) {
+                case NAME -> value;
+                case PRICE -> new BigDecimal(value);
+                case CREATED_AT -> LocalDateTime.parse(value);
+            };
+        }
+
+        Comparable<?> valueOf(StorefrontProduct product) {
+            return switch (this) {
+                case NAME -> product.getName();
+                case PRICE -> product.getPrice();
+                case CREATED_AT -> product.getCreatedAt();
+            };
+        }
+
+        private static String format(Comparable<?> value) {
+            return value instanceof BigDecimal price ? price.toPlainString() : value.toString();
+        }
+    }
+
+    /**
+     * A product page by slug.
+     */
+    @Transactional(readOnly = true)
+    public Optional<StorefrontProduct> findProduct(Long tenantId, String slug) {
+        return storefrontProductRepository.findFirstByTenantIdAndSlug(tenantId, slug);
+    }
+
+    /**
+     * One page of products, optionally limited to a collection (category slug).
+     */
+    @Transactional(readOnly = true)
+    public CatalogPage findProducts(Long tenantId, String categorySlug, SortKey sort, boolean descending,
+                                    String cursor, int page, int limit, boolean includeTotal) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Cursor after = cursor != null && !cursor.isBlank() ? Cursor.decode(cursor, sort, descending) : null;
+        String category = categorySlug != null && !categorySlug.isBlank() ? categorySlug : null;
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<StorefrontProduct> query = cb.createQuery(StorefrontProduct.class);
+        Root<StorefrontProduct> root = query.from(StorefrontProduct.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(root.get("tenantId"), tenantId));
+        if (category != null) {
+            predicates.add(cb.equal(root.get("categorySlug"), category));
+        }
+        if (after != null) {
+            predicates.add(after.predicate(cb, root, sort, descending));
+        }
+
+        Path<?> sortPath = root.get(sort.property);
+        Path<?> idPath = root.get("productId");
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(descending ? cb.desc(sortPath) : cb.asc(sortPath),
+                        descending ? cb.desc(idPath) : cb.asc(idPath));
+
+        TypedQuery<StorefrontProduct> typed = entityManager.createQuery(query).setMaxResults(pageSize + 1);
+        if (after == null && page > 0) {
+            typed.setFirstResult(page * pageSize);
+        }
+        List<StorefrontProduct> products = typed.getResultList();
+
+        boolean hasNext = products.size() > pageSize;
+        if (hasNext) {
+            products = new ArrayList<>(products.subList(0, pageSize));
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            StorefrontProduct last = products.get(products.size() - 1);
+            nextCursor = new Cursor(sort.valueOf(last), last.getProductId()).encode(sort, descending);
+        }
+
+        Long total = includeTotal ? approximateTotal(tenantId, category) : null;
+        return new CatalogPage(products, nextCursor, hasNext, total);
+    }
+
+    private long approximateTotal(Long tenantId, String categorySlug) {
+        return totals.get(tenantId + ":" + (categorySlug != null ? "c:" + categorySlug : "all"), key -> categorySlug != null
+                ? storefrontProductRepository.countByTenantIdAndCategorySlug(tenantId, categorySlug)
+                : storefrontProductRepository.countByTenantId(tenantId));
+    }
+
+    @Getter
+    public static final class CatalogPage {
+        private final List<StorefrontProduct> products;
+        private final String nextCursor;
+        private final boolean hasNext;
+        private final Long total; // null unless requested; may lag by up to count-ttl-seconds
+
+        CatalogPage(List<StorefrontProduct> products, String nextCursor, boolean hasNext, Long total) {
+            this.products = products;
+            this.nextCursor = nextCursor;
+            this.hasNext = hasNext;
+            this.total = total;
+        }
+    }
+
+    /**
+     * Position after the last product of a page: its sort value and id. The encoded form also
+     * carries the sort it was issued for, so it cannot be replayed against another ordering.
+     */
+    static final class Cursor {
+        final Comparable<?> value;
+        final Long id;
+
+        Cursor(Comparable<?> value, Long id) {
+            this.value = value;
+            this.id = id;
+        }
+
+        String encode(SortKey sort, boolean descending) {
+            String raw = sort.name() + "|" + (descending ? "desc" : "asc") + "|" + id + "|" + SortKey.format(value);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor, SortKey sort, boolean descending) {
+            try {
+                // The value goes last: product names may contain '|'
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+                if (!parts[0].equals(sort.name()) || !parts[1].equals(descending ? "desc" : "asc")) {
+                    throw new IllegalArgumentException("Cursor was issued for another sort");
+                }
+                return new Cursor(sort.parseValue(parts[3]), Long.valueOf(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Predicate predicate(CriteriaBuilder cb, Root<StorefrontProduct> root, SortKey sort, boolean descending) {
+            Path sortPath = root.get(sort.property);
+            Path<Long> idPath = root.get("productId");
+            Comparable sortValue = value;
+            return descending
+                    ? cb.or(cb.lessThan(sortPath, sortValue),
+                            cb.and(cb.equal(sortPath, sortValue), cb.lessThan(idPath, id)))
+                    : cb.or(cb.greaterThan(sortPath, sortValue),
+                            cb.and(cb.equal(sortPath, sortValue), cb.greaterThan(idPath, id)));
+        }
+    }
+}
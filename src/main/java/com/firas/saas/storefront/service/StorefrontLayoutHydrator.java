@@ -0,0 +1,244 @@
+package com.firas.saas.storefront.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firas.saas.common.cache.CacheInvalidationBus;
+import com.firas.saas.common.exception.ResourceNotFoundException;
+import com.firas.saas.product.entity.Category;
+import com.firas.saas.product.repository.CategoryRepository;
+import com.firas.saas.product.repository.ProductRepository;
+import com.firas.saas.storefront.entity.StorefrontProduct;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catalog data referenced by a published layout, resolved in one pass so the renderer gets a
+ * page from one request instead of /layout followed by /products and /collections per section.
+ *
+ * product-grid sections are grouped by source (collection_handle, empty for featured) and each
+ * source is read once, with the largest limit any section asks for: one indexed keyset query
+ * per distinct source. collection-list sections share one category query and one grouped count.
+ * The {{collection.handle}} template resolves to the collection being viewed. Results are cached
+ * under a combined key: tenant catalog generation, layout id and version, and page context. The
+ * generation is bumped by the read model's change notifications, so a product change or a
+ * republished layout simply misses. Categories have no change notification and rely on
+ * ttl-seconds. Reservations are not cached; the caller applies them per request.
+ */
+@Service
+public class StorefrontLayoutHydrator {
+
+    static final String COLLECTION_HANDLE_TEMPLATE = "{{collection.handle}}";
+    private static final TypeReference<Map<String, Object>> LAYOUT_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final StorefrontCatalogService catalogService;
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final Cache<String, Hydration> cache;
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+
+    public StorefrontLayoutHydrator(ObjectMapper objectMapper,
+                                    StorefrontCatalogService catalogService,
+                                    CategoryRepository categoryRepository,
+                                    ProductRepository productRepository,
+                                    CacheInvalidationBus invalidationBus,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.storefront.hydration.max-size:10000}") long maxSize,
+                                    @Value("${app.storefront.hydration.ttl-seconds:300}") long ttlSeconds) {
+        this.objectMapper = objectMapper;
+        this.catalogService = catalogService;
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+
+        invalidationBus.subscribe(StorefrontSearchService.CACHE_NAME, this::onCatalogChange);
+    }
+
+    /**
+     * The layout with the products and collections its sections reference.
+     *
+     * @param collectionHandle collection being viewed (COLLECTION pages), or null
+     * @param productHandle    product being viewed (PRODUCT pages), or null
+     * @throws ResourceNotFoundException if the collection or product does not exist
+     */
+    public Hydration hydrate(Long tenantId, PublishedLayoutCache.PublishedLayout layout,
+                             String collectionHandle, String productHandle) {
+        // Read the generation first: a change during the load leaves the result under a stale key
+        String key = tenantId + "/" + generations.getOrDefault(tenantId, 0L)
+                + "/L" + layout.getLayoutId() + "v" + layout.getVersion()
+                + "/" + (collectionHandle != null ? collectionHandle : "")
+                + "/" + (productHandle != null ? productHandle : "");
+        return cache.get(key, k -> load(tenantId, layout, collectionHandle, productHandle));
+    }
+
+    /**
+     * Read model changes, as published by StorefrontSearchService: "tenantId" or "tenantId:ids".
+     */
+    private void onCatalogChange(String key) {
+        int colon = key.indexOf(':');
+        generations.merge(Long.valueOf(colon < 0 ? key : key.substring(0, colon)), 1L, Long::sum);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Hydration load(Long tenantId, PublishedLayoutCache.PublishedLayout layout,
+                           String collectionHandle, String productHandle) {
+        Map<String, Object> root;
+        try {
+            root = objectMapper.readValue(layout.getJson(), LAYOUT_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<String, Object> sections = root.get("sections") instanceof Map<?, ?> map
+                ? (Map<String, Object>) map : Map.of();
+        List<?> order = root.get("order") instanceof List<?> list ? list : new ArrayList<>(sections.keySet());
+
+        // Collect references: grid sections by source, the largest limit per source
+        Map<String, GridRef> grids = new LinkedHashMap<>();
+        Map<String, Integer> sourceLimits = new LinkedHashMap<>();
+        Map<String, List<String>> lists = new LinkedHashMap<>(); // empty list: all collections
+        for (Object id : order) {
+            if (!(sections.get(String.valueOf(id)) instanceof Map<?, ?> section)) {
+                continue;
+            }
+            Map<?, ?> settings = section.get("settings") instanceof Map<?, ?> s ? s : Map.of();
+            if ("product-grid".equals(section.get("type"))) {
+                String source = source(settings.get("collection_handle"), collectionHandle);
+                if (source != null) {
+                    int limit = limit(settings.get("limit"));
+                    grids.put(String.valueOf(id), new GridRef(source, limit));
+                    sourceLimits.merge(source, limit, Math::max);
+                }
+            } else if ("collection-list".equals(section.get("type"))) {
+                lists.put(String.valueOf(id), handles(settings.get("collection_handles")));
+            }
+        }
+
+        return readOnlyTx.execute(status -> {
+            Category collection = collectionHandle == null ? null
+                    : categoryRepository.findBySlugAndTenantId(collectionHandle, tenantId)
+                            .orElseThrow(() -> new ResourceNotFoundException("Collection", collectionHandle));
+            StorefrontProduct product = productHandle == null ? null
+                    : catalogService.findProduct(tenantId, productHandle)
+                            .orElseThrow(() -> new ResourceNotFoundException("Product", productHandle));
+
+            Map<String, List<StorefrontProduct>> bySource = new HashMap<>();
+            sourceLimits.forEach((source, limit) -> bySource.put(source, catalogService.findProducts(tenantId,
+                    source.isEmpty() ? null : source, StorefrontCatalogService.SortKey.NAME, false,
+                    null, 0, limit, false).getProducts()));
+            Map<String, List<StorefrontProduct>> products = new LinkedHashMap<>();
+            grids.forEach((id, grid) -> {
+                List<StorefrontProduct> rows = bySource.get(grid.source);
+                products.put(id, List.copyOf(rows.subList(0, Math.min(grid.limit, rows.size()))));
+            });
+
+            Map<String, List<Category>> collections = new LinkedHashMap<>();
+            Map<Long, Long> productCounts = new HashMap<>();
+            if (!lists.isEmpty()) {
+                List<Category> all = categoryRepository.findAllByTenantId(tenantId);
+                Map<String, Category> bySlug = new HashMap<>();
+                all.forEach(category -> bySlug.put(category.getSlug(), category));
+                lists.forEach((id, handles) -> collections.put(id, handles.isEmpty() ? List.copyOf(all)
+                        : handles.stream().map(bySlug::get).filter(Objects::nonNull).toList()));
+            }
+            if (!lists.isEmpty() || collection != null) {
+                for (Object[] row : productRepository.countProductsByCategory(tenantId)) {
+                    if (row[0] != null) {
+                        productCounts.put((Long) row[0], (Long) row[1]);
+                    }
+                }
+            }
+
+            return new Hydration(new String(layout.getJson(), StandardCharsets.UTF_8), collection, product,
+                    products, collections, productCounts);
+        });
+    }
+
+    /**
+     * Collection slug a grid reads from: "" for featured, null for a template with no collection in view.
+     */
+    static String source(Object handle, String collectionHandle) {
+        String value = handle != null ? handle.toString().trim() : "";
+        if (value.equals(COLLECTION_HANDLE_TEMPLATE)) {
+            return collectionHandle;
+        }
+        return value.startsWith("{{") ? null : value;
+    }
+
+    static int limit(Object value) {
+        int limit;
+        try {
+            limit = value instanceof Number number ? number.intValue() : Integer.parseInt(String.valueOf(value).trim());
+        } catch (NumberFormatException e) {
+            limit = 8; // the product-grid default
+        }
+        return Math.max(1, Math.min(limit, StorefrontCatalogService.MAX_LIMIT));
+    }
+
+    static List<String> handles(Object value) {
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(value.toString().split(","))
+                .map(String::trim)
+                .filter(handle -> !handle.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private record GridRef(String source, int limit) {
+    }
+
+    /**
+     * A layout and the catalog data its sections reference, by section id. Shared between
+     * requests: read only.
+     */
+    @Getter
+    public static final class Hydration {
+        private final String layoutJson;
+        private final Category collection; // null unless a collection is in view
+        private final StorefrontProduct product; // null unless a product is in view
+        private final Map<String, List<StorefrontProduct>> products;
+        private final Map<String, List<Category>> collections;
+        private final Map<Long, Long> productCounts; // by category id
+
+        Hydration(String layoutJson, Category collection, StorefrontProduct product,
+                  Map<String, List<StorefrontProduct>> products, Map<String, List<Category>> collections,
+                  Map<Long, Long> productCounts) {
+            this.layoutJson = layoutJson;
+            this.collection = collection;
+            this.product = product;
+            this.products = products;
+            this.collections = collections;
+            this.productCounts = productCounts;
+        }
+
+        public int productCount(Category category) {
+            return productCounts.getOrDefault(category.getId(), 0L).intValue();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.firas.saas.storefront.service;
+
+import com.firas.saas.common.event.DomainEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the storefront read model in step with catalog and stock changes.
+ *
+ * Runs on the OutboxRelay thread next to WebhookEventListener. Failures propagate so the
+ * relay retries the event; a refresh re-reads the product, so applying it twice is harmless, and
+ * the other listeners skip what they already handled.
+ */
+@Component
+@RequiredArgsConstructor
+public class StorefrontProductEventListener {
+
+    private final StorefrontProductProjector projector;
+
+    @EventListener
+    public void handleDomainEvent(DomainEvent event) {
+        switch (event.getEventType()) {
+            case PRODUCT_CREATED, PRODUCT_UPDATED, PRODUCT_DELETED ->
+                    projector.refresh(event.getTenantId(), List.of(toLong(event.getData().get("id"))));
+            case INVENTORY_UPDATED ->
+                    projector.refreshVariants(event.getTenantId(), toLongs(event.getData().get("variantIds")));
+            default -> {
+            }
+        }
+    }
+
+    private static Long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    private static List<Long> toLongs(Object values) {
+        List<Long> result = new ArrayList<>();
+        if (values instanceof Collection<?> collection) {
+            for (Object value : collection) {
+                result.add(toLong(value));
+            }
+        }
+        return result;
+    }
+}
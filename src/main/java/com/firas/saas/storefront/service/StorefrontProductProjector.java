@@ -0,0 +1,248 @@
+package com.firas.saas.storefront.service;
+
+import com.firas.saas.product.entity.Product;
+import com.firas.saas.product.entity.ProductVariant;
+import com.firas.saas.product.repository.ProductRepository;
+import com.firas.saas.product.repository.ProductVariantRepository;
+import com.firas.saas.storefront.entity.StorefrontProduct;
+import com.firas.saas.storefront.repository.StorefrontProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the storefront_products read model.
+ *
+ * Every update re-projects whole products from the catalog tables (products + category,
+ * variants) rather than applying event deltas, so handling an event twice or out of order
+ * converges on the same row, and a product that no longer exists simply loses its row.
+ * rebuild() re-projects a tenant's whole catalog in id-ordered batches (one transaction each)
+ * and then drops rows it did not touch; it runs on the storefrontRebuildExecutor, on demand
+ * or at startup for tenants that have products but no read model yet. Committed changes are
+ * passed on to the search indexes (StorefrontSearchService).
+ */
+@Service
+@Slf4j
+public class StorefrontProductProjector {
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository variantRepository;
+    private final StorefrontProductRepository storefrontProductRepository;
+    private final StorefrontSearchService searchService;
+    private final TransactionTemplate tx;
+    private final ThreadPoolTaskExecutor rebuildExecutor;
+    private final Set<Long> rebuilding = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.storefront.read-model.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.storefront.read-model.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    public StorefrontProductProjector(ProductRepository productRepository,
+                                      ProductVariantRepository variantRepository,
+                                      StorefrontProductRepository storefrontProductRepository,
+                                      StorefrontSearchService searchService,
+                                      PlatformTransactionManager transactionManager,
+                                      @Qualifier("storefrontRebuildExecutor") ThreadPoolTaskExecutor rebuildExecutor) {
+        this.productRepository = productRepository;
+        this.variantRepository = variantRepository;
+        this.storefrontProductRepository = storefrontProductRepository;
+        this.searchService = searchService;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    /**
+     * Re-project products of a tenant; ids whose product is gone are removed from the read model.
+     */
+    public void refresh(Long tenantId, Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        tx.executeWithoutResult(status -> project(tenantId, productIds, now()));
+        searchService.productsChanged(tenantId, productIds);
+    }
+
+    /**
+     * Re-project the products owning these variants (stock changes).
+     */
+    public void refreshVariants(Long tenantId, Collection<Long> variantIds) {
+        if (variantIds.isEmpty()) {
+            return;
+        }
+        List<Long> productIds = variantRepository.findProductIdsByTenantIdAndIdIn(tenantId, variantIds);
+        if (productIds.isEmpty()) {
+            return;
+        }
+        tx.executeWithoutResult(status -> project(tenantId, productIds, now()));
+        searchService.stockChanged(tenantId, productIds);
+    }
+
+    /**
+     * Queue a rebuild of a tenant's read model. False if one is already queued or running.
+     */
+    public boolean requestRebuild(Long tenantId) {
+        if (!rebuilding.add(tenantId)) {
+            return false;
+        }
+        rebuildExecutor.execute(() -> {
+            try {
+                rebuild(tenantId);
+            } catch (Exception e) {
+                log.error("Storefront read model rebuild failed for tenant {}: {}", tenantId, e.getMessage());
+            } finally {
+                rebuilding.remove(tenantId);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Re-project every product of a tenant, then drop rows of products that no longer exist.
+     *
+     * @return number of products projected
+     */
+    public int rebuild(Long tenantId) {
+        LocalDateTime startedAt = now();
+        int projected = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = productRepository.findIdsByTenantIdAfter(tenantId, afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            tx.executeWithoutResult(status -> project(tenantId, ids, now()));
+            projected += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+        Integer removed = tx.execute(status ->
+                storefrontProductRepository.deleteByTenantIdAndProjectedAtBefore(tenantId, startedAt));
+        searchService.tenantChanged(tenantId);
+        log.info("Rebuilt storefront read model for tenant {}: {} products, {} stale rows removed",
+                tenantId, projected, removed);
+        return projected;
+    }
+
+    /**
+     * Backfill tenants that have products but no read model (first start after an upgrade).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissing() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        for (Long tenantId : storefrontProductRepository.findTenantIdsWithoutReadModel()) {
+            log.info("Storefront read model missing for tenant {}, scheduling rebuild", tenantId);
+            requestRebuild(tenantId);
+        }
+    }
+
+    private void project(Long tenantId, Collection<Long> productIds, LocalDateTime projectedAt) {
+        List<Product> products = productRepository.findAllWithCategoryByTenantIdAndIdIn(tenantId, productIds);
+
+        Map<Long, List<ProductVariant>> variants = new HashMap<>();
+        if (!products.isEmpty()) {
+            for (ProductVariant variant : variantRepository.findAllByProductIdInOrderByIdAsc(
+                    products.stream().map(Product::getId).toList())) {
+                variants.computeIfAbsent(variant.getProduct().getId(), id -> new ArrayList<>()).add(variant);
+            }
+        }
+
+        Map<Long, StorefrontProduct> existing = new HashMap<>();
+        for (StorefrontProduct row : storefrontProductRepository.findAllById(productIds)) {
+            if (row.getTenantId().equals(tenantId)) {
+                existing.put(row.getProductId(), row);
+            }
+        }
+
+        List<StorefrontProduct> rows = new ArrayList<>(products.size());
+        Set<Long> present = new HashSet<>();
+        for (Product product : products) {
+            StorefrontProduct row = existing.get(product.getId());
+            if (row == null) {
+                row = StorefrontProduct.builder().build();
+            }
+            apply(row, product, variants.getOrDefault(product.getId(), List.of()), projectedAt);
+            rows.add(row);
+            present.add(product.getId());
+        }
+        storefrontProductRepository.saveAll(rows);
+
+        List<Long> gone = existing.keySet().stream().filter(id -> !present.contains(id)).toList();
+        if (!gone.isEmpty()) {
+            storefrontProductRepository.deleteAllByIdInBatch(gone);
+        }
+    }
+
+    /**
+     * Flatten a product into its read model row.
+     */
+    static void apply(StorefrontProduct row, Product product, List<ProductVariant> variants, LocalDateTime projectedAt) {
+        row.setProductId(product.getId());
+        row.setTenantId(product.getTenantId());
+        row.setName(product.getName());
+        row.setSlug(product.getSlug());
+        row.setDescription(product.getDescription());
+        row.setImageUrl(product.getImageUrl());
+        if (product.getCategory() != null) {
+            row.setCategoryId(product.getCategory().getId());
+            row.setCategoryName(product.getCategory().getName());
+            row.setCategorySlug(product.getCategory().getSlug());
+        } else {
+            row.setCategoryId(null);
+            row.setCategoryName(null);
+            row.setCategorySlug(null);
+        }
+
+        BigDecimal min = null;
+        BigDecimal max = null;
+        boolean inStock = false;
+        List<StorefrontProduct.VariantSummary> summaries = new ArrayList<>(variants.size());
+        for (ProductVariant variant : variants) {
+            BigDecimal price = variant.getPrice();
+            min = min == null || price.compareTo(min) < 0 ? price : min;
+            max = max == null || price.compareTo(max) > 0 ? price : max;
+            inStock |= variant.getStockLevel() > 0;
+            summaries.add(StorefrontProduct.VariantSummary.builder()
+                    .id(variant.getId())
+                    .name(variant.getName())
+                    .sku(variant.getSku())
+                    .price(price)
+                    .stockLevel(variant.getStockLevel())
+                    .build());
+        }
+
+        // The storefront has always shown the first variant's price
+        row.setPrice(variants.isEmpty() ? BigDecimal.ZERO : variants.get(0).getPrice());
+        row.setMinPrice(min != null ? min : BigDecimal.ZERO);
+        row.setMaxPrice(max != null ? max : BigDecimal.ZERO);
+        row.setInStock(inStock);
+        row.setVariants(summaries);
+        row.setCreatedAt(product.getCreatedAt());
+        row.setProjectedAt(projectedAt);
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS); // column precision
+    }
+}
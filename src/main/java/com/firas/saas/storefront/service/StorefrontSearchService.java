@@ -0,0 +1,205 @@
+package com.firas.saas.storefront.service;
+
+import com.firas.saas.common.cache.CacheInvalidationBus;
+import com.firas.saas.storefront.entity.StorefrontProduct;
+import com.firas.saas.storefront.repository.StorefrontProductRepository;
+import com.firas.saas.storefront.search.ProductSearchIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Product search for the storefront, served from per-tenant in-memory indexes
+ * (ProductSearchIndex) instead of LIKE scans.
+ *
+ * A tenant's index is built from the storefront_products read model on its first search and
+ * kept while it is used; the cache is bounded by the indexes' estimated bytes. When the read
+ * model changes, StorefrontProductProjector calls productsChanged / stockChanged /
+ * tenantChanged, which go through the CacheInvalidationBus so every node re-indexes those
+ * products (or drops the tenant's index after a rebuild). Indexes not loaded on a node are
+ * simply left alone.
+ */
+@Service
+@Slf4j
+public class StorefrontSearchService {
+
+    public static final String CACHE_NAME = "storefront-search";
+    public static final int MAX_LIMIT = 100;
+    static final String STOCK_ONLY = "stock:"; // marks changes that leave names, slugs and categories alone
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int IDS_PER_MESSAGE = 40; // keeps invalidation keys well under 500 chars
+
+    private final StorefrontProductRepository storefrontProductRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final Cache<Long, ProductSearchIndex> indexes;
+    private final Map<Long, Set<Long>> changedWhileLoading = new ConcurrentHashMap<>();
+    private final List<BigDecimal> priceBands;
+    private final int maxExpansions;
+
+    public StorefrontSearchService(StorefrontProductRepository storefrontProductRepository,
+                                   CacheInvalidationBus invalidationBus,
+                                   @Value("${app.storefront.search.max-bytes:268435456}") long maxBytes,
+                                   @Value("${app.storefront.search.idle-minutes:60}") long idleMinutes,
+                                   @Value("${app.storefront.search.price-bands:25,50,100,250}") String priceBands,
+                                   @Value("${app.storefront.search.max-expansions:50}") int maxExpansions) {
+        this.storefrontProductRepository = storefrontProductRepository;
+        this.invalidationBus = invalidationBus;
+        this.priceBands = Arrays.stream(priceBands.split(",")).map(String::trim).map(BigDecimal::new).toList();
+        this.maxExpansions = maxExpansions;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long tenantId, ProductSearchIndex index) -> (int) Math.min(Integer.MAX_VALUE, index.estimatedBytes()))
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+
+        invalidationBus.subscribe(CACHE_NAME, this::applyLocally);
+    }
+
+    public ProductSearchIndex.SearchResult search(Long tenantId, ProductSearchIndex.SearchQuery query) {
+        ProductSearchIndex index = indexes.get(tenantId, this::load);
+        Set<Long> changed = changedWhileLoading.remove(tenantId);
+        if (changed != null && !changed.isEmpty()) {
+            reindex(tenantId, index, changed);
+        }
+        return index.search(query);
+    }
+
+    /**
+     * Re-index products of a tenant on all nodes (after the read model rows were written).
+     */
+    public void productsChanged(Long tenantId, Collection<Long> productIds) {
+        publish(tenantId, "", productIds);
+    }
+
+    /**
+     * Same as productsChanged for products whose stock is all that changed; listeners that only
+     * use catalog fields (the suggester) skip these.
+     */
+    public void stockChanged(Long tenantId, Collection<Long> productIds) {
+        publish(tenantId, STOCK_ONLY, productIds);
+    }
+
+    private void publish(Long tenantId, String kind, Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        for (int from = 0; from < ids.size(); from += IDS_PER_MESSAGE) {
+            String chunk = ids.subList(from, Math.min(from + IDS_PER_MESSAGE, ids.size())).stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(","));
+            invalidationBus.publish(CACHE_NAME, tenantId + ":" + kind + chunk);
+        }
+    }
+
+    /**
+     * Drop a tenant's index on all nodes; the next search rebuilds it.
+     */
+    public void tenantChanged(Long tenantId) {
+        invalidationBus.publish(CACHE_NAME, String.valueOf(tenantId));
+    }
+
+    /**
+     * "tenantId" drops the index, "tenantId:id,id,..." and "tenantId:stock:id,id,..." re-index
+     * those products.
+     */
+    private void applyLocally(String key) {
+        int colon = key.indexOf(':');
+        Long tenantId = Long.valueOf(colon < 0 ? key : key.substring(0, colon));
+        if (colon < 0) {
+            indexes.invalidate(tenantId);
+            return;
+        }
+        List<Long> ids = changedIds(key.substring(colon + 1));
+        ProductSearchIndex index = indexes.getIfPresent(tenantId);
+        if (index == null) {
+            // Being loaded: the load may have read these rows before they changed, so the
+            // first search after it replays them
+            Set<Long> changed = changedWhileLoading.get(tenantId);
+            if (changed != null) {
+                changed.addAll(ids);
+            }
+            return;
+        }
+        reindex(tenantId, index, ids);
+    }
+
+    /**
+     * Product ids of a change message, after the tenant: "id,id,..." or "stock:id,id,...".
+     */
+    static List<Long> changedIds(String ids) {
+        String list = ids.startsWith(STOCK_ONLY) ? ids.substring(STOCK_ONLY.length()) : ids;
+        return Arrays.stream(list.split(",")).map(Long::valueOf).toList();
+    }
+
+    private void reindex(Long tenantId, ProductSearchIndex index, Collection<Long> ids) {
+        try {
+            Set<Long> present = new HashSet<>();
+            for (StorefrontProduct row : storefrontProductRepository.findAllById(ids)) {
+                if (row.getTenantId().equals(tenantId)) {
+                    index.put(toDocument(row));
+                    present.add(row.getProductId());
+                }
+            }
+            ids.stream().filter(id -> !present.contains(id)).forEach(index::remove);
+            indexes.put(tenantId, index); // re-weigh
+        } catch (Exception e) {
+            log.warn("Search re-index failed for tenant {}, dropping its index: {}", tenantId, e.getMessage());
+            indexes.invalidate(tenantId);
+        }
+    }
+
+    private ProductSearchIndex load(Long tenantId) {
+        long started = System.nanoTime();
+        changedWhileLoading.put(tenantId, ConcurrentHashMap.newKeySet());
+        ProductSearchIndex index = new ProductSearchIndex(priceBands, maxExpansions);
+        long afterId = 0;
+        while (true) {
+            List<StorefrontProduct> rows = storefrontProductRepository.findByTenantIdAndProductIdGreaterThanOrderByProductIdAsc(
+                    tenantId, afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            rows.forEach(row -> index.put(toDocument(row)));
+            afterId = rows.get(rows.size() - 1).getProductId();
+        }
+        log.debug("Built search index for tenant {}: {} products in {} ms",
+                tenantId, index.size(), (System.nanoTime() - started) / 1_000_000);
+        return index;
+    }
+
+    static ProductSearchIndex.Document toDocument(StorefrontProduct row) {
+        List<String> variantNames = new ArrayList<>();
+        List<String> skus = new ArrayList<>();
+        for (StorefrontProduct.VariantSummary variant : row.getVariants()) {
+            variantNames.add(variant.getName());
+            skus.add(variant.getSku());
+        }
+        return ProductSearchIndex.Document.builder()
+                .productId(row.getProductId())
+                .name(row.getName())
+                .slug(row.getSlug())
+                .imageUrl(row.getImageUrl())
+                .price(row.getPrice())
+                .categorySlug(row.getCategorySlug())
+                .categoryName(row.getCategoryName())
+                .inStock(row.isInStock())
+                .description(row.getDescription())
+                .variantNames(variantNames)
+                .skus(skus)
+                .build();
+    }
+}
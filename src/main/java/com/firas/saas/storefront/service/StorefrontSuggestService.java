@@ -0,0 +1,242 @@
+package com.firas.saas.storefront.service;
+
+import com.firas.saas.common.cache.CacheInvalidationBus;
+import com.firas.saas.order.repository.OrderRepository;
+import com.firas.saas.product.entity.Category;
+import com.firas.saas.product.repository.CategoryRepository;
+import com.firas.saas.storefront.repository.StorefrontProductRepository;
+import com.firas.saas.storefront.search.Suggester;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Search-as-you-type suggestions (product and collection names) for the storefront header.
+ *
+ * Each tenant gets an immutable Suggester built from the storefront read model and its
+ * categories, ranked by units sold over the last sales-window-days. It listens to the same
+ * changes as the search index (StorefrontSearchService.CACHE_NAME), minus stock-only ones:
+ * changed products are collected and applied to the previous suggester's entries on the next
+ * request, re-reading only those products, and the trie is rebuilt only if a name or slug
+ * actually changed. Collection entries come from the categories table, so creating or deleting
+ * a category drops the tenant's suggester on every node (collectionsChanged, CACHE_NAME).
+ * Sales weights are reloaded in the background every refresh-minutes. The cache is bounded
+ * by the suggesters' byte size, so thousands of small stores share one budget;
+ * storefront.suggest.tenants and storefront.suggest.bytes report it.
+ */
+@Service
+@Slf4j
+public class StorefrontSuggestService {
+
+    public static final String CACHE_NAME = "storefront-suggest";
+
+    private final CacheInvalidationBus invalidationBus;
+    private final StorefrontProductRepository storefrontProductRepository;
+    private final CategoryRepository categoryRepository;
+    private final OrderRepository orderRepository;
+    private final LoadingCache<Long, TenantSuggestions> suggesters;
+    private final int topK;
+    private final int salesWindowDays;
+    private final Duration refreshAfter;
+
+    public StorefrontSuggestService(StorefrontProductRepository storefrontProductRepository,
+                                    CategoryRepository categoryRepository,
+                                    OrderRepository orderRepository,
+                                    CacheInvalidationBus invalidationBus,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.storefront.suggest.max-bytes:67108864}") long maxBytes,
+                                    @Value("${app.storefront.suggest.idle-minutes:1440}") long idleMinutes,
+                                    @Value("${app.storefront.suggest.refresh-minutes:60}") long refreshMinutes,
+                                    @Value("${app.storefront.suggest.top-k:10}") int topK,
+                                    @Value("${app.storefront.suggest.sales-window-days:90}") int salesWindowDays) {
+        this.invalidationBus = invalidationBus;
+        this.storefrontProductRepository = storefrontProductRepository;
+        this.categoryRepository = categoryRepository;
+        this.orderRepository = orderRepository;
+        this.topK = topK;
+        this.salesWindowDays = salesWindowDays;
+        this.refreshAfter = Duration.ofMinutes(refreshMinutes);
+        this.suggesters = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long tenantId, TenantSuggestions suggestions) -> (int) Math.min(Integer.MAX_VALUE, suggestions.sizeInBytes()))
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build(new CacheLoader<>() {
+                    @Override
+                    public TenantSuggestions load(Long tenantId) {
+                        return StorefrontSuggestService.this.load(tenantId);
+                    }
+
+                    @Override
+                    public TenantSuggestions reload(Long tenantId, TenantSuggestions previous) {
+                        TenantSuggestions reloaded = StorefrontSuggestService.this.load(tenantId);
+                        reloaded.changed.addAll(previous.changed); // may postdate the rows just read
+                        return reloaded;
+                    }
+                });
+
+        invalidationBus.subscribe(StorefrontSearchService.CACHE_NAME, this::onCatalogChange);
+        invalidationBus.subscribe(CACHE_NAME, key -> suggesters.invalidate(Long.valueOf(key)));
+
+        Gauge.builder("storefront.suggest.tenants", suggesters, cache -> cache.estimatedSize())
+                .description("Tenants with a suggester loaded on this node")
+                .register(meterRegistry);
+        Gauge.builder("storefront.suggest.bytes", suggesters,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .description("Estimated heap used by loaded suggesters on this node")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public List<Suggester.Entry> suggest(Long tenantId, String prefix, int limit) {
+        TenantSuggestions suggestions = suggesters.get(tenantId);
+        if (suggestions.loadedAt.plus(refreshAfter).isBefore(LocalDateTime.now())) {
+            suggesters.refresh(tenantId); // in the background; this request uses the current one
+        }
+        return current(tenantId, suggestions).suggest(prefix, limit);
+    }
+
+    /**
+     * A category was created or deleted: rebuild the tenant's suggester on all nodes.
+     */
+    public void collectionsChanged(Long tenantId) {
+        invalidationBus.publish(CACHE_NAME, String.valueOf(tenantId));
+    }
+
+    /**
+     * Read model changes, as published by StorefrontSearchService: "tenantId" after a rebuild,
+     * "tenantId:id,id,..." for changed products, "tenantId:stock:id,id,..." for stock changes
+     * (ignored: nothing shown here depends on stock).
+     */
+    private void onCatalogChange(String key) {
+        int colon = key.indexOf(':');
+        Long tenantId = Long.valueOf(colon < 0 ? key : key.substring(0, colon));
+        if (colon < 0) {
+            suggesters.invalidate(tenantId);
+            return;
+        }
+        String ids = key.substring(colon + 1);
+        if (ids.startsWith(StorefrontSearchService.STOCK_ONLY)) {
+            return;
+        }
+        TenantSuggestions suggestions = suggesters.getIfPresent(tenantId);
+        if (suggestions != null) {
+            suggestions.changed.addAll(StorefrontSearchService.changedIds(ids));
+        }
+    }
+
+    /**
+     * The tenant's suggester with pending product changes applied.
+     */
+    private Suggester current(Long tenantId, TenantSuggestions suggestions) {
+        if (suggestions.changed.isEmpty()) {
+            return suggestions.suggester;
+        }
+        synchronized (suggestions) {
+            Set<Long> ids = new HashSet<>(suggestions.changed);
+            if (ids.isEmpty()) {
+                return suggestions.suggester;
+            }
+            suggestions.changed.removeAll(ids);
+
+            Map<Long, Object[]> rows = new HashMap<>();
+            for (Object[] row : storefrontProductRepository.findSuggestionFieldsByTenantIdAndProductIdIn(tenantId, ids)) {
+                rows.put((Long) row[0], row);
+            }
+            if (unchanged(suggestions.suggester, ids, rows)) {
+                return suggestions.suggester;
+            }
+            List<Suggester.Entry> entries = new ArrayList<>(suggestions.suggester.getEntries().size() + rows.size());
+            for (Suggester.Entry entry : suggestions.suggester.getEntries()) {
+                if (entry.getType() != Suggester.Entry.Type.PRODUCT || !ids.contains(entry.getId())) {
+                    entries.add(entry);
+                } else if (rows.containsKey(entry.getId())) {
+                    entries.add(productEntry(rows.remove(entry.getId()), entry.getWeight())); // keeps its sales
+                }
+            }
+            rows.values().forEach(row -> entries.add(productEntry(row, 0)));
+
+            suggestions.suggester = Suggester.build(entries, topK);
+            suggesters.asMap().replace(tenantId, suggestions, suggestions); // re-weigh, unless reloaded meanwhile
+            return suggestions.suggester;
+        }
+    }
+
+    /**
+     * Whether every changed product still exists with the name and slug the suggester has.
+     */
+    private static boolean unchanged(Suggester suggester, Set<Long> ids, Map<Long, Object[]> rows) {
+        int found = 0;
+        for (Suggester.Entry entry : suggester.getEntries()) {
+            if (entry.getType() != Suggester.Entry.Type.PRODUCT || !ids.contains(entry.getId())) {
+                continue;
+            }
+            Object[] row = rows.get(entry.getId());
+            if (row == null || !Objects.equals(entry.getText(), row[1]) || !Objects.equals(entry.getSlug(), row[2])) {
+                return false;
+            }
+            found++;
+        }
+        return found == rows.size(); // no new products either
+    }
+
+    private TenantSuggestions load(Long tenantId) {
+        long started = System.nanoTime();
+        Map<Long, Long> sold = new HashMap<>();
+        for (Object[] row : orderRepository.sumQuantityByProductId(tenantId, LocalDateTime.now().minusDays(salesWindowDays))) {
+            sold.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+
+        List<Suggester.Entry> entries = new ArrayList<>();
+        Map<Long, Long> soldByCategory = new HashMap<>();
+        for (Object[] row : storefrontProductRepository.findSuggestionFieldsByTenantId(tenantId)) {
+            long weight = sold.getOrDefault((Long) row[0], 0L);
+            entries.add(productEntry(row, weight));
+            if (row[3] != null) {
+                soldByCategory.merge((Long) row[3], weight, Long::sum);
+            }
+        }
+        for (Category category : categoryRepository.findAllByTenantId(tenantId)) {
+            entries.add(new Suggester.Entry(Suggester.Entry.Type.COLLECTION, category.getId(), category.getName(),
+                    category.getSlug(), soldByCategory.getOrDefault(category.getId(), 0L)));
+        }
+
+        Suggester suggester = Suggester.build(entries, topK);
+        log.debug("Built suggester for tenant {}: {} entries, {} bytes in {} ms", tenantId, entries.size(),
+                suggester.getSizeInBytes(), (System.nanoTime() - started) / 1_000_000);
+        return new TenantSuggestions(suggester);
+    }
+
+    private static Suggester.Entry productEntry(Object[] row, long weight) {
+        return new Suggester.Entry(Suggester.Entry.Type.PRODUCT, (Long) row[0], (String) row[1], (String) row[2], weight);
+    }
+
+    private static final class TenantSuggestions {
+        private volatile Suggester suggester;
+        private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+        private final LocalDateTime loadedAt = LocalDateTime.now();
+
+        TenantSuggestions(Suggester suggester) {
+            this.suggester = suggester;
+        }
+
+        long sizeInBytes() {
+            return suggester.getSizeInBytes() + 128;
+        }
+    }
+}
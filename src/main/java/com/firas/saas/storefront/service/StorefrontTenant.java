@@ -0,0 +1,21 @@
+package com.firas.saas.storefront.service;
+
+import com.firas.saas.storefront.dto.StoreSettingsResponse;
+import com.firas.saas.storefront.entity.CheckoutMode;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Immutable snapshot of everything the public storefront needs to resolve a slug.
+ * Shared between requests by StorefrontTenantCache; settings maps are unmodifiable.
+ */
+@Getter
+@Builder
+public class StorefrontTenant {
+
+    private final Long tenantId;
+    private final String slug;
+    private final boolean published;
+    private final CheckoutMode checkoutMode;
+    private final StoreSettingsResponse settings; // null when the store has no settings yet
+}
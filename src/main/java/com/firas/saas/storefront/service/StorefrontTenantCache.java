@@ -0,0 +1,158 @@
+package com.firas.saas.storefront.service;
+
+import com.firas.saas.common.cache.CacheInvalidationBus;
+import com.firas.saas.common.exception.ResourceNotFoundException;
+import com.firas.saas.storefront.dto.StoreSettingsResponse;
+import com.firas.saas.storefront.entity.CheckoutMode;
+import com.firas.saas.storefront.entity.StoreSettings;
+import com.firas.saas.storefront.repository.StoreSettingsRepository;
+import com.firas.saas.tenant.entity.Tenant;
+import com.firas.saas.tenant.repository.TenantRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Slug → StorefrontTenant cache for the public storefront API.
+ *
+ * Replaces the findBySlug + isStorePublished (+ settings) round trips on every storefront
+ * request. Entries are bounded (max-size), expire after ttl-seconds as a safety net, and are
+ * evicted on every node through the CacheInvalidationBus when settings, publish state or the
+ * store's theme change.
+ * Unknown slugs are cached too (as empty), so scanning bots do not hit the database.
+ */
+@Component
+public class StorefrontTenantCache {
+
+    public static final String CACHE_NAME = "storefront-tenant";
+    private static final String THEME_PREFIX = "theme:";
+
+    private final TenantRepository tenantRepository;
+    private final StoreSettingsRepository storeSettingsRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final TransactionTemplate readOnlyTx;
+    private final Cache<String, Optional<StorefrontTenant>> cache;
+
+    public StorefrontTenantCache(TenantRepository tenantRepository,
+                                 StoreSettingsRepository storeSettingsRepository,
+                                 CacheInvalidationBus invalidationBus,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.storefront.tenant-cache.max-size:10000}") long maxSize,
+                                 @Value("${app.storefront.tenant-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.tenantRepository = tenantRepository;
+        this.storeSettingsRepository = storeSettingsRepository;
+        this.invalidationBus = invalidationBus;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+
+        invalidationBus.subscribe(CACHE_NAME, this::evictLocally);
+    }
+
+    /**
+     * Resolve a slug, published or not.
+     */
+    public Optional<StorefrontTenant> find(String slug) {
+        return cache.get(slug, this::load);
+    }
+
+    /**
+     * Resolve a slug to a published store, or throw the same 404 the storefront always returned.
+     */
+    public StorefrontTenant requirePublished(String slug) {
+        return find(slug)
+                .filter(StorefrontTenant::isPublished)
+                .orElseThrow(() -> new ResourceNotFoundException("Store", slug));
+    }
+
+    /**
+     * Evict a tenant on all nodes. Pass the current slug; entries under any previous slug
+     * of the same tenant are evicted as well.
+     */
+    public void invalidate(Long tenantId, String slug) {
+        invalidationBus.publish(CACHE_NAME, tenantId + ":" + slug);
+    }
+
+    /**
+     * Evict every tenant using the theme, on all nodes (themes are shared by many stores).
+     */
+    public void invalidateTheme(Long themeId) {
+        invalidationBus.publish(CACHE_NAME, THEME_PREFIX + themeId);
+    }
+
+    private void evictLocally(String key) {
+        if (key.startsWith(THEME_PREFIX)) {
+            Long themeId = Long.valueOf(key.substring(THEME_PREFIX.length()));
+            cache.asMap().values().removeIf(entry -> entry.isPresent()
+                    && entry.get().getSettings() != null
+                    && entry.get().getSettings().getTheme() != null
+                    && themeId.equals(entry.get().getSettings().getTheme().getId()));
+            return;
+        }
+        String[] parts = key.split(":", 2);
+        Long tenantId = Long.valueOf(parts[0]);
+        cache.invalidate(parts[1]);
+        cache.asMap().values().removeIf(entry ->
+                entry.isPresent() && entry.get().getTenantId().equals(tenantId));
+    }
+
+    private Optional<StorefrontTenant> load(String slug) {
+        return readOnlyTx.execute(status -> tenantRepository.findBySlug(slug)
+                .map(tenant -> storeSettingsRepository.findByTenantId(tenant.getId())
+                        .map(settings -> snapshot(tenant, settings))
+                        .orElseGet(() -> StorefrontTenant.builder()
+                                .tenantId(tenant.getId())
+                                .slug(tenant.getSlug())
+                                .published(false)
+                                .checkoutMode(CheckoutMode.BOTH)
+                                .build())));
+    }
+
+    private StorefrontTenant snapshot(Tenant tenant, StoreSettings settings) {
+        StoreSettingsResponse.ThemeSummary themeSummary = null;
+        if (settings.getTheme() != null) {
+            themeSummary = StoreSettingsResponse.ThemeSummary.builder()
+                    .id(settings.getTheme().getId())
+                    .name(settings.getTheme().getName())
+                    .cssVariables(readOnly(settings.getTheme().getCssVariables()))
+                    .build();
+        }
+
+        StoreSettingsResponse response = StoreSettingsResponse.builder()
+                .storeName(tenant.getName())
+                .storeSlug(tenant.getSlug())
+                .checkoutMode(settings.getCheckoutMode())
+                .globalStyles(readOnly(settings.getGlobalStyles()))
+                .seoDefaults(readOnly(settings.getSeoDefaults()))
+                .socialLinks(readOnly(settings.getSocialLinks()))
+                .contactEmail(settings.getContactEmail())
+                .announcementText(settings.getAnnouncementText())
+                .announcementEnabled(settings.isAnnouncementEnabled())
+                .theme(themeSummary)
+                .build();
+
+        return StorefrontTenant.builder()
+                .tenantId(tenant.getId())
+                .slug(tenant.getSlug())
+                .published(settings.isPublished())
+                .checkoutMode(settings.getCheckoutMode())
+                .settings(response)
+                .build();
+    }
+
+    private Map<String, Object> readOnly(Map<String, Object> map) {
+        return map == null ? null : Collections.unmodifiableMap(new LinkedHashMap<>(map));
+    }
+}
@@ -12,6 +12,7 @@ import com.firas.saas.storefront.repository.PageLayoutRepository;
 import com.firas.saas.storefront.repository.PageLayoutVersionRepository;
 import com.firas.saas.storefront.repository.ThemeRepository;
 import com.firas.saas.storefront.service.PageLayoutService;
+import com.firas.saas.storefront.service.PublishedLayoutCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -28,6 +29,7 @@ public class PageLayoutServiceImpl implements PageLayoutService {
     private final PageLayoutRepository pageLayoutRepository;
     private final PageLayoutVersionRepository versionRepository;
     private final ThemeRepository themeRepository;
+    private final PublishedLayoutCache publishedLayoutCache;
 
     private static final int MAX_VERSIONS_TO_KEEP = 10;
 
@@ -191,6 +193,7 @@ public class PageLayoutServiceImpl implements PageLayoutService {
         layout.setPublished(true);
 
         PageLayout savedLayout = pageLayoutRepository.save(layout);
+        publishedLayoutCache.invalidate(savedLayout.getTenantId(), savedLayout.getPageType(), savedLayout.getHandle());
 
         // Create version snapshot AFTER publishing (so version 1 = first published layout)
         createVersionSnapshot(savedLayout, userEmail);
@@ -219,6 +222,7 @@ public class PageLayoutServiceImpl implements PageLayoutService {
         versionRepository.deleteAll(versions);
 
         pageLayoutRepository.delete(layout);
+        publishedLayoutCache.invalidate(tenantId, PageType.CUSTOM, handle);
     }
 
     @Override
@@ -9,6 +9,7 @@ import com.firas.saas.storefront.entity.Theme;
 import com.firas.saas.storefront.repository.StoreSettingsRepository;
 import com.firas.saas.storefront.repository.ThemeRepository;
 import com.firas.saas.storefront.service.StoreSettingsService;
+import com.firas.saas.storefront.service.StorefrontTenantCache;
 import com.firas.saas.tenant.entity.Tenant;
 import com.firas.saas.tenant.repository.TenantRepository;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +23,7 @@ public class StoreSettingsServiceImpl implements StoreSettingsService {
     private final StoreSettingsRepository storeSettingsRepository;
     private final TenantRepository tenantRepository;
     private final ThemeRepository themeRepository;
+    private final StorefrontTenantCache storefrontTenantCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -112,7 +114,9 @@ public class StoreSettingsServiceImpl implements StoreSettingsService {
             settings.setPublished(request.getPublished());
         }
 
-        return mapToResponse(storeSettingsRepository.save(settings), tenant);
+        StoreSettings saved = storeSettingsRepository.save(settings);
+        storefrontTenantCache.invalidate(tenantId, tenant.getSlug());
+        return mapToResponse(saved, tenant);
     }
 
     @Override
@@ -123,7 +127,9 @@ public class StoreSettingsServiceImpl implements StoreSettingsService {
 
         StoreSettings settings = getOrCreateStoreSettings(tenantId);
         settings.setPublished(true);
-        return mapToResponse(storeSettingsRepository.save(settings), tenant);
+        StoreSettings saved = storeSettingsRepository.save(settings);
+        storefrontTenantCache.invalidate(tenantId, tenant.getSlug());
+        return mapToResponse(saved, tenant);
     }
 
     @Override
@@ -134,7 +140,9 @@ public class StoreSettingsServiceImpl implements StoreSettingsService {
 
         StoreSettings settings = getOrCreateStoreSettings(tenantId);
         settings.setPublished(false);
-        return mapToResponse(storeSettingsRepository.save(settings), tenant);
+        StoreSettings saved = storeSettingsRepository.save(settings);
+        storefrontTenantCache.invalidate(tenantId, tenant.getSlug());
+        return mapToResponse(saved, tenant);
     }
 
     @Override
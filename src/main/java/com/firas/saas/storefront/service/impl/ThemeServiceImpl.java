@@ -5,6 +5,7 @@ import com.firas.saas.storefront.dto.ThemeResponse;
 import com.firas.saas.storefront.entity.Theme;
 import com.firas.saas.storefront.repository.StoreSettingsRepository;
 import com.firas.saas.storefront.repository.ThemeRepository;
+import com.firas.saas.storefront.service.StorefrontTenantCache;
 import com.firas.saas.storefront.service.ThemeService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -20,6 +21,7 @@ public class ThemeServiceImpl implements ThemeService {
 
     private final ThemeRepository themeRepository;
     private final StoreSettingsRepository storeSettingsRepository;
+    private final StorefrontTenantCache tenantCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -82,7 +84,9 @@ public class ThemeServiceImpl implements ThemeService {
         if (cssVariables != null) theme.setCssVariables(cssVariables);
         if (previewImageUrl != null) theme.setPreviewImageUrl(previewImageUrl);
 
-        return mapToResponse(themeRepository.save(theme));
+        ThemeResponse response = mapToResponse(themeRepository.save(theme));
+        tenantCache.invalidateTheme(themeId); // stores using it show its name and CSS variables
+        return response;
     }
 
     @Override
@@ -92,7 +96,9 @@ public class ThemeServiceImpl implements ThemeService {
                 .orElseThrow(() -> new ResourceNotFoundException("Theme", themeId));
 
         theme.setActive(active);
-        return mapToResponse(themeRepository.save(theme));
+        ThemeResponse response = mapToResponse(themeRepository.save(theme));
+        tenantCache.invalidateTheme(themeId);
+        return response;
     }
 
     @Override
@@ -105,6 +111,7 @@ public class ThemeServiceImpl implements ThemeService {
         // Note: This is a simplified check. In production, you'd query StoreSettings
         // For now, we just delete
         themeRepository.delete(theme);
+        tenantCache.invalidateTheme(themeId);
     }
 
     private ThemeResponse mapToResponse(Theme theme) {
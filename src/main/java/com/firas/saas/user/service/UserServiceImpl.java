@@ -1,5 +1,6 @@
 package com.firas.saas.user.service;
 
+import com.firas.saas.security.service.UserPrincipalCache;
 import com.firas.saas.tenant.entity.Tenant;
 import com.firas.saas.tenant.repository.TenantRepository;
 import com.firas.saas.user.dto.UserCreateRequest;
@@ -21,6 +22,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final TenantRepository tenantRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserPrincipalCache principalCache;
 
     @Override
     @Transactional
@@ -42,6 +44,8 @@ public class UserServiceImpl implements UserService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        // A principal cached for this email (e.g. a lookup that missed) must not outlive the new row
+        principalCache.invalidate(savedUser.getEmail());
         return mapToResponse(savedUser);
     }
 
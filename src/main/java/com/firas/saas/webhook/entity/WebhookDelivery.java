@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @Table(name = "webhook_deliveries", indexes = {
     @Index(name = "idx_webhook_delivery_event_id", columnList = "event_id"),
     @Index(name = "idx_webhook_delivery_status", columnList = "status"),
-    @Index(name = "idx_webhook_delivery_webhook", columnList = "webhook_id")
+    @Index(name = "idx_webhook_delivery_webhook", columnList = "webhook_id"),
+    @Index(name = "idx_webhook_delivery_due", columnList = "status, next_retry_at")
 })
 @Getter
 @Setter
@@ -55,7 +56,8 @@ public class WebhookDelivery extends TenantEntity {
     @Builder.Default
     private Integer maxAttempts = 5;
 
-    private LocalDateTime nextRetryAt;
+    @Column(name = "next_retry_at")
+    private LocalDateTime nextRetryAt; // Next attempt time; doubles as the claim lease expiry while SENDING
 
     @Column(columnDefinition = "TEXT")
     private String errorMessage;
@@ -71,7 +73,7 @@ public class WebhookDelivery extends TenantEntity {
 
     public enum DeliveryStatus {
         PENDING,    // Queued for delivery
-        SENDING,    // Currently being sent
+        SENDING,    // Currently being sent (claimed by a node until nextRetryAt)
         SUCCESS,    // Delivered successfully (2xx)
         FAILED,     // Permanently failed (4xx except 429)
         RETRYING,   // Will retry
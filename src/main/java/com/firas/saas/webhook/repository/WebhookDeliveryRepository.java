@@ -2,7 +2,13 @@ package com.firas.saas.webhook.repository;
 
 import com.firas.saas.common.base.BaseRepository;
 import com.firas.saas.webhook.entity.WebhookDelivery;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -20,6 +26,8 @@ public interface WebhookDeliveryRepository extends BaseRepository<WebhookDeliver
 
     Optional<WebhookDelivery> findByEventIdAndTenantId(String eventId, Long tenantId);
 
+    boolean existsByEventId(String eventId);
+
     Optional<WebhookDelivery> findByIdAndTenantId(Long id, Long tenantId);
 
     List<WebhookDelivery> findByStatusAndNextRetryAtBefore(
@@ -28,6 +36,33 @@ public interface WebhookDeliveryRepository extends BaseRepository<WebhookDeliver
     List<WebhookDelivery> findByStatusInAndNextRetryAtBefore(
             List<WebhookDelivery.DeliveryStatus> statuses, LocalDateTime now);
 
+    /**
+     * Claim due deliveries for the retry engine.
+     * Rows are locked FOR UPDATE SKIP LOCKED (lock timeout -2) so concurrent nodes
+     * polling the same table never receive the same row.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT d FROM WebhookDelivery d " +
+           "WHERE d.status IN :statuses AND d.nextRetryAt <= :now " +
+           "ORDER BY d.nextRetryAt")
+    List<WebhookDelivery> findDueForClaim(@Param("statuses") List<WebhookDelivery.DeliveryStatus> statuses,
+                                          @Param("now") LocalDateTime now,
+                                          Pageable pageable);
+
+    /**
+     * Load a delivery together with its webhook so it can be re-sent outside a transaction.
+     */
+    @Query("SELECT d FROM WebhookDelivery d JOIN FETCH d.webhook WHERE d.id = :id")
+    Optional<WebhookDelivery> findWithWebhookById(@Param("id") Long id);
+
+    long countByStatusInAndNextRetryAtBefore(List<WebhookDelivery.DeliveryStatus> statuses, LocalDateTime now);
+
+    long countByStatus(WebhookDelivery.DeliveryStatus status);
+
+    Optional<WebhookDelivery> findFirstByStatusInAndNextRetryAtBeforeOrderByNextRetryAtAsc(
+            List<WebhookDelivery.DeliveryStatus> statuses, LocalDateTime now);
+
     long countByWebhookIdAndTenantId(Long webhookId, Long tenantId);
 
     long countByWebhookIdAndStatusAndTenantId(Long webhookId,
@@ -0,0 +1,156 @@
+package com.firas.saas.webhook.service;
+
+import com.firas.saas.webhook.entity.WebhookDelivery;
+import com.firas.saas.webhook.repository.WebhookDeliveryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background retry engine for webhook deliveries.
+ *
+ * Every tick it claims due RETRYING/PENDING rows (plus SENDING rows whose lease expired,
+ * i.e. a node died mid-send) in bounded batches using FOR UPDATE SKIP LOCKED, marks them
+ * SENDING with a lease in nextRetryAt, commits, and re-sends them concurrently through the
+ * non-blocking DeliveryHttpClient (row loads and outcome writes run on webhookDeliveryExecutor). Several app nodes can run this safely: a row is only
+ * ever claimed by one node until its lease expires.
+ *
+ * Metrics: webhook.retry.queue.depth (due now), webhook.retry.backlog (all RETRYING),
+ * webhook.retry.lag.seconds (age of the oldest due row), webhook.retry.dispatched.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.webhook.retry", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class WebhookRetryScheduler {
+
+    private static final List<WebhookDelivery.DeliveryStatus> CLAIMABLE_STATUSES = List.of(
+            WebhookDelivery.DeliveryStatus.RETRYING,
+            WebhookDelivery.DeliveryStatus.PENDING,
+            WebhookDelivery.DeliveryStatus.SENDING // only when the lease in nextRetryAt has expired
+    );
+
+    private final WebhookDeliveryRepository deliveryRepository;
+    private final WebhookService webhookService;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter dispatchedCounter;
+
+    @Value("${app.webhook.retry.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.webhook.retry.max-batches-per-tick:50}")
+    private int maxBatchesPerTick;
+
+    @Value("${app.webhook.retry.lease-seconds:120}")
+    private long leaseSeconds;
+
+    public WebhookRetryScheduler(WebhookDeliveryRepository deliveryRepository,
+                                 WebhookService webhookService,
+                                 @Qualifier("webhookDeliveryExecutor") ThreadPoolTaskExecutor executor,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.deliveryRepository = deliveryRepository;
+        this.webhookService = webhookService;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("webhook.retry.queue.depth", queueDepth, AtomicLong::get)
+                .description("Webhook deliveries due for retry")
+                .register(meterRegistry);
+        Gauge.builder("webhook.retry.backlog", backlog, AtomicLong::get)
+                .description("Webhook deliveries in RETRYING state")
+                .register(meterRegistry);
+        Gauge.builder("webhook.retry.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest due webhook retry")
+                .register(meterRegistry);
+        this.dispatchedCounter = Counter.builder("webhook.retry.dispatched")
+                .description("Webhook retries re-sent by the retry engine")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.webhook.retry.poll-interval-ms:5000}")
+    public void drainDueRetries() {
+        refreshMetrics();
+
+        for (int batch = 0; batch < maxBatchesPerTick; batch++) {
+            List<Long> claimed = claimBatch();
+            if (claimed.isEmpty()) {
+                break;
+            }
+
+            // Requests are non-blocking; pool threads only load rows and persist outcomes
+            List<CompletableFuture<Void>> inFlight = new ArrayList<>(claimed.size());
+            for (Long deliveryId : claimed) {
+                inFlight.add(CompletableFuture.supplyAsync(() -> webhookService.processScheduledRetry(deliveryId), executor)
+                        .thenCompose(outcome -> outcome)
+                        .exceptionally(ex -> {
+                            // Row stays SENDING and is reclaimed once its lease expires
+                            log.error("Retry of webhook delivery {} failed: {}", deliveryId, ex.getMessage());
+                            return null;
+                        }));
+            }
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+            dispatchedCounter.increment(claimed.size());
+
+            if (claimed.size() < batchSize) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Claim one batch in a short transaction: lock, stamp SENDING + lease, commit.
+     */
+    private List<Long> claimBatch() {
+        List<Long> ids = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<WebhookDelivery> due = deliveryRepository.findDueForClaim(
+                    CLAIMABLE_STATUSES, now, PageRequest.of(0, batchSize));
+
+            List<Long> claimedIds = new ArrayList<>(due.size());
+            LocalDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+            for (WebhookDelivery delivery : due) {
+                delivery.setStatus(WebhookDelivery.DeliveryStatus.SENDING);
+                delivery.setNextRetryAt(leaseUntil);
+                claimedIds.add(delivery.getId());
+            }
+            return claimedIds;
+        });
+        return ids != null ? ids : List.of();
+    }
+
+    private void refreshMetrics() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            queueDepth.set(deliveryRepository.countByStatusInAndNextRetryAtBefore(CLAIMABLE_STATUSES, now));
+            backlog.set(deliveryRepository.countByStatus(WebhookDelivery.DeliveryStatus.RETRYING));
+            lagSeconds.set(deliveryRepository
+                    .findFirstByStatusInAndNextRetryAtBeforeOrderByNextRetryAtAsc(CLAIMABLE_STATUSES, now)
+                    .map(oldest -> Duration.between(oldest.getNextRetryAt(), now).getSeconds())
+                    .orElse(0L));
+        } catch (Exception e) {
+            log.warn("Failed to refresh webhook retry metrics: {}", e.getMessage());
+        }
+    }
+}
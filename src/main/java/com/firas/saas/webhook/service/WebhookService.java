@@ -7,6 +7,7 @@ import com.firas.saas.webhook.entity.Webhook;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface WebhookService {
 
@@ -28,10 +29,12 @@ public interface WebhookService {
     // ==================== EVENT TRIGGERING ====================
 
     /**
-     * Trigger webhook event - called by domain services when events occur.
-     * This is async and non-blocking.
+     * Trigger webhook event for a relayed domain event.
+     * eventId is the outbox event's id: a redelivered event maps to the same delivery ids and
+     * deliveries that already exist are not created again. Throws if a delivery could not be
+     * recorded, after the other webhooks were handled, so the relay retries the event.
      */
-    void triggerEvent(Webhook.WebhookEvent event, Map<String, Object> data, Long tenantId, String tenantSlug);
+    void triggerEvent(String eventId, Webhook.WebhookEvent event, Map<String, Object> data, Long tenantId, String tenantSlug);
 
     // ==================== DELIVERY MANAGEMENT ====================
 
@@ -43,6 +46,13 @@ public interface WebhookService {
     // Manual retry
     WebhookDeliveryResponse retryDelivery(Long deliveryId, Long tenantId);
 
+    /**
+     * Re-send a delivery already claimed by the retry engine (status SENDING).
+     * Not tenant-scoped: only called by WebhookRetryScheduler.
+     * The returned future completes once the outcome has been persisted.
+     */
+    CompletableFuture<Void> processScheduledRetry(Long deliveryId);
+
     // ==================== TESTING ====================
 
     WebhookDeliveryResponse testWebhook(Long id, Long tenantId);
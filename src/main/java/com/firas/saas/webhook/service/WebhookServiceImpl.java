@@ -3,6 +3,9 @@ package com.firas.saas.webhook.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.firas.saas.app.service.AppWebhookService;
 import com.firas.saas.common.exception.ResourceNotFoundException;
+import com.firas.saas.infrastructure.http.CircuitBreakerRegistry;
+import com.firas.saas.infrastructure.http.DeliveryHttpClient;
+import com.firas.saas.infrastructure.http.HostSaturatedException;
 import com.firas.saas.webhook.dto.*;
 import com.firas.saas.webhook.entity.Webhook;
 import com.firas.saas.webhook.entity.WebhookDelivery;
@@ -10,12 +13,10 @@ import com.firas.saas.webhook.repository.WebhookDeliveryRepository;
 import com.firas.saas.webhook.repository.WebhookRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.http.*;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
@@ -25,6 +26,9 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,22 +39,32 @@ public class WebhookServiceImpl implements WebhookService {
     private final WebhookDeliveryRepository deliveryRepository;
     private final ObjectMapper objectMapper;
     private final AppWebhookService appWebhookService;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final DeliveryHttpClient httpClient;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final Executor completionExecutor;
 
     public WebhookServiceImpl(
             WebhookRepository webhookRepository,
             WebhookDeliveryRepository deliveryRepository,
             ObjectMapper objectMapper,
-            @Lazy AppWebhookService appWebhookService) {
+            @Lazy AppWebhookService appWebhookService,
+            DeliveryHttpClient httpClient,
+            CircuitBreakerRegistry circuitBreakers,
+            @Qualifier("webhookDeliveryExecutor") Executor completionExecutor) {
         this.webhookRepository = webhookRepository;
         this.deliveryRepository = deliveryRepository;
         this.objectMapper = objectMapper;
         this.appWebhookService = appWebhookService;
+        this.httpClient = httpClient;
+        this.circuitBreakers = circuitBreakers;
+        this.completionExecutor = completionExecutor;
     }
 
     private static final SecureRandom secureRandom = new SecureRandom();
     private static final int MAX_RESPONSE_BODY_LENGTH = 1000;
     private static final int RETRY_WINDOW_HOURS = 72; // 3 days max retry window
+    private static final int SEND_LEASE_MINUTES = 2; // Keeps the retry engine off a row while its request is in flight
+    private static final int HOST_SATURATED_DEFER_SECONDS = 30;
 
     // ==================== SUBSCRIPTION MANAGEMENT ====================
 
@@ -149,16 +163,19 @@ public class WebhookServiceImpl implements WebhookService {
 
     // ==================== EVENT TRIGGERING ====================
 
+    /**
+     * Not transactional on purpose: each delivery row is committed (SENDING + lease) before
+     * its request is sent, and the outcome is written from the HTTP completion callback.
+     * Runs on the caller's thread (the OutboxRelay), so a failure reaches the relay; webhook
+     * requests are non-blocking, so it never waits on merchant endpoints. App deliveries go out
+     * after them and are awaited (AppWebhookService), so a failed app delivery is retried too.
+     */
     @Override
-    @Async
-    @Transactional
-    public void triggerEvent(Webhook.WebhookEvent event, Map<String, Object> data, Long tenantId, String tenantSlug) {
-        // Deliver to installed apps (based on their scopes)
-        try {
-            appWebhookService.deliverToApps(event, data, tenantId);
-        } catch (Exception e) {
-            log.error("Failed to deliver event {} to apps: {}", event, e.getMessage());
-        }
+    public void triggerEvent(String eventId, Webhook.WebhookEvent event, Map<String, Object> data,
+                             Long tenantId, String tenantSlug) {
+        // Failures are rethrown once every webhook had its turn, so the relay retries the event;
+        // deliveries recorded on this attempt are skipped on the retry
+        RuntimeException failure = null;
 
         // Deliver to merchant-registered webhooks
         List<Webhook> webhooks = webhookRepository.findAllByTenantIdAndEventAndActiveTrue(tenantId, event)
@@ -168,18 +185,22 @@ public class WebhookServiceImpl implements WebhookService {
 
         if (webhooks.isEmpty()) {
             log.debug("No active webhooks found for event {} in tenant {}", event, tenantId);
-            return;
         }
 
-        // Generate unique event ID
-        String eventId = "evt_" + UUID.randomUUID().toString().replace("-", "");
         LocalDateTime now = LocalDateTime.now();
 
         for (Webhook webhook : webhooks) {
+            // Stable per webhook, so the endpoint can dedupe and a relayed duplicate is skipped
+            String deliveryEventId = deliveryEventId(eventId, webhook.getId());
             try {
+                if (deliveryRepository.existsByEventId(deliveryEventId)) {
+                    log.debug("Delivery {} already exists, skipping redelivered event", deliveryEventId);
+                    continue;
+                }
+
                 // Build the standard payload
                 WebhookEventPayload payload = WebhookEventPayload.builder()
-                        .id(eventId)
+                        .id(deliveryEventId)
                         .type(WebhookEventPayload.eventToString(event))
                         .apiVersion(webhook.getApiVersion())
                         .createdAt(now.atOffset(ZoneOffset.UTC).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME))
@@ -190,12 +211,52 @@ public class WebhookServiceImpl implements WebhookService {
                         .data(data)
                         .build();
 
-                deliverWebhook(webhook, eventId, event, payload, tenantId, 1);
-            } catch (Exception e) {
+                WebhookDelivery delivery = createDelivery(webhook, deliveryEventId, event, payload, tenantId);
+                if (delivery.getStatus() != WebhookDelivery.DeliveryStatus.SENDING) {
+                    deliveryRepository.save(delivery);
+                    continue;
+                }
+                String breakerKey = breakerKey(webhook);
+                if (circuitBreakers.isOpen(breakerKey)) {
+                    // Endpoint is known to be down: park straight on the retry schedule, no request
+                    deferDelivery(delivery, circuitBreakers.retryAt(breakerKey), "Circuit open for webhook endpoint");
+                    deliveryRepository.save(delivery);
+                    continue;
+                }
+                WebhookDelivery claimed = deliveryRepository.save(delivery);
+                sendAsync(claimed)
+                        .thenAcceptAsync(deliveryRepository::save, completionExecutor)
+                        .exceptionally(ex -> {
+                            // Row stays SENDING and is picked up by the retry engine once the lease expires
+                            log.error("Failed to record outcome of delivery {}: {}", claimed.getId(), ex.getMessage());
+                            return null;
+                        });
+            } catch (RuntimeException e) {
                 log.error("Failed to trigger webhook {} for event {}: {}",
                         webhook.getId(), event, e.getMessage());
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        // Deliver to installed apps (based on their scopes)
+        try {
+            appWebhookService.deliverToApps(eventId, event, data, tenantId);
+        } catch (RuntimeException e) {
+            log.error("Failed to deliver event {} to apps: {}", event, e.getMessage());
+            if (failure == null) {
+                failure = e;
+            } else {
+                failure.addSuppressed(e);
             }
         }
+
+        if (failure != null) {
+            throw failure;
+        }
     }
 
     // ==================== DELIVERY MANAGEMENT ====================
@@ -246,15 +307,43 @@ public class WebhookServiceImpl implements WebhookService {
             throw new RuntimeException("Cannot retry successful delivery");
         }
 
-        // Reset for retry
-        delivery.setStatus(WebhookDelivery.DeliveryStatus.PENDING);
-        delivery.setNextRetryAt(LocalDateTime.now());
+        // Claim for retry so the background retry engine does not pick it up concurrently
+        delivery.setStatus(WebhookDelivery.DeliveryStatus.SENDING);
+        delivery.setNextRetryAt(LocalDateTime.now().plusMinutes(SEND_LEASE_MINUTES));
         deliveryRepository.save(delivery);
 
         // Attempt delivery
         return performDelivery(delivery);
     }
 
+    @Override
+    public CompletableFuture<Void> processScheduledRetry(Long deliveryId) {
+        WebhookDelivery delivery = deliveryRepository.findWithWebhookById(deliveryId).orElse(null);
+        if (delivery == null || delivery.getStatus() != WebhookDelivery.DeliveryStatus.SENDING) {
+            log.debug("Skipping retry of delivery {}: no longer claimed", deliveryId);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (delivery.getTriggeredAt().plusHours(RETRY_WINDOW_HOURS).isBefore(LocalDateTime.now())) {
+            delivery.setStatus(WebhookDelivery.DeliveryStatus.EXHAUSTED);
+            delivery.setErrorMessage("Retry window of " + RETRY_WINDOW_HOURS + " hours exceeded");
+            deliveryRepository.save(delivery);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Webhook webhook = delivery.getWebhook();
+        if (!webhook.isActive() || webhook.isPaused()) {
+            // Keep the row parked until the merchant resumes the webhook
+            delivery.setStatus(WebhookDelivery.DeliveryStatus.RETRYING);
+            delivery.setNextRetryAt(LocalDateTime.now().plusMinutes(
+                    (long) Math.pow(2, delivery.getAttemptNumber())));
+            deliveryRepository.save(delivery);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return sendAsync(delivery).thenAcceptAsync(deliveryRepository::save, completionExecutor);
+    }
+
     // ==================== TESTING ====================
 
     @Override
@@ -281,7 +370,7 @@ public class WebhookServiceImpl implements WebhookService {
                 ))
                 .build();
 
-        return deliverWebhook(webhook, eventId, webhook.getEvent(), testPayload, tenantId, 1);
+        return deliverWebhook(webhook, eventId, webhook.getEvent(), testPayload, tenantId);
     }
 
     @Override
@@ -294,7 +383,30 @@ public class WebhookServiceImpl implements WebhookService {
     private WebhookDeliveryResponse deliverWebhook(Webhook webhook, String eventId,
                                                     Webhook.WebhookEvent eventType,
                                                     WebhookEventPayload payload,
-                                                    Long tenantId, int attemptNumber) {
+                                                    Long tenantId) {
+        WebhookDelivery delivery = createDelivery(webhook, eventId, eventType, payload, tenantId);
+        if (delivery.getStatus() != WebhookDelivery.DeliveryStatus.SENDING) {
+            return mapToDeliveryResponse(deliveryRepository.save(delivery));
+        }
+        return performDelivery(delivery);
+    }
+
+    /**
+     * Delivery (and payload) id of a domain event for one webhook: "evt_" + 32 hex characters,
+     * derived from both so it is the same every time the event is relayed.
+     */
+    static String deliveryEventId(String eventId, Long webhookId) {
+        UUID uuid = UUID.nameUUIDFromBytes((eventId + ":" + webhookId).getBytes(StandardCharsets.UTF_8));
+        return "evt_" + uuid.toString().replace("-", "");
+    }
+
+    /**
+     * Build a first-attempt delivery in SENDING state with a lease, or FAILED if the payload
+     * cannot be serialized.
+     */
+    private WebhookDelivery createDelivery(Webhook webhook, String eventId,
+                                           Webhook.WebhookEvent eventType,
+                                           WebhookEventPayload payload, Long tenantId) {
         LocalDateTime now = LocalDateTime.now();
 
         WebhookDelivery delivery = WebhookDelivery.builder()
@@ -303,42 +415,59 @@ public class WebhookServiceImpl implements WebhookService {
                 .eventType(eventType)
                 .apiVersion(webhook.getApiVersion())
                 .status(WebhookDelivery.DeliveryStatus.SENDING)
-                .attemptNumber(attemptNumber)
+                .attemptNumber(1)
                 .maxAttempts(webhook.getMaxRetries())
+                .nextRetryAt(now.plusMinutes(SEND_LEASE_MINUTES))
                 .triggeredAt(now)
                 .build();
         delivery.setTenantId(tenantId);
 
         try {
-            String jsonPayload = objectMapper.writeValueAsString(payload);
-            delivery.setPayload(jsonPayload);
-
-            return performDelivery(delivery);
-
+            delivery.setPayload(objectMapper.writeValueAsString(payload));
         } catch (Exception e) {
             log.error("Failed to serialize webhook payload: {}", e.getMessage());
+            delivery.setPayload("{}");
+            delivery.setNextRetryAt(null);
             delivery.setStatus(WebhookDelivery.DeliveryStatus.FAILED);
             delivery.setErrorMessage("Failed to serialize payload: " + e.getMessage());
-            return mapToDeliveryResponse(deliveryRepository.save(delivery));
         }
+        return delivery;
     }
 
+    /**
+     * Synchronous send for interactive endpoints (test, manual retry).
+     * Bounded by the delivery client's connect/response timeouts.
+     */
     private WebhookDeliveryResponse performDelivery(WebhookDelivery delivery) {
+        sendAsync(delivery).join();
+        return mapToDeliveryResponse(deliveryRepository.save(delivery));
+    }
+
+    /**
+     * Send the delivery without blocking and record the outcome on the entity.
+     * The returned future completes on an HTTP I/O thread; the caller persists the entity.
+     */
+    private CompletableFuture<WebhookDelivery> sendAsync(WebhookDelivery delivery) {
         Webhook webhook = delivery.getWebhook();
+        String breakerKey = breakerKey(webhook);
+        if (!circuitBreakers.allowRequest(breakerKey)) {
+            deferDelivery(delivery, circuitBreakers.retryAt(breakerKey), "Circuit open for webhook endpoint");
+            return CompletableFuture.completedFuture(delivery);
+        }
+
         long startTime = System.currentTimeMillis();
-        long timestamp = System.currentTimeMillis() / 1000;
+        long timestamp = startTime / 1000;
 
+        Map<String, String> headers = new LinkedHashMap<>();
         try {
             // Create signature
             String signature = createSignature(delivery.getPayload(), webhook.getSecret(), timestamp);
 
             // Build headers per specification
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("X-Webhook-Signature", signature);
-            headers.set("X-Webhook-Event", WebhookEventPayload.eventToString(delivery.getEventType()));
-            headers.set("X-Webhook-Timestamp", String.valueOf(timestamp));
-            headers.set("X-Webhook-Id", delivery.getEventId());
+            headers.put("X-Webhook-Signature", signature);
+            headers.put("X-Webhook-Event", WebhookEventPayload.eventToString(delivery.getEventType()));
+            headers.put("X-Webhook-Timestamp", String.valueOf(timestamp));
+            headers.put("X-Webhook-Id", delivery.getEventId());
 
             // Add custom headers if any
             if (webhook.getHeaders() != null && !webhook.getHeaders().isEmpty()) {
@@ -346,49 +475,91 @@ public class WebhookServiceImpl implements WebhookService {
                     @SuppressWarnings("unchecked")
                     Map<String, String> customHeaders = objectMapper.readValue(
                             webhook.getHeaders(), Map.class);
-                    customHeaders.forEach(headers::set);
+                    headers.putAll(customHeaders);
                 } catch (Exception e) {
                     log.warn("Failed to parse custom headers: {}", e.getMessage());
                 }
             }
+        } catch (Exception e) {
+            circuitBreakers.release(breakerKey);
+            recordFailure(delivery, e, startTime);
+            return CompletableFuture.completedFuture(delivery);
+        }
 
-            HttpEntity<String> request = new HttpEntity<>(delivery.getPayload(), headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    webhook.getUrl(),
-                    HttpMethod.POST,
-                    request,
-                    String.class
-            );
-
-            delivery.setResponseCode(response.getStatusCode().value());
-            delivery.setResponseBody(truncateResponse(response.getBody()));
-            delivery.setDurationMs(System.currentTimeMillis() - startTime);
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                delivery.setStatus(WebhookDelivery.DeliveryStatus.SUCCESS);
-                delivery.setDeliveredAt(LocalDateTime.now());
-            } else if (is4xxPermanentFailure(response.getStatusCode().value())) {
-                delivery.setStatus(WebhookDelivery.DeliveryStatus.FAILED);
-                delivery.setErrorMessage("Permanent failure: " + response.getStatusCode());
-            } else {
-                scheduleRetry(delivery);
-            }
+        return httpClient.postJson(webhook.getUrl(), headers, delivery.getPayload())
+                .handle((response, ex) -> {
+                    if (ex != null) {
+                        Throwable cause = unwrap(ex);
+                        if (cause instanceof HostSaturatedException) {
+                            // Not sent: neither an attempt nor a signal about endpoint health
+                            circuitBreakers.release(breakerKey);
+                            deferDelivery(delivery, LocalDateTime.now().plusSeconds(HOST_SATURATED_DEFER_SECONDS),
+                                    cause.getMessage());
+                        } else {
+                            circuitBreakers.recordFailure(breakerKey);
+                            recordFailure(delivery, cause, startTime);
+                        }
+                    } else {
+                        if (response.is2xxSuccessful() || is4xxPermanentFailure(response.getStatusCode())) {
+                            circuitBreakers.recordSuccess(breakerKey);
+                        } else {
+                            circuitBreakers.recordFailure(breakerKey);
+                        }
+                        recordResponse(delivery, response);
+                    }
+                    return delivery;
+                });
+    }
 
-        } catch (Exception e) {
-            log.error("Webhook delivery failed: {}", e.getMessage());
-            delivery.setDurationMs(System.currentTimeMillis() - startTime);
-            delivery.setErrorMessage(e.getMessage());
+    /**
+     * Put the delivery back on the retry schedule without consuming an attempt.
+     */
+    private void deferDelivery(WebhookDelivery delivery, LocalDateTime retryAt, String reason) {
+        delivery.setStatus(WebhookDelivery.DeliveryStatus.RETRYING);
+        delivery.setNextRetryAt(retryAt);
+        delivery.setErrorMessage(reason);
+    }
+
+    private String breakerKey(Webhook webhook) {
+        return "webhook:" + webhook.getId();
+    }
+
+    private Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private void recordResponse(WebhookDelivery delivery, DeliveryHttpClient.Response response) {
+        delivery.setResponseCode(response.getStatusCode());
+        delivery.setResponseBody(truncateResponse(response.getBody()));
+        delivery.setDurationMs(response.getDurationMs());
+
+        if (response.is2xxSuccessful()) {
+            delivery.setStatus(WebhookDelivery.DeliveryStatus.SUCCESS);
+            delivery.setDeliveredAt(LocalDateTime.now());
+            delivery.setNextRetryAt(null);
+        } else if (is4xxPermanentFailure(response.getStatusCode())) {
+            delivery.setStatus(WebhookDelivery.DeliveryStatus.FAILED);
+            delivery.setErrorMessage("Permanent failure: " + response.getStatusCode());
+            delivery.setNextRetryAt(null);
+        } else {
+            delivery.setErrorMessage("HTTP " + response.getStatusCode());
             scheduleRetry(delivery);
         }
+    }
 
-        return mapToDeliveryResponse(deliveryRepository.save(delivery));
+    private void recordFailure(WebhookDelivery delivery, Throwable error, long startTime) {
+        Throwable cause = unwrap(error);
+        log.error("Webhook delivery failed: {}", cause.getMessage());
+        delivery.setDurationMs(System.currentTimeMillis() - startTime);
+        delivery.setErrorMessage(String.valueOf(cause.getMessage()));
+        scheduleRetry(delivery);
     }
 
     private void scheduleRetry(WebhookDelivery delivery) {
         if (delivery.getAttemptNumber() >= delivery.getMaxAttempts()) {
             delivery.setStatus(WebhookDelivery.DeliveryStatus.EXHAUSTED);
             delivery.setErrorMessage("All retry attempts exhausted");
+            delivery.setNextRetryAt(null);
         } else {
             delivery.setStatus(WebhookDelivery.DeliveryStatus.RETRYING);
             // Exponential backoff: 2^attempt minutes (2, 4, 8, 16, 32...)
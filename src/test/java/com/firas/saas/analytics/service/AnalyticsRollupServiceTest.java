@@ -0,0 +1,130 @@
+package com.firas.saas.analytics.service;
+
+import com.firas.saas.analytics.sketch.HyperLogLog;
+import com.firas.saas.common.event.DomainEvent;
+import com.firas.saas.order.entity.Order;
+import com.firas.saas.order.entity.OrderStatus;
+import com.firas.saas.order.repository.OrderRepository;
+import com.firas.saas.webhook.entity.Webhook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AnalyticsRollupService Unit Tests")
+class AnalyticsRollupServiceTest {
+
+    private static final Long TENANT_ID = 1L;
+    private static final LocalDateTime PLACED_AT = LocalDateTime.of(2026, 1, 15, 10, 30);
+    private static final Date DAY = Date.valueOf(LocalDate.of(2026, 1, 15));
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    private AnalyticsRollupService rollupService;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        rollupService = new AnalyticsRollupService(jdbcTemplate, orderRepository, leaderboardService, 7, 730);
+
+        order = Order.builder()
+                .orderNumber("ORD-1")
+                .customerEmail("customer@example.com")
+                .status(OrderStatus.PENDING)
+                .totalPrice(new BigDecimal("40.00"))
+                .build();
+        order.setId(100L);
+        order.setTenantId(TENANT_ID);
+        order.setCreatedAt(PLACED_AT);
+    }
+
+    private DomainEvent event(Webhook.WebhookEvent type, Map<String, Object> data) {
+        return new DomainEvent(this, "evt-1", type, data, TENANT_ID, "store");
+    }
+
+    private void markAsNew() {
+        when(jdbcTemplate.update(startsWith("INSERT IGNORE"), eq("evt-1"), any())).thenReturn(1);
+        when(orderRepository.findByIdAndTenantId(100L, TENANT_ID)).thenReturn(Optional.of(order));
+    }
+
+    @Nested
+    @DisplayName("apply method")
+    class ApplyTests {
+
+        @Test
+        @DisplayName("should count order, revenue, new customer and status on ORDER_CREATED")
+        void apply_OrderCreated() {
+            markAsNew();
+            when(orderRepository.existsEarlierOrder(TENANT_ID, "customer@example.com", PLACED_AT, 100L))
+                    .thenReturn(false);
+            when(jdbcTemplate.queryForObject(startsWith("SELECT sketch"), eq(byte[].class), eq(TENANT_ID), eq(DAY)))
+                    .thenReturn(new HyperLogLog().toBytes());
+
+            rollupService.apply(event(Webhook.WebhookEvent.ORDER_CREATED,
+                    Map.of("id", 100, "status", "PENDING", "totalPrice", new BigDecimal("40.00"))));
+
+            verify(jdbcTemplate).update(startsWith("INSERT INTO analytics_daily_sales"),
+                    eq(TENANT_ID), eq(DAY), eq(1), eq(new BigDecimal("40.00")), eq(1));
+            verify(jdbcTemplate).update(startsWith("INSERT INTO analytics_daily_status"),
+                    eq(TENANT_ID), eq(DAY), eq("PENDING"), eq(1));
+            verify(jdbcTemplate).update(startsWith("UPDATE analytics_daily_buyers"),
+                    any(byte[].class), eq(TENANT_ID), eq(DAY));
+        }
+
+        @Test
+        @DisplayName("should move status and remove revenue when an order is cancelled")
+        void apply_OrderCancelled() {
+            markAsNew();
+
+            rollupService.apply(event(Webhook.WebhookEvent.ORDER_UPDATED,
+                    Map.of("id", 100, "status", "CANCELLED", "previousStatus", "PENDING")));
+
+            verify(jdbcTemplate).update(startsWith("INSERT INTO analytics_daily_status"),
+                    eq(TENANT_ID), eq(DAY), eq("PENDING"), eq(-1));
+            verify(jdbcTemplate).update(startsWith("INSERT INTO analytics_daily_status"),
+                    eq(TENANT_ID), eq(DAY), eq("CANCELLED"), eq(1));
+            verify(jdbcTemplate).update(startsWith("INSERT INTO analytics_daily_sales"),
+                    eq(TENANT_ID), eq(DAY), eq(0), eq(new BigDecimal("-40.00")), eq(0));
+        }
+
+        @Test
+        @DisplayName("should skip an event that was already applied")
+        void apply_Redelivered() {
+            when(jdbcTemplate.update(startsWith("INSERT IGNORE"), eq("evt-1"), any())).thenReturn(0);
+
+            rollupService.apply(event(Webhook.WebhookEvent.ORDER_CREATED,
+                    Map.of("id", 100, "status", "PENDING")));
+
+            verifyNoInteractions(orderRepository);
+            verify(jdbcTemplate, never()).update(startsWith("INSERT INTO"), anyString(), any(), any(), any());
+        }
+    }
+}
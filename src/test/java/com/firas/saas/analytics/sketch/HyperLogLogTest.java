@@ -0,0 +1,76 @@
+package com.firas.saas.analytics.sketch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("HyperLogLog Unit Tests")
+class HyperLogLogTest {
+
+    @Nested
+    @DisplayName("estimate method")
+    class EstimateTests {
+
+        @Test
+        @DisplayName("should count small sets almost exactly")
+        void estimate_SmallSet() {
+            HyperLogLog sketch = new HyperLogLog();
+            for (int i = 0; i < 100; i++) {
+                sketch.add("customer" + i + "@example.com");
+                sketch.add("customer" + i + "@example.com");
+            }
+
+            assertThat(sketch.estimate()).isCloseTo(100L, within(2L));
+        }
+
+        @Test
+        @DisplayName("should stay within a few percent on large sets")
+        void estimate_LargeSet() {
+            HyperLogLog sketch = new HyperLogLog();
+            for (int i = 0; i < 100_000; i++) {
+                sketch.add("customer" + i + "@example.com");
+            }
+
+            assertThat(sketch.estimate()).isCloseTo(100_000L, within(5_000L));
+        }
+    }
+
+    @Nested
+    @DisplayName("merge and encoding")
+    class MergeTests {
+
+        @Test
+        @DisplayName("should estimate the union of overlapping days")
+        void merge_Union() {
+            HyperLogLog monday = new HyperLogLog();
+            HyperLogLog tuesday = new HyperLogLog();
+            for (int i = 0; i < 3000; i++) {
+                monday.add("c" + i);
+                tuesday.add("c" + (i + 1000));
+            }
+
+            monday.merge(tuesday);
+
+            assertThat(monday.estimate()).isCloseTo(4000L, within(200L));
+        }
+
+        @Test
+        @DisplayName("should round trip sparse and dense forms")
+        void bytes_RoundTrip() {
+            HyperLogLog sparse = new HyperLogLog();
+            sparse.add("a@example.com");
+            HyperLogLog dense = new HyperLogLog();
+            for (int i = 0; i < 20_000; i++) {
+                dense.add("c" + i);
+            }
+
+            assertThat(sparse.toBytes()).hasSize(3 + 2 + 3);
+            assertThat(HyperLogLog.fromBytes(sparse.toBytes()).estimate()).isEqualTo(sparse.estimate());
+            assertThat(dense.toBytes()).hasSize(3 + 4096);
+            assertThat(HyperLogLog.fromBytes(dense.toBytes()).estimate()).isEqualTo(dense.estimate());
+        }
+    }
+}
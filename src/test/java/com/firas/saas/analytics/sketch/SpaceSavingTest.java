@@ -0,0 +1,95 @@
+package com.firas.saas.analytics.sketch;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DisplayName("SpaceSaving Unit Tests")
+class SpaceSavingTest {
+
+    @Nested
+    @DisplayName("add method")
+    class AddTests {
+
+        @Test
+        @DisplayName("should keep heavy hitters within capacity")
+        void add_KeepsHeavyHitters() {
+            SpaceSaving sketch = new SpaceSaving(10);
+            for (int i = 0; i < 1000; i++) {
+                sketch.add("noise-" + i, 1);
+                if (i % 10 == 0) {
+                    sketch.add("big", 20);
+                }
+                if (i % 20 == 0) {
+                    sketch.add("medium", 20);
+                }
+            }
+
+            List<SpaceSaving.Counter> top = sketch.top(2);
+
+            assertThat(sketch.size()).isEqualTo(10);
+            assertThat(top).extracting(SpaceSaving.Counter::getKey).containsExactly("big", "medium");
+            // both exceed total / capacity = 400, so they are guaranteed to be tracked;
+            // count overestimates by at most error and the lower bound never exceeds the truth
+            assertThat(top.get(0).guaranteed()).isLessThanOrEqualTo(2000);
+            assertThat(top.get(0).getCount()).isGreaterThanOrEqualTo(2000);
+        }
+
+        @Test
+        @DisplayName("should only subtract from tracked keys")
+        void subtract_TrackedKeysOnly() {
+            SpaceSaving sketch = new SpaceSaving(2);
+            sketch.add("a", 10);
+            sketch.add("b", 5);
+
+            sketch.subtract("a", 4);
+            sketch.subtract("unknown", 100);
+
+            assertThat(sketch.top(2)).extracting(SpaceSaving.Counter::getCount).containsExactly(6L, 5L);
+        }
+    }
+
+    @Nested
+    @DisplayName("merge method")
+    class MergeTests {
+
+        @Test
+        @DisplayName("should add shared keys and trim to capacity")
+        void merge_AddsAndTrims() {
+            SpaceSaving left = new SpaceSaving(2);
+            left.add("a", 10);
+            left.add("b", 3);
+            SpaceSaving right = new SpaceSaving(2);
+            right.add("a", 5);
+            right.add("c", 7);
+
+            left.merge(right);
+
+            assertThat(left.top(5)).extracting(SpaceSaving.Counter::getKey).containsExactly("a", "c");
+            assertThat(left.top(1).get(0).getCount()).isEqualTo(15);
+        }
+
+        @Test
+        @DisplayName("should survive a JSON round trip")
+        void counters_JsonRoundTrip() throws Exception {
+            ObjectMapper mapper = new ObjectMapper();
+            SpaceSaving sketch = new SpaceSaving(4);
+            sketch.add("a", 10);
+            sketch.add("b", 3);
+
+            String json = mapper.writeValueAsString(sketch.top(4));
+            SpaceSaving restored = SpaceSaving.of(4,
+                    mapper.readValue(json, new TypeReference<List<SpaceSaving.Counter>>() {}));
+
+            assertThat(restored.top(4)).extracting(SpaceSaving.Counter::getKey, SpaceSaving.Counter::getCount)
+                    .containsExactly(tuple("a", 10L), tuple("b", 3L));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.firas.saas.app.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("InMemoryRateLimitStore Unit Tests")
+class InMemoryRateLimitStoreTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore(1000, 60);
+
+    @Nested
+    @DisplayName("tryConsume method")
+    class TryConsumeTests {
+
+        @Test
+        @DisplayName("should allow a full burst, then deny with Retry-After")
+        void tryConsume_Burst() {
+            RateLimit limit = new RateLimit(5, 1.0);
+            long now = 100 * SECOND;
+
+            for (int i = 4; i >= 0; i--) {
+                RateLimitDecision decision = store.tryConsume("app:1", limit, now);
+                assertThat(decision.isAllowed()).isTrue();
+                assertThat(decision.getRemaining()).isEqualTo(i);
+            }
+            RateLimitDecision denied = store.tryConsume("app:1", limit, now);
+
+            assertThat(denied.isAllowed()).isFalse();
+            assertThat(denied.getLimit()).isEqualTo(5);
+            assertThat(denied.getRetryAfterSeconds()).isEqualTo(1);
+            assertThat(denied.getResetSeconds()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("should refill at the configured rate and keep buckets per key")
+        void tryConsume_Refill() {
+            RateLimit limit = new RateLimit(2, 2.0);
+            long now = 100 * SECOND;
+            store.tryConsume("app:1", limit, now);
+            store.tryConsume("app:1", limit, now);
+
+            assertThat(store.tryConsume("app:1", limit, now).isAllowed()).isFalse();
+            assertThat(store.tryConsume("app:2", limit, now).isAllowed()).isTrue();
+            assertThat(store.tryConsume("app:1", limit, now + SECOND / 2).isAllowed()).isTrue();
+            assertThat(store.tryConsume("app:1", limit, now + SECOND / 2).isAllowed()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should never allow more than the burst under concurrent callers")
+        void tryConsume_Concurrent() throws InterruptedException {
+            RateLimit limit = new RateLimit(100, 0.001);
+            AtomicInteger allowed = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+
+            for (int i = 0; i < 1000; i++) {
+                pool.submit(() -> {
+                    if (store.tryConsume("app:1", limit, 100 * SECOND).isAllowed()) {
+                        allowed.incrementAndGet();
+                    }
+                });
+            }
+            pool.shutdown();
+            assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(allowed.get()).isEqualTo(100);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.firas.saas.app.security;
+
+import com.firas.saas.app.entity.App;
+import com.firas.saas.app.entity.AppAccessToken;
+import com.firas.saas.app.entity.AppInstallation;
+import com.firas.saas.app.entity.AppScope;
+import com.firas.saas.app.entity.InstallationStatus;
+import com.firas.saas.app.repository.AppAccessTokenRepository;
+import com.firas.saas.common.cache.LocalCacheInvalidationBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AppTokenCache Unit Tests")
+class AppTokenCacheTest {
+
+    @Mock
+    private AppAccessTokenRepository tokenRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AppTokenCache tokenCache;
+
+    @BeforeEach
+    void setUp() {
+        tokenCache = new AppTokenCache(tokenRepository, new LocalCacheInvalidationBus(), transactionManager,
+                100, 300, 30);
+    }
+
+    private AppAccessToken token(String value, Long installationId, boolean revoked, LocalDateTime expiresAt) {
+        App app = App.builder().name("Order Sync").clientId("app_sync").build();
+        app.setId(7L);
+        AppInstallation installation = AppInstallation.builder()
+                .app(app)
+                .status(InstallationStatus.ACTIVE)
+                .build();
+        installation.setId(installationId);
+        installation.setTenantId(1L);
+        AppAccessToken token = AppAccessToken.builder()
+                .tokenValue(value)
+                .installation(installation)
+                .scopes(Set.of(AppScope.READ_ORDERS))
+                .expiresAt(expiresAt)
+                .revoked(revoked)
+                .build();
+        token.setTenantId(1L);
+        return token;
+    }
+
+    @Nested
+    @DisplayName("get method")
+    class GetTests {
+
+        @Test
+        @DisplayName("should load a token once and serve later lookups from memory")
+        void get_CachesPrincipal() {
+            when(tokenRepository.findByTokenValue("tok-1"))
+                    .thenReturn(Optional.of(token("tok-1", 10L, false, LocalDateTime.now().plusDays(1))));
+
+            AppTokenCache.CachedAppToken first = tokenCache.get("tok-1");
+            AppTokenCache.CachedAppToken second = tokenCache.get("tok-1");
+
+            assertThat(first).isSameAs(second);
+            assertThat(first.isValidAt(LocalDateTime.now())).isTrue();
+            assertThat(first.getPrincipal().getTenantId()).isEqualTo(1L);
+            assertThat(first.getPrincipal().hasScope(AppScope.READ_ORDERS)).isTrue();
+            verify(tokenRepository, times(1)).findByTokenValue(anyString());
+        }
+
+        @Test
+        @DisplayName("should cache unknown tokens as negative entries")
+        void get_NegativeCaching() {
+            when(tokenRepository.findByTokenValue("guess")).thenReturn(Optional.empty());
+
+            assertThat(tokenCache.get("guess").isKnown()).isFalse();
+            assertThat(tokenCache.get("guess").isKnown()).isFalse();
+
+            verify(tokenRepository, times(1)).findByTokenValue("guess");
+        }
+
+        @Test
+        @DisplayName("should reject revoked tokens and tokens that expired while cached")
+        void get_InvalidTokens() {
+            LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(5);
+            when(tokenRepository.findByTokenValue("revoked"))
+                    .thenReturn(Optional.of(token("revoked", 10L, true, expiresAt)));
+            when(tokenRepository.findByTokenValue("expiring"))
+                    .thenReturn(Optional.of(token("expiring", 11L, false, expiresAt)));
+
+            assertThat(tokenCache.get("revoked").isKnown()).isTrue();
+            assertThat(tokenCache.get("revoked").isValidAt(LocalDateTime.now())).isFalse();
+            assertThat(tokenCache.get("expiring").isValidAt(LocalDateTime.now())).isTrue();
+            assertThat(tokenCache.get("expiring").isValidAt(expiresAt.plusSeconds(1))).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("invalidateInstallation method")
+    class InvalidateTests {
+
+        @Test
+        @DisplayName("should evict only the installation's tokens")
+        void invalidateInstallation_EvictsTokens() {
+            LocalDateTime expiresAt = LocalDateTime.now().plusDays(1);
+            when(tokenRepository.findByTokenValue("tok-a"))
+                    .thenReturn(Optional.of(token("tok-a", 10L, false, expiresAt)))
+                    .thenReturn(Optional.of(token("tok-a", 10L, true, expiresAt)));
+            when(tokenRepository.findByTokenValue("tok-b"))
+                    .thenReturn(Optional.of(token("tok-b", 20L, false, expiresAt)));
+            tokenCache.get("tok-a");
+            tokenCache.get("tok-b");
+
+            tokenCache.invalidateInstallation(10L);
+
+            assertThat(tokenCache.get("tok-a").isValidAt(LocalDateTime.now())).isFalse();
+            assertThat(tokenCache.get("tok-b").isValidAt(LocalDateTime.now())).isTrue();
+            verify(tokenRepository, times(2)).findByTokenValue("tok-a");
+            verify(tokenRepository, times(1)).findByTokenValue("tok-b");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.firas.saas.app.security;
+
+import com.firas.saas.app.entity.App;
+import com.firas.saas.app.entity.AppAccessToken;
+import com.firas.saas.app.entity.AppInstallation;
+import com.firas.saas.app.entity.AppScope;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScopeEnforcementAspect Unit Tests")
+class ScopeEnforcementAspectTest {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private MethodSignature signature;
+
+    private final ScopeEnforcementAspect aspect = new ScopeEnforcementAspect();
+
+    static class Handler {
+
+        @RequiresScope(AppScope.READ_ORDERS)
+        void readOrders() {
+        }
+
+        @RequiresScope({AppScope.WRITE_ORDERS, AppScope.WRITE_PRODUCTS})
+        void writeAnything() {
+        }
+
+        @RequiresScope(value = {AppScope.READ_PRODUCTS, AppScope.READ_CUSTOMERS}, requireAll = true)
+        void syncCatalog() {
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticate(AppScope... scopes) {
+        App app = App.builder().name("Order Sync").clientId("app_sync").build();
+        app.setId(1L);
+        AppInstallation installation = AppInstallation.builder().app(app).build();
+        installation.setId(1L);
+        AppAccessToken token = AppAccessToken.builder()
+                .tokenValue("tok")
+                .installation(installation)
+                .scopes(Set.of(scopes))
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build();
+        AppPrincipal principal = new AppPrincipal(token);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private void invoking(String methodName) throws Exception {
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getMethod()).thenReturn(Handler.class.getDeclaredMethod(methodName));
+    }
+
+    @Nested
+    @DisplayName("enforceScope method")
+    class EnforceScopeTests {
+
+        @Test
+        @DisplayName("should proceed when the app holds any of the required scopes")
+        void enforceScope_AnyScope() throws Throwable {
+            authenticate(AppScope.READ_ORDERS, AppScope.WRITE_PRODUCTS);
+            invoking("writeAnything");
+            when(joinPoint.proceed()).thenReturn("ok");
+
+            assertThat(aspect.enforceScope(joinPoint)).isEqualTo("ok");
+        }
+
+        @Test
+        @DisplayName("should deny when requireAll is set and a scope is missing")
+        void enforceScope_RequireAll() throws Throwable {
+            authenticate(AppScope.READ_PRODUCTS);
+            invoking("syncCatalog");
+
+            AccessDeniedException ex = assertThrows(AccessDeniedException.class, () -> aspect.enforceScope(joinPoint));
+
+            assertThat(ex.getMessage()).contains("READ_PRODUCTS, READ_CUSTOMERS");
+            verify(joinPoint, never()).proceed();
+        }
+
+        @Test
+        @DisplayName("should resolve a method's requirement only once")
+        void enforceScope_CachesRequirement() throws Throwable {
+            authenticate(AppScope.READ_ORDERS);
+            invoking("readOrders");
+
+            aspect.enforceScope(joinPoint);
+            aspect.enforceScope(joinPoint);
+
+            assertThat(aspect.requirementFor(Handler.class.getDeclaredMethod("readOrders")))
+                    .isSameAs(aspect.requirementFor(Handler.class.getDeclaredMethod("readOrders")));
+            verify(joinPoint, times(2)).proceed();
+        }
+
+        @Test
+        @DisplayName("should deny requests without an app principal")
+        void enforceScope_NoPrincipal() {
+            assertThrows(AccessDeniedException.class, () -> aspect.enforceScope(joinPoint));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.firas.saas.app.service;
+
+import com.firas.saas.order.repository.OrderRepository;
+import com.firas.saas.product.repository.ProductVariantRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AppDataService Unit Tests")
+class AppDataServiceImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ProductVariantRepository variantRepository;
+
+    @InjectMocks
+    private AppDataServiceImpl appDataService;
+
+    @Nested
+    @DisplayName("cursor")
+    class CursorTests {
+
+        @Test
+        @DisplayName("should round-trip updatedAt (with nanos) and id")
+        void cursor_RoundTrip() {
+            LocalDateTime updatedAt = LocalDateTime.of(2026, 3, 1, 12, 30, 5, 123456000);
+
+            AppDataServiceImpl.Cursor cursor = AppDataServiceImpl.Cursor.decode(
+                    new AppDataServiceImpl.Cursor(updatedAt, 42L).encode());
+
+            assertThat(cursor.updatedAt).isEqualTo(updatedAt);
+            assertThat(cursor.id).isEqualTo(42L);
+        }
+
+        @Test
+        @DisplayName("should reject malformed cursors")
+        void cursor_Invalid() {
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> AppDataServiceImpl.Cursor.decode("not-a-cursor"));
+
+            assertThat(ex.getMessage()).isEqualTo("Invalid cursor");
+        }
+    }
+
+    @Nested
+    @DisplayName("field selection")
+    class FieldTests {
+
+        @Test
+        @DisplayName("should reject unknown fields before querying")
+        void listOrders_UnknownField() {
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> appDataService.listOrders(1L, null, null, 50, Set.of("id", "clientSecret")));
+
+            assertThat(ex.getMessage()).contains("clientSecret").contains("items");
+            verifyNoInteractions(entityManager);
+        }
+
+        @Test
+        @DisplayName("should not accept another resource's child collection")
+        void listCustomers_ChildOfOtherResource() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> appDataService.listCustomers(1L, null, null, 50, Set.of("items")));
+        }
+    }
+}
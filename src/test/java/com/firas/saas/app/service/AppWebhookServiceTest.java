@@ -0,0 +1,108 @@
+package com.firas.saas.app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firas.saas.app.entity.App;
+import com.firas.saas.app.entity.AppInstallation;
+import com.firas.saas.app.entity.AppScope;
+import com.firas.saas.app.entity.InstallationStatus;
+import com.firas.saas.app.repository.AppInstallationRepository;
+import com.firas.saas.infrastructure.http.CircuitBreakerRegistry;
+import com.firas.saas.infrastructure.http.DeliveryHttpClient;
+import com.firas.saas.webhook.entity.Webhook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AppWebhookService Unit Tests")
+class AppWebhookServiceTest {
+
+    private static final Long TENANT_ID = 1L;
+    private static final String DOWN_URL = "https://down.example/hooks";
+    private static final String UP_URL = "https://up.example/hooks";
+
+    @Mock
+    private AppInstallationRepository installationRepository;
+
+    @Mock
+    private DeliveryHttpClient httpClient;
+
+    @Mock
+    private CircuitBreakerRegistry circuitBreakers;
+
+    private AppWebhookService appWebhookService;
+
+    @BeforeEach
+    void setUp() {
+        appWebhookService = new AppWebhookService(installationRepository, new ObjectMapper(), httpClient, circuitBreakers);
+    }
+
+    private AppInstallation installation(String name, String webhookUrl) {
+        App app = App.builder()
+                .name(name)
+                .clientId("client_" + name)
+                .clientSecretHash("secret")
+                .webhookUrl(webhookUrl)
+                .build();
+        return AppInstallation.builder()
+                .app(app)
+                .grantedScopes(Set.of(AppScope.READ_ORDERS))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("deliverToApps method")
+    class DeliverToAppsTests {
+
+        @BeforeEach
+        void installations() {
+            when(installationRepository.findAllByTenantIdAndStatus(TENANT_ID, InstallationStatus.ACTIVE))
+                    .thenReturn(List.of(installation("down", DOWN_URL), installation("up", UP_URL)));
+            when(circuitBreakers.allowRequest(anyString())).thenReturn(true);
+        }
+
+        @Test
+        @DisplayName("should send to every app, then rethrow a failed delivery so the relay retries")
+        void deliverToApps_RethrowsAfterOtherApps() {
+            when(httpClient.postJson(eq(DOWN_URL), any(), anyString()))
+                    .thenReturn(CompletableFuture.failedFuture(new IOException("connection refused")));
+            when(httpClient.postJson(eq(UP_URL), any(), anyString()))
+                    .thenReturn(CompletableFuture.completedFuture(new DeliveryHttpClient.Response(200, "", 5)));
+
+            assertThrows(IllegalStateException.class, () -> appWebhookService.deliverToApps(
+                    "evt_1", Webhook.WebhookEvent.ORDER_CREATED, Map.of("orderId", 5), TENANT_ID));
+
+            verify(httpClient).postJson(eq(UP_URL), any(), anyString());
+            verify(circuitBreakers).recordFailure("app:" + DOWN_URL);
+            verify(circuitBreakers).recordSuccess("app:" + UP_URL);
+        }
+
+        @Test
+        @DisplayName("should treat a permanent 4xx as delivered")
+        void deliverToApps_ClientErrorIsFinal() {
+            when(httpClient.postJson(anyString(), any(), anyString()))
+                    .thenReturn(CompletableFuture.completedFuture(new DeliveryHttpClient.Response(410, "", 5)));
+
+            assertDoesNotThrow(() -> appWebhookService.deliverToApps(
+                    "evt_1", Webhook.WebhookEvent.ORDER_CREATED, Map.of("orderId", 5), TENANT_ID));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.firas.saas.common.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JdbcCacheInvalidationBus Unit Tests")
+class JdbcCacheInvalidationBusTest {
+
+    private static final String CACHE = "user-principal";
+
+    @Mock
+    private CacheInvalidationRepository repository;
+
+    private JdbcCacheInvalidationBus bus;
+    private final List<String> delivered = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bus = new JdbcCacheInvalidationBus(repository);
+        ReflectionTestUtils.setField(bus, "lookbackSeconds", 30L);
+        bus.subscribe(CACHE, delivered::add);
+
+        when(repository.findMaxId()).thenReturn(10L);
+        bus.poll(); // starts after the rows that existed before this node
+    }
+
+    private CacheInvalidation row(long id, String key) {
+        CacheInvalidation invalidation = CacheInvalidation.builder()
+                .cacheName(CACHE)
+                .cacheKey(key)
+                .originNode("other-node")
+                .build();
+        invalidation.setId(id);
+        return invalidation;
+    }
+
+    @Nested
+    @DisplayName("poll method")
+    class PollTests {
+
+        @Test
+        @DisplayName("should read after the last seen id and deliver each row once")
+        void poll_AfterLastSeenId() {
+            when(repository.findAllByIdGreaterThanOrderByIdAsc(10L)).thenReturn(List.of(row(11, "a"), row(12, "b")));
+            when(repository.findAllByIdGreaterThanOrderByIdAsc(12L)).thenReturn(List.of());
+
+            bus.poll();
+            bus.poll();
+
+            assertThat(delivered).containsExactly("a", "b");
+            verify(repository).findAllByIdGreaterThanOrderByIdAsc(12L);
+        }
+
+        @Test
+        @DisplayName("should pick up a row committed after a higher id was read")
+        void poll_LateCommit() {
+            when(repository.findAllByIdGreaterThanOrderByIdAsc(10L)).thenReturn(List.of(row(11, "a"), row(13, "c")));
+            bus.poll();
+
+            // 12 was still uncommitted: the next poll reads again from it
+            when(repository.findAllByIdGreaterThanOrderByIdAsc(11L)).thenReturn(List.of(row(12, "b"), row(13, "c")));
+            bus.poll();
+
+            assertThat(delivered).containsExactly("a", "c", "b");
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.firas.saas.common.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firas.saas.webhook.entity.Webhook;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelay Unit Tests")
+class OutboxRelayTest {
+
+    private static final Long TENANT_ID = 1L;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ThreadPoolTaskExecutor executor;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+        relay = new OutboxRelay(outboxEventRepository, applicationEventPublisher, executor,
+                transactionManager, new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(relay, "batchSize", 200);
+        ReflectionTestUtils.setField(relay, "maxBatchesPerTick", 20);
+        ReflectionTestUtils.setField(relay, "leaseSeconds", 120L);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private OutboxEvent event(long id) {
+        OutboxEvent event = OutboxEvent.builder()
+                .eventId("evt_" + id)
+                .eventType(Webhook.WebhookEvent.ORDER_CREATED)
+                .payload("{}")
+                .status(OutboxEvent.OutboxStatus.PENDING)
+                .availableAt(LocalDateTime.now().minusSeconds(1))
+                .build();
+        event.setId(id);
+        event.setTenantId(TENANT_ID);
+        return event;
+    }
+
+    @Nested
+    @DisplayName("relay method")
+    class RelayTests {
+
+        @Test
+        @DisplayName("should stop a tenant at its first failure and release the later events untried")
+        void relay_StopsTenantAtFailure() {
+            List<OutboxEvent> due = List.of(event(1), event(2), event(3));
+            when(outboxEventRepository.findDueForClaim(anyList(), any(), any())).thenReturn(due);
+            when(outboxEventRepository.findUnfinishedIds(eq(TENANT_ID), anyList(), any())).thenReturn(List.of(1L, 2L, 3L));
+            when(outboxEventRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(due);
+            List<String> dispatched = new ArrayList<>();
+            doAnswer(invocation -> {
+                DomainEvent domainEvent = invocation.getArgument(0);
+                dispatched.add(domainEvent.getEventId());
+                if (domainEvent.getEventId().equals("evt_2")) {
+                    throw new IllegalStateException("listener down");
+                }
+                return null;
+            }).when(applicationEventPublisher).publishEvent(any(DomainEvent.class));
+
+            relay.relay();
+
+            assertThat(dispatched).containsExactly("evt_1", "evt_2");
+            assertThat(due.get(0).getStatus()).isEqualTo(OutboxEvent.OutboxStatus.DISPATCHED);
+            assertThat(due.get(1).getStatus()).isEqualTo(OutboxEvent.OutboxStatus.PENDING);
+            assertThat(due.get(1).getAttempts()).isEqualTo(1);
+            assertThat(due.get(1).getAvailableAt()).isAfter(LocalDateTime.now());
+            assertThat(due.get(2).getStatus()).isEqualTo(OutboxEvent.OutboxStatus.PENDING);
+            assertThat(due.get(2).getAttempts()).isZero();
+            assertThat(due.get(2).getAvailableAt()).isBeforeOrEqualTo(LocalDateTime.now());
+        }
+
+        @Test
+        @DisplayName("should not claim events queued behind one another node is relaying")
+        void relay_WaitsForEarlierEvent() {
+            List<OutboxEvent> due = List.of(event(2), event(3));
+            when(outboxEventRepository.findDueForClaim(anyList(), any(), any())).thenReturn(due);
+            when(outboxEventRepository.findUnfinishedIds(eq(TENANT_ID), anyList(), any())).thenReturn(List.of(1L, 2L));
+
+            relay.relay();
+
+            verify(applicationEventPublisher, never()).publishEvent(any(DomainEvent.class));
+            assertThat(due).allSatisfy(event -> {
+                assertThat(event.getStatus()).isEqualTo(OutboxEvent.OutboxStatus.PENDING);
+                assertThat(event.getAttempts()).isZero();
+            });
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.firas.saas.infrastructure.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CircuitBreakerRegistry Unit Tests")
+class CircuitBreakerRegistryTest {
+
+    private static final String KEY = "webhook:42";
+
+    private CircuitBreakerRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new CircuitBreakerRegistry(new SimpleMeterRegistry(), 1000, 60);
+        ReflectionTestUtils.setField(registry, "failureThreshold", 3);
+        ReflectionTestUtils.setField(registry, "openSeconds", 30L);
+        ReflectionTestUtils.setField(registry, "maxOpenSeconds", 1800L);
+        ReflectionTestUtils.setField(registry, "halfOpenProbes", 1);
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            registry.recordFailure(KEY);
+        }
+    }
+
+    @Nested
+    @DisplayName("recordSuccess method")
+    class RecordSuccessTests {
+
+        @Test
+        @DisplayName("should reset the failure count while closed")
+        void recordSuccess_ClosedResetsFailures() {
+            fail(2);
+            registry.recordSuccess(KEY);
+            fail(2);
+
+            assertThat(registry.isOpen(KEY)).isFalse();
+            fail(1);
+            assertThat(registry.isOpen(KEY)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should ignore a late success while open")
+        void recordSuccess_OpenIgnored() {
+            fail(3);
+
+            registry.recordSuccess(KEY);
+
+            assertThat(registry.isOpen(KEY)).isTrue();
+            assertThat(registry.allowRequest(KEY)).isFalse();
+        }
+
+        @Test
+        @DisplayName("should close on a successful probe")
+        void recordSuccess_HalfOpenCloses() {
+            ReflectionTestUtils.setField(registry, "openSeconds", 0L);
+            fail(3);
+            assertThat(registry.allowRequest(KEY)).isTrue(); // the probe
+            assertThat(registry.allowRequest(KEY)).isFalse();
+
+            registry.recordSuccess(KEY);
+
+            assertThat(registry.allowRequest(KEY)).isTrue();
+            assertThat(registry.allowRequest(KEY)).isTrue();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.firas.saas.inventory.service;
+
+import com.firas.saas.inventory.exception.InsufficientStockException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReservationService Unit Tests")
+class ReservationServiceTest {
+
+    private static final Long TENANT_ID = 1L;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    private MutableClock clock;
+    private ReservationServiceImpl reservationService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(1_000_000L);
+        reservationService = new ReservationServiceImpl(inventoryService, new SimpleMeterRegistry(),
+                60, 1000, 16, clock);
+    }
+
+    @Nested
+    @DisplayName("reserve method")
+    class ReserveTests {
+
+        @Test
+        @DisplayName("should hold stock and reduce what others can take")
+        void reserve_HoldsStock() {
+            when(inventoryService.getStockLevels(eq(TENANT_ID), any())).thenReturn(Map.of(20L, 5));
+
+            reservationService.reserve(TENANT_ID, "cart:a", Map.of(20L, 3));
+
+            assertThat(reservationService.getReserved(20L)).isEqualTo(3);
+            assertThat(reservationService.getReservedByOthers("cart:a", List.of(20L))).isEmpty();
+            assertThat(reservationService.getReservedByOthers("cart:b", List.of(20L))).containsEntry(20L, 3);
+        }
+
+        @Test
+        @DisplayName("should reject a hold beyond unreserved stock")
+        void reserve_InsufficientStock() {
+            when(inventoryService.getStockLevels(eq(TENANT_ID), any())).thenReturn(Map.of(20L, 5));
+            reservationService.reserve(TENANT_ID, "cart:a", Map.of(20L, 3));
+
+            InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                    () -> reservationService.reserve(TENANT_ID, "cart:b", Map.of(20L, 3)));
+
+            assertThat(exception.getShortfalls()).hasSize(1);
+            assertThat(exception.getShortfalls().get(0).getAvailable()).isEqualTo(2);
+            assertThat(reservationService.getReserved(20L)).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should replace the previous hold of the same holder")
+        void reserve_ReplacesHold() {
+            when(inventoryService.getStockLevels(eq(TENANT_ID), any())).thenReturn(Map.of(20L, 5));
+
+            reservationService.reserve(TENANT_ID, "cart:a", Map.of(20L, 4));
+            reservationService.reserve(TENANT_ID, "cart:a", Map.of(20L, 5));
+
+            assertThat(reservationService.getReserved(20L)).isEqualTo(5);
+        }
+    }
+
+    @Nested
+    @DisplayName("expiry")
+    class ExpiryTests {
+
+        @Test
+        @DisplayName("should release holds once their TTL has passed")
+        void expireHolds_ReleasesDueHolds() {
+            when(inventoryService.getStockLevels(eq(TENANT_ID), any())).thenReturn(Map.of(20L, 5));
+            reservationService.reserve(TENANT_ID, "cart:a", Map.of(20L, 2));
+
+            clock.advance(30_000);
+            reservationService.expireHolds();
+            assertThat(reservationService.getReserved(20L)).isEqualTo(2);
+
+            clock.advance(31_000);
+            reservationService.expireHolds();
+            assertThat(reservationService.getReserved(20L)).isZero();
+        }
+
+        @Test
+        @DisplayName("should not expire a hold that was replaced")
+        void expireHolds_SkipsReplacedHold() {
+            when(inventoryService.getStockLevels(eq(TENANT_ID), any())).thenReturn(Map.of(20L, 5));
+            reservationService.reserve(TENANT_ID, "cart:a", Map.of(20L, 2));
+
+            clock.advance(50_000);
+            reservationService.reserve(TENANT_ID, "cart:a", Map.of(20L, 1));
+
+            clock.advance(11_000); // first hold due, second still live
+            reservationService.expireHolds();
+            assertThat(reservationService.getReserved(20L)).isEqualTo(1);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private long millis;
+
+        private MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void advance(long deltaMs) {
+            millis += deltaMs;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package com.firas.saas.order.service;
 
+import com.firas.saas.common.event.DomainEventPublisher;
+import com.firas.saas.inventory.dto.StockShortfall;
+import com.firas.saas.inventory.exception.InsufficientStockException;
+import com.firas.saas.inventory.service.InventoryService;
+import com.firas.saas.inventory.service.ReservationService;
 import com.firas.saas.order.dto.CartItemRequest;
 import com.firas.saas.order.dto.CartResponse;
 import com.firas.saas.order.dto.OrderResponse;
@@ -12,6 +17,8 @@ import com.firas.saas.product.entity.Product;
 import com.firas.saas.product.entity.ProductVariant;
 import com.firas.saas.product.repository.ProductRepository;
 import com.firas.saas.product.repository.ProductVariantRepository;
+import com.firas.saas.tenant.repository.TenantRepository;
+import com.firas.saas.webhook.entity.Webhook;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -22,7 +29,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -45,6 +55,18 @@ class OrderServiceTest {
     @Mock
     private ProductVariantRepository productVariantRepository;
 
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Mock
+    private DomainEventPublisher eventPublisher;
+
+    @Mock
+    private TenantRepository tenantRepository;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -98,20 +120,22 @@ class OrderServiceTest {
             Long tenantId = 1L;
             
             Cart cart = Cart.builder().customerEmail(email).build();
+            cart.setId(5L);
             cart.setTenantId(tenantId);
             CartItem cartItem = CartItem.builder().productId(10L).variantId(20L).quantity(2).build();
             cart.addItem(cartItem);
 
-            when(cartRepository.findByCustomerEmailAndTenantId(email, tenantId)).thenReturn(Optional.of(cart));
+            when(cartRepository.findWithItemsByCustomerEmailAndTenantId(email, tenantId)).thenReturn(Optional.of(cart));
 
             Product product = Product.builder().name("T-Shirt").build();
             product.setId(10L);
             ProductVariant variant = ProductVariant.builder().name("Red/L").sku("SKU-RED-L").price(new BigDecimal("20.00")).stockLevel(10).build();
             variant.setId(20L);
             variant.setTenantId(tenantId);
+            variant.setProduct(product);
 
-            when(productVariantRepository.findById(20L)).thenReturn(Optional.of(variant));
-            when(productRepository.findById(10L)).thenReturn(Optional.of(product));
+            // All variants (with products) come from one query
+            when(productVariantRepository.findAllWithProductByTenantIdAndIdIn(tenantId, Set.of(20L))).thenReturn(List.of(variant));
             when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
                 Order order = invocation.getArgument(0);
                 order.setId(100L);
@@ -124,11 +148,17 @@ class OrderServiceTest {
             // Assert
             assertThat(response).isNotNull();
             assertThat(response.getTotalPrice()).isEqualByComparingTo("40.00");
-            assertThat(variant.getStockLevel()).isEqualTo(8); // 10 - 2
-            
-            verify(productVariantRepository).save(any(ProductVariant.class));
-            verify(cartRepository).delete(cart);
+
+            // Stock is decremented in the database, once per order
+            verify(inventoryService).decrementStock(tenantId, Map.of(20L, 2), Map.of());
+            verify(reservationService).releaseAfterCommit(ReservationService.cartHolder(tenantId, email));
+            verify(productVariantRepository, never()).save(any(ProductVariant.class));
+            verify(productVariantRepository, never()).findById(any());
+            verify(cartRepository).deleteItemsByCartId(5L);
+            verify(cartRepository).deleteCartById(5L);
             verify(orderRepository).save(any(Order.class));
+            verify(eventPublisher).publish(eq(Webhook.WebhookEvent.ORDER_CREATED), any(), eq(tenantId), any());
+            verify(eventPublisher).publish(eq(Webhook.WebhookEvent.INVENTORY_UPDATED), any(), eq(tenantId), any());
         }
 
         @Test
@@ -142,14 +172,40 @@ class OrderServiceTest {
             CartItem cartItem = CartItem.builder().productId(10L).variantId(20L).quantity(5).build();
             cart.addItem(cartItem);
 
-            when(cartRepository.findByCustomerEmailAndTenantId(email, tenantId)).thenReturn(Optional.of(cart));
+            when(cartRepository.findWithItemsByCustomerEmailAndTenantId(email, tenantId)).thenReturn(Optional.of(cart));
 
-            ProductVariant variant = ProductVariant.builder().name("Red/L").stockLevel(2).build();
-            when(productVariantRepository.findById(20L)).thenReturn(Optional.of(variant));
+            ProductVariant variant = ProductVariant.builder().name("Red/L").sku("SKU-RED-L").price(new BigDecimal("20.00")).stockLevel(2).build();
+            variant.setId(20L);
+            variant.setProduct(Product.builder().name("T-Shirt").build());
+            when(productVariantRepository.findAllWithProductByTenantIdAndIdIn(tenantId, Set.of(20L))).thenReturn(List.of(variant));
+            doThrow(new InsufficientStockException(List.of(StockShortfall.builder()
+                    .variantId(20L).sku("SKU-RED-L").requested(5).available(2).build())))
+                    .when(inventoryService).decrementStock(tenantId, Map.of(20L, 5), Map.of());
+
+            // Act & Assert
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> orderService.placeOrder(email, tenantId));
+            assertThat(exception.getMessage()).contains("Insufficient stock").contains("SKU-RED-L");
+            verify(orderRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should reject variants that are unknown or belong to another tenant")
+        void placeOrder_UnknownVariant() {
+            // Arrange
+            String email = "customer@example.com";
+            Long tenantId = 1L;
+
+            Cart cart = Cart.builder().customerEmail(email).build();
+            cart.addItem(CartItem.builder().productId(10L).variantId(20L).quantity(1).build());
+            cart.addItem(CartItem.builder().productId(11L).variantId(21L).quantity(1).build());
+
+            when(cartRepository.findWithItemsByCustomerEmailAndTenantId(email, tenantId)).thenReturn(Optional.of(cart));
+            when(productVariantRepository.findAllWithProductByTenantIdAndIdIn(tenantId, Set.of(20L, 21L))).thenReturn(List.of());
 
             // Act & Assert
             RuntimeException exception = assertThrows(RuntimeException.class, () -> orderService.placeOrder(email, tenantId));
-            assertThat(exception.getMessage()).contains("Insufficient stock");
+            assertThat(exception.getMessage()).contains("Variant not found").contains("20").contains("21");
+            verify(inventoryService, never()).decrementStock(any(), any(), any());
             verify(orderRepository, never()).save(any());
         }
     }
@@ -7,6 +7,7 @@ import com.firas.saas.product.entity.ProductVariant;
 import com.firas.saas.product.repository.CategoryRepository;
 import com.firas.saas.product.repository.ProductRepository;
 import com.firas.saas.product.repository.ProductVariantRepository;
+import com.firas.saas.storefront.service.StorefrontSuggestService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -37,6 +38,9 @@ class ProductServiceTest {
     @Mock
     private ProductVariantRepository productVariantRepository;
 
+    @Mock
+    private StorefrontSuggestService suggestService;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -0,0 +1,119 @@
+package com.firas.saas.storefront.search;
+
+import com.firas.saas.storefront.search.ProductSearchIndex.Document;
+import com.firas.saas.storefront.search.ProductSearchIndex.FacetValue;
+import com.firas.saas.storefront.search.ProductSearchIndex.Hit;
+import com.firas.saas.storefront.search.ProductSearchIndex.SearchQuery;
+import com.firas.saas.storefront.search.ProductSearchIndex.SearchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DisplayName("ProductSearchIndex Unit Tests")
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(List.of(new BigDecimal("25"), new BigDecimal("50")), 50);
+        index.put(product(1L, "Oxford Shirt", "shirts", "19.90", true, "Crisp cotton shirt", "Blue / M", "OX-BLU-M"));
+        index.put(product(2L, "Linen Shirt", "shirts", "39.00", false, "Summer linen", "White / L", "LN-WHT-L"));
+        index.put(product(3L, "Chino Shorts", "shorts", "29.00", true, "Cotton shorts", "Beige / 32", "CH-BEI-32"));
+        index.put(product(4L, "Café Mug", null, "12.00", true, "Ceramic mug for your shirt pocket money", "Default", "MUG-1"));
+    }
+
+    private Document product(Long id, String name, String category, String price, boolean inStock,
+                             String description, String variantName, String sku) {
+        return Document.builder()
+                .productId(id)
+                .name(name)
+                .slug(name.toLowerCase().replace(' ', '-'))
+                .price(new BigDecimal(price))
+                .categorySlug(category)
+                .categoryName(category != null ? category.substring(0, 1).toUpperCase() + category.substring(1) : null)
+                .inStock(inStock)
+                .description(description)
+                .variantNames(List.of(variantName))
+                .skus(List.of(sku))
+                .build();
+    }
+
+    private List<Long> ids(SearchResult result) {
+        return result.getHits().stream().map(Hit::getDocument).map(Document::getProductId).toList();
+    }
+
+    @Nested
+    @DisplayName("search method")
+    class SearchTests {
+
+        @Test
+        @DisplayName("should rank name matches above description matches, ties by name")
+        void search_FieldWeights() {
+            SearchResult result = index.search(SearchQuery.builder().text("shirt").build());
+
+            assertThat(ids(result)).containsExactly(2L, 1L, 4L);
+        }
+
+        @Test
+        @DisplayName("should require every word and prefix-match the last one")
+        void search_AllWordsLastPrefix() {
+            assertThat(ids(index.search(SearchQuery.builder().text("cotton s").build()))).containsExactly(3L, 1L);
+            assertThat(ids(index.search(SearchQuery.builder().text("linen blu").build()))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should tolerate typos, accents and SKU separators")
+        void search_TyposAccentsSkus() {
+            assertThat(ids(index.search(SearchQuery.builder().text("oxfrod").build()))).containsExactly(1L);
+            assertThat(ids(index.search(SearchQuery.builder().text("cafe").build()))).containsExactly(4L);
+            assertThat(ids(index.search(SearchQuery.builder().text("lnwhtl").build()))).containsExactly(2L);
+            assertThat(ids(index.search(SearchQuery.builder().text("ln-wht-l").build()))).containsExactly(2L);
+        }
+
+        @Test
+        @DisplayName("should count facets without applying their own filter")
+        void search_DisjunctiveFacets() {
+            SearchResult result = index.search(SearchQuery.builder().text("shirt").category("shirts").build());
+
+            assertThat(ids(result)).containsExactly(2L, 1L);
+            assertThat(result.getCategories()).extracting(FacetValue::getValue, FacetValue::getCount)
+                    .containsExactly(tuple("shirts", 2));
+            assertThat(result.getPriceBands()).extracting(FacetValue::getValue, FacetValue::getCount)
+                    .containsExactly(tuple("0-25", 1), tuple("25-50", 1), tuple("50+", 0));
+            assertThat(result.getInStock()).extracting(FacetValue::getValue, FacetValue::getCount)
+                    .containsExactly(tuple("true", 1), tuple("false", 1));
+
+            SearchResult inStock = index.search(SearchQuery.builder().text("shirt").inStock(true).priceBand("0-25").build());
+            assertThat(ids(inStock)).containsExactly(1L, 4L);
+        }
+    }
+
+    @Nested
+    @DisplayName("put and remove methods")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("should replace a product's terms on update and forget them on removal")
+        void put_ReplacesTerms() {
+            index.put(product(1L, "Flannel Overshirt", "shirts", "49.00", true, "Warm", "Red / M", "FL-RED-M"));
+
+            assertThat(ids(index.search(SearchQuery.builder().text("oxford").build()))).isEmpty();
+            assertThat(ids(index.search(SearchQuery.builder().text("flannel").build()))).containsExactly(1L);
+
+            long before = index.estimatedBytes();
+            index.remove(1L);
+
+            assertThat(ids(index.search(SearchQuery.builder().text("flannel").build()))).isEmpty();
+            assertThat(index.size()).isEqualTo(3);
+            assertThat(index.estimatedBytes()).isLessThan(before);
+        }
+    }
+}
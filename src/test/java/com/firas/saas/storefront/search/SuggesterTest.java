@@ -0,0 +1,87 @@
+package com.firas.saas.storefront.search;
+
+import com.firas.saas.storefront.search.Suggester.Entry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Suggester Unit Tests")
+class SuggesterTest {
+
+    private Suggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = Suggester.build(List.of(
+                new Entry(Entry.Type.PRODUCT, 1L, "Oxford Shirt", "oxford-shirt", 120),
+                new Entry(Entry.Type.PRODUCT, 2L, "Linen Shirt", "linen-shirt", 30),
+                new Entry(Entry.Type.PRODUCT, 3L, "Shirt Shop Gift Card", "gift-card", 5),
+                new Entry(Entry.Type.PRODUCT, 4L, "Oxfords", "oxfords", 0),
+                new Entry(Entry.Type.COLLECTION, 10L, "Shirts", "shirts", 150),
+                new Entry(Entry.Type.PRODUCT, 5L, "Crème Brûlée Candle", "candle", 8)
+        ), 3);
+    }
+
+    private List<String> texts(String prefix, int limit) {
+        return suggester.suggest(prefix, limit).stream().map(Entry::getText).toList();
+    }
+
+    @Nested
+    @DisplayName("suggest method")
+    class SuggestTests {
+
+        @Test
+        @DisplayName("should rank by weight and match from any word")
+        void suggest_RankedWordStarts() {
+            assertThat(texts("sh", 10)).containsExactly("Shirts", "Oxford Shirt", "Linen Shirt");
+            assertThat(texts("oxf", 10)).containsExactly("Oxford Shirt", "Oxfords");
+        }
+
+        @Test
+        @DisplayName("should list an entry once even if several of its words match")
+        void suggest_Distinct() {
+            assertThat(texts("shirt s", 10)).containsExactly("Shirt Shop Gift Card");
+            assertThat(texts("s", 10)).doesNotHaveDuplicates().hasSize(3);
+        }
+
+        @Test
+        @DisplayName("should ignore case and accents and honour a trailing space")
+        void suggest_Normalized() {
+            assertThat(texts("CREME bru", 10)).containsExactly("Crème Brûlée Candle");
+            assertThat(texts("oxford ", 10)).containsExactly("Oxford Shirt");
+        }
+
+        @Test
+        @DisplayName("should cap results at the limit and top-k, and return nothing for no match")
+        void suggest_Limits() {
+            assertThat(texts("s", 1)).containsExactly("Shirts");
+            assertThat(texts("xyz", 10)).isEmpty();
+            assertThat(texts("  ", 10)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("build method")
+    class BuildTests {
+
+        @Test
+        @DisplayName("should account for its size, growing with the catalog")
+        void build_SizeInBytes() {
+            List<Entry> many = new ArrayList<>();
+            for (long i = 0; i < 1000; i++) {
+                many.add(new Entry(Entry.Type.PRODUCT, i, "Product " + i, "product-" + i, i));
+            }
+            Suggester large = Suggester.build(many, 10);
+
+            assertThat(large.getSizeInBytes()).isGreaterThan(suggester.getSizeInBytes() * 20);
+            assertThat(large.suggest("product 99", 10)).extracting(Entry::getId)
+                    .containsExactly(999L, 998L, 997L, 996L, 995L, 994L, 993L, 992L, 991L, 990L);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.firas.saas.storefront.service;
+
+import com.firas.saas.storefront.repository.StorefrontProductRepository;
+import com.firas.saas.storefront.service.StorefrontCatalogService.Cursor;
+import com.firas.saas.storefront.service.StorefrontCatalogService.SortKey;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StorefrontCatalogService Unit Tests")
+class StorefrontCatalogServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private StorefrontProductRepository storefrontProductRepository;
+
+    private StorefrontCatalogService catalogService;
+
+    @BeforeEach
+    void setUp() {
+        catalogService = new StorefrontCatalogService(
+                entityManager, storefrontProductRepository, 100, 60);
+    }
+
+    @Nested
+    @DisplayName("sort keys")
+    class SortKeyTests {
+
+        @Test
+        @DisplayName("should accept the indexed sort keys, case-insensitively")
+        void parse_Whitelisted() {
+            assertThat(SortKey.parse("name")).isEqualTo(SortKey.NAME);
+            assertThat(SortKey.parse("Price")).isEqualTo(SortKey.PRICE);
+            assertThat(SortKey.parse("createdAt")).isEqualTo(SortKey.CREATED_AT);
+        }
+
+        @Test
+        @DisplayName("should reject any other property")
+        void parse_Unknown() {
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> SortKey.parse("description"));
+
+            assertThat(ex.getMessage()).contains("description");
+        }
+    }
+
+    @Nested
+    @DisplayName("cursor")
+    class CursorTests {
+
+        @Test
+        @DisplayName("should round-trip names containing the separator")
+        void cursor_NameRoundTrip() {
+            String encoded = new Cursor("Shirt | Blue", 42L).encode(SortKey.NAME, false);
+
+            Cursor cursor = Cursor.decode(encoded, SortKey.NAME, false);
+
+            assertThat(cursor.value).isEqualTo("Shirt | Blue");
+            assertThat(cursor.id).isEqualTo(42L);
+        }
+
+        @Test
+        @DisplayName("should round-trip prices and timestamps")
+        void cursor_TypedRoundTrip() {
+            LocalDateTime createdAt = LocalDateTime.of(2026, 3, 1, 12, 30, 5, 123456000);
+
+            assertThat(Cursor.decode(new Cursor(new BigDecimal("19.90"), 7L).encode(SortKey.PRICE, true),
+                    SortKey.PRICE, true).value).isEqualTo(new BigDecimal("19.90"));
+            assertThat(Cursor.decode(new Cursor(createdAt, 7L).encode(SortKey.CREATED_AT, false),
+                    SortKey.CREATED_AT, false).value).isEqualTo(createdAt);
+        }
+
+        @Test
+        @DisplayName("should reject a cursor issued for another sort or direction")
+        void cursor_OtherSort() {
+            String byName = new Cursor("Shirt", 1L).encode(SortKey.NAME, false);
+
+            assertThrows(IllegalArgumentException.class, () -> Cursor.decode(byName, SortKey.PRICE, false));
+            assertThrows(IllegalArgumentException.class, () -> Cursor.decode(byName, SortKey.NAME, true));
+            assertThrows(IllegalArgumentException.class, () -> Cursor.decode("not-a-cursor", SortKey.NAME, false));
+        }
+    }
+
+    @Nested
+    @DisplayName("findProducts")
+    class FindProductsTests {
+
+        @Test
+        @DisplayName("should reject a malformed cursor before querying")
+        void findProducts_InvalidCursor() {
+            assertThrows(IllegalArgumentException.class, () -> catalogService.findProducts(
+                    1L, "shirts", SortKey.NAME, false, "not-a-cursor", 0, 24, true));
+
+            verifyNoInteractions(entityManager, storefrontProductRepository);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.firas.saas.storefront.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firas.saas.common.cache.CacheInvalidationBus;
+import com.firas.saas.product.entity.Category;
+import com.firas.saas.product.repository.CategoryRepository;
+import com.firas.saas.product.repository.ProductRepository;
+import com.firas.saas.storefront.entity.StorefrontProduct;
+import com.firas.saas.storefront.service.StorefrontCatalogService.CatalogPage;
+import com.firas.saas.storefront.service.StorefrontCatalogService.SortKey;
+import com.firas.saas.storefront.service.StorefrontLayoutHydrator.Hydration;
+import com.firas.saas.storefront.service.PublishedLayoutCache.PublishedLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StorefrontLayoutHydrator Unit Tests")
+class StorefrontLayoutHydratorTest {
+
+    private static final Long TENANT_ID = 1L;
+
+    @Mock
+    private StorefrontCatalogService catalogService;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StorefrontLayoutHydrator hydrator;
+    private Consumer<String> catalogChanges;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setUp() {
+        hydrator = new StorefrontLayoutHydrator(new ObjectMapper(), catalogService, categoryRepository,
+                productRepository, invalidationBus, transactionManager, 100, 300);
+
+        ArgumentCaptor<Consumer<String>> subscriber = ArgumentCaptor.forClass(Consumer.class);
+        verify(invalidationBus).subscribe(eq(StorefrontSearchService.CACHE_NAME), subscriber.capture());
+        catalogChanges = subscriber.getValue();
+    }
+
+    private PublishedLayout layout(int version, String json) {
+        return new PublishedLayout(7L, version, json.replace('\'', '"').getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    private CatalogPage page(long count) {
+        List<StorefrontProduct> products = new ArrayList<>();
+        LongStream.rangeClosed(1, count).forEach(id -> products.add(StorefrontProduct.builder().productId(id).build()));
+        return new CatalogPage(products, null, false, null);
+    }
+
+    private Category category(long id, String slug) {
+        Category category = Category.builder().name(slug).slug(slug).build();
+        category.setId(id);
+        return category;
+    }
+
+    @Nested
+    @DisplayName("hydrate method")
+    class HydrateTests {
+
+        @Test
+        @DisplayName("should read each product source once with the largest limit and resolve collection lists together")
+        void hydrate_BatchesReferences() {
+            PublishedLayout home = layout(1, "{'sections': {"
+                    + "'featured': {'type': 'product-grid', 'settings': {'limit': 4}},"
+                    + "'shirts-a': {'type': 'product-grid', 'settings': {'collection_handle': 'shirts', 'limit': 2}},"
+                    + "'shirts-b': {'type': 'product-grid', 'settings': {'collection_handle': 'shirts', 'limit': '6'}},"
+                    + "'cats': {'type': 'collection-list', 'settings': {'collection_handles': 'shorts, shirts, gone'}},"
+                    + "'hero': {'type': 'hero-banner', 'settings': {}}},"
+                    + "'order': ['hero', 'featured', 'shirts-a', 'shirts-b', 'cats']}");
+            when(catalogService.findProducts(eq(TENANT_ID), isNull(), eq(SortKey.NAME), eq(false), isNull(), eq(0), eq(4), eq(false)))
+                    .thenReturn(page(4));
+            when(catalogService.findProducts(eq(TENANT_ID), eq("shirts"), eq(SortKey.NAME), eq(false), isNull(), eq(0), eq(6), eq(false)))
+                    .thenReturn(page(6));
+            when(categoryRepository.findAllByTenantId(TENANT_ID)).thenReturn(List.of(category(3L, "shirts"), category(4L, "shorts")));
+            when(productRepository.countProductsByCategory(TENANT_ID)).thenReturn(List.<Object[]>of(new Object[]{3L, 12L}));
+
+            Hydration hydration = hydrator.hydrate(TENANT_ID, home, null, null);
+
+            assertThat(hydration.getProducts()).containsOnlyKeys("featured", "shirts-a", "shirts-b");
+            assertThat(hydration.getProducts().get("shirts-a")).hasSize(2);
+            assertThat(hydration.getProducts().get("shirts-b")).hasSize(6);
+            assertThat(hydration.getCollections().get("cats")).extracting(Category::getSlug).containsExactly("shorts", "shirts");
+            assertThat(hydration.productCount(category(3L, "shirts"))).isEqualTo(12);
+            assertThat(hydration.getLayoutJson()).contains("\"hero-banner\"");
+            verify(catalogService, times(2)).findProducts(any(), any(), any(), eq(false), any(), anyInt(), anyInt(), eq(false));
+        }
+
+        @Test
+        @DisplayName("should resolve the collection template from the collection in view")
+        void hydrate_CollectionTemplate() {
+            PublishedLayout collectionPage = layout(1, "{'sections': {"
+                    + "'grid': {'type': 'product-grid', 'settings': {'collection_handle': '{{collection.handle}}', 'limit': 24}}},"
+                    + "'order': ['grid']}");
+            when(categoryRepository.findBySlugAndTenantId("shirts", TENANT_ID)).thenReturn(Optional.of(category(3L, "shirts")));
+            when(catalogService.findProducts(eq(TENANT_ID), eq("shirts"), eq(SortKey.NAME), eq(false), isNull(), eq(0), eq(24), eq(false)))
+                    .thenReturn(page(2));
+            when(productRepository.countProductsByCategory(TENANT_ID)).thenReturn(List.<Object[]>of(new Object[]{3L, 2L}));
+
+            Hydration hydration = hydrator.hydrate(TENANT_ID, collectionPage, "shirts", null);
+
+            assertThat(hydration.getCollection().getSlug()).isEqualTo("shirts");
+            assertThat(hydration.getProducts().get("grid")).hasSize(2);
+            verify(categoryRepository, never()).findAllByTenantId(any());
+        }
+
+        @Test
+        @DisplayName("should serve from cache until the catalog or the layout version changes")
+        void hydrate_CombinedCacheKey() {
+            String json = "{'sections': {'grid': {'type': 'product-grid', 'settings': {'limit': 8}}}, 'order': ['grid']}";
+            when(catalogService.findProducts(eq(TENANT_ID), isNull(), eq(SortKey.NAME), eq(false), isNull(), eq(0), eq(8), eq(false)))
+                    .thenReturn(page(8));
+
+            Hydration first = hydrator.hydrate(TENANT_ID, layout(1, json), null, null);
+            assertThat(hydrator.hydrate(TENANT_ID, layout(1, json), null, null)).isSameAs(first);
+
+            catalogChanges.accept("2:5,6"); // another tenant
+            assertThat(hydrator.hydrate(TENANT_ID, layout(1, json), null, null)).isSameAs(first);
+
+            catalogChanges.accept(TENANT_ID + ":5,6");
+            Hydration afterChange = hydrator.hydrate(TENANT_ID, layout(1, json), null, null);
+            assertThat(afterChange).isNotSameAs(first);
+
+            assertThat(hydrator.hydrate(TENANT_ID, layout(2, json), null, null)).isNotSameAs(afterChange);
+            verify(catalogService, times(3)).findProducts(any(), any(), any(), eq(false), any(), anyInt(), anyInt(), eq(false));
+        }
+    }
+
+    @Nested
+    @DisplayName("section settings")
+    class SettingsTests {
+
+        @Test
+        @DisplayName("should parse limits and handles leniently")
+        void settings_Lenient() {
+            assertThat(StorefrontLayoutHydrator.limit(12)).isEqualTo(12);
+            assertThat(StorefrontLayoutHydrator.limit("abc")).isEqualTo(8);
+            assertThat(StorefrontLayoutHydrator.limit(1000)).isEqualTo(StorefrontCatalogService.MAX_LIMIT);
+            assertThat(StorefrontLayoutHydrator.handles(" a, ,b,a ")).isEqualTo(List.of("a", "b"));
+            assertThat(StorefrontLayoutHydrator.source("{{collection.handle}}", null)).isNull();
+            assertThat(StorefrontLayoutHydrator.source(null, "shirts")).isEmpty();
+            assertThat(StorefrontLayoutHydrator.source(" shirts ", null)).isEqualTo("shirts");
+        }
+    }
+}
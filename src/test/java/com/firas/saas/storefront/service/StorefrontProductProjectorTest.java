@@ -0,0 +1,85 @@
+package com.firas.saas.storefront.service;
+
+import com.firas.saas.product.entity.Category;
+import com.firas.saas.product.entity.Product;
+import com.firas.saas.product.entity.ProductVariant;
+import com.firas.saas.storefront.entity.StorefrontProduct;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StorefrontProductProjector Unit Tests")
+class StorefrontProductProjectorTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 1, 9, 0);
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        Category category = Category.builder().name("Shirts").slug("shirts").build();
+        category.setId(3L);
+
+        product = Product.builder().name("Oxford Shirt").slug("oxford-shirt").category(category).build();
+        product.setId(10L);
+        product.setTenantId(1L);
+        product.setCreatedAt(NOW.minusDays(2));
+    }
+
+    private ProductVariant variant(long id, String price, int stock) {
+        ProductVariant variant = ProductVariant.builder()
+                .name("V" + id).sku("SKU-" + id).price(new BigDecimal(price)).stockLevel(stock).build();
+        variant.setId(id);
+        return variant;
+    }
+
+    @Nested
+    @DisplayName("apply")
+    class ApplyTests {
+
+        @Test
+        @DisplayName("should keep the first variant's price and compute the price range and stock flag")
+        void apply_Variants() {
+            StorefrontProduct row = StorefrontProduct.builder().build();
+
+            StorefrontProductProjector.apply(row, product,
+                    List.of(variant(1L, "25.00", 0), variant(2L, "19.90", 0), variant(3L, "32.50", 4)), NOW);
+
+            assertThat(row.getProductId()).isEqualTo(10L);
+            assertThat(row.getTenantId()).isEqualTo(1L);
+            assertThat(row.getPrice()).isEqualByComparingTo("25.00");
+            assertThat(row.getMinPrice()).isEqualByComparingTo("19.90");
+            assertThat(row.getMaxPrice()).isEqualByComparingTo("32.50");
+            assertThat(row.isInStock()).isTrue();
+            assertThat(row.getCategorySlug()).isEqualTo("shirts");
+            assertThat(row.getVariants()).extracting(StorefrontProduct.VariantSummary::getSku)
+                    .containsExactly("SKU-1", "SKU-2", "SKU-3");
+            assertThat(row.getCreatedAt()).isEqualTo(NOW.minusDays(2));
+            assertThat(row.getProjectedAt()).isEqualTo(NOW);
+        }
+
+        @Test
+        @DisplayName("should clear the category and zero prices when the product has neither")
+        void apply_NoCategoryNoVariants() {
+            StorefrontProduct row = StorefrontProduct.builder().build();
+            StorefrontProductProjector.apply(row, product, List.of(variant(1L, "9.99", 2)), NOW);
+
+            product.setCategory(null);
+            StorefrontProductProjector.apply(row, product, List.of(), NOW);
+
+            assertThat(row.getCategoryId()).isNull();
+            assertThat(row.getCategorySlug()).isNull();
+            assertThat(row.getPrice()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(row.getMinPrice()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(row.isInStock()).isFalse();
+            assertThat(row.getVariants()).isEmpty();
+        }
+    }
+}
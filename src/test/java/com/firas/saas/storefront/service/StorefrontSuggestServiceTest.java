@@ -0,0 +1,114 @@
+package com.firas.saas.storefront.service;
+
+import com.firas.saas.common.cache.CacheInvalidationBus;
+import com.firas.saas.order.repository.OrderRepository;
+import com.firas.saas.product.entity.Category;
+import com.firas.saas.product.repository.CategoryRepository;
+import com.firas.saas.storefront.repository.StorefrontProductRepository;
+import com.firas.saas.storefront.search.Suggester;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StorefrontSuggestService Unit Tests")
+class StorefrontSuggestServiceTest {
+
+    private static final Long TENANT_ID = 1L;
+
+    @Mock
+    private StorefrontProductRepository storefrontProductRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    private StorefrontSuggestService suggestService;
+    private Consumer<String> catalogChanges;
+    private Consumer<String> collectionChanges;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setUp() {
+        suggestService = new StorefrontSuggestService(storefrontProductRepository, categoryRepository, orderRepository,
+                invalidationBus, new SimpleMeterRegistry(), 1 << 20, 60, 60, 10, 90);
+
+        ArgumentCaptor<Consumer<String>> subscriber = ArgumentCaptor.forClass(Consumer.class);
+        verify(invalidationBus).subscribe(eq(StorefrontSearchService.CACHE_NAME), subscriber.capture());
+        catalogChanges = subscriber.getValue();
+        verify(invalidationBus).subscribe(eq(StorefrontSuggestService.CACHE_NAME), subscriber.capture());
+        collectionChanges = subscriber.getValue();
+
+        when(orderRepository.sumQuantityByProductId(eq(TENANT_ID), any())).thenReturn(List.of());
+        when(storefrontProductRepository.findSuggestionFieldsByTenantId(TENANT_ID))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, "Oxford Shirt", "oxford-shirt", null}));
+        when(categoryRepository.findAllByTenantId(TENANT_ID)).thenReturn(List.of());
+    }
+
+    @Nested
+    @DisplayName("catalog changes")
+    class ChangeTests {
+
+        @Test
+        @DisplayName("should ignore stock-only changes")
+        void stockChange_Ignored() {
+            suggestService.suggest(TENANT_ID, "ox", 5);
+
+            catalogChanges.accept(TENANT_ID + ":stock:10");
+
+            assertThat(suggestService.suggest(TENANT_ID, "ox", 5)).extracting(Suggester.Entry::getText)
+                    .containsExactly("Oxford Shirt");
+            verify(storefrontProductRepository, never()).findSuggestionFieldsByTenantIdAndProductIdIn(any(), anySet());
+        }
+
+        @Test
+        @DisplayName("should re-read changed products and apply renames")
+        void productChange_Applied() {
+            suggestService.suggest(TENANT_ID, "ox", 5);
+            when(storefrontProductRepository.findSuggestionFieldsByTenantIdAndProductIdIn(TENANT_ID, Set.of(10L)))
+                    .thenReturn(List.<Object[]>of(new Object[]{10L, "Oxford Shirt Slim", "oxford-shirt", null}));
+
+            catalogChanges.accept(TENANT_ID + ":10");
+
+            assertThat(suggestService.suggest(TENANT_ID, "ox", 5)).extracting(Suggester.Entry::getText)
+                    .containsExactly("Oxford Shirt Slim");
+        }
+
+        @Test
+        @DisplayName("should rebuild when a category is created or deleted")
+        void collectionChange_Rebuilds() {
+            suggestService.suggest(TENANT_ID, "ox", 5);
+            Category category = Category.builder().name("Oxford Collection").slug("oxford").build();
+            category.setId(7L);
+            when(categoryRepository.findAllByTenantId(TENANT_ID)).thenReturn(List.of(category));
+
+            collectionChanges.accept(String.valueOf(TENANT_ID));
+
+            assertThat(suggestService.suggest(TENANT_ID, "ox", 5)).extracting(Suggester.Entry::getText)
+                    .containsExactlyInAnyOrder("Oxford Shirt", "Oxford Collection");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.firas.saas.user.service;
 
+import com.firas.saas.security.service.UserPrincipalCache;
 import com.firas.saas.tenant.entity.Tenant;
 import com.firas.saas.tenant.repository.TenantRepository;
 import com.firas.saas.user.dto.UserCreateRequest;
@@ -36,6 +37,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserPrincipalCache principalCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -80,6 +84,7 @@ class UserServiceTest {
             
             verify(passwordEncoder).encode("password123");
             verify(userRepository).save(any(User.class));
+            verify(principalCache).invalidate("test@example.com");
         }
 
         @Test
@@ -0,0 +1,106 @@
+package com.firas.saas.webhook.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firas.saas.app.service.AppWebhookService;
+import com.firas.saas.infrastructure.http.CircuitBreakerRegistry;
+import com.firas.saas.infrastructure.http.DeliveryHttpClient;
+import com.firas.saas.webhook.entity.Webhook;
+import com.firas.saas.webhook.repository.WebhookDeliveryRepository;
+import com.firas.saas.webhook.repository.WebhookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WebhookServiceImpl Unit Tests")
+class WebhookServiceImplTest {
+
+    @Mock
+    private WebhookRepository webhookRepository;
+
+    @Mock
+    private WebhookDeliveryRepository deliveryRepository;
+
+    @Mock
+    private AppWebhookService appWebhookService;
+
+    @Mock
+    private DeliveryHttpClient httpClient;
+
+    @Mock
+    private CircuitBreakerRegistry circuitBreakers;
+
+    private WebhookServiceImpl webhookService;
+
+    @BeforeEach
+    void setUp() {
+        webhookService = new WebhookServiceImpl(webhookRepository, deliveryRepository, new ObjectMapper(),
+                appWebhookService, httpClient, circuitBreakers, Runnable::run);
+    }
+
+    @Nested
+    @DisplayName("triggerEvent method")
+    class TriggerEventTests {
+
+        @Test
+        @DisplayName("should derive a stable delivery id per webhook from the domain event id")
+        void deliveryEventId_StablePerWebhook() {
+            String first = WebhookServiceImpl.deliveryEventId("evt_1", 10L);
+
+            assertThat(first).startsWith("evt_").hasSize(36);
+            assertThat(WebhookServiceImpl.deliveryEventId("evt_1", 10L)).isEqualTo(first);
+            assertThat(WebhookServiceImpl.deliveryEventId("evt_1", 11L)).isNotEqualTo(first);
+            assertThat(WebhookServiceImpl.deliveryEventId("evt_2", 10L)).isNotEqualTo(first);
+        }
+
+        @Test
+        @DisplayName("should not create a second delivery when a relayed event is seen again")
+        void triggerEvent_RedeliveredEvent() {
+            Webhook webhook = Webhook.builder().url("https://merchant.example/hook").active(true).paused(false).build();
+            webhook.setId(10L);
+            when(webhookRepository.findAllByTenantIdAndEventAndActiveTrue(1L, Webhook.WebhookEvent.ORDER_CREATED))
+                    .thenReturn(List.of(webhook));
+            when(deliveryRepository.existsByEventId(WebhookServiceImpl.deliveryEventId("evt_1", 10L))).thenReturn(true);
+
+            webhookService.triggerEvent("evt_1", Webhook.WebhookEvent.ORDER_CREATED, Map.of("orderId", 5), 1L, "shop");
+
+            verify(appWebhookService).deliverToApps("evt_1", Webhook.WebhookEvent.ORDER_CREATED, Map.of("orderId", 5), 1L);
+            verify(deliveryRepository, never()).save(any());
+            verifyNoInteractions(httpClient);
+        }
+
+        @Test
+        @DisplayName("should handle every webhook, then rethrow so the relay retries the event")
+        void triggerEvent_RethrowsAfterOtherWebhooks() {
+            Webhook failing = Webhook.builder().url("https://merchant.example/a").active(true).paused(false).build();
+            failing.setId(10L);
+            Webhook delivered = Webhook.builder().url("https://merchant.example/b").active(true).paused(false).build();
+            delivered.setId(11L);
+            when(webhookRepository.findAllByTenantIdAndEventAndActiveTrue(1L, Webhook.WebhookEvent.ORDER_CREATED))
+                    .thenReturn(List.of(failing, delivered));
+            when(deliveryRepository.existsByEventId(WebhookServiceImpl.deliveryEventId("evt_1", 10L)))
+                    .thenThrow(new IllegalStateException("database down"));
+            when(deliveryRepository.existsByEventId(WebhookServiceImpl.deliveryEventId("evt_1", 11L))).thenReturn(true);
+
+            IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> webhookService.triggerEvent(
+                    "evt_1", Webhook.WebhookEvent.ORDER_CREATED, Map.of("orderId", 5), 1L, "shop"));
+            assertThat(thrown).hasMessage("database down");
+            verify(deliveryRepository).existsByEventId(WebhookServiceImpl.deliveryEventId("evt_1", 11L));
+        }
+    }
+}